@@ -0,0 +1,31 @@
+package com.example.demo.reactive;
+
+import com.example.demo.core.infrastructure.configuration.ServerInfoProvider;
+import com.example.demo.core.infrastructure.file.DirectoryCache;
+import com.example.demo.core.infrastructure.file.FileAttributeFetcher;
+import com.example.demo.core.infrastructure.file.FileLister;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Import;
+
+import java.util.Collections;
+
+/**
+ * /server/info, /server/files 를 WebFlux/Netty 로 제공하는 어플리케이션이다.
+ * <p>
+ * 서블릿 빌드의 core 코드를 그대로 사용하며, 서블릿에 의존하지 않는 빈만 가져온다.
+ * 설정은 서블릿 빌드의 application.yml 위에 reactive.yml 을 덧씌운다.
+ *
+ * @author jonghyeon
+ */
+@SpringBootApplication
+@Import({ServerInfoProvider.class, FileLister.class, DirectoryCache.class, FileAttributeFetcher.class})
+public class ReactiveDemoApplication {
+    public static void main(String[] args) {
+        final SpringApplication application = new SpringApplication(ReactiveDemoApplication.class);
+        application.setWebApplicationType(WebApplicationType.REACTIVE);
+        application.setDefaultProperties(Collections.singletonMap("spring.config.name", "application,reactive"));
+        application.run(args);
+    }
+}
@@ -0,0 +1,319 @@
+package com.example.demo.reactive.api;
+
+import com.example.demo.core.api.FileListEncoder;
+import com.example.demo.core.api.OutputFormat;
+import com.example.demo.core.api.ServerInfoPage;
+import com.example.demo.core.infrastructure.configuration.ServerInfoProvider;
+import com.example.demo.core.infrastructure.file.FileEntry;
+import com.example.demo.core.infrastructure.file.FileLister;
+import com.example.demo.core.infrastructure.file.FileQuery;
+import com.example.demo.core.infrastructure.file.FileSort;
+import com.example.demo.core.infrastructure.file.FileType;
+import com.example.demo.core.infrastructure.validation.CheckNotEmpty;
+import com.example.demo.core.infrastructure.validation.CheckPath;
+import com.example.demo.core.util.PrecompressedContent;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.NotDirectoryException;
+import java.nio.file.Paths;
+
+/**
+ * 어플리케이션에 대한 리액티브 컨트롤러이다. 서블릿 빌드의 /server/info, /server/files 와 같은 응답을 반환한다.
+ *
+ * @author jonghyeon
+ */
+@Slf4j
+@NoArgsConstructor
+@RestController
+@RequestMapping("/server")
+public class ReactiveAppController {
+    /**
+     * 평문 응답 미디어 유형
+     */
+    private static final MediaType TEXT_PLAIN_UTF8 = new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8);
+
+    /**
+     * 서버정보 제공자
+     */
+    @Autowired
+    private ServerInfoProvider serverInfoProvider;
+
+    /**
+     * 디렉토리 조회기
+     */
+    @Autowired
+    private FileLister fileLister;
+
+    /**
+     * 디렉토리 조회 최대 건수
+     */
+    @Value("${demo.files.max-limit:1000}")
+    private int FILES_MAX_LIMIT;
+
+    /**
+     * 디렉토리 조회 응답 조각 크기(바이트)
+     */
+    @Value("${demo.files.reactive.chunk-size:8192}")
+    private int FILES_CHUNK_SIZE;
+
+    /**
+     * 서버정보 화면 (서버정보가 바뀔 때만 다시 만든다.)
+     */
+    private volatile ServerInfoPage serverInfoPage;
+
+    /**
+     * 디렉토리 조회 결과를 요청한 형식으로 인코딩하여 조각(DataBuffer) 단위로 내보낸다.
+     * <p>
+     * 조회는 블로킹 I/O 이므로 boundedElastic 스레드에서 실행한다. 조각이 차면 하위(클라이언트 소켓)의 요청이 있을 때까지 조회 스레드를 멈추므로,
+     * 느린 클라이언트에게 보낼 응답이 메모리에 쌓이지 않는다. 클라이언트가 연결을 끊으면 조회를 중단한다.
+     */
+    private static final class FileListEmitter implements FileLister.Handler {
+        /**
+         * 하위 구독자
+         */
+        private final FluxSink<DataBuffer> sink;
+
+        /**
+         * 버퍼 생성기
+         */
+        private final DataBufferFactory bufferFactory;
+
+        /**
+         * 조회 경로 (로그용)
+         */
+        private final String path;
+
+        /**
+         * 조각 크기(바이트)
+         */
+        private final int chunkSize;
+
+        /**
+         * 현재 조각
+         */
+        private final ByteArrayOutputStream chunk;
+
+        /**
+         * 형식별 출력기
+         */
+        private final FileListEncoder encoder;
+
+        private FileListEmitter(FluxSink<DataBuffer> sink, DataBufferFactory bufferFactory, int chunkSize, ServerHttpRequest request, OutputFormat format,
+                String path, String filter, FileType type, FileSort sort, boolean desc) {
+            this.sink = sink;
+            this.bufferFactory = bufferFactory;
+            this.path = path;
+            this.chunkSize = chunkSize;
+            this.chunk = new ByteArrayOutputStream(chunkSize + 512);
+            this.encoder = new FileListEncoder(format, chunk, path, filter, type, sort, desc, () -> UriComponentsBuilder.fromHttpRequest(request));
+
+            // 요청이 오거나 취소되면 기다리는 조회 스레드를 깨운다.
+            sink.onRequest(n -> wakeUp());
+            sink.onCancel(this::wakeUp);
+        }
+
+        @Override
+        public void begin() throws IOException {
+            encoder.begin();
+        }
+
+        @Override
+        public void accept(FileEntry entry) throws IOException {
+            encoder.accept(entry);
+            encoder.flush();
+            if (chunk.size() >= chunkSize) {
+                emit();
+            }
+        }
+
+        /**
+         * 목록을 닫고 남은 조각을 내보낸 뒤 완료한다.
+         *
+         * @param next 다음 페이지 커서 (없으면 NULL)
+         *
+         * @throws IOException 입출력 예외
+         */
+        private void end(String next) throws IOException {
+            encoder.end(next);
+            if (chunk.size() > 0) {
+                emit();
+            }
+            sink.complete();
+        }
+
+        /**
+         * 출력 전 오류는 응답코드와 메시지로 실패시킨다. 이미 출력을 시작한 경우에는 응답코드를 바꿀 수 없으므로 목록만 닫는다.
+         *
+         * @param status 응답코드
+         * @param message 오류 메시지
+         *
+         * @throws IOException 입출력 예외
+         */
+        private void fail(HttpStatus status, String message) throws IOException {
+            if (encoder.isStarted()) {
+                log.warn(String.format("디렉토리 조회 중 오류가 발생했습니다.(%s) %s", path, message));
+                end(null);
+                return;
+            }
+
+            sink.error(new ResponseStatusException(status, message));
+        }
+
+        /**
+         * 하위의 요청이 있을 때까지 기다렸다가 현재 조각을 내보낸다.
+         *
+         * @throws IOException 기다리는 중 취소되거나 인터럽트된 경우
+         */
+        private void emit() throws IOException {
+            synchronized (this) {
+                while (0L == sink.requestedFromDownstream() && !sink.isCancelled()) {
+                    try {
+                        wait();
+                    }
+                    catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new InterruptedIOException("디렉토리 조회가 인터럽트되었습니다.");
+                    }
+                }
+            }
+            if (sink.isCancelled()) {
+                throw new InterruptedIOException("클라이언트 연결이 끊어졌습니다.");
+            }
+
+            sink.next(bufferFactory.wrap(chunk.toByteArray()));
+            chunk.reset();
+        }
+
+        /**
+         * 기다리는 조회 스레드를 깨운다.
+         */
+        private synchronized void wakeUp() {
+            notifyAll();
+        }
+    }
+
+
+    @GetMapping(value = "/info")
+    public Mono<Void> retrieveServerInfo(ServerHttpRequest request, ServerHttpResponse response) {
+        // 서버정보가 바뀐 경우에만 화면을 형식별로 다시 만든다.
+        final ServerInfoPage page = ServerInfoPage.of(serverInfoPage, serverInfoProvider.get());
+        serverInfoPage = page;
+
+        final HttpHeaders requestHeaders = request.getHeaders();
+        final HttpHeaders headers = response.getHeaders();
+        final PrecompressedContent content = page.negotiate(requestHeaders.getFirst(HttpHeaders.ACCEPT));
+        final int variant = content.variantOf(requestHeaders.getFirst(HttpHeaders.ACCEPT_ENCODING));
+
+        headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        headers.set(HttpHeaders.CACHE_CONTROL, "no-cache");
+        headers.set(HttpHeaders.ETAG, content.getEtag(variant));
+
+        if (content.isNotModified(requestHeaders.getFirst(HttpHeaders.IF_NONE_MATCH))) {
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            return response.setComplete();
+        }
+
+        headers.set(HttpHeaders.CONTENT_TYPE, content.getContentType());
+        headers.setContentLength(content.getContentLength(variant));
+        if (null != content.getContentEncoding(variant)) {
+            headers.set(HttpHeaders.CONTENT_ENCODING, content.getContentEncoding(variant));
+        }
+
+        if (HttpMethod.HEAD == request.getMethod()) {
+            return response.setComplete();
+        }
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(content.getBody(variant))));
+    }
+
+    @GetMapping(value = "/files")
+    public Mono<Void> retrieveFileList(@CheckNotEmpty @CheckPath(directory = true) @RequestParam(value = "path", required = true) String path,
+            @RequestParam(value = "filter", required = false) String filter,
+            @RequestParam(value = "type", defaultValue = "FILE") FileType type,
+            @RequestParam(value = "sort", defaultValue = "NAME") FileSort sort,
+            @RequestParam(value = "desc", defaultValue = "false") boolean desc,
+            @RequestParam(value = "after", required = false) String after,
+            @RequestParam(value = "limit", defaultValue = "${demo.files.limit:100}") int limit,
+            ServerHttpRequest request, ServerHttpResponse response) {
+        final OutputFormat format = OutputFormat.negotiate(request.getHeaders().getFirst(HttpHeaders.ACCEPT), OutputFormat.HTML, OutputFormat.JSON,
+                OutputFormat.NDJSON, OutputFormat.CBOR);
+        response.getHeaders().set(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        response.getHeaders().set(HttpHeaders.CONTENT_TYPE, format.getContentType());
+
+        // 요청 스레드(이벤트 루프)에서 요청을 전달받아야 기다리는 조회 스레드를 깨울 수 있으므로 requestOnSeparateThread 는 거짓이다.
+        final Flux<DataBuffer> body = Flux.<DataBuffer>create(sink -> {
+            FileListEmitter emitter = null;
+            try {
+                final FileQuery query = new FileQuery(filter, type, sort, desc, after, Math.min(limit, FILES_MAX_LIMIT));
+                emitter = new FileListEmitter(sink, response.bufferFactory(), FILES_CHUNK_SIZE, request, format, path, filter, type, sort, desc);
+                emitter.end(fileLister.list(Paths.get(path), query, emitter));
+            }
+            catch (InterruptedIOException e) {
+                log.info(String.format("클라이언트 연결이 끊어져 디렉토리 조회를 중단합니다.(%s)", path));
+            }
+            catch (IllegalArgumentException e) {
+                failFileList(sink, emitter, HttpStatus.BAD_REQUEST, e.getMessage());
+            }
+            catch (NoSuchFileException | NotDirectoryException e) {
+                failFileList(sink, emitter, HttpStatus.NOT_FOUND, String.format("디렉토리(%s)가 없습니다.", path));
+            }
+            catch (IOException | RuntimeException e) {
+                sink.error(e);
+            }
+        }).subscribeOn(Schedulers.boundedElastic(), false);
+
+        return response.writeWith(body).onErrorResume(ResponseStatusException.class, e -> {
+            response.setStatusCode(e.getStatus());
+            response.getHeaders().setContentType(TEXT_PLAIN_UTF8);
+            return response.writeWith(Mono.just(response.bufferFactory().wrap(String.valueOf(e.getReason()).getBytes(StandardCharsets.UTF_8))));
+        });
+    }
+
+    /**
+     * 디렉토리 조회 오류를 응답으로 바꾼다.
+     *
+     * @param sink 하위 구독자
+     * @param emitter 조회 결과 출력기 (만들기 전이면 NULL)
+     * @param status 응답코드
+     * @param message 오류 메시지
+     */
+    private static void failFileList(FluxSink<DataBuffer> sink, FileListEmitter emitter, HttpStatus status, String message) {
+        try {
+            if (null == emitter) {
+                sink.error(new ResponseStatusException(status, message));
+            }
+            else {
+                emitter.fail(status, message);
+            }
+        }
+        catch (IOException e) {
+            sink.error(e);
+        }
+    }
+}
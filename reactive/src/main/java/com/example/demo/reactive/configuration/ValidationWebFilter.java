@@ -0,0 +1,141 @@
+package com.example.demo.reactive.configuration;
+
+import com.example.demo.core.infrastructure.validation.MethodValidator;
+import com.example.demo.core.infrastructure.validation.Violation;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.core.env.Environment;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.reactive.result.method.annotation.RequestMappingHandlerMapping;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * 컨트롤러 파라미터의 검증 선언(Check*)에 따라 요청을 검증하는 리액티브 필터이다. 서블릿 빌드의 ValidationInterceptor 와 같은 검증기를 사용한다.
+ * <p>
+ * 위반이 있으면 핸들러를 실행하지 않고 모든 위반 내역을 400 응답으로 반환한다.
+ * 블로킹 규칙(경로 존재 등)은 이벤트 루프에서 검사하지 않고 boundedElastic 스레드에서 검사한다.
+ *
+ * @author jonghyeon
+ */
+@Slf4j
+@Component
+public class ValidationWebFilter implements WebFilter, SmartInitializingSingleton {
+    /**
+     * 평문 응답 미디어 유형
+     */
+    private static final MediaType TEXT_PLAIN_UTF8 = new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8);
+
+    /**
+     * 핸들러 매핑
+     */
+    private final RequestMappingHandlerMapping handlerMapping;
+
+    /**
+     * 스프링 환경 제공자
+     */
+    private final Environment environment;
+
+    /**
+     * 핸들러 메소드별 검증기
+     */
+    private volatile Map<Method, MethodValidator> validators = Collections.emptyMap();
+
+    public ValidationWebFilter(RequestMappingHandlerMapping handlerMapping, Environment environment) {
+        this.handlerMapping = handlerMapping;
+        this.environment = environment;
+    }
+
+    /**
+     * 모든 핸들러 메소드의 검증 선언을 검증기로 만든다.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        final Map<Method, MethodValidator> compiled = new IdentityHashMap<>();
+
+        for (HandlerMethod handlerMethod : handlerMapping.getHandlerMethods().values()) {
+            final MethodValidator validator = MethodValidator.compile(handlerMethod, environment);
+            if (null != validator) {
+                compiled.put(handlerMethod.getMethod(), validator);
+            }
+        }
+
+        validators = compiled;
+        log.info(String.format("요청 검증기 %d건을 준비했습니다.", compiled.size()));
+    }
+
+    /**
+     * 요청의 핸들러 메소드를 찾아 요청 파라미터를 검증한다.
+     *
+     * @param exchange 요청, 응답 데이터
+     * @param chain 필터 체인
+     *
+     * @return 처리 결과
+     */
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        return handlerMapping.getHandler(exchange)
+                .map(handler -> Optional.ofNullable((handler instanceof HandlerMethod) ? validators.get(((HandlerMethod) handler).getMethod()) : null))
+                .defaultIfEmpty(Optional.empty())
+                .flatMap(validator -> validator.isPresent() ? validate(validator.get(), exchange, chain) : chain.filter(exchange));
+    }
+
+    /**
+     * 요청 파라미터를 검증하여 위반이 없으면 다음 필터를 실행한다.
+     *
+     * @param validator 검증기
+     * @param exchange 요청, 응답 데이터
+     * @param chain 필터 체인
+     *
+     * @return 처리 결과
+     */
+    private static Mono<Void> validate(MethodValidator validator, ServerWebExchange exchange, WebFilterChain chain) {
+        final Function<String, String> parameters = exchange.getRequest().getQueryParams()::getFirst;
+
+        final List<Violation> violations = validator.validate(parameters);
+        if (!violations.isEmpty()) {
+            return writeViolations(exchange.getResponse(), violations);
+        }
+        if (!validator.hasDeferred()) {
+            return chain.filter(exchange);
+        }
+
+        return Mono.fromCallable(() -> validator.validateDeferred(parameters))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(deferred -> deferred.isEmpty() ? chain.filter(exchange) : writeViolations(exchange.getResponse(), deferred));
+    }
+
+    /**
+     * 위반 내역을 응답으로 쓴다.
+     *
+     * @param response 응답 데이터
+     * @param violations 위반 내역
+     *
+     * @return 처리 결과
+     */
+    private static Mono<Void> writeViolations(ServerHttpResponse response, List<Violation> violations) {
+        final StringBuilder body = new StringBuilder();
+        for (Violation violation : violations) {
+            body.append(violation).append(System.lineSeparator());
+        }
+
+        response.setStatusCode(MethodValidator.statusOf(violations));
+        response.getHeaders().setContentType(TEXT_PLAIN_UTF8);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body.toString().getBytes(StandardCharsets.UTF_8))));
+    }
+}
@@ -1,8 +1,23 @@
 package com.example.demo.core.api;
 
-import com.example.demo.core.infrastructure.constant.EnvCd;
-import com.example.demo.core.util.CheckUtil;
+import com.example.demo.core.infrastructure.configuration.ServerInfo;
+import com.example.demo.core.infrastructure.configuration.ServerInfoProvider;
+import com.example.demo.core.infrastructure.file.ChecksumAlgorithm;
+import com.example.demo.core.infrastructure.file.DirectoryCache;
+import com.example.demo.core.infrastructure.file.DirectorySummary;
+import com.example.demo.core.infrastructure.file.DirectoryTree;
+import com.example.demo.core.infrastructure.file.FileChecksum;
+import com.example.demo.core.infrastructure.file.FileDownload;
+import com.example.demo.core.infrastructure.file.FileEntry;
+import com.example.demo.core.infrastructure.file.FileLister;
+import com.example.demo.core.infrastructure.file.FileQuery;
+import com.example.demo.core.infrastructure.file.FileRequestExecutor;
+import com.example.demo.core.infrastructure.file.FileSort;
+import com.example.demo.core.infrastructure.file.FileType;
+import com.example.demo.core.infrastructure.validation.CheckNotEmpty;
+import com.example.demo.core.infrastructure.validation.CheckPath;
 import com.example.demo.core.util.DateUtil;
+import com.example.demo.core.util.PrecompressedContent;
 import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiResponse;
 import io.swagger.annotations.ApiResponses;
@@ -10,16 +25,26 @@ import lombok.NoArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
-import java.io.File;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.NotDirectoryException;
+import java.nio.file.Paths;
 import java.time.Instant;
 import java.time.LocalDateTime;
-import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /**
  * 어플리케이션에 대한 컨트롤러이다.
@@ -32,73 +57,365 @@ import java.time.ZoneId;
 @RequestMapping("/server")
 public class AppController {
     /**
-     * 스프링 프래임워크 환경정보
+     * 서버정보 제공자
      */
     @Autowired
-    private Environment environment;
+    private ServerInfoProvider serverInfoProvider;
 
     /**
-     * 서버 버전정보
+     * 디렉토리 조회기
      */
-    @Value("${demo.info.version}")
-    private String SERVER_VERSION;
+    @Autowired
+    private FileLister fileLister;
+
+    /**
+     * 디렉토리 캐시
+     */
+    @Autowired
+    private DirectoryCache directoryCache;
+
+    /**
+     * 디렉토리 트리 집계기
+     */
+    @Autowired
+    private DirectoryTree directoryTree;
+
+    /**
+     * 체크섬 계산기
+     */
+    @Autowired
+    private FileChecksum fileChecksum;
+
+    /**
+     * 파일 전송기
+     */
+    @Autowired
+    private FileDownload fileDownload;
+
+    /**
+     * 파일시스템 요청 실행기
+     */
+    @Autowired
+    private FileRequestExecutor fileRequestExecutor;
+
+    /**
+     * 디렉토리 조회 최대 건수
+     */
+    @Value("${demo.files.max-limit:1000}")
+    private int FILES_MAX_LIMIT;
+
+    /**
+     * 서버정보 화면 (서버정보가 바뀔 때만 다시 만든다.)
+     */
+    private volatile ServerInfoPage serverInfoPage;
+
+    /**
+     * 디렉토리 조회 결과를 요청한 형식으로 응답에 바로 출력한다. 응답 길이를 정하지 않으므로 버퍼를 넘으면 chunked 로 전송된다.
+     */
+    private static final class FileListWriter implements FileLister.Handler {
+        /**
+         * 요청 데이터
+         */
+        private final HttpServletRequest request;
+
+        /**
+         * 응답 데이터
+         */
+        private final HttpServletResponse response;
+
+        /**
+         * 응답 형식
+         */
+        private final OutputFormat format;
+
+        /**
+         * 조회 조건 (출력기 생성용)
+         */
+        private final String path;
+        private final String filter;
+        private final FileType type;
+        private final FileSort sort;
+        private final boolean desc;
+
+        /**
+         * 형식별 출력기 (begin 이후에 설정된다.)
+         */
+        private FileListEncoder encoder;
+
+        private FileListWriter(HttpServletRequest request, HttpServletResponse response, OutputFormat format, String path, String filter, FileType type,
+                FileSort sort, boolean desc) {
+            this.request = request;
+            this.response = response;
+            this.format = format;
+            this.path = path;
+            this.filter = filter;
+            this.type = type;
+            this.sort = sort;
+            this.desc = desc;
+        }
+
+        @Override
+        public void begin() throws IOException {
+            response.setContentType(format.getContentType());
+            encoder = new FileListEncoder(format, response.getOutputStream(), path, filter, type, sort, desc,
+                    () -> ServletUriComponentsBuilder.fromRequest(request));
+            encoder.begin();
+        }
+
+        @Override
+        public void accept(FileEntry entry) throws IOException {
+            encoder.accept(entry);
+        }
+
+        /**
+         * 목록을 닫고 다음 페이지 링크(커서)를 출력한다.
+         *
+         * @param next 다음 페이지 커서 (없으면 NULL)
+         *
+         * @throws IOException 입출력 예외
+         */
+        private void end(String next) throws IOException {
+            encoder.end(next);
+        }
+
+        /**
+         * 출력 전 오류를 평문으로 응답한다. 이미 출력을 시작한 경우에는 예외를 다시 던질 수 없으므로 목록만 닫는다.
+         *
+         * @param status 응답코드
+         * @param message 오류 메시지
+         *
+         * @throws IOException 입출력 예외
+         */
+        private void fail(int status, String message) throws IOException {
+            if (null != encoder && encoder.isStarted()) {
+                log.warn(String.format("디렉토리 조회 중 오류가 발생했습니다.(%s) %s", path, message));
+                end(null);
+                return;
+            }
+
+            response.setStatus(status);
+            response.setContentType("text/plain;charset=UTF-8");
+            response.getWriter().write(message);
+        }
+    }
 
 
     @ApiOperation(value = "어플리케이션 서버정보를 조회한다.", nickname = "retrieveServerInfo")
     @ApiResponses(value = {@ApiResponse(code = 204, message = "Success")})
     @GetMapping(value = "/info")
-    public String retrieveServerInfo() {
-        // 현재 환경코드를 구한다.
-        EnvCd curEnvCd = EnvCd.codeOf(CheckUtil.nvl(environment.getActiveProfiles()[0], EnvCd.Production.getCode()));
-
-        // 어플리케이션 서버정보를 담은 HTML를 작성한다.
-        StringBuilder appInfo = new StringBuilder();
-        appInfo.append("<html lang=\"ko\">");
-        appInfo.append("<head><meta charset=\"UTF-8\"/></head>");
-        appInfo.append("<body style=\"font-size:25px;\">");
-        appInfo.append("<div style=\" position:absolute; border:black 2px solid; margin:auto; top:0; right:0; bottom:0; left:0; width:50%; height:50%;\">");
-        appInfo.append("<div>");
-        appInfo.append("<h2 style=\"text-align: center;\">Welcome Demo !</h2>");
-        appInfo.append("</div>");
-        appInfo.append("<ul>");
-        appInfo.append("<li><b>Version</b> : ").append(SERVER_VERSION).append("</li>");
-        appInfo.append("<li><b>Profile</b> : ").append(String.format("%s(%s)", curEnvCd.getTitle(), curEnvCd.name())).append("</li>");
-        appInfo.append("</ul>");
-        appInfo.append("</div>");
-        appInfo.append("</body>");
-        appInfo.append("</html>");
-
-        return appInfo.toString();
+    public void retrieveServerInfo(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        // 시작 시 만들어 둔 서버정보를 구한다.
+        ServerInfo serverInfo = serverInfoProvider.get();
+
+        // 서버정보가 바뀐 경우에만 화면을 형식별로 다시 만든다.
+        final ServerInfoPage page = ServerInfoPage.of(serverInfoPage, serverInfo);
+        serverInfoPage = page;
+
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        writeContent(page.negotiate(request.getHeader(HttpHeaders.ACCEPT)), request, response);
+    }
+
+    /**
+     * 미리 압축한 본문에서 요청에 맞는 변형을 골라 응답에 쓴다.
+     *
+     * @param content 미리 압축한 본문
+     * @param request 요청 데이터
+     * @param response 응답 데이터
+     *
+     * @throws IOException 입출력 예외
+     */
+    private static void writeContent(PrecompressedContent content, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        final int variant = content.variantOf(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+
+        // 호출자가 다른 Vary 값(Accept 등)을 설정했을 수 있으므로 덧붙인다.
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        response.setHeader(HttpHeaders.ETAG, content.getEtag(variant));
+
+        if (content.isNotModified(request.getHeader(HttpHeaders.IF_NONE_MATCH))) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        response.setContentType(content.getContentType());
+        response.setContentLength(content.getContentLength(variant));
+        if (null != content.getContentEncoding(variant)) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, content.getContentEncoding(variant));
+        }
+
+        if (!"HEAD".equals(request.getMethod())) {
+            final OutputStream out = response.getOutputStream();
+            content.writeBody(variant, out);
+            out.flush();
+        }
     }
 
     @ApiOperation(value = "디렉토리 조회", nickname = "retrieveFileList")
-    @ApiResponses(value = {@ApiResponse(code = 204, message = "Success")})
+    @ApiResponses(value = {@ApiResponse(code = 204, message = "Success"), @ApiResponse(code = 503, message = "Service Unavailable")})
     @GetMapping(value = "/files")
-    public String retrieveFileList(@RequestParam(value = "path", required = true) String path) {
-        StringBuilder appInfo = new StringBuilder();
-        appInfo.append("<html lang=\"ko\">");
-        appInfo.append("<head><meta charset=\"UTF-8\"/></head>");
-        appInfo.append("<body style=\"font-size:25px;\">");
-        appInfo.append("<div style=\" position:absolute; border:black 2px solid; margin:auto; top:0; right:0; bottom:0; left:0; width:50%; height:50%;\">");
-        appInfo.append("<div>");
-        appInfo.append("<h2 style=\"text-align: center;\">Server Files !</h2>");
-        appInfo.append("</div>");
-        appInfo.append("<ul style=\"font-size:15px;\">");
-
-        File dir = new File(path);
-        for (File file : dir.listFiles()) {
-            if (file.isFile()) {
-                LocalDateTime dt = LocalDateTime.ofInstant(Instant.ofEpochMilli(file.lastModified()), ZoneId.of("Asia/Seoul"));
-                appInfo.append(
-                        String.format("<li><b>File</b> : %s, Size: %s Byte,  변경일 : %s", file.getName(), file.length() / 1000.0, DateUtil.toYmsDashString(dt)));
+    public DeferredResult<Void> retrieveFileList(@CheckNotEmpty @CheckPath(directory = true) @RequestParam(value = "path", required = true) String path,
+            @RequestParam(value = "filter", required = false) String filter,
+            @RequestParam(value = "type", defaultValue = "FILE") FileType type,
+            @RequestParam(value = "sort", defaultValue = "NAME") FileSort sort,
+            @RequestParam(value = "desc", defaultValue = "false") boolean desc,
+            @RequestParam(value = "after", required = false) String after,
+            @RequestParam(value = "limit", defaultValue = "${demo.files.limit:100}") int limit,
+            HttpServletRequest request, HttpServletResponse response) throws IOException {
+        return fileRequestExecutor.submit(FileRequestExecutor.Endpoint.LIST, request, response, (req, res) -> {
+            final OutputFormat format = OutputFormat.negotiate(req.getHeader(HttpHeaders.ACCEPT), OutputFormat.HTML, OutputFormat.JSON, OutputFormat.NDJSON,
+                    OutputFormat.CBOR);
+            final FileListWriter writer = new FileListWriter(req, res, format, path, filter, type, sort, desc);
+            res.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+
+            try {
+                final FileQuery query = new FileQuery(filter, type, sort, desc, after, Math.min(limit, FILES_MAX_LIMIT));
+                writer.end(fileLister.list(Paths.get(path), query, writer));
+            }
+            catch (IllegalArgumentException e) {
+                writer.fail(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+            }
+            catch (NoSuchFileException | NotDirectoryException e) {
+                writer.fail(HttpServletResponse.SC_NOT_FOUND, String.format("디렉토리(%s)가 없습니다.", path));
+            }
+        });
+    }
+
+    @ApiOperation(value = "파일 내려받기", nickname = "retrieveFileContent")
+    @ApiResponses(value = {@ApiResponse(code = 200, message = "Success"), @ApiResponse(code = 206, message = "Partial Content"),
+            @ApiResponse(code = 403, message = "Forbidden"), @ApiResponse(code = 503, message = "Service Unavailable")})
+    @GetMapping(value = "/files/content")
+    public DeferredResult<Void> retrieveFileContent(
+            @CheckNotEmpty @CheckPath(roots = "${demo.files.download.roots:}") @RequestParam(value = "path", required = true) String path,
+            @RequestParam(value = "rate", defaultValue = "0") long rate, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        return fileRequestExecutor.submit(FileRequestExecutor.Endpoint.CONTENT, request, response,
+                (req, res) -> fileDownload.write(Paths.get(path), rate, req, res));
+    }
+
+    @ApiOperation(value = "디렉토리 트리 집계", nickname = "retrieveFileTree")
+    @ApiResponses(value = {@ApiResponse(code = 200, message = "Success"), @ApiResponse(code = 403, message = "Forbidden"),
+            @ApiResponse(code = 503, message = "Service Unavailable")})
+    @GetMapping(value = "/files/tree")
+    public DeferredResult<Void> retrieveFileTree(
+            @CheckNotEmpty @CheckPath(directory = true, roots = "${demo.files.download.roots:}") @RequestParam(value = "path", required = true) String path,
+            @RequestParam(value = "depth", defaultValue = "${demo.files.tree.max-depth:32}") int depth,
+            @RequestParam(value = "top", defaultValue = "20") int top,
+            HttpServletRequest request, HttpServletResponse response) throws IOException {
+        return fileRequestExecutor.submit(FileRequestExecutor.Endpoint.TREE, request, response, (req, res) -> writeFileTree(path, depth, top, res));
+    }
+
+    /**
+     * 디렉토리 트리를 집계하여 출력한다.
+     *
+     * @param path 디렉토리 경로
+     * @param depth 최대 깊이
+     * @param top 출력할 상위 디렉토리 수
+     * @param response 응답 데이터
+     *
+     * @throws IOException 입출력 예외
+     */
+    private void writeFileTree(String path, int depth, int top, HttpServletResponse response) throws IOException {
+        final DirectoryTree.Task task;
+        try {
+            task = directoryTree.walk(Paths.get(path), depth, Math.min(top, FILES_MAX_LIMIT));
+        }
+        catch (NoSuchFileException | NotDirectoryException e) {
+            response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+            response.setContentType("text/plain;charset=UTF-8");
+            response.getWriter().write(String.format("디렉토리(%s)가 없습니다.", path));
+            return;
+        }
+
+        response.setContentType("text/plain;charset=UTF-8");
+        final PrintWriter writer = response.getWriter();
+
+        // 응답 전에는 연결 종료를 알 수 없으므로, 1초마다 빈 줄을 보내 클라이언트가 끊었으면 조회를 취소한다.
+        DirectoryTree.Result result;
+        while (null == (result = task.await(1, TimeUnit.SECONDS))) {
+            writer.println();
+            writer.flush();
+            if (writer.checkError()) {
+                task.cancel();
+                log.info(String.format("클라이언트 연결이 끊어져 디렉토리 트리 조회를 취소합니다.(%s)", path));
+                return;
+            }
+        }
+
+        final DirectorySummary root = result.getRoot();
+        writer.printf("path=%s, files=%d, directories=%d, bytes=%d, newest=%s, truncated=%s, scanned=%d, reused=%d, skipped=%d%n", root.getPath(),
+                root.getFiles(), root.getDirectories(), root.getBytes(), printMillis(root.getNewest()), root.isTruncated(), result.getScanned(), result.getReused(),
+                result.getSkipped());
+        writer.println();
+        writer.println("bytes\tfiles\tdirectories\tnewest\tpath");
+        for (DirectorySummary summary : result.getHeaviest()) {
+            writer.printf("%d\t%d\t%d\t%s\t%s%n", summary.getBytes(), summary.getFiles(), summary.getDirectories(), printMillis(summary.getNewest()),
+                    summary.getPath());
+        }
+    }
+
+    @ApiOperation(value = "체크섬 계산", nickname = "retrieveFileChecksum")
+    @ApiResponses(value = {@ApiResponse(code = 200, message = "Success"), @ApiResponse(code = 403, message = "Forbidden"),
+            @ApiResponse(code = 503, message = "Service Unavailable")})
+    @GetMapping(value = "/files/checksum", produces = "text/plain;charset=UTF-8")
+    public DeferredResult<Void> retrieveFileChecksum(@CheckNotEmpty @CheckPath(roots = "${demo.files.download.roots:}") @RequestParam(value = "path", required = true) String path,
+            @RequestParam(value = "algorithm", defaultValue = "SHA256") ChecksumAlgorithm algorithm,
+            HttpServletRequest request, HttpServletResponse response) throws IOException {
+        return fileRequestExecutor.submit(FileRequestExecutor.Endpoint.CHECKSUM, request, response, (req, res) -> writeFileChecksum(path, algorithm, res));
+    }
+
+    /**
+     * 체크섬을 계산하여 출력한다.
+     *
+     * @param path 파일 또는 디렉토리 경로
+     * @param algorithm 체크섬 알고리즘
+     * @param response 응답 데이터
+     *
+     * @throws IOException 입출력 예외
+     */
+    private void writeFileChecksum(String path, ChecksumAlgorithm algorithm, HttpServletResponse response) throws IOException {
+        final List<FileChecksum.Result> results;
+        try {
+            results = fileChecksum.compute(Paths.get(path), algorithm);
+        }
+        catch (NoSuchFileException e) {
+            response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+            response.setContentType("text/plain;charset=UTF-8");
+            response.getWriter().write(String.format("경로(%s)가 없습니다.", path));
+            return;
+        }
+
+        // sha256sum 등과 같은 "체크섬  파일명" 형식으로 출력하여 -c 옵션으로 바로 검증할 수 있게 한다.
+        response.setContentType("text/plain;charset=UTF-8");
+        final PrintWriter writer = response.getWriter();
+        for (FileChecksum.Result result : results) {
+            if (null == result) {
+                writer.println("# 최대 파일 수까지만 계산했습니다.");
+            }
+            else if (null == result.getChecksum()) {
+                writer.printf("# %s: %s%n", result.getName(), result.getError());
+            }
+            else {
+                writer.printf("%s  %s%n", result.getChecksum(), result.getName());
             }
         }
+    }
 
-        appInfo.append("</ul>");
-        appInfo.append("</div>");
-        appInfo.append("</body>");
-        appInfo.append("</html>");
+    @ApiOperation(value = "디렉토리 캐시 현황 조회", nickname = "retrieveFileCacheStats")
+    @ApiResponses(value = {@ApiResponse(code = 204, message = "Success")})
+    @GetMapping(value = "/files/cache", produces = "text/plain;charset=UTF-8")
+    public String retrieveFileCacheStats() {
+        return String.format("directories=%d, bytes=%d, hits=%d, misses=%d, evictions=%d, rescans=%d, oversized=%d, skips=%d", directoryCache.size(),
+                directoryCache.estimatedBytes(), directoryCache.getHits(), directoryCache.getMisses(), directoryCache.getEvictions(), directoryCache.getRescans(),
+                directoryCache.oversizedSize(), directoryCache.getSkips());
+    }
 
-        return appInfo.toString();
+    /**
+     * 변경시각을 출력 형식으로 변환한다.
+     *
+     * @param millis epoch 밀리초 (0 이면 없음)
+     *
+     * @return 변경시각 (yyyy-MM-dd HH:mm:ss)
+     */
+    private static String printMillis(long millis) {
+        return (0L == millis) ? "-" : DateUtil.toYmsDashString(LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), FileListEncoder.ZONE));
     }
 }
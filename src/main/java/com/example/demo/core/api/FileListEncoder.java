@@ -0,0 +1,232 @@
+package com.example.demo.core.api;
+
+import com.example.demo.core.infrastructure.file.FileEntry;
+import com.example.demo.core.infrastructure.file.FileSort;
+import com.example.demo.core.infrastructure.file.FileType;
+import com.example.demo.core.util.DateUtil;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.springframework.web.util.HtmlUtils;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.function.Supplier;
+
+/**
+ * 디렉토리 조회 결과를 요청한 형식으로 출력 스트림에 쓴다. 서블릿과 리액티브 서버가 같은 응답 본문을 만들도록 함께 사용한다.
+ * <p>
+ * HTML 이 아니면 {"path", "entries": [...], "next"} 구조를 생성기로 출력하며,
+ * NDJSON 은 항목마다 한 줄이고 다음 페이지가 있으면 마지막 줄이 {"next"} 이다.
+ * 출력은 내부 버퍼에 모이므로 {@link #flush()} 나 {@link #end(String)} 를 호출해야 출력 스트림에 쓰인다.
+ *
+ * @author jonghyeon
+ */
+public final class FileListEncoder {
+    /**
+     * 변경일 표시 시간대
+     */
+    static final ZoneId ZONE = ZoneId.of("Asia/Seoul");
+
+    /**
+     * 응답 형식
+     */
+    private final OutputFormat format;
+
+    /**
+     * 출력 스트림
+     */
+    private final OutputStream stream;
+
+    /**
+     * 조회 조건 (다음 페이지 링크용)
+     */
+    private final String path;
+    private final String filter;
+    private final FileType type;
+    private final FileSort sort;
+    private final boolean desc;
+
+    /**
+     * 다음 페이지 링크의 기준이 되는 요청 URI
+     */
+    private final Supplier<UriComponentsBuilder> requestUri;
+
+    /**
+     * 변경일 변환용 버퍼 (항목마다 객체를 만들지 않는다.)
+     */
+    private final long[] epochSecond = new long[1];
+    private final char[] modified = new char[DateUtil.DATE_FORMAT_YMS_DASH.length()];
+
+    /**
+     * HTML 출력 (begin 이후에 설정된다.)
+     */
+    private Writer out;
+
+    /**
+     * HTML 외 형식의 생성기 (begin 이후에 설정된다.)
+     */
+    private JsonGenerator generator;
+
+    public FileListEncoder(OutputFormat format, OutputStream stream, String path, String filter, FileType type, FileSort sort, boolean desc,
+            Supplier<UriComponentsBuilder> requestUri) {
+        this.format = format;
+        this.stream = stream;
+        this.path = path;
+        this.filter = filter;
+        this.type = type;
+        this.sort = sort;
+        this.desc = desc;
+        this.requestUri = requestUri;
+    }
+
+    /**
+     * 출력을 시작했는지 여부를 반환한다.
+     *
+     * @return 시작 여부
+     */
+    public boolean isStarted() {
+        return null != out || null != generator;
+    }
+
+    /**
+     * 목록 머리를 출력한다.
+     *
+     * @throws IOException 입출력 예외
+     */
+    public void begin() throws IOException {
+        if (OutputFormat.HTML != format) {
+            generator = format.createGenerator(stream);
+            if (OutputFormat.NDJSON != format) {
+                generator.writeStartObject();
+                generator.writeStringField("path", path);
+                generator.writeArrayFieldStart("entries");
+            }
+            return;
+        }
+
+        // 문자 버퍼를 비울 때 출력 스트림까지 비우면 서블릿 응답이 확정되어 작은 목록에도 Content-Length 대신 chunked 로 전송되므로 넘기지 않는다.
+        out = new OutputStreamWriter(new FilterOutputStream(stream) {
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                out.write(b, off, len);
+            }
+
+            @Override
+            public void flush() {
+                // 출력 스트림은 호출자가 비운다.
+            }
+        }, StandardCharsets.UTF_8);
+        out.write("<html lang=\"ko\">");
+        out.write("<head><meta charset=\"UTF-8\"/></head>");
+        out.write("<body style=\"font-size:25px;\">");
+        out.write("<div style=\" position:absolute; border:black 2px solid; margin:auto; top:0; right:0; bottom:0; left:0; width:50%; height:50%;\">");
+        out.write("<div>");
+        out.write("<h2 style=\"text-align: center;\">Server Files !</h2>");
+        out.write("</div>");
+        out.write("<ul style=\"font-size:15px;\">");
+    }
+
+    /**
+     * 항목 하나를 출력한다.
+     *
+     * @param entry 항목
+     *
+     * @throws IOException 입출력 예외
+     */
+    public void accept(FileEntry entry) throws IOException {
+        if (null != generator) {
+            generator.writeStartObject();
+            generator.writeStringField("name", entry.getName());
+            generator.writeBooleanField("directory", entry.isDirectory());
+            generator.writeNumberField("size", entry.getSize());
+            generator.writeNumberField("modified", entry.getLastModified());
+            generator.writeEndObject();
+            return;
+        }
+
+        final long millis = entry.getLastModified();
+        epochSecond[0] = Math.floorDiv(millis, 1000L) + ZONE.getRules().getOffset(Instant.ofEpochMilli(millis)).getTotalSeconds();
+        DateUtil.printEpochSeconds(DateUtil.DATE_FORMAT_YMS_DASH, epochSecond, 0, 1, modified, 0);
+
+        out.write(entry.isDirectory() ? "<li><b>Dir</b> : " : "<li><b>File</b> : ");
+        out.write(HtmlUtils.htmlEscape(entry.getName()));
+        if (!entry.isDirectory()) {
+            out.write(", Size: ");
+            out.write(String.valueOf(entry.getSize() / 1000.0));
+            out.write(" Byte");
+        }
+        out.write(",  변경일 : ");
+        out.write(modified);
+        out.write("</li>");
+    }
+
+    /**
+     * 목록을 닫고 다음 페이지 링크(커서)를 출력한 뒤 출력 스트림에 쓴다.
+     *
+     * @param next 다음 페이지 커서 (없으면 NULL)
+     *
+     * @throws IOException 입출력 예외
+     */
+    public void end(String next) throws IOException {
+        if (null != generator) {
+            if (OutputFormat.NDJSON != format) {
+                generator.writeEndArray();
+                if (null != next) {
+                    generator.writeStringField("next", next);
+                }
+                generator.writeEndObject();
+            }
+            else if (null != next) {
+                generator.writeStartObject();
+                generator.writeStringField("next", next);
+                generator.writeEndObject();
+            }
+            // 텍스트 형식은 마지막 값도 줄바꿈으로 끝낸다.
+            if (OutputFormat.CBOR != format && generator.getOutputContext().getEntryCount() > 0) {
+                generator.writeRaw('\n');
+            }
+            generator.close();
+            return;
+        }
+
+        out.write("</ul>");
+        if (null != next) {
+            final String link = requestUri.get()
+                    .replaceQueryParam("path", path)
+                    .replaceQueryParam("filter", filter)
+                    .replaceQueryParam("type", type)
+                    .replaceQueryParam("sort", sort)
+                    .replaceQueryParam("desc", desc)
+                    .replaceQueryParam("after", next)
+                    .encode()
+                    .toUriString();
+            out.write("<a href=\"");
+            out.write(HtmlUtils.htmlEscape(link));
+            out.write("\">다음</a>");
+        }
+        out.write("</div>");
+        out.write("</body>");
+        out.write("</html>");
+        out.flush();
+    }
+
+    /**
+     * 지금까지 출력한 내용을 출력 스트림에 쓴다.
+     *
+     * @throws IOException 입출력 예외
+     */
+    public void flush() throws IOException {
+        if (null != generator) {
+            generator.flush();
+        }
+        else if (null != out) {
+            out.flush();
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.demo.core.api;
+
+import com.example.demo.core.infrastructure.configuration.ConcurrencyLimitInterceptor;
+import com.example.demo.core.infrastructure.logging.LogAnalysis;
+import com.example.demo.core.infrastructure.logging.LogAnalyzer;
+import com.example.demo.core.infrastructure.logging.LogFile;
+import com.example.demo.core.infrastructure.logging.LogReader;
+import com.example.demo.core.infrastructure.validation.CheckDate;
+import com.example.demo.core.infrastructure.validation.CheckNotEmpty;
+import com.example.demo.core.util.DateUtil;
+import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiResponse;
+import io.swagger.annotations.ApiResponses;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * 로그 파일에 대한 컨트롤러이다.
+ *
+ * @author jonghyeon
+ */
+@Slf4j
+@NoArgsConstructor
+@RestController
+@RequestMapping("/server/logs")
+public class LogController {
+    /**
+     * 로그 조회기
+     */
+    @Autowired
+    private LogReader logReader;
+
+    /**
+     * 로그 압축파일 분석기
+     */
+    @Autowired
+    private LogAnalyzer logAnalyzer;
+
+    @ApiOperation(value = "로그 끝부분 조회", nickname = "retrieveLogTail")
+    @ApiResponses(value = {@ApiResponse(code = 200, message = "Success")})
+    @GetMapping(value = "/tail")
+    public void retrieveLogTail(@RequestParam(value = "file", defaultValue = "SERVICE") LogFile file,
+            @RequestParam(value = "lines", defaultValue = "100") int lines, HttpServletResponse response) throws IOException {
+        response.setContentType("text/plain;charset=UTF-8");
+
+        try {
+            logReader.tail(file, lines, response.getOutputStream());
+        }
+        catch (NoSuchFileException e) {
+            fail(response, HttpServletResponse.SC_NOT_FOUND, String.format("로그 파일(%s)이 없습니다.", file.getFileName()));
+        }
+    }
+
+    @ApiOperation(value = "로그 검색", nickname = "retrieveLogSearch")
+    @ApiResponses(value = {@ApiResponse(code = 200, message = "Success"), @ApiResponse(code = 503, message = "Busy")})
+    @GetMapping(value = "/search")
+    public void retrieveLogSearch(@CheckNotEmpty @RequestParam(value = "q", required = true) String query,
+            @RequestParam(value = "file", defaultValue = "SERVICE") LogFile file,
+            @RequestParam(value = "regex", defaultValue = "false") boolean regex,
+            @RequestParam(value = "limit", defaultValue = "${demo.logs.search.max-results:1000}") int limit,
+            @RequestParam(value = "timeout", defaultValue = "${demo.logs.search.timeout:5000}") long timeout,
+            HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setContentType("text/plain;charset=UTF-8");
+
+        try {
+            final ServletOutputStream out = response.getOutputStream();
+            final LogReader.SearchResult result = logReader.search(file, query, regex, limit, timeout, out);
+
+            // 결과 끝에 중단 사유를 남긴다.
+            out.write(String.format("# matches=%d, truncated=%s, timedOut=%s%n", result.getMatches(), result.isTruncated(), result.isTimedOut())
+                    .getBytes(StandardCharsets.UTF_8));
+        }
+        catch (PatternSyntaxException e) {
+            fail(response, HttpServletResponse.SC_BAD_REQUEST, String.format("정규식(%s)이 올바르지 않습니다.", query));
+        }
+        catch (NoSuchFileException e) {
+            fail(response, HttpServletResponse.SC_NOT_FOUND, String.format("로그 파일(%s)이 없습니다.", file.getFileName()));
+        }
+        catch (RejectedExecutionException e) {
+            request.setAttribute(ConcurrencyLimitInterceptor.LOCAL_REJECTION_ATTRIBUTE, Boolean.TRUE);
+            response.setHeader("Retry-After", "1");
+            fail(response, HttpServletResponse.SC_SERVICE_UNAVAILABLE, "진행 중인 로그 검색이 많습니다.");
+        }
+    }
+
+    @ApiOperation(value = "로그 압축파일 분석", nickname = "retrieveLogAnalysis")
+    @ApiResponses(value = {@ApiResponse(code = 200, message = "Success"), @ApiResponse(code = 503, message = "Busy")})
+    @GetMapping(value = "/analysis")
+    public void retrieveLogAnalysis(@RequestParam(value = "file", defaultValue = "SERVICE") LogFile file,
+            @CheckDate @RequestParam(value = "from", required = false) String from,
+            @CheckDate @RequestParam(value = "to", required = false) String to,
+            @RequestParam(value = "minutes", defaultValue = "false") boolean minutes,
+            HttpServletRequest request, HttpServletResponse response) throws IOException {
+        final LogAnalysis analysis;
+        try {
+            analysis = logAnalyzer.analyze(file, (null == from) ? null : DateUtil.toDateYmd(from), (null == to) ? null : DateUtil.toDateYmd(to));
+        }
+        catch (IllegalStateException e) {
+            request.setAttribute(ConcurrencyLimitInterceptor.LOCAL_REJECTION_ATTRIBUTE, Boolean.TRUE);
+            response.setHeader("Retry-After", "5");
+            fail(response, HttpServletResponse.SC_SERVICE_UNAVAILABLE, e.getMessage());
+            return;
+        }
+
+        response.setContentType("text/plain;charset=UTF-8");
+        analysis.print(new PrintWriter(new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8)), minutes);
+    }
+
+    /**
+     * 오류를 출력한다. 이미 출력을 시작했으면 기록만 남긴다.
+     *
+     * @param response 응답 데이터
+     * @param status 응답 상태
+     * @param message 오류 내용
+     *
+     * @throws IOException 입출력 예외
+     */
+    private static void fail(HttpServletResponse response, int status, String message) throws IOException {
+        if (response.isCommitted()) {
+            log.warn(String.format("로그 조회 중 오류가 발생했습니다.(%s)", message));
+            return;
+        }
+
+        response.resetBuffer();
+        response.setStatus(status);
+        response.getOutputStream().write(message.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.demo.core.api;
+
+import com.example.demo.core.infrastructure.configuration.ConcurrencyLimitInterceptor;
+import com.example.demo.core.infrastructure.configuration.LoggerInterceptor;
+import com.example.demo.core.infrastructure.file.FileRequestExecutor;
+import com.example.demo.core.infrastructure.logging.AccessLog;
+import com.example.demo.core.infrastructure.logging.AsyncLogAppender;
+import com.example.demo.core.infrastructure.metrics.LatencyHistograms;
+import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiResponse;
+import io.swagger.annotations.ApiResponses;
+import lombok.NoArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 서버 지표에 대한 컨트롤러이다.
+ *
+ * @author jonghyeon
+ */
+@NoArgsConstructor
+@RestController
+@RequestMapping("/server/metrics")
+public class MetricsController {
+    /**
+     * 지연시간 히스토그램
+     */
+    @Autowired
+    private LatencyHistograms latencyHistograms;
+
+    /**
+     * 이진 접근 로그
+     */
+    @Autowired
+    private AccessLog accessLog;
+
+    /**
+     * 거래 로그 인터셉터
+     */
+    @Autowired
+    private LoggerInterceptor loggerInterceptor;
+
+    /**
+     * 파일시스템 요청 실행기
+     */
+    @Autowired
+    private FileRequestExecutor fileRequestExecutor;
+
+    /**
+     * 동시 요청 한도 인터셉터
+     */
+    @Autowired
+    private ConcurrencyLimitInterceptor concurrencyLimitInterceptor;
+
+    @ApiOperation(value = "지연시간 조회", nickname = "retrieveLatency")
+    @ApiResponses(value = {@ApiResponse(code = 200, message = "Success")})
+    @GetMapping(value = "/latency")
+    public void retrieveLatency(HttpServletResponse response) throws IOException {
+        response.setContentType("text/plain;charset=UTF-8");
+        latencyHistograms.print(new PrintWriter(new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8)));
+    }
+
+    @ApiOperation(value = "비동기 로그 현황 조회", nickname = "retrieveLogging")
+    @ApiResponses(value = {@ApiResponse(code = 200, message = "Success")})
+    @GetMapping(value = "/logging")
+    public void retrieveLogging(HttpServletResponse response) throws IOException {
+        response.setContentType("text/plain;charset=UTF-8");
+        final PrintWriter out = new PrintWriter(new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8));
+        for (AsyncLogAppender appender : AsyncLogAppender.all()) {
+            appender.print(out);
+        }
+        out.printf("%s\tenabled=%s\trecords=%d\tdropped=%d%n", AccessLog.FILE_NAME, accessLog.isEnabled(), accessLog.getRecords(), accessLog.getDropped());
+        out.printf("LoggerInterceptor\tpolicy=%s\tlogged=%d\tdropped=%d%n", loggerInterceptor.getPolicy(), loggerInterceptor.getLogged(),
+                loggerInterceptor.getDropped());
+        out.flush();
+    }
+
+    @ApiOperation(value = "파일시스템 요청 현황 조회", nickname = "retrieveFileRequests")
+    @ApiResponses(value = {@ApiResponse(code = 200, message = "Success")})
+    @GetMapping(value = "/files")
+    public void retrieveFileRequests(HttpServletResponse response) throws IOException {
+        response.setContentType("text/plain;charset=UTF-8");
+        fileRequestExecutor.print(new PrintWriter(new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8)));
+    }
+
+    @ApiOperation(value = "동시 요청 한도 조회", nickname = "retrieveLimits")
+    @ApiResponses(value = {@ApiResponse(code = 200, message = "Success")})
+    @GetMapping(value = "/limits")
+    public void retrieveLimits(HttpServletResponse response) throws IOException {
+        response.setContentType("text/plain;charset=UTF-8");
+        concurrencyLimitInterceptor.print(new PrintWriter(new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8)));
+    }
+}
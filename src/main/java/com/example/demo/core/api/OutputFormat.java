@@ -0,0 +1,118 @@
+package com.example.demo.core.api;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * 응답 형식이다.
+ * <p>
+ * Accept 헤더에서 선호도(q)가 높은 순서로 제공하는 형식을 고르며, 와일드카드(*&#47;*)만 있거나 맞는 형식이 없으면 첫 번째 제공 형식(HTML)을 사용한다.
+ * HTML 외의 형식은 Jackson 생성기로 토큰 단위로 바로 출력하므로 중간 문자열이나 트리를 만들지 않는다.
+ *
+ * @author jonghyeon
+ */
+@Getter
+@AllArgsConstructor
+public enum OutputFormat {
+    /**
+     * HTML (브라우저 기본)
+     */
+    HTML("text/html;charset=UTF-8", MediaType.TEXT_HTML, null),
+
+    /**
+     * JSON
+     */
+    JSON("application/json", MediaType.APPLICATION_JSON, new JsonFactory().disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)),
+
+    /**
+     * 줄 단위 JSON (목록의 항목마다 한 줄)
+     */
+    NDJSON("application/x-ndjson", MediaType.parseMediaType("application/x-ndjson"), new JsonFactory().disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)),
+
+    /**
+     * CBOR (RFC 8949 바이너리 JSON)
+     */
+    CBOR("application/cbor", MediaType.parseMediaType("application/cbor"), new CBORFactory().disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET));
+
+    /**
+     * Content-Type 헤더값
+     */
+    private final String contentType;
+
+    /**
+     * 미디어 유형
+     */
+    private final MediaType mediaType;
+
+    /**
+     * 생성기 팩토리 (HTML 은 NULL)
+     */
+    private final JsonFactory factory;
+
+    /**
+     * Accept 헤더에 맞는 형식을 고른다.
+     *
+     * @param accept Accept 헤더값
+     * @param offered 제공하는 형식 목록 (첫 번째가 기본 형식)
+     *
+     * @return 응답 형식
+     */
+    public static OutputFormat negotiate(String accept, OutputFormat... offered) {
+        if (null == accept) {
+            return offered[0];
+        }
+
+        final List<MediaType> accepted;
+        try {
+            accepted = MediaType.parseMediaTypes(accept);
+        }
+        catch (InvalidMediaTypeException e) {
+            return offered[0];
+        }
+        MediaType.sortBySpecificityAndQuality(accepted);
+
+        for (MediaType mediaType : accepted) {
+            if (mediaType.getQualityValue() <= 0.0) {
+                continue;
+            }
+            // 와일드카드는 기본 형식을 뜻한다.
+            if (mediaType.isWildcardType()) {
+                return offered[0];
+            }
+            for (OutputFormat format : offered) {
+                if (mediaType.includes(format.mediaType)) {
+                    return format;
+                }
+            }
+        }
+
+        return offered[0];
+    }
+
+    /**
+     * 출력 스트림에 쓰는 생성기를 만든다. 생성기를 닫아도 출력 스트림은 닫히지 않는다.
+     *
+     * @param out 출력 스트림
+     *
+     * @return 생성기
+     * @throws IOException 입출력 예외
+     */
+    public JsonGenerator createGenerator(OutputStream out) throws IOException {
+        final JsonGenerator generator = factory.createGenerator(out);
+        if (NDJSON == this) {
+            generator.setRootValueSeparator(new SerializedString("\n"));
+        }
+
+        return generator;
+    }
+}
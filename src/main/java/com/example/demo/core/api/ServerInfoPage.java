@@ -0,0 +1,124 @@
+package com.example.demo.core.api;
+
+import com.example.demo.core.infrastructure.configuration.ServerInfo;
+import com.example.demo.core.util.PrecompressedContent;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * 서버정보와 그로부터 만든 형식별 화면이다. 서블릿과 리액티브 서버가 같은 응답 본문을 쓰도록 함께 사용한다.
+ *
+ * @author jonghyeon
+ */
+public final class ServerInfoPage {
+    /**
+     * 제공하는 형식 (첫 번째가 기본 형식)
+     */
+    private static final OutputFormat[] FORMATS = {OutputFormat.HTML, OutputFormat.JSON, OutputFormat.CBOR};
+
+    /**
+     * 화면을 만든 서버정보
+     */
+    private final ServerInfo serverInfo;
+
+    /**
+     * 형식별 화면
+     */
+    private final Map<OutputFormat, PrecompressedContent> contents = new EnumMap<>(OutputFormat.class);
+
+    private ServerInfoPage(ServerInfo serverInfo) {
+        this.serverInfo = serverInfo;
+        contents.put(OutputFormat.HTML, PrecompressedContent.of(OutputFormat.HTML.getContentType(), renderServerInfo(serverInfo)));
+        contents.put(OutputFormat.JSON, PrecompressedContent.of(OutputFormat.JSON.getContentType(), renderServerInfo(serverInfo, OutputFormat.JSON)));
+        contents.put(OutputFormat.CBOR, PrecompressedContent.of(OutputFormat.CBOR.getContentType(), renderServerInfo(serverInfo, OutputFormat.CBOR)));
+    }
+
+    /**
+     * 서버정보가 바뀐 경우에만 화면을 형식별로 다시 만든다.
+     *
+     * @param page 이전 화면 (없으면 NULL)
+     * @param serverInfo 현재 서버정보
+     *
+     * @return 현재 서버정보의 화면
+     */
+    public static ServerInfoPage of(ServerInfoPage page, ServerInfo serverInfo) {
+        return (null != page && page.serverInfo == serverInfo) ? page : new ServerInfoPage(serverInfo);
+    }
+
+    /**
+     * Accept 헤더에 맞는 형식의 화면을 반환한다.
+     *
+     * @param accept Accept 헤더값
+     *
+     * @return 화면
+     */
+    public PrecompressedContent negotiate(String accept) {
+        return contents.get(OutputFormat.negotiate(accept, FORMATS));
+    }
+
+    /**
+     * 어플리케이션 서버정보를 생성기로 작성한다.
+     *
+     * @param serverInfo 서버정보
+     * @param format 응답 형식 (HTML 제외)
+     *
+     * @return 서버정보 본문
+     */
+    private static byte[] renderServerInfo(ServerInfo serverInfo, OutputFormat format) {
+        final ByteArrayOutputStream body = new ByteArrayOutputStream(256);
+        try (JsonGenerator generator = format.createGenerator(body)) {
+            generator.writeStartObject();
+            generator.writeStringField("envCd", serverInfo.getEnvCd().getCode());
+            generator.writeStringField("profile", serverInfo.getProfile());
+            generator.writeStringField("version", serverInfo.getVersion());
+            generator.writeStringField("buildVersion", serverInfo.getBuildVersion());
+            generator.writeStringField("buildTime", (null == serverInfo.getBuildTime()) ? null : serverInfo.getBuildTime().toString());
+            generator.writeArrayFieldStart("activeProfiles");
+            for (String profile : serverInfo.getActiveProfiles().split(",")) {
+                if (!profile.isEmpty()) {
+                    generator.writeString(profile);
+                }
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return body.toByteArray();
+    }
+
+    /**
+     * 어플리케이션 서버정보 HTML 을 작성한다.
+     *
+     * @param serverInfo 서버정보
+     *
+     * @return 서버정보 HTML
+     */
+    private static String renderServerInfo(ServerInfo serverInfo) {
+        // 어플리케이션 서버정보를 담은 HTML를 작성한다.
+        StringBuilder appInfo = new StringBuilder();
+        appInfo.append("<html lang=\"ko\">");
+        appInfo.append("<head><meta charset=\"UTF-8\"/></head>");
+        appInfo.append("<body style=\"font-size:25px;\">");
+        appInfo.append("<div style=\" position:absolute; border:black 2px solid; margin:auto; top:0; right:0; bottom:0; left:0; width:50%; height:50%;\">");
+        appInfo.append("<div>");
+        appInfo.append("<h2 style=\"text-align: center;\">Welcome Demo !</h2>");
+        appInfo.append("</div>");
+        appInfo.append("<ul>");
+        appInfo.append("<li><b>Version</b> : ").append(serverInfo.getVersion()).append("</li>");
+        appInfo.append("<li><b>Profile</b> : ").append(serverInfo.getProfile()).append("</li>");
+        appInfo.append("</ul>");
+        appInfo.append("</div>");
+        appInfo.append("</body>");
+        appInfo.append("</html>");
+
+        return appInfo.toString();
+    }
+}
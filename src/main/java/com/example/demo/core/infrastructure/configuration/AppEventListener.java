@@ -1,18 +1,14 @@
 package com.example.demo.core.infrastructure.configuration;
 
-import com.example.demo.core.infrastructure.constant.EnvCd;
-import com.example.demo.core.util.CheckUtil;
-import com.example.demo.core.util.DateUtil;
+import com.example.demo.core.infrastructure.logging.AsyncLogAppender;
+import com.example.demo.core.util.CachedClock;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.event.EventListener;
-import org.springframework.core.env.Environment;
 import org.springframework.stereotype.Component;
 
 import javax.annotation.PreDestroy;
-import java.time.LocalDateTime;
 
 /**
  * 어플리케이션 서버 시작과 종료 이벤트를 수신하는 리스너이다.
@@ -23,16 +19,21 @@ import java.time.LocalDateTime;
 @Component
 public class AppEventListener {
     /**
-     * 스프링 환경 제공자
+     * 종료 시 비동기 로그를 내보내는 최대 대기시간(밀리초)
+     */
+    private static final long FLUSH_TIMEOUT_MILLIS = 5000L;
+
+    /**
+     * 서버정보 제공자
      */
     @Autowired
-    private Environment environment;
+    private ServerInfoProvider serverInfoProvider;
 
     /**
-     * 서버 버전정보
+     * 현재시각 제공자
      */
-    @Value("${demo.info.version}")
-    private String SERVER_VERSION;
+    @Autowired
+    private CachedClock cachedClock;
 
     /**
      * 어플리케이션 서버 시작 시 동작한다.
@@ -42,34 +43,46 @@ public class AppEventListener {
     @EventListener
     public void onStartUp(ApplicationReadyEvent event) {
 
-        // 현재 환경코드를 구한다.
-        EnvCd curEnvCd = EnvCd.codeOf(CheckUtil.nvl(environment.getActiveProfiles()[0], EnvCd.Production.getCode()));
+        // 시작 시 만들어 둔 서버정보를 구한다.
+        ServerInfo serverInfo = serverInfoProvider.get();
 
         // 어플리케이션 서버정보를 출력한다.
         if (log.isInfoEnabled()) {
             log.info("");
             log.info("############################################    Demo Server Start Up   ###########################################");
             log.info("--------------------------------------------         INFORMATION       -------------------------------------------");
-            log.info(String.format("#    Start Up Time : %s", DateUtil.toYmsString(LocalDateTime.now(), "yyyy-MM-dd HH:mm:ss")));
-            log.info(String.format("#    Version       : %s", SERVER_VERSION));
-            log.info(String.format("#    Profile       : %s", String.format("%s(%s)", curEnvCd.getTitle(), curEnvCd.name())));
+            log.info(String.format("#    Start Up Time : %s", cachedClock.toYmsDashString()));
+            log.info(String.format("#    Version       : %s", serverInfo.getVersion()));
+            log.info(String.format("#    Profile       : %s", serverInfo.getProfile()));
+            if (null != serverInfo.getBuildTime()) {
+                log.info(String.format("#    Build         : %s (%s)", serverInfo.getBuildVersion(), serverInfo.getBuildTime()));
+            }
             log.info("##################################################################################################################");
             log.info("");
         }
     }
 
     /**
-     * 어플리케이션 서버 종료 시 동작한다.
+     * 어플리케이션 서버 종료 시 동작한다. 종료 기록까지 비동기 로그를 모두 내보낸다.
      */
     @PreDestroy
     public void onShutDown() {
         if (log.isInfoEnabled()) {
             log.info("");
             log.info("######################################         Demo Server ShutDown       ######################################");
-            log.info(String.format("#    ShutDown Time : %s", DateUtil.toYmsString(LocalDateTime.now(), "yyyy-MM-dd HH:mm:ss")));
+            log.info(String.format("#    ShutDown Time : %s", cachedClock.toYmsDashString()));
             log.info("#################################################################################################################");
             log.info("");
 
         }
+
+        for (AsyncLogAppender appender : AsyncLogAppender.all()) {
+            if (appender.getDropped() > 0L) {
+                log.warn(String.format("비동기 로그 어팬더(%s)가 버린 로그가 %d 건 있습니다.", appender.getName(), appender.getDropped()));
+            }
+            if (!appender.flush(FLUSH_TIMEOUT_MILLIS)) {
+                log.error(String.format("비동기 로그 어팬더(%s)를 제한시간(%d밀리초) 안에 모두 내보내지 못했습니다.", appender.getName(), FLUSH_TIMEOUT_MILLIS));
+            }
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,520 @@
+package com.example.demo.core.infrastructure.configuration;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.PathMatcher;
+import org.springframework.util.StringUtils;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.handler.HandlerInterceptorAdapter;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.DispatcherType;
+import javax.servlet.ServletRequest;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 핸들러 그룹별로 동시에 처리하는 요청 수를 제한하는 인터셉터이다.
+ * <p>
+ * 한도는 고정값이 아니라 관측한 처리시간으로 추정한다(gradient 방식).
+ * 구간(window)마다 평균 처리시간을 무부하 처리시간(구간 평균의 최소값)과 비교하여, 허용 배율보다 길어지면 대기열이 쌓이는 것으로 보고 그 비율만큼 한도를 줄이고
+ * 그렇지 않으면 한도의 제곱근만큼 늘린다. 장기 평균과 비교하면 과부하가 이어질 때 기준이 따라 올라가므로 최소값을 쓰고, 조금씩 올려 실제 변화를 반영한다.
+ * 503 으로 끝난 요청이 있으면 한도를 곱으로 줄이되, 핸들러가 자신의 한도로 거절한 503({@link #LOCAL_REJECTION_ATTRIBUTE} 표시)은 그룹의 혼잡으로 보지 않는다.
+ * 처리시간이 전송량이나 작업량에 따르는 그룹(파일 내려받기, 집계 작업 등)은 처리시간으로 한도를 추정할 수 없으므로 adaptive 를 끄고 초기 한도를 고정 한도로 쓴다.
+ * 한도를 넘는 요청은 기다리게 하지 않고 바로 503 과 Retry-After 로 거절하므로, 과부하에서도 처리하는 요청의 지연시간이 늘어나지 않는다.
+ * 비동기 요청은 마지막 디스패치가 끝날 때까지 처리 중으로 본다.
+ *
+ * @author jonghyeon
+ */
+@Slf4j
+@Component
+public class ConcurrencyLimitInterceptor extends HandlerInterceptorAdapter {
+    /**
+     * 핸들러가 자신의 한도(엔드포인트별 대기열 등)로 거절한 503 임을 표시하는 요청 속성명 (값은 무엇이든 된다.)
+     */
+    public static final String LOCAL_REJECTION_ATTRIBUTE = ConcurrencyLimitInterceptor.class.getName() + ".localRejection";
+
+    /**
+     * 처리 허가를 담는 요청 속성명
+     */
+    private static final String PERMIT_ATTRIBUTE = ConcurrencyLimitInterceptor.class.getName() + ".permit";
+
+    /**
+     * 어느 그룹에도 속하지 않는 핸들러의 그룹명
+     */
+    private static final String DEFAULT_GROUP = "default";
+
+    /**
+     * 구간의 최소 표본 수
+     */
+    private static final int MIN_WINDOW_SAMPLES = 10;
+
+    /**
+     * 무부하 처리시간의 구간당 증가 비율
+     */
+    private static final double NO_LOAD_RTT_DRIFT = 0.002;
+
+    /**
+     * 새 한도의 반영 비율
+     */
+    private static final double SMOOTHING = 0.2;
+
+    /**
+     * 503 이 있었던 구간의 한도 감소 비율
+     */
+    private static final double BACKOFF = 0.9;
+
+    /**
+     * 핸들러 그룹의 한도와 현황이다.
+     */
+    private static final class Group {
+        /**
+         * 그룹명
+         */
+        private final String name;
+
+        /**
+         * 핸들러 패턴
+         */
+        private final List<String> patterns;
+
+        /**
+         * 초기 한도, 최소 한도, 최대 한도
+         */
+        private final int initialLimit;
+        private final int minLimit;
+        private final int maxLimit;
+
+        /**
+         * 처리시간 허용 배율, 구간 길이(나노초)
+         */
+        private final double tolerance;
+        private final long window;
+
+        /**
+         * 처리시간으로 한도를 추정하는지 여부 (거짓이면 초기 한도를 고정 한도로 쓴다.)
+         */
+        private final boolean adaptive;
+
+        /**
+         * 현재 한도
+         */
+        private volatile int limit;
+
+        /**
+         * 처리 중인 요청 수
+         */
+        private final AtomicInteger inFlight = new AtomicInteger();
+
+        /**
+         * 처리한 건수, 한도를 넘어 거절한 건수, 503 으로 끝난 건수
+         */
+        private final AtomicLong accepted = new AtomicLong();
+        private final AtomicLong rejected = new AtomicLong();
+        private final AtomicLong dropped = new AtomicLong();
+
+        /**
+         * 추정 한도, 마지막 구간 평균 처리시간, 무부하 처리시간(나노초) (그룹 객체로 동기화한다.)
+         */
+        private double estimatedLimit;
+        private double rtt;
+        private double noLoadRtt;
+
+        /**
+         * 현재 구간의 시작시각, 처리시간 합, 표본 수, 최대 동시 요청 수, 503 여부 (그룹 객체로 동기화한다.)
+         */
+        private long windowStart = System.nanoTime();
+        private long windowSum;
+        private int windowCount;
+        private int windowMaxInFlight;
+        private boolean windowDropped;
+
+        private Group(String name, List<String> patterns, int initialLimit, int minLimit, int maxLimit, double tolerance, long window, boolean adaptive) {
+            if (minLimit <= 0 || minLimit > maxLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+                throw new IllegalArgumentException(String.format("동시 요청 한도(%s: 초기 %d, 최소 %d, 최대 %d)가 잘못되었습니다.", name, initialLimit, minLimit, maxLimit));
+            }
+            if (tolerance < 1.0) {
+                throw new IllegalArgumentException(String.format("처리시간 허용 배율(%s: %s)은 1 이상이어야 합니다.", name, tolerance));
+            }
+
+            this.name = name;
+            this.patterns = patterns;
+            this.initialLimit = initialLimit;
+            this.minLimit = minLimit;
+            this.maxLimit = maxLimit;
+            this.tolerance = tolerance;
+            this.window = window;
+            this.adaptive = adaptive;
+            this.limit = initialLimit;
+            this.estimatedLimit = initialLimit;
+        }
+
+        /**
+         * 한도 안이면 처리 중인 요청 수를 늘린다.
+         *
+         * @return 처리 중인 요청 수 (한도를 넘으면 0)
+         */
+        private int tryAcquire() {
+            while (true) {
+                final int current = inFlight.get();
+                if (current >= limit) {
+                    return 0;
+                }
+                if (inFlight.compareAndSet(current, current + 1)) {
+                    return current + 1;
+                }
+            }
+        }
+
+        /**
+         * 처리가 끝난 요청을 표본으로 반영한다.
+         *
+         * @param nanos 처리시간(나노초)
+         * @param concurrency 허가 시의 처리 중인 요청 수
+         * @param drop 혼잡으로 503 이 되었는지 여부
+         */
+        private void release(long nanos, int concurrency, boolean drop) {
+            inFlight.decrementAndGet();
+            accepted.incrementAndGet();
+            if (drop) {
+                dropped.incrementAndGet();
+            }
+            if (!adaptive) {
+                return;
+            }
+
+            synchronized (this) {
+                windowSum += nanos;
+                windowCount++;
+                windowMaxInFlight = Math.max(windowMaxInFlight, concurrency);
+                windowDropped |= drop;
+
+                final long now = System.nanoTime();
+                if (windowCount < MIN_WINDOW_SAMPLES || now - windowStart < window) {
+                    return;
+                }
+                update((double) windowSum / windowCount, windowMaxInFlight, windowDropped);
+
+                windowStart = now;
+                windowSum = 0L;
+                windowCount = 0;
+                windowMaxInFlight = 0;
+                windowDropped = false;
+            }
+        }
+
+        /**
+         * 구간의 평균 처리시간으로 한도를 다시 추정한다. 그룹 객체를 잠근 상태에서 호출해야 한다.
+         *
+         * @param rtt 구간 평균 처리시간(나노초)
+         * @param maxInFlight 구간의 최대 동시 요청 수
+         * @param drop 구간에 503 이 있었는지 여부
+         */
+        private void update(double rtt, int maxInFlight, boolean drop) {
+            this.rtt = rtt;
+            noLoadRtt = (0.0 == noLoadRtt) ? rtt : Math.min(rtt, noLoadRtt * (1.0 + NO_LOAD_RTT_DRIFT));
+
+            final double gradient = Math.max(0.5, Math.min(1.0, tolerance * noLoadRtt / rtt));
+            final double next;
+            if (drop) {
+                next = estimatedLimit * BACKOFF;
+            }
+            else if (maxInFlight < estimatedLimit / 2.0 && (gradient < 1.0 || estimatedLimit >= initialLimit)) {
+                // 한도의 절반도 쓰지 않았으면 처리시간이 늘어난 원인이 동시 요청이 아니므로 줄이지 않고, 쓰지 않는 한도는 초기 한도보다 늘리지 않는다.
+                return;
+            }
+            else {
+                next = estimatedLimit * (1.0 - SMOOTHING) + (estimatedLimit * gradient + Math.sqrt(estimatedLimit)) * SMOOTHING;
+            }
+
+            estimatedLimit = Math.max(minLimit, Math.min(maxLimit, next));
+            limit = (int) estimatedLimit;
+        }
+    }
+
+    /**
+     * 요청 하나의 처리 허가이다. 비동기 요청은 비동기 처리가 끝날 때 반납한다.
+     */
+    private static final class Permit implements AsyncListener {
+        private final Group group;
+
+        /**
+         * 허가 시의 처리 중인 요청 수
+         */
+        private final int concurrency;
+
+        /**
+         * 시작시각(나노초)
+         */
+        private final long start = System.nanoTime();
+
+        /**
+         * 반납 여부
+         */
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(Group group, int concurrency) {
+            this.group = group;
+            this.concurrency = concurrency;
+        }
+
+        /**
+         * 허가를 한 번만 반납한다.
+         *
+         * @param drop 혼잡으로 503 이 되었는지 여부
+         */
+        private void release(boolean drop) {
+            if (released.compareAndSet(false, true)) {
+                group.release(System.nanoTime() - start, concurrency, drop);
+            }
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release(isDrop(event.getSuppliedRequest(), ((HttpServletResponse) event.getSuppliedResponse()).getStatus()));
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release(true);
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release(false);
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+
+    /**
+     * 패턴 비교기
+     */
+    private final PathMatcher pathMatcher = new AntPathMatcher();
+
+    /**
+     * 사용 여부
+     */
+    private final boolean enabled;
+
+    /**
+     * 거절 시 Retry-After(초)
+     */
+    private final long retryAfter;
+
+    /**
+     * 설정한 순서의 그룹 (마지막은 기본 그룹)
+     */
+    private final List<Group> groups = new ArrayList<>();
+
+    /**
+     * 핸들러 패턴별 그룹
+     */
+    private final ConcurrentMap<String, Group> groupsByPattern = new ConcurrentHashMap<>();
+
+    public ConcurrencyLimitInterceptor(Environment environment, @Value("${demo.limits.enabled:true}") boolean enabled,
+            @Value("${demo.limits.groups:}") String groups, @Value("${demo.limits.retry-after:1}") long retryAfter) {
+        if (retryAfter < 0) {
+            throw new IllegalArgumentException(String.format("Retry-After(%d)는 0 이상이어야 합니다.", retryAfter));
+        }
+
+        for (String name : StringUtils.commaDelimitedListToSet(groups)) {
+            final String group = name.trim();
+            if (group.isEmpty() || DEFAULT_GROUP.equals(group)) {
+                continue;
+            }
+            final List<String> patterns = new ArrayList<>();
+            for (String pattern : StringUtils.commaDelimitedListToStringArray(environment.getProperty("demo.limits." + group + ".patterns", ""))) {
+                if (!pattern.trim().isEmpty()) {
+                    patterns.add(pattern.trim());
+                }
+            }
+            if (patterns.isEmpty()) {
+                throw new IllegalArgumentException(String.format("동시 요청 한도 그룹(%s)의 핸들러 패턴이 없습니다.", group));
+            }
+            this.groups.add(newGroup(environment, group, patterns));
+        }
+        this.groups.add(newGroup(environment, DEFAULT_GROUP, Collections.emptyList()));
+
+        this.enabled = enabled;
+        this.retryAfter = retryAfter;
+        log.info(String.format("동시 요청 한도 그룹 %d개를 준비했습니다.(사용 여부: %s)", this.groups.size(), enabled));
+    }
+
+    /**
+     * 그룹별 설정(demo.limits.{group}.*, 없으면 demo.limits.*)으로 그룹을 만든다.
+     *
+     * @param environment 스프링 환경 제공자
+     * @param name 그룹명
+     * @param patterns 핸들러 패턴
+     *
+     * @return 그룹
+     */
+    private static Group newGroup(Environment environment, String name, List<String> patterns) {
+        final int initialLimit = property(environment, name, "initial-limit", Integer.class, 20);
+        final int minLimit = property(environment, name, "min-limit", Integer.class, 4);
+        final int maxLimit = property(environment, name, "max-limit", Integer.class, 200);
+        final double tolerance = property(environment, name, "tolerance", Double.class, 1.5);
+        final long window = property(environment, name, "window", Long.class, 100L);
+        final boolean adaptive = property(environment, name, "adaptive", Boolean.class, true);
+        return new Group(name, patterns, initialLimit, minLimit, maxLimit, tolerance, TimeUnit.MILLISECONDS.toNanos(Math.max(window, 1L)), adaptive);
+    }
+
+    /**
+     * 그룹 설정을 읽는다. 그룹 설정이 없으면 공통 설정을 읽는다.
+     *
+     * @param environment 스프링 환경 제공자
+     * @param group 그룹명
+     * @param key 설정 키
+     * @param type 설정값 유형
+     * @param defaultValue 기본값
+     * @param <T> 설정값 유형
+     *
+     * @return 설정값
+     */
+    private static <T> T property(Environment environment, String group, String key, Class<T> type, T defaultValue) {
+        return environment.getProperty("demo.limits." + group + "." + key, type, environment.getProperty("demo.limits." + key, type, defaultValue));
+    }
+
+    /**
+     * 그룹의 한도 안이면 요청을 처리하고, 넘으면 503 과 Retry-After 로 바로 거절한다.
+     *
+     * @param request 요청 데이터
+     * @param response 응답 데이터
+     * @param handler 핸들러
+     *
+     * @return 한도 안이면 참
+     * @throws IOException 입출력 예외
+     */
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws IOException {
+        // 비동기 디스패치는 처음 디스패치의 허가를 그대로 쓰고, 오류 페이지 디스패치는 원래 요청에서 이미 허가를 받았다.
+        if (!enabled || DispatcherType.REQUEST != request.getDispatcherType()) {
+            return true;
+        }
+
+        final Group group = groupOf((String) request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE));
+        final int concurrency = group.tryAcquire();
+        if (0 == concurrency) {
+            group.rejected.incrementAndGet();
+            response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+            response.setContentType("text/plain;charset=UTF-8");
+            response.getWriter().write(String.format("처리 중인 요청이 많습니다.(%s: %d)", group.name, group.limit));
+            return false;
+        }
+
+        request.setAttribute(PERMIT_ATTRIBUTE, new Permit(group, concurrency));
+        return true;
+    }
+
+    /**
+     * 비동기 처리가 시작되면 비동기 처리가 끝날 때 허가를 반납하도록 한다.
+     *
+     * @param request 요청 데이터
+     * @param response 응답 데이터
+     * @param handler 핸들러
+     */
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        final Object permit = request.getAttribute(PERMIT_ATTRIBUTE);
+        if (permit instanceof Permit) {
+            request.getAsyncContext().addListener((Permit) permit);
+        }
+    }
+
+    /**
+     * 거래가 끝나면 허가를 반납한다. 예외로 끝났는데 응답 상태가 오류가 아니면 500 으로 본다.
+     *
+     * @param request 요청 데이터
+     * @param response 응답 데이터
+     * @param handler 핸들러
+     * @param exception 예외
+     */
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception exception) {
+        final Object permit = request.getAttribute(PERMIT_ATTRIBUTE);
+        if (!(permit instanceof Permit) || request.isAsyncStarted()) {
+            return;
+        }
+
+        final int status = (null != exception && response.getStatus() < HttpServletResponse.SC_BAD_REQUEST) ? HttpServletResponse.SC_INTERNAL_SERVER_ERROR
+                : response.getStatus();
+        ((Permit) permit).release(isDrop(request, status));
+    }
+
+    /**
+     * 그룹의 혼잡으로 503 이 되었는지 여부를 반환한다. 핸들러가 자신의 한도로 거절한 503 은 제외한다.
+     *
+     * @param request 요청 데이터
+     * @param status 응답 상태
+     *
+     * @return 혼잡 여부
+     */
+    private static boolean isDrop(ServletRequest request, int status) {
+        return HttpServletResponse.SC_SERVICE_UNAVAILABLE == status && null == request.getAttribute(LOCAL_REJECTION_ATTRIBUTE);
+    }
+
+    /**
+     * 핸들러 패턴이 속한 그룹을 찾는다. 설정한 순서로 처음 일치하는 그룹이며, 없으면 기본 그룹이다.
+     *
+     * @param pattern 핸들러 패턴
+     *
+     * @return 그룹
+     */
+    private Group groupOf(String pattern) {
+        if (null == pattern) {
+            return groups.get(groups.size() - 1);
+        }
+
+        return groupsByPattern.computeIfAbsent(pattern, key -> {
+            for (Group group : groups) {
+                for (String groupPattern : group.patterns) {
+                    if (pathMatcher.match(groupPattern, key)) {
+                        return group;
+                    }
+                }
+            }
+            return groups.get(groups.size() - 1);
+        });
+    }
+
+    /**
+     * 그룹별 한도와 현황을 출력한다.
+     *
+     * @param out 출력
+     */
+    public void print(PrintWriter out) {
+        for (Group group : groups) {
+            final double rtt;
+            final double noLoadRtt;
+            synchronized (group) {
+                rtt = group.rtt;
+                noLoadRtt = group.noLoadRtt;
+            }
+            out.printf("%s\tenabled=%s\tadaptive=%s\tlimit=%d\tminLimit=%d\tmaxLimit=%d\tinFlight=%d\taccepted=%d\trejected=%d\tdropped=%d\trtt=%.2fms\tnoLoadRtt=%.2fms\tpatterns=%s%n",
+                    group.name, enabled, group.adaptive, group.limit, group.minLimit, group.maxLimit, group.inFlight.get(), group.accepted.get(), group.rejected.get(),
+                    group.dropped.get(), rtt / 1_000_000.0, noLoadRtt / 1_000_000.0, group.patterns);
+        }
+        out.flush();
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.demo.core.infrastructure.configuration;
+
+import com.example.demo.core.infrastructure.logging.AccessLog;
+import com.example.demo.core.infrastructure.metrics.LatencyHistograms;
+import org.apache.catalina.Globals;
+import org.apache.catalina.connector.ResponseFacade;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.handler.HandlerInterceptorAdapter;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.ServletResponse;
+import javax.servlet.ServletResponseWrapper;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * http 거래의 지연시간을 핸들러 패턴별로 기록하고 이진 접근 로그를 남기는 인터셉터이다.
+ * <p>
+ * 가장 먼저 등록하여 다른 인터셉터(검증 등)의 처리시간까지 포함한다.
+ * 비동기 요청은 처음 디스패치의 시작시각을 유지하고 마지막 디스패치가 끝날 때 한 번만 기록하며,
+ * 오류 페이지(/error) 디스패치는 원래 요청에서 이미 기록했으므로 기록하지 않는다.
+ *
+ * @author jonghyeon
+ */
+@Component
+public class LatencyInterceptor extends HandlerInterceptorAdapter {
+    /**
+     * 시작시각(나노초)을 담는 요청 속성명
+     */
+    private static final String START_ATTRIBUTE = LatencyInterceptor.class.getName() + ".start";
+
+    /**
+     * 지연시간 히스토그램
+     */
+    private final LatencyHistograms latencyHistograms;
+
+    /**
+     * 이진 접근 로그
+     */
+    private final AccessLog accessLog;
+
+    public LatencyInterceptor(LatencyHistograms latencyHistograms, AccessLog accessLog) {
+        this.latencyHistograms = latencyHistograms;
+        this.accessLog = accessLog;
+    }
+
+    /**
+     * 거래 시작시각을 기록한다.
+     *
+     * @param request 요청 데이터
+     * @param response 응답 데이터
+     * @param handler 핸들러
+     *
+     * @return 항상 참
+     */
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (null == request.getAttribute(START_ATTRIBUTE)) {
+            request.setAttribute(START_ATTRIBUTE, System.nanoTime());
+        }
+        return true;
+    }
+
+    /**
+     * 거래 종료 시 지연시간을 기록한다. 예외로 끝났는데 응답 상태가 오류가 아니면 500 으로 본다.
+     *
+     * @param request 요청 데이터
+     * @param response 응답 데이터
+     * @param handler 핸들러
+     * @param exception 예외
+     */
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception exception) {
+        final Object start = request.getAttribute(START_ATTRIBUTE);
+        if (null == start || DispatcherType.ERROR == request.getDispatcherType()) {
+            return;
+        }
+
+        final int status = (null != exception && response.getStatus() < HttpServletResponse.SC_BAD_REQUEST) ? HttpServletResponse.SC_INTERNAL_SERVER_ERROR
+                : response.getStatus();
+        final String pattern = (String) request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        final long nanos = System.nanoTime() - (Long) start;
+        latencyHistograms.record(pattern, status, nanos);
+        accessLog.record(pattern, status, nanos, request.getContentLengthLong(), bytesWritten(request, response));
+    }
+
+    /**
+     * 응답 바이트 수를 구한다. 톰캣 응답이면 본문에 쓴 바이트 수를 반환하며,
+     * sendfile 로 넘긴 경우에는 응답 완료 후 컨테이너가 보내므로 sendfile 구간의 길이를 반환한다.
+     *
+     * @param request 요청 데이터
+     * @param response 응답 데이터
+     *
+     * @return 응답 바이트 수 (모르면 -1)
+     */
+    private static long bytesWritten(HttpServletRequest request, HttpServletResponse response) {
+        final Object start = request.getAttribute(Globals.SENDFILE_FILE_START_ATTR);
+        final Object end = request.getAttribute(Globals.SENDFILE_FILE_END_ATTR);
+        if (start instanceof Long && end instanceof Long) {
+            return (Long) end - (Long) start;
+        }
+
+        ServletResponse unwrapped = response;
+        while (unwrapped instanceof ServletResponseWrapper) {
+            unwrapped = ((ServletResponseWrapper) unwrapped).getResponse();
+        }
+        return (unwrapped instanceof ResponseFacade) ? ((ResponseFacade) unwrapped).getContentWritten() : -1L;
+    }
+}
@@ -1,14 +1,28 @@
 package com.example.demo.core.infrastructure.configuration;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerMapping;
 import org.springframework.web.servlet.handler.HandlerInterceptorAdapter;
 
+import javax.servlet.DispatcherType;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * http 거래에 대한 로그 인터셉터이다.
+ * <p>
+ * 거래가 끝날 때 정책({@link RequestLogPolicy})에 맞는 요청만 "METHOD URI STATUS 처리시간ms" 한 줄을 남긴다.
+ * 줄은 스레드별로 재사용하는 버퍼에 직접 쓰며(String.format 없음), 로그를 남기지 않는 요청은 객체를 만들지 않는다.
+ * 쿼리 문자열은 남기지 않고 URI 의 제어문자는 '_' 로 바꾸어 로그 줄을 조작할 수 없게 한다.
+ * 시작시각은 스레드별로 두며, 비동기 요청만 디스패치가 바뀌므로 요청 속성에 옮겨 둔다.
+ * 오류 페이지(/error) 디스패치는 원래 요청에서 이미 기록했으므로 기록하지 않는다.
  *
  * @author jonghyeon
  */
@@ -16,35 +30,249 @@ import javax.servlet.http.HttpServletResponse;
 @Component
 public class LoggerInterceptor extends HandlerInterceptorAdapter {
     /**
-     * 거래 시작 시 핸들러이다.
+     * 비동기 요청의 시작시각(나노초)을 담는 요청 속성명
+     */
+    private static final String START_ATTRIBUTE = LoggerInterceptor.class.getName() + ".start";
+
+    /**
+     * 스레드별 거래 정보이다.
+     */
+    private static final class Context {
+        /**
+         * 시작시각(나노초)
+         */
+        private long start;
+
+        /**
+         * 로그 줄 버퍼
+         */
+        private final StringBuilder line = new StringBuilder(256);
+    }
+
+    /**
+     * 핸들러 패턴의 초당 기록 건수이다.
+     */
+    private static final class Rate {
+        /**
+         * 현재 초
+         */
+        private final AtomicLong second = new AtomicLong();
+
+        /**
+         * 현재 초에 기록한 건수
+         */
+        private final AtomicLong count = new AtomicLong();
+    }
+
+    /**
+     * 스레드별 거래 정보
+     */
+    private static final ThreadLocal<Context> CONTEXT = ThreadLocal.withInitial(Context::new);
+
+    /**
+     * 기록 정책
+     */
+    private final RequestLogPolicy policy;
+
+    /**
+     * 표본 비율 (SAMPLE)
+     */
+    private final double sampleRate;
+
+    /**
+     * 핸들러 패턴별 초당 최대 건수 (RATE)
+     */
+    private final long rateLimit;
+
+    /**
+     * 느린 요청 기준(나노초) (SLOW_OR_ERROR)
+     */
+    private final long slowNanos;
+
+    /**
+     * 핸들러 패턴별 초당 기록 건수 (RATE)
+     */
+    private final ConcurrentMap<String, Rate> rates = new ConcurrentHashMap<>();
+
+    /**
+     * 기록한 건수
+     */
+    private final AtomicLong logged = new AtomicLong();
+
+    /**
+     * 정책에 따라 기록하지 않은 건수
+     */
+    private final AtomicLong dropped = new AtomicLong();
+
+    public LoggerInterceptor(@Value("${demo.logs.request.policy:ALL}") RequestLogPolicy policy, @Value("${demo.logs.request.sample-rate:0.01}") double sampleRate,
+            @Value("${demo.logs.request.rate-limit:10}") long rateLimit, @Value("${demo.logs.request.slow-threshold:1000}") long slowThreshold) {
+        if (sampleRate < 0.0 || sampleRate > 1.0) {
+            throw new IllegalArgumentException(String.format("표본 비율(%s)은 0 에서 1 사이여야 합니다.", sampleRate));
+        }
+
+        this.policy = policy;
+        this.sampleRate = sampleRate;
+        this.rateLimit = rateLimit;
+        this.slowNanos = TimeUnit.MILLISECONDS.toNanos(slowThreshold);
+    }
+
+    /**
+     * 거래 시작 시 핸들러이다. 시작시각만 기록한다.
      *
      * @param request 요청 데이터
      * @param response 응답 데이터
      * @param handler 핸들러
      *
      * @return 항상 참
-     * @throws Exception 예외
      */
     @Override
-    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
-        log.info("======================================          START         ======================================");
-        log.info(String.format("%s %s", request.getRequestURI(), request.getMethod()));
-        return super.preHandle(request, response, handler);
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (DispatcherType.ERROR == request.getDispatcherType()) {
+            return true;
+        }
+
+        // 비동기 요청의 재디스패치면 처음 디스패치의 시작시각을 이어받는다.
+        final Object start = request.getAttribute(START_ATTRIBUTE);
+        CONTEXT.get().start = (null == start) ? System.nanoTime() : (Long) start;
+        return true;
     }
 
     /**
-     * 거래 종료 시 핸들러이다.
+     * 비동기 처리를 시작하면 다른 스레드에서 끝나므로 시작시각을 요청 속성에 옮겨 둔다.
      *
      * @param request 요청 데이터
      * @param response 응답 데이터
      * @param handler 핸들러
-     * @param exception 예외
+     */
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        request.setAttribute(START_ATTRIBUTE, CONTEXT.get().start);
+    }
+
+    /**
+     * 거래 종료 시 핸들러이다. 정책에 맞으면 한 줄을 남긴다.
      *
-     * @throws Exception 예외
+     * @param request 요청 데이터
+     * @param response 응답 데이터
+     * @param handler 핸들러
+     * @param exception 예외
      */
     @Override
-    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception exception) throws Exception {
-        log.info(String.format("%s %s", request.getRequestURI(), request.getMethod()));
-        log.info("======================================          END         ======================================");
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception exception) {
+        if (!log.isInfoEnabled() || DispatcherType.ERROR == request.getDispatcherType()) {
+            return;
+        }
+
+        final Context context = CONTEXT.get();
+        final long nanos = System.nanoTime() - context.start;
+        final int status = (null != exception && response.getStatus() < HttpServletResponse.SC_BAD_REQUEST) ? HttpServletResponse.SC_INTERNAL_SERVER_ERROR
+                : response.getStatus();
+        if (!accept(request, status, nanos)) {
+            dropped.incrementAndGet();
+            return;
+        }
+        logged.incrementAndGet();
+
+        final StringBuilder line = context.line;
+        line.setLength(0);
+        line.append(request.getMethod()).append(' ');
+        final String uri = request.getRequestURI();
+        for (int i = 0, length = uri.length(); i < length; i++) {
+            final char ch = uri.charAt(i);
+            line.append(Character.isISOControl(ch) ? '_' : ch);
+        }
+        line.append(' ').append(status).append(' ');
+        appendMillis(line, nanos);
+        log.info(line.toString());
+    }
+
+    /**
+     * 정책에 따라 기록할 요청인지 판단한다.
+     *
+     * @param request 요청 데이터
+     * @param status 응답 상태
+     * @param nanos 처리시간(나노초)
+     *
+     * @return 기록 여부
+     */
+    private boolean accept(HttpServletRequest request, int status, long nanos) {
+        switch (policy) {
+            case SAMPLE:
+                return ThreadLocalRandom.current().nextDouble() < sampleRate;
+            case RATE:
+                final Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                return acquire((null == pattern) ? "" : (String) pattern);
+            case SLOW_OR_ERROR:
+                return status >= HttpServletResponse.SC_BAD_REQUEST || nanos >= slowNanos;
+            default:
+                return true;
+        }
+    }
+
+    /**
+     * 핸들러 패턴의 현재 초 기록 건수를 하나 늘린다.
+     *
+     * @param pattern 핸들러 패턴
+     *
+     * @return 초당 최대 건수 안이면 참
+     */
+    private boolean acquire(String pattern) {
+        Rate rate = rates.get(pattern);
+        if (null == rate) {
+            rate = rates.computeIfAbsent(pattern, k -> new Rate());
+        }
+
+        final long now = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime());
+        final long second = rate.second.get();
+        if (second != now && rate.second.compareAndSet(second, now)) {
+            rate.count.set(0L);
+        }
+        return rate.count.incrementAndGet() <= rateLimit;
+    }
+
+    /**
+     * 처리시간을 밀리초 단위 소수점 세 자리("12.345ms")로 덧붙인다.
+     *
+     * @param line 로그 줄 버퍼
+     * @param nanos 처리시간(나노초)
+     */
+    private static void appendMillis(StringBuilder line, long nanos) {
+        final long micros = TimeUnit.NANOSECONDS.toMicros(Math.max(nanos, 0L));
+        final long fraction = micros % 1000L;
+        line.append(micros / 1000L).append('.');
+        if (fraction < 100L) {
+            line.append('0');
+        }
+        if (fraction < 10L) {
+            line.append('0');
+        }
+        line.append(fraction).append("ms");
+    }
+
+    /**
+     * 기록 정책을 반환한다.
+     *
+     * @return 기록 정책
+     */
+    public RequestLogPolicy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * 기록한 건수를 반환한다.
+     *
+     * @return 건수
+     */
+    public long getLogged() {
+        return logged.get();
+    }
+
+    /**
+     * 정책에 따라 기록하지 않은 건수를 반환한다.
+     *
+     * @return 건수
+     */
+    public long getDropped() {
+        return dropped.get();
     }
 }
@@ -0,0 +1,29 @@
+package com.example.demo.core.infrastructure.configuration;
+
+/**
+ * 거래 로그를 남길 요청을 고르는 정책이다.
+ * ALL 이 아니면 로그 분석({@link com.example.demo.core.infrastructure.logging.LogAnalyzer})도 로그에 남은 거래만 집계한다.
+ *
+ * @author jonghyeon
+ */
+public enum RequestLogPolicy {
+    /**
+     * 모든 요청
+     */
+    ALL,
+
+    /**
+     * 표본 비율(sample-rate)만큼 무작위로 고른 요청
+     */
+    SAMPLE,
+
+    /**
+     * 핸들러 패턴마다 초당 최대 건수(rate-limit)까지의 요청
+     */
+    RATE,
+
+    /**
+     * 처리시간이 기준(slow-threshold) 이상이거나 응답 상태가 오류(4xx, 5xx)인 요청
+     */
+    SLOW_OR_ERROR
+}
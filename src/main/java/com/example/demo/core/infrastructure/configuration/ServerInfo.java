@@ -0,0 +1,46 @@
+package com.example.demo.core.infrastructure.configuration;
+
+import com.example.demo.core.infrastructure.constant.EnvCd;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Instant;
+
+/**
+ * 어플리케이션 서버정보이다. 시작 시 한 번 만들어지며 변경되지 않는다.
+ *
+ * @author jonghyeon
+ */
+@Getter
+@AllArgsConstructor
+public class ServerInfo {
+    /**
+     * 환경코드
+     */
+    private final EnvCd envCd;
+
+    /**
+     * 환경명 (제목(이름) 형식)
+     */
+    private final String profile;
+
+    /**
+     * 서버 버전정보
+     */
+    private final String version;
+
+    /**
+     * 빌드 버전 (빌드정보가 없으면 NULL)
+     */
+    private final String buildVersion;
+
+    /**
+     * 빌드 시각 (빌드정보가 없으면 NULL)
+     */
+    private final Instant buildTime;
+
+    /**
+     * 서버정보를 만든 활성 프로파일 목록
+     */
+    private final String activeProfiles;
+}
@@ -0,0 +1,119 @@
+package com.example.demo.core.infrastructure.configuration;
+
+import com.example.demo.core.infrastructure.constant.EnvCd;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.info.BuildProperties;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.Objects;
+
+/**
+ * 어플리케이션 서버정보를 제공한다.
+ * <p>
+ * 서버정보는 시작 시 환경정보로부터 한 번 만들어 두며, 요청마다 환경정보를 조회하지 않는다.
+ * 컨텍스트가 다시 로딩되거나 refresh 를 호출했을 때 환경정보가 실제로 바뀐 경우에만 새로 만든다.
+ *
+ * @author jonghyeon
+ */
+@Slf4j
+@Component
+public class ServerInfoProvider {
+    /**
+     * 서버 버전정보 프로퍼티
+     */
+    private static final String VERSION_PROPERTY = "demo.info.version";
+
+    /**
+     * 스프링 환경 제공자
+     */
+    private final Environment environment;
+
+    /**
+     * 빌드정보 제공자 (build-info.properties 가 없으면 비어 있다.)
+     */
+    private final ObjectProvider<BuildProperties> buildProperties;
+
+    /**
+     * 현재 서버정보
+     */
+    private volatile ServerInfo serverInfo;
+
+    public ServerInfoProvider(Environment environment, ObjectProvider<BuildProperties> buildProperties) {
+        this.environment = environment;
+        this.buildProperties = buildProperties;
+        this.serverInfo = create();
+    }
+
+    /**
+     * 현재 서버정보를 반환한다.
+     *
+     * @return 서버정보
+     */
+    public ServerInfo get() {
+        return serverInfo;
+    }
+
+    /**
+     * 컨텍스트가 로딩되면 서버정보를 갱신한다.
+     *
+     * @param event 이벤트
+     */
+    @EventListener
+    public void onRefreshed(ContextRefreshedEvent event) {
+        refresh();
+    }
+
+    /**
+     * 환경정보가 바뀐 경우에만 서버정보를 새로 만든다.
+     *
+     * @return 서버정보가 바뀌었는지 여부
+     */
+    public synchronized boolean refresh() {
+        final ServerInfo current = serverInfo;
+
+        if (Objects.equals(current.getActiveProfiles(), activeProfiles()) && Objects.equals(current.getVersion(), environment.getProperty(VERSION_PROPERTY))) {
+            return false;
+        }
+
+        serverInfo = create();
+        log.info(String.format("서버정보가 변경되었습니다.(%s)", serverInfo.getProfile()));
+        return true;
+    }
+
+    /**
+     * 환경정보로 서버정보를 만든다.
+     *
+     * @return 서버정보
+     */
+    private ServerInfo create() {
+        // 활성 프로파일 중 환경코드에 해당되는 첫번째 프로파일을 사용하며, 없으면 운영으로 본다.
+        EnvCd envCd = null;
+        for (String profile : environment.getActiveProfiles()) {
+            envCd = EnvCd.codeOf(profile);
+            if (null != envCd) {
+                break;
+            }
+        }
+        if (null == envCd) {
+            envCd = EnvCd.Production;
+        }
+
+        final BuildProperties build = buildProperties.getIfAvailable();
+
+        return new ServerInfo(envCd, String.format("%s(%s)", envCd.getTitle(), envCd.name()), environment.getProperty(VERSION_PROPERTY),
+                (null == build ? null : build.getVersion()), (null == build ? null : build.getTime()), activeProfiles());
+    }
+
+    /**
+     * 활성 프로파일 목록을 반환한다.
+     *
+     * @return 쉼표로 구분한 활성 프로파일 목록
+     */
+    private String activeProfiles() {
+        return String.join(",", environment.getActiveProfiles());
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.demo.core.infrastructure.configuration;
 
+import com.example.demo.core.infrastructure.validation.ValidationInterceptor;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
@@ -11,14 +12,29 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
  */
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
+    private final LatencyInterceptor latencyInterceptor;
+
+    private final ConcurrencyLimitInterceptor concurrencyLimitInterceptor;
+
     private final LoggerInterceptor loggerInterceptor;
 
-    public WebConfig(LoggerInterceptor loggerInterceptor) {
+    private final ValidationInterceptor validationInterceptor;
+
+    public WebConfig(LatencyInterceptor latencyInterceptor, ConcurrencyLimitInterceptor concurrencyLimitInterceptor, LoggerInterceptor loggerInterceptor,
+            ValidationInterceptor validationInterceptor) {
+        this.latencyInterceptor = latencyInterceptor;
+        this.concurrencyLimitInterceptor = concurrencyLimitInterceptor;
         this.loggerInterceptor = loggerInterceptor;
+        this.validationInterceptor = validationInterceptor;
     }
 
     @Override
     public void addInterceptors(InterceptorRegistry registry) {
+        // 지연시간은 다른 인터셉터의 처리시간까지 포함하도록 가장 먼저 등록한다.
+        registry.addInterceptor(latencyInterceptor).addPathPatterns("/**");
+        // 거절한 요청도 지연시간에 남도록 지연시간 다음에 등록하며, 과부하 중에도 지표는 조회할 수 있게 제외한다.
+        registry.addInterceptor(concurrencyLimitInterceptor).addPathPatterns("/**").excludePathPatterns("/server/metrics/**");
         registry.addInterceptor(loggerInterceptor).addPathPatterns("/**");
+        registry.addInterceptor(validationInterceptor).addPathPatterns("/**");
     }
 }
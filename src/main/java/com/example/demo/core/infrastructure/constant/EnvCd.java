@@ -1,9 +1,13 @@
 package com.example.demo.core.infrastructure.constant;
 
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 
+import java.util.Arrays;
+
 /**
  * 환경코드 열거형 상수이다.
  *
@@ -43,6 +47,11 @@ public enum EnvCd {
      */
     Production("prod", "운영");
 
+    /**
+     * 코드별 열거형 상수
+     */
+    private static final ImmutableMap<String, EnvCd> CODES = Maps.uniqueIndex(Arrays.asList(values()), EnvCd::getCode);
+
     /**
      * 코드
      */
@@ -61,13 +70,7 @@ public enum EnvCd {
      * @return 코드에 해당되는 열거형 상수
      */
     public final static EnvCd codeOf(String code) {
-        for (EnvCd em : values()) {
-            if (em.code.equals(code)) {
-                return em;
-            }
-        }
-
-        return null;
+        return (null == code ? null : CODES.get(code));
     }
 
     @Override
@@ -0,0 +1,38 @@
+package com.example.demo.core.infrastructure.file;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 체크섬 알고리즘이다.
+ *
+ * @author jonghyeon
+ */
+@Getter
+@AllArgsConstructor
+public enum ChecksumAlgorithm {
+    /**
+     * CRC-32 (zlib, 구간별로 계산한 후 합쳐도 전체를 한 번에 계산한 값과 같다.)
+     */
+    CRC32(true),
+
+    /**
+     * CRC-32C (Castagnoli, 구간별로 계산한 후 합쳐도 전체를 한 번에 계산한 값과 같다.)
+     */
+    CRC32C(true),
+
+    /**
+     * SHA-256 (구간으로 나눌 수 없으므로 파일 단위로만 병렬 처리한다.)
+     */
+    SHA256(false),
+
+    /**
+     * MurmurHash3 128비트 트리 해시 (8MB 구간별 해시를 이어 붙여 다시 해시한다. 파일 전체의 MurmurHash3 값과는 다르다.)
+     */
+    MURMUR3(true);
+
+    /**
+     * 구간으로 나누어 병렬로 계산할 수 있는지 여부
+     */
+    private final boolean splittable;
+}
@@ -0,0 +1,545 @@
+package com.example.demo.core.infrastructure.file;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.NotDirectoryException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 디렉토리 항목 목록을 메모리에 보관하는 캐시이다.
+ * <p>
+ * 정규화한 절대경로를 키로 디렉토리별 스냅샷을 LRU 로 보관하며, 디렉토리 수와 추정 메모리 중 하나라도 한도를 넘으면 가장 오래 사용하지 않은 디렉토리부터 제거한다.
+ * 보관 중인 디렉토리는 WatchService 로 감시하여 생성, 변경, 삭제 이벤트마다 해당 항목만 다시 조회하고,
+ * 이벤트가 유실(OVERFLOW)되면 디렉토리 전체를 다시 조회한다.
+ * 하위 디렉토리 안의 변경은 감시하지 않으므로 디렉토리 항목의 변경시각은 늦게 반영될 수 있다.
+ * <p>
+ * 최초 조회는 디렉토리별로 한 번만 하며(같은 디렉토리를 기다리는 요청은 그 결과를 함께 쓴다), 다른 디렉토리의 조회를 막지 않는다.
+ * 조회 중 추정 메모리가 한도를 넘으면 조회를 멈추고 디렉토리의 변경시각과 함께 기억하여, 디렉토리가 바뀌기 전까지는 조회하지 않고 바로 캐시 없이 처리하게 한다.
+ *
+ * @author jonghyeon
+ */
+@Slf4j
+@Component
+public class DirectoryCache {
+    /**
+     * 사용 여부
+     */
+    private final boolean enabled;
+
+    /**
+     * 최대 디렉토리 수
+     */
+    private final int maxDirectories;
+
+    /**
+     * 최대 추정 메모리(바이트)
+     */
+    private final long maxBytes;
+
+    /**
+     * 최근 사용 순서의 디렉토리별 스냅샷
+     */
+    private final LinkedHashMap<Path, DirectorySnapshot> snapshots = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * 감시 키별 스냅샷
+     */
+    private final ConcurrentMap<WatchKey, DirectorySnapshot> watched = new ConcurrentHashMap<>();
+
+    /**
+     * 최초 조회 중인 디렉토리별 결과 (같은 디렉토리를 동시에 조회하지 않는다.)
+     */
+    private final ConcurrentMap<Path, CompletableFuture<DirectorySnapshot>> loading = new ConcurrentHashMap<>();
+
+    /**
+     * 한도보다 커서 보관하지 않는 디렉토리별 조회 시점의 변경시각 (최근 사용 순서, 최대 디렉토리 수의 16 배까지)
+     */
+    private final LinkedHashMap<Path, Long> oversized = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * 적중, 실패, 제거, 전체 재조회 건수
+     */
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder rescans = new LongAdder();
+    private final LongAdder skips = new LongAdder();
+
+    /**
+     * 속성 조회기
+     */
+    private final FileAttributeFetcher fetcher;
+
+    /**
+     * 감시 서비스
+     */
+    private WatchService watchService;
+
+    /**
+     * 감시 스레드
+     */
+    private ExecutorService watcher;
+
+    public DirectoryCache(@Value("${demo.files.cache.enabled:true}") boolean enabled, @Value("${demo.files.cache.max-directories:64}") int maxDirectories,
+            @Value("${demo.files.cache.max-bytes:67108864}") long maxBytes, FileAttributeFetcher fetcher) {
+        this.fetcher = fetcher;
+        this.enabled = enabled;
+        this.maxDirectories = maxDirectories;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * 감시 스레드를 시작한다.
+     *
+     * @throws IOException 입출력 예외
+     */
+    @PostConstruct
+    public synchronized void start() throws IOException {
+        if (enabled && null == watchService) {
+            watchService = FileSystems.getDefault().newWatchService();
+            watcher = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder().setNameFormat("directory-cache").setDaemon(true).build());
+            watcher.execute(this::watch);
+        }
+    }
+
+    /**
+     * 감시 스레드를 종료한다.
+     *
+     * @throws IOException 입출력 예외
+     */
+    @PreDestroy
+    public synchronized void stop() throws IOException {
+        if (null != watchService) {
+            watchService.close();
+            watcher.shutdownNow();
+            watchService = null;
+            watcher = null;
+        }
+    }
+
+    /**
+     * 디렉토리의 스냅샷을 반환한다. 없으면 감시를 등록하고 전체를 조회하여 보관한다.
+     * 같은 디렉토리를 다른 요청이 조회 중이면 그 결과를 기다린다.
+     *
+     * @param dir 디렉토리
+     *
+     * @return 스냅샷 (캐시를 사용하지 않거나 감시할 수 없거나 한도보다 크면 NULL)
+     * @throws IOException 입출력 예외 (디렉토리가 없으면 NoSuchFileException, 디렉토리가 아니면 NotDirectoryException)
+     */
+    DirectorySnapshot get(Path dir) throws IOException {
+        final WatchService service = watchService;
+        if (null == service) {
+            return null;
+        }
+
+        final Path key = dir.toAbsolutePath().normalize();
+        DirectorySnapshot snapshot = lookup(key);
+        if (null != snapshot) {
+            hits.increment();
+            return snapshot;
+        }
+        if (isOversized(key)) {
+            skips.increment();
+            return null;
+        }
+
+        final CompletableFuture<DirectorySnapshot> created = new CompletableFuture<>();
+        final CompletableFuture<DirectorySnapshot> running = loading.putIfAbsent(key, created);
+        if (null != running) {
+            return await(running);
+        }
+
+        try {
+            // 앞서 조회한 요청이 보관을 마치고 빠졌을 수 있다.
+            snapshot = lookup(key);
+            if (null != snapshot) {
+                hits.increment();
+            }
+            else {
+                misses.increment();
+                snapshot = load(service, key);
+            }
+            created.complete(snapshot);
+            return snapshot;
+        }
+        catch (IOException | RuntimeException e) {
+            created.completeExceptionally(e);
+            throw e;
+        }
+        finally {
+            loading.remove(key, created);
+        }
+    }
+
+    /**
+     * 적중 건수를 반환한다.
+     *
+     * @return 적중 건수
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * 실패 건수를 반환한다.
+     *
+     * @return 실패 건수
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * 제거 건수를 반환한다.
+     *
+     * @return 제거 건수
+     */
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * 이벤트 유실로 인한 전체 재조회 건수를 반환한다.
+     *
+     * @return 전체 재조회 건수
+     */
+    public long getRescans() {
+        return rescans.sum();
+    }
+
+    /**
+     * 보관 중인 디렉토리 수를 반환한다.
+     *
+     * @return 디렉토리 수
+     */
+    public int size() {
+        synchronized (snapshots) {
+            return snapshots.size();
+        }
+    }
+
+    /**
+     * 보관 중인 항목의 추정 메모리(바이트)를 반환한다.
+     *
+     * @return 추정 메모리
+     */
+    public long estimatedBytes() {
+        synchronized (snapshots) {
+            long sum = 0L;
+            for (DirectorySnapshot snapshot : snapshots.values()) {
+                sum += snapshot.estimatedBytes();
+            }
+            return sum;
+        }
+    }
+
+    /**
+     * 한도보다 커서 보관하지 않는 디렉토리 수를 반환한다.
+     *
+     * @return 디렉토리 수
+     */
+    public int oversizedSize() {
+        synchronized (oversized) {
+            return oversized.size();
+        }
+    }
+
+    /**
+     * 한도보다 커서 조회하지 않고 넘긴 건수를 반환한다.
+     *
+     * @return 넘긴 건수
+     */
+    public long getSkips() {
+        return skips.sum();
+    }
+
+    /**
+     * 감시를 등록하고 디렉토리 전체를 조회하여 보관한다. 한도를 넘으면 조회를 멈추고 한도 초과로 기억한다.
+     *
+     * @param service 감시 서비스
+     * @param key 정규화한 절대경로
+     *
+     * @return 스냅샷 (감시할 수 없거나 한도보다 크면 NULL)
+     * @throws IOException 입출력 예외
+     */
+    private DirectorySnapshot load(WatchService service, Path key) throws IOException {
+        final WatchKey watchKey;
+        try {
+            watchKey = key.register(service, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_DELETE,
+                    StandardWatchEventKinds.ENTRY_MODIFY);
+        }
+        catch (NoSuchFileException | NotDirectoryException e) {
+            throw e;
+        }
+        catch (IOException | ClosedWatchServiceException e) {
+            log.warn(String.format("디렉토리(%s)를 감시할 수 없어 캐시하지 않습니다. %s", key, e.getMessage()));
+            return null;
+        }
+
+        // 조회 중에 바뀌면 변경시각이 달라지므로 조회 전에 읽는다.
+        final long modified = Files.getLastModifiedTime(key).toMillis();
+
+        // 최초 조회 중 발생한 이벤트는 스냅샷 잠금을 기다렸다가 조회 후에 반영된다.
+        final DirectorySnapshot snapshot = new DirectorySnapshot(key, watchKey, fetcher);
+        watched.put(watchKey, snapshot);
+        final boolean complete;
+        try {
+            complete = snapshot.scan(maxBytes);
+        }
+        catch (IOException | RuntimeException e) {
+            watched.remove(watchKey);
+            watchKey.cancel();
+            throw e;
+        }
+
+        if (!complete) {
+            watched.remove(watchKey);
+            watchKey.cancel();
+            markOversized(key, modified);
+            return null;
+        }
+
+        synchronized (snapshots) {
+            snapshots.put(key, snapshot);
+        }
+        evict();
+        return snapshot;
+    }
+
+    /**
+     * 다른 요청이 조회 중인 결과를 기다린다.
+     *
+     * @param running 조회 중인 결과
+     *
+     * @return 스냅샷 (보관하지 않았으면 NULL)
+     * @throws IOException 입출력 예외 (조회한 요청의 예외)
+     */
+    private DirectorySnapshot await(CompletableFuture<DirectorySnapshot> running) throws IOException {
+        try {
+            final DirectorySnapshot snapshot = running.get();
+            if (null != snapshot) {
+                hits.increment();
+            }
+            return snapshot;
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("디렉토리 조회를 기다리는 중 인터럽트 되었습니다.");
+        }
+        catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * 한도보다 큰 디렉토리인지 여부를 반환한다. 기억한 후 디렉토리가 바뀌었으면 잊는다.
+     *
+     * @param key 정규화한 절대경로
+     *
+     * @return 한도보다 큰 디렉토리인지 여부
+     */
+    private boolean isOversized(Path key) {
+        final Long modified;
+        synchronized (oversized) {
+            modified = oversized.get(key);
+        }
+        if (null == modified) {
+            return false;
+        }
+
+        try {
+            if (modified == Files.getLastModifiedTime(key).toMillis()) {
+                return true;
+            }
+        }
+        catch (IOException e) {
+            // 디렉토리가 없어지는 등의 예외는 조회하면서 다시 발생한다.
+        }
+
+        synchronized (oversized) {
+            oversized.remove(key, modified);
+        }
+        return false;
+    }
+
+    /**
+     * 한도보다 큰 디렉토리로 기억한다.
+     *
+     * @param key 정규화한 절대경로
+     * @param modified 조회 전 디렉토리 변경시각
+     */
+    private void markOversized(Path key, long modified) {
+        synchronized (oversized) {
+            oversized.put(key, modified);
+
+            final Iterator<Path> it = oversized.keySet().iterator();
+            while (it.hasNext() && oversized.size() > maxDirectories * 16) {
+                it.next();
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * 보관 중인 스냅샷을 찾는다. 감시가 끊긴 스냅샷은 제거한다.
+     *
+     * @param key 정규화한 절대경로
+     *
+     * @return 스냅샷 (없으면 NULL)
+     */
+    private DirectorySnapshot lookup(Path key) {
+        synchronized (snapshots) {
+            final DirectorySnapshot snapshot = snapshots.get(key);
+            if (null == snapshot || snapshot.getKey().isValid()) {
+                return snapshot;
+            }
+        }
+
+        discard(key);
+        return null;
+    }
+
+    /**
+     * 한도를 넘은 만큼 가장 오래 사용하지 않은 스냅샷부터 제거한다.
+     */
+    private void evict() {
+        synchronized (snapshots) {
+            long bytes = estimatedBytes();
+            final Iterator<Map.Entry<Path, DirectorySnapshot>> it = snapshots.entrySet().iterator();
+
+            while (it.hasNext() && (snapshots.size() > maxDirectories || bytes > maxBytes)) {
+                final DirectorySnapshot eldest = it.next().getValue();
+                it.remove();
+                bytes -= eldest.estimatedBytes();
+                watched.remove(eldest.getKey());
+                eldest.getKey().cancel();
+                evictions.increment();
+            }
+        }
+    }
+
+    /**
+     * 스냅샷을 캐시에서 제거한다.
+     *
+     * @param key 정규화한 절대경로
+     */
+    private void discard(Path key) {
+        final DirectorySnapshot snapshot;
+        synchronized (snapshots) {
+            snapshot = snapshots.remove(key);
+        }
+
+        if (null != snapshot) {
+            watched.remove(snapshot.getKey());
+            snapshot.getKey().cancel();
+        }
+    }
+
+    /**
+     * 감시 이벤트를 스냅샷에 반영한다.
+     */
+    private void watch() {
+        final WatchService service = watchService;
+
+        while (true) {
+            final WatchKey key;
+            try {
+                key = service.take();
+            }
+            catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            }
+
+            final DirectorySnapshot snapshot = watched.get(key);
+            if (null == snapshot) {
+                key.pollEvents();
+                key.reset();
+                continue;
+            }
+
+            try {
+                apply(snapshot, key);
+            }
+            catch (IOException | RuntimeException e) {
+                // 반영할 수 없으면 다음 요청 시 다시 조회하도록 버린다.
+                log.warn(String.format("디렉토리(%s)의 변경을 반영할 수 없어 캐시에서 제거합니다. %s", snapshot.getDir(), e.getMessage()));
+                discard(snapshot.getDir());
+                continue;
+            }
+
+            if (!key.reset()) {
+                // 디렉토리가 삭제되는 등 더 이상 감시할 수 없다.
+                discard(snapshot.getDir());
+            }
+
+            evict();
+        }
+    }
+
+    /**
+     * 감시 키에 쌓인 이벤트를 스냅샷에 반영한다.
+     *
+     * @param snapshot 스냅샷
+     * @param key 감시 키
+     *
+     * @throws IOException 입출력 예외
+     */
+    private void apply(DirectorySnapshot snapshot, WatchKey key) throws IOException {
+        boolean overflow = false;
+
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (StandardWatchEventKinds.OVERFLOW == event.kind()) {
+                overflow = true;
+            }
+            else if (!overflow) {
+                final String name = event.context().toString();
+                if (StandardWatchEventKinds.ENTRY_DELETE == event.kind()) {
+                    snapshot.remove(name);
+                }
+                else {
+                    snapshot.refresh(name);
+                }
+            }
+        }
+
+        if (overflow) {
+            rescans.increment();
+            final long modified = Files.getLastModifiedTime(snapshot.getDir()).toMillis();
+            if (!snapshot.scan(maxBytes)) {
+                discard(snapshot.getDir());
+                markOversized(snapshot.getDir(), modified);
+            }
+        }
+    }
+}
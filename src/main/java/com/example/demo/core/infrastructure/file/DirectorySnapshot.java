@@ -0,0 +1,169 @@
+package com.example.demo.core.infrastructure.file;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.WatchKey;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 디렉토리 캐시에 보관하는 디렉토리의 항목 목록이다.
+ * <p>
+ * 변경(scan, refresh, remove)은 스냅샷 단위로 직렬화되며, 조회는 잠금 없이 ConcurrentHashMap 을 순회한다.
+ * 변경은 항상 현재 파일 상태를 다시 조회하여 반영하므로 감시 이벤트가 최초 조회와 겹치더라도 마지막 이벤트 처리 후에는 실제 상태로 수렴한다.
+ *
+ * @author jonghyeon
+ */
+final class DirectorySnapshot {
+    /**
+     * 항목당 추정 메모리(바이트, 파일명 제외)
+     */
+    private static final long ENTRY_OVERHEAD = 120L;
+
+    /**
+     * 디렉토리
+     */
+    private final Path dir;
+
+    /**
+     * 감시 키
+     */
+    private final WatchKey key;
+
+    /**
+     * 파일명별 항목
+     */
+    private final ConcurrentMap<String, FileEntry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * 추정 메모리(바이트)
+     */
+    private final AtomicLong bytes = new AtomicLong();
+
+    /**
+     * 속성 조회기
+     */
+    private final FileAttributeFetcher fetcher;
+
+    DirectorySnapshot(Path dir, WatchKey key, FileAttributeFetcher fetcher) {
+        this.dir = dir;
+        this.key = key;
+        this.fetcher = fetcher;
+    }
+
+    Path getDir() {
+        return dir;
+    }
+
+    WatchKey getKey() {
+        return key;
+    }
+
+    /**
+     * 항목 목록을 반환한다. 순회 중 변경된 항목은 반영될 수도, 되지 않을 수도 있다.
+     *
+     * @return 항목 목록
+     */
+    Collection<FileEntry> entries() {
+        return entries.values();
+    }
+
+    /**
+     * 추정 메모리(바이트)를 반환한다.
+     *
+     * @return 추정 메모리
+     */
+    long estimatedBytes() {
+        return bytes.get();
+    }
+
+    /**
+     * 디렉토리 전체를 다시 조회하여 없어진 항목을 제거한다. 추정 메모리가 한도를 넘으면 조회를 멈춘다.
+     *
+     * @param maxBytes 최대 추정 메모리(바이트)
+     *
+     * @return 끝까지 조회했는지 여부 (한도를 넘어 멈췄으면 거짓이며 항목 목록은 일부만 반영된 상태이다.)
+     * @throws IOException 입출력 예외 (디렉토리가 없으면 NoSuchFileException)
+     */
+    synchronized boolean scan(long maxBytes) throws IOException {
+        final Set<String> seen = new HashSet<>(entries.size() * 2);
+        final boolean[] exceeded = new boolean[1];
+
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir)) {
+            fetcher.fetch(stream, null, entry -> {
+                put(entry);
+                seen.add(entry.getName());
+                exceeded[0] = bytes.get() > maxBytes;
+                return !exceeded[0];
+            });
+        }
+        if (exceeded[0]) {
+            return false;
+        }
+
+        for (String name : entries.keySet()) {
+            if (!seen.contains(name)) {
+                remove(name);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 항목의 속성을 다시 조회하여 반영한다. 항목이 없어졌으면 제거한다.
+     *
+     * @param name 파일명
+     *
+     * @return 항목이 있는지 여부
+     * @throws IOException 입출력 예외
+     */
+    synchronized boolean refresh(String name) throws IOException {
+        final FileEntry entry = fetcher.read(dir.resolve(name));
+        if (null == entry) {
+            remove(name);
+            return false;
+        }
+
+        put(entry);
+        return true;
+    }
+
+    /**
+     * 항목을 반영한다.
+     *
+     * @param entry 항목
+     */
+    private void put(FileEntry entry) {
+        if (null == entries.put(entry.getName(), entry)) {
+            bytes.addAndGet(sizeOf(entry.getName()));
+        }
+    }
+
+    /**
+     * 항목을 제거한다.
+     *
+     * @param name 파일명
+     */
+    synchronized void remove(String name) {
+        if (null != entries.remove(name)) {
+            bytes.addAndGet(-sizeOf(name));
+        }
+    }
+
+    /**
+     * 항목의 추정 메모리(바이트)를 반환한다.
+     *
+     * @param name 파일명
+     *
+     * @return 추정 메모리
+     */
+    private static long sizeOf(String name) {
+        return ENTRY_OVERHEAD + 2L * name.length();
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.demo.core.infrastructure.file;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 디렉토리 하위 전체의 집계이다.
+ *
+ * @author jonghyeon
+ */
+@Getter
+@AllArgsConstructor
+public class DirectorySummary {
+    /**
+     * 디렉토리
+     */
+    private final String path;
+
+    /**
+     * 하위 전체 파일 수
+     */
+    private final long files;
+
+    /**
+     * 하위 전체 디렉토리 수 (자신 제외)
+     */
+    private final long directories;
+
+    /**
+     * 하위 전체 파일 크기 합계(바이트)
+     */
+    private final long bytes;
+
+    /**
+     * 하위 전체에서 가장 최근의 변경시각(epoch 밀리초)
+     */
+    private final long newest;
+
+    /**
+     * 최대 깊이 때문에 조회하지 못한 하위 디렉토리가 있는지 여부
+     */
+    private final boolean truncated;
+}
@@ -0,0 +1,432 @@
+package com.example.demo.core.infrastructure.file;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NotDirectoryException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 디렉토리 트리 전체의 파일 수, 크기, 최근 변경시각을 집계한다.
+ * <p>
+ * 하위 디렉토리마다 작업을 나누어 전용 ForkJoinPool 에서 병렬로 조회하며, 쉬는 스레드가 다른 스레드의 하위 디렉토리를 가져가 처리한다.
+ * 디렉토리마다 직속 파일의 집계와 하위 디렉토리 목록을 디렉토리 변경시각과 함께 캐시하여,
+ * 다시 조회할 때 변경시각이 같은 디렉토리는 목록과 파일 속성을 읽지 않고 하위 디렉토리만 확인한다.
+ * 디렉토리 변경시각은 항목의 추가, 삭제, 이름 변경에만 바뀌므로 파일 내용만 바뀐 경우는 디렉토리가 바뀔 때까지 반영되지 않는다.
+ * 심볼릭 링크는 따라가지 않는다.
+ *
+ * @author jonghyeon
+ */
+@Component
+public class DirectoryTree {
+    /**
+     * 디렉토리 직속 항목의 집계이다. 디렉토리 변경시각이 같으면 유효하다.
+     */
+    @AllArgsConstructor
+    private static final class Level {
+        /**
+         * 디렉토리 변경시각(epoch 밀리초)
+         */
+        private final long modified;
+
+        /**
+         * 직속 파일 수
+         */
+        private final long files;
+
+        /**
+         * 직속 파일 크기 합계(바이트)
+         */
+        private final long bytes;
+
+        /**
+         * 직속 파일의 가장 최근 변경시각(epoch 밀리초)
+         */
+        private final long newest;
+
+        /**
+         * 하위 디렉토리명 목록
+         */
+        private final String[] children;
+    }
+
+    /**
+     * 조회 결과이다.
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class Result {
+        /**
+         * 최상위 디렉토리의 집계
+         */
+        private final DirectorySummary root;
+
+        /**
+         * 크기가 큰 순서의 하위 디렉토리 집계
+         */
+        private final List<DirectorySummary> heaviest;
+
+        /**
+         * 캐시로 목록 조회를 생략한 디렉토리 수
+         */
+        private final long reused;
+
+        /**
+         * 목록을 조회한 디렉토리 수
+         */
+        private final long scanned;
+
+        /**
+         * 읽을 수 없어 건너뛴 디렉토리 수
+         */
+        private final long skipped;
+    }
+
+    /**
+     * 한 번의 조회에서 작업들이 공유하는 상태이다.
+     */
+    private static final class Walk {
+        /**
+         * 결과로 남길 하위 디렉토리 수
+         */
+        private final int top;
+
+        /**
+         * 최대 깊이
+         */
+        private final int maxDepth;
+
+        /**
+         * 취소 여부
+         */
+        private final AtomicBoolean cancelled = new AtomicBoolean();
+
+        /**
+         * 캐시로 목록 조회를 생략한 디렉토리 수
+         */
+        private final LongAdder reused = new LongAdder();
+
+        /**
+         * 목록을 조회한 디렉토리 수
+         */
+        private final LongAdder scanned = new LongAdder();
+
+        /**
+         * 읽을 수 없어 건너뛴 디렉토리 수
+         */
+        private final LongAdder skipped = new LongAdder();
+
+        private Walk(int top, int maxDepth) {
+            this.top = top;
+            this.maxDepth = maxDepth;
+        }
+    }
+
+    /**
+     * 디렉토리 하나를 집계한 결과이다.
+     */
+    @AllArgsConstructor
+    private static final class Node {
+        /**
+         * 하위 전체 집계
+         */
+        private final DirectorySummary summary;
+
+        /**
+         * 하위 디렉토리 중 크기가 큰 상위 N 개 (자신 제외, 크기가 작은 것이 머리에 온다.)
+         */
+        private final PriorityQueue<DirectorySummary> heaviest;
+    }
+
+    /**
+     * 크기 비교자 (같으면 경로 순)
+     */
+    private static final Comparator<DirectorySummary> BY_BYTES = Comparator.comparingLong(DirectorySummary::getBytes)
+            .thenComparing(DirectorySummary::getPath, Comparator.reverseOrder());
+
+    /**
+     * 최대 깊이
+     */
+    private final int maxDepth;
+
+    /**
+     * 조회 스레드풀
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * 디렉토리별 직속 항목 집계
+     */
+    private final Cache<Path, Level> levels;
+
+    public DirectoryTree(@Value("${demo.files.tree.parallelism:0}") int parallelism, @Value("${demo.files.tree.max-depth:32}") int maxDepth,
+            @Value("${demo.files.tree.cache-size:100000}") long cacheSize) {
+        this.maxDepth = maxDepth;
+        this.pool = new ForkJoinPool((parallelism > 0) ? parallelism : Runtime.getRuntime().availableProcessors(), p -> {
+            final ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+            thread.setName("file-tree-" + thread.getPoolIndex());
+            thread.setDaemon(true);
+            return thread;
+        }, null, false);
+        this.levels = CacheBuilder.newBuilder().maximumSize(cacheSize).build();
+    }
+
+    /**
+     * 스레드풀을 종료한다.
+     */
+    @PreDestroy
+    public void stop() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * 조회를 시작한다. 결과는 반환된 작업에서 구하며, 취소하면 진행 중인 디렉토리까지만 조회하고 멈춘다.
+     * 디렉토리가 없거나 디렉토리가 아니면 NoSuchFileException, NotDirectoryException 이 발생한다.
+     *
+     * @param dir 최상위 디렉토리
+     * @param depth 최대 깊이 (설정값보다 클 수 없다.)
+     * @param top 결과로 남길 하위 디렉토리 수
+     *
+     * @return 조회 작업
+     * @throws IOException 입출력 예외
+     */
+    public Task walk(Path dir, int depth, int top) throws IOException {
+        final BasicFileAttributes attrs = Files.readAttributes(dir, BasicFileAttributes.class);
+        if (!attrs.isDirectory()) {
+            throw new NotDirectoryException(dir.toString());
+        }
+
+        final Walk walk = new Walk(Math.max(0, top), Math.max(0, Math.min(depth, maxDepth)));
+        return new Task(walk, pool.submit(new Visit(walk, dir.toAbsolutePath().normalize(), 0)));
+    }
+
+    /**
+     * 캐시된 디렉토리 수를 반환한다.
+     *
+     * @return 캐시된 디렉토리 수
+     */
+    public long size() {
+        return levels.size();
+    }
+
+    /**
+     * 진행 중인 조회이다.
+     */
+    public static final class Task {
+        private final Walk walk;
+
+        private final ForkJoinTask<Node> future;
+
+        private Task(Walk walk, ForkJoinTask<Node> future) {
+            this.walk = walk;
+            this.future = future;
+        }
+
+        /**
+         * 주어진 시간까지 결과를 기다린다.
+         *
+         * @param timeout 대기시간
+         * @param unit 대기시간 단위
+         *
+         * @return 결과 (대기시간 안에 끝나지 않으면 NULL)
+         * @throws IOException 입출력 예외
+         */
+        public Result await(long timeout, TimeUnit unit) throws IOException {
+            try {
+                final Node node = future.get(timeout, unit);
+                final List<DirectorySummary> heaviest = new ArrayList<>(node.heaviest);
+                heaviest.sort(BY_BYTES.reversed());
+                return new Result(node.summary, heaviest, walk.reused.sum(), walk.scanned.sum(), walk.skipped.sum());
+            }
+            catch (TimeoutException e) {
+                return null;
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                cancel();
+                throw new InterruptedIOException("디렉토리 트리 조회 중 인터럽트 되었습니다.");
+            }
+            catch (ExecutionException e) {
+                throw (e.getCause() instanceof IOException) ? (IOException) e.getCause() : new IOException(e.getCause());
+            }
+        }
+
+        /**
+         * 조회를 취소한다.
+         */
+        public void cancel() {
+            walk.cancelled.set(true);
+            future.cancel(false);
+        }
+    }
+
+    /**
+     * 디렉토리 하나를 집계하는 작업이다. 하위 디렉토리는 작업을 나누어 병렬로 집계한다.
+     */
+    @SuppressWarnings("serial")
+    private final class Visit extends RecursiveTask<Node> {
+        private final Walk walk;
+
+        private final Path dir;
+
+        private final int depth;
+
+        private Visit(Walk walk, Path dir, int depth) {
+            this.walk = walk;
+            this.dir = dir;
+            this.depth = depth;
+        }
+
+        @Override
+        protected Node compute() {
+            if (walk.cancelled.get()) {
+                return empty();
+            }
+
+            final Level level;
+            try {
+                level = level(walk, dir);
+            }
+            catch (IOException e) {
+                // 조회 중 삭제되었거나 권한이 없는 디렉토리는 건너뛴다.
+                walk.skipped.increment();
+                return empty();
+            }
+
+            long files = level.files;
+            long directories = level.children.length;
+            long bytes = level.bytes;
+            long newest = level.newest;
+            boolean truncated = false;
+            final PriorityQueue<DirectorySummary> heaviest = new PriorityQueue<>(walk.top + 1, BY_BYTES);
+
+            if (depth < walk.maxDepth) {
+                final List<Visit> visits = new ArrayList<>(level.children.length);
+                for (String child : level.children) {
+                    visits.add(new Visit(walk, dir.resolve(child), depth + 1));
+                }
+
+                for (Visit visit : ForkJoinTask.invokeAll(visits)) {
+                    final Node node = visit.join();
+                    files += node.summary.getFiles();
+                    directories += node.summary.getDirectories();
+                    bytes += node.summary.getBytes();
+                    newest = Math.max(newest, node.summary.getNewest());
+                    truncated |= node.summary.isTruncated();
+
+                    offer(heaviest, node.summary);
+                    for (DirectorySummary summary : node.heaviest) {
+                        offer(heaviest, summary);
+                    }
+                }
+            }
+            else {
+                truncated = level.children.length > 0;
+            }
+
+            return new Node(new DirectorySummary(dir.toString(), files, directories, bytes, newest, truncated), heaviest);
+        }
+
+        /**
+         * 상위 N 개에 넣는다.
+         *
+         * @param heaviest 상위 N 개
+         * @param summary 집계
+         */
+        private void offer(PriorityQueue<DirectorySummary> heaviest, DirectorySummary summary) {
+            if (walk.top == 0) {
+                return;
+            }
+            if (heaviest.size() < walk.top) {
+                heaviest.offer(summary);
+            }
+            else if (BY_BYTES.compare(summary, heaviest.peek()) > 0) {
+                heaviest.poll();
+                heaviest.offer(summary);
+            }
+        }
+
+        private Node empty() {
+            return new Node(new DirectorySummary(dir.toString(), 0L, 0L, 0L, 0L, false), new PriorityQueue<>(1, BY_BYTES));
+        }
+    }
+
+    /**
+     * 디렉토리 직속 항목의 집계를 구한다. 캐시된 집계의 변경시각이 디렉토리 변경시각과 같으면 그대로 사용한다.
+     *
+     * @param walk 조회 상태
+     * @param dir 디렉토리
+     *
+     * @return 직속 항목 집계
+     * @throws IOException 입출력 예외
+     */
+    private Level level(Walk walk, Path dir) throws IOException {
+        // 목록을 읽기 전의 변경시각을 저장하여, 읽는 중에 바뀌면 다음 조회에서 다시 읽게 한다.
+        final long modified = Files.readAttributes(dir, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS).lastModifiedTime().toMillis();
+        final Level cached = levels.getIfPresent(dir);
+        if (null != cached && cached.modified == modified) {
+            walk.reused.increment();
+            return cached;
+        }
+
+        long files = 0L;
+        long bytes = 0L;
+        long newest = 0L;
+        final List<String> children = new ArrayList<>();
+
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir)) {
+            for (Path path : stream) {
+                final BasicFileAttributes attrs;
+                try {
+                    attrs = Files.readAttributes(path, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+                }
+                catch (IOException e) {
+                    // 조회 중 삭제되었거나 속성을 읽을 수 없는 항목은 건너뛴다.
+                    continue;
+                }
+
+                if (attrs.isDirectory()) {
+                    children.add(path.getFileName().toString());
+                }
+                else {
+                    files++;
+                    bytes += attrs.size();
+                    newest = Math.max(newest, attrs.lastModifiedTime().toMillis());
+                }
+            }
+        }
+        catch (DirectoryIteratorException e) {
+            throw e.getCause();
+        }
+
+        final Level level = new Level(modified, files, bytes, newest, children.toArray(new String[0]));
+        levels.put(dir, level);
+        walk.scanned.increment();
+        return level;
+    }
+}
@@ -0,0 +1,343 @@
+package com.example.demo.core.infrastructure.file;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * 디렉토리 항목의 속성을 조회한다.
+ * <p>
+ * 항목을 배치로 나누어 전용 I/O 스레드풀에서 병렬로 조회하며, 요청당 동시에 조회하는 배치 수는 parallelism 으로 제한한다.
+ * 조회 결과는 호출 스레드에서 처리자에 전달하므로 처리자는 스레드 안전하지 않아도 된다.
+ * 항목이 한 배치 이하이거나 스레드풀을 사용하지 않으면 호출 스레드에서 순차로 조회하며,
+ * 스레드풀의 대기열이 가득 차면 호출 스레드가 직접 조회한다.
+ *
+ * @author jonghyeon
+ */
+@Component
+public class FileAttributeFetcher {
+    /**
+     * 조회 결과의 전달 순서이다.
+     */
+    public enum Order {
+        /**
+         * 디렉토리에서 읽은 순서
+         */
+        DIRECTORY,
+
+        /**
+         * 배치 조회가 끝난 순서
+         */
+        COMPLETION
+    }
+
+    /**
+     * 조회 결과 처리자이다.
+     */
+    public interface Sink {
+        /**
+         * 항목을 처리한다.
+         *
+         * @param entry 항목
+         *
+         * @return 계속 조회할지 여부
+         * @throws IOException 입출력 예외
+         */
+        boolean accept(FileEntry entry) throws IOException;
+    }
+
+    /**
+     * 요청 하나에서 조회 중인 배치 목록이다.
+     */
+    private final class Window {
+        /**
+         * 제출 순서의 배치 (디렉토리 순서일 때)
+         */
+        private final ArrayDeque<Future<FileEntry[]>> pending = new ArrayDeque<>();
+
+        /**
+         * 완료 순서의 배치 (완료 순서일 때)
+         */
+        private final CompletionService<FileEntry[]> completion = (Order.COMPLETION == order) ? new ExecutorCompletionService<>(executor) : null;
+
+        /**
+         * 조회 중인 배치 수
+         */
+        private int size;
+
+        private int size() {
+            return size;
+        }
+
+        /**
+         * 배치 조회를 제출한다.
+         *
+         * @param batch 배치
+         */
+        private void submit(Path[] batch) {
+            if (null == completion) {
+                pending.add(executor.submit(() -> readAll(batch)));
+            }
+            else {
+                pending.add(completion.submit(() -> readAll(batch)));
+            }
+            size++;
+        }
+
+        /**
+         * 다음 배치의 조회 결과를 기다린다.
+         *
+         * @return 항목 목록
+         * @throws IOException 입출력 예외
+         */
+        private FileEntry[] take() throws IOException {
+            try {
+                final Future<FileEntry[]> future = (null == completion) ? pending.poll() : completion.take();
+                if (null != completion) {
+                    pending.remove(future);
+                }
+                size--;
+                return future.get();
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("속성 조회 중 인터럽트 되었습니다.");
+            }
+            catch (ExecutionException e) {
+                if (e.getCause() instanceof UncheckedIOException) {
+                    throw ((UncheckedIOException)e.getCause()).getCause();
+                }
+                throw new IOException(e.getCause());
+            }
+        }
+
+        /**
+         * 조회 중인 배치를 모두 취소한다.
+         */
+        private void cancel() {
+            for (Future<FileEntry[]> future : pending) {
+                future.cancel(true);
+            }
+            pending.clear();
+            size = 0;
+        }
+    }
+
+    /**
+     * 요청당 최대 동시 배치 수
+     */
+    private final int parallelism;
+
+    /**
+     * 배치 크기
+     */
+    private final int batchSize;
+
+    /**
+     * 결과 전달 순서
+     */
+    private final Order order;
+
+    /**
+     * I/O 스레드풀 (사용하지 않으면 NULL)
+     */
+    private final ThreadPoolExecutor executor;
+
+    public FileAttributeFetcher(@Value("${demo.files.io.threads:8}") int threads, @Value("${demo.files.io.parallelism:4}") int parallelism,
+            @Value("${demo.files.io.batch-size:256}") int batchSize, @Value("${demo.files.io.order:DIRECTORY}") Order order) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException(String.format("배치 크기(%d)는 0 보다 커야 합니다.", batchSize));
+        }
+
+        this.parallelism = Math.max(1, Math.min(parallelism, Math.max(threads, 1)));
+        this.batchSize = batchSize;
+        this.order = order;
+        this.executor = (threads <= 0) ? null
+                : new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(threads * 4),
+                        new ThreadFactoryBuilder().setNameFormat("file-io-%d").setDaemon(true).build(), new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    /**
+     * 스레드풀을 종료한다.
+     */
+    @PreDestroy
+    public void stop() {
+        if (null != executor) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * 경로 목록의 속성을 조회하여 처리자에 전달한다. 처리자가 중단을 반환하면 진행 중인 조회를 취소한다.
+     *
+     * @param paths 경로 목록
+     * @param filter 조회 전에 적용할 조건 (NULL 이면 전체, 호출 스레드에서 검사한다.)
+     * @param sink 조회 결과 처리자
+     *
+     * @throws IOException 입출력 예외
+     */
+    public void fetch(Iterable<Path> paths, Predicate<Path> filter, Sink sink) throws IOException {
+        final Iterator<Path> it = paths.iterator();
+
+        if (null == executor || parallelism <= 1) {
+            while (it.hasNext()) {
+                final Path path = it.next();
+                if ((null == filter || filter.test(path)) && !deliver(read(path), sink)) {
+                    return;
+                }
+            }
+            return;
+        }
+
+        // 한 배치 이하이면 스레드를 넘기지 않고 바로 조회한다.
+        final Path[] first = nextBatch(it, filter);
+        if (!it.hasNext()) {
+            for (Path path : first) {
+                if (!deliver(read(path), sink)) {
+                    return;
+                }
+            }
+            return;
+        }
+
+        final Window window = new Window();
+        try {
+            window.submit(first);
+            while (it.hasNext()) {
+                if (window.size() == parallelism && !deliver(window.take(), sink)) {
+                    return;
+                }
+
+                final Path[] batch = nextBatch(it, filter);
+                if (batch.length > 0) {
+                    window.submit(batch);
+                }
+            }
+
+            while (window.size() > 0) {
+                if (!deliver(window.take(), sink)) {
+                    return;
+                }
+            }
+        }
+        finally {
+            window.cancel();
+        }
+    }
+
+    /**
+     * 경로의 속성을 한 번에 조회하여 항목을 만든다.
+     *
+     * @param path 경로
+     *
+     * @return 항목 (조회 중 삭제되었으면 NULL)
+     * @throws IOException 입출력 예외
+     */
+    FileEntry read(Path path) throws IOException {
+        final BasicFileAttributes attrs;
+        try {
+            attrs = Files.readAttributes(path, BasicFileAttributes.class);
+        }
+        catch (NoSuchFileException e) {
+            return null;
+        }
+
+        return new FileEntry(path.getFileName().toString(), attrs.size(), attrs.lastModifiedTime().toMillis(), attrs.isDirectory(), attrs.isRegularFile());
+    }
+
+    /**
+     * 조건에 맞는 경로를 배치 크기만큼 읽는다.
+     *
+     * @param it 경로 목록
+     * @param filter 조건 (NULL 이면 전체)
+     *
+     * @return 배치 (남은 경로가 없으면 빈 배열)
+     */
+    private Path[] nextBatch(Iterator<Path> it, Predicate<Path> filter) {
+        final Path[] batch = new Path[batchSize];
+        int size = 0;
+
+        while (size < batchSize && it.hasNext()) {
+            final Path path = it.next();
+            if (null == filter || filter.test(path)) {
+                batch[size++] = path;
+            }
+        }
+
+        return (size == batchSize) ? batch : Arrays.copyOf(batch, size);
+    }
+
+    /**
+     * 배치의 속성을 순서대로 조회한다.
+     *
+     * @param batch 배치
+     *
+     * @return 항목 목록 (삭제된 항목은 NULL)
+     */
+    private FileEntry[] readAll(Path[] batch) {
+        final FileEntry[] entries = new FileEntry[batch.length];
+
+        for (int i = 0; i < batch.length; i++) {
+            try {
+                entries[i] = read(batch[i]);
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        return entries;
+    }
+
+    /**
+     * 항목을 처리자에 전달한다.
+     *
+     * @param entry 항목 (NULL 이면 건너뛴다.)
+     * @param sink 처리자
+     *
+     * @return 계속 조회할지 여부
+     * @throws IOException 입출력 예외
+     */
+    private static boolean deliver(FileEntry entry, Sink sink) throws IOException {
+        return (null == entry || sink.accept(entry));
+    }
+
+    /**
+     * 항목 목록을 처리자에 전달한다.
+     *
+     * @param entries 항목 목록
+     * @param sink 처리자
+     *
+     * @return 계속 조회할지 여부
+     * @throws IOException 입출력 예외
+     */
+    private static boolean deliver(FileEntry[] entries, Sink sink) throws IOException {
+        for (FileEntry entry : entries) {
+            if (!deliver(entry, sink)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+}
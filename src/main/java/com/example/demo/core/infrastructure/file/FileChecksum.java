@@ -0,0 +1,427 @@
+package com.example.demo.core.infrastructure.file;
+
+import com.example.demo.core.util.IoUtil;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveTask;
+import java.util.zip.CRC32;
+
+/**
+ * 파일의 체크섬을 계산한다.
+ * <p>
+ * 파일을 8MB 구간으로 메모리 매핑하여 읽는다. 구간으로 나눌 수 있는 알고리즘(CRC-32, CRC-32C, MurmurHash3 트리)은
+ * 큰 파일의 구간을 전용 ForkJoinPool 에서 병렬로 계산한 후 합치며, 디렉토리는 파일마다 작업을 나누어 작은 파일도 여러 스레드에 나눈다.
+ * CRC 는 구간별 값을 GF(2) 행렬 연산으로 합치므로 한 번에 계산한 값과 같다.
+ * 결과는 (경로, 크기, 변경시각, 알고리즘)을 키로 캐시하므로 바뀌지 않은 파일은 다시 읽지 않는다.
+ *
+ * @author jonghyeon
+ */
+@Component
+public class FileChecksum {
+    /**
+     * 구간 크기 (MurmurHash3 트리의 잎 크기이므로 바꾸면 값이 달라진다.)
+     */
+    static final int CHUNK = 8 << 20;
+
+    /**
+     * CRC-32 다항식 (reflected)
+     */
+    private static final int CRC32_POLY = 0xEDB88320;
+
+    /**
+     * CRC-32C 다항식 (reflected)
+     */
+    private static final int CRC32C_POLY = 0x82F63B78;
+
+    /**
+     * 체크섬 결과이다.
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class Result {
+        /**
+         * 파일명
+         */
+        private final String name;
+
+        /**
+         * 체크섬 (16진수, 실패하면 NULL)
+         */
+        private final String checksum;
+
+        /**
+         * 실패 사유 (성공하면 NULL)
+         */
+        private final String error;
+    }
+
+    /**
+     * 캐시 키이다.
+     */
+    @EqualsAndHashCode
+    @AllArgsConstructor
+    private static final class Key {
+        private final String path;
+
+        private final long size;
+
+        private final long modified;
+
+        private final ChecksumAlgorithm algorithm;
+    }
+
+    /**
+     * 디렉토리당 최대 파일 수
+     */
+    private final int maxFiles;
+
+    /**
+     * 계산 스레드풀
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * 계산 결과
+     */
+    private final Cache<Key, String> results;
+
+    public FileChecksum(@Value("${demo.files.checksum.parallelism:0}") int parallelism, @Value("${demo.files.checksum.max-files:10000}") int maxFiles,
+            @Value("${demo.files.checksum.cache-size:10000}") long cacheSize) {
+        this.maxFiles = maxFiles;
+        this.pool = new ForkJoinPool((parallelism > 0) ? parallelism : Runtime.getRuntime().availableProcessors(), p -> {
+            final ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+            thread.setName("checksum-" + thread.getPoolIndex());
+            thread.setDaemon(true);
+            return thread;
+        }, null, false);
+        this.results = CacheBuilder.newBuilder().maximumSize(cacheSize).build();
+    }
+
+    /**
+     * 스레드풀을 종료한다.
+     */
+    @PreDestroy
+    public void stop() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * 파일 또는 디렉토리 직속 파일들의 체크섬을 계산한다. 디렉토리는 링크가 아닌 일반 파일만 파일명 순서로 최대 파일 수까지 계산한다.
+     *
+     * @param path 파일 또는 디렉토리
+     * @param algorithm 알고리즘
+     *
+     * @return 파일별 결과 (디렉토리에 최대 파일 수보다 많은 파일이 있으면 마지막에 NULL 이 추가된다.)
+     * @throws IOException 입출력 예외 (경로가 없으면 NoSuchFileException)
+     */
+    public List<Result> compute(Path path, ChecksumAlgorithm algorithm) throws IOException {
+        final List<Path> files = new ArrayList<>();
+        boolean truncated = false;
+
+        if (Files.isDirectory(path)) {
+            // 링크는 허용 경로 바깥의 파일을 가리킬 수 있으므로 따라가지 않는다.
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(path, file -> Files.isRegularFile(file, LinkOption.NOFOLLOW_LINKS))) {
+                for (Path file : stream) {
+                    files.add(file);
+                }
+            }
+            catch (DirectoryIteratorException e) {
+                throw e.getCause();
+            }
+
+            files.sort(Comparator.comparing(file -> file.getFileName().toString()));
+            if (files.size() > maxFiles) {
+                files.subList(maxFiles, files.size()).clear();
+                truncated = true;
+            }
+        }
+        else {
+            Files.readAttributes(path, BasicFileAttributes.class);
+            files.add(path);
+        }
+
+        final List<FileTask> tasks = new ArrayList<>(files.size());
+        for (Path file : files) {
+            tasks.add(new FileTask(file, algorithm));
+        }
+
+        final List<Result> list = new ArrayList<>(files.size() + 1);
+        try {
+            pool.submit(() -> ForkJoinTask.invokeAll(tasks)).get();
+            for (FileTask task : tasks) {
+                list.add(task.join());
+            }
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("체크섬 계산 중 인터럽트 되었습니다.");
+        }
+        catch (ExecutionException e) {
+            throw new IOException(e.getCause());
+        }
+
+        if (truncated) {
+            list.add(null);
+        }
+        return list;
+    }
+
+    /**
+     * 파일 하나의 체크섬을 계산하는 작업이다. 실패는 결과에 담는다.
+     */
+    @SuppressWarnings("serial")
+    private final class FileTask extends RecursiveTask<Result> {
+        private final Path file;
+
+        private final ChecksumAlgorithm algorithm;
+
+        private FileTask(Path file, ChecksumAlgorithm algorithm) {
+            this.file = file;
+            this.algorithm = algorithm;
+        }
+
+        @Override
+        protected Result compute() {
+            final String name = file.getFileName().toString();
+            try {
+                final BasicFileAttributes attrs = Files.readAttributes(file, BasicFileAttributes.class);
+                final Key key = new Key(file.toAbsolutePath().normalize().toString(), attrs.size(), attrs.lastModifiedTime().toMillis(), algorithm);
+
+                String checksum = results.getIfPresent(key);
+                if (null == checksum) {
+                    checksum = checksum(file, attrs.size(), algorithm);
+                    results.put(key, checksum);
+                }
+                return new Result(name, checksum, null);
+            }
+            catch (NoSuchFileException e) {
+                return new Result(name, null, "파일이 없습니다.");
+            }
+            catch (IOException | UncheckedIOException e) {
+                return new Result(name, null, e.getClass().getSimpleName());
+            }
+        }
+    }
+
+    /**
+     * 구간 하나의 중간값을 계산하는 작업이다.
+     */
+    @SuppressWarnings("serial")
+    private static final class ChunkTask extends RecursiveTask<Object> {
+        private final FileChannel channel;
+
+        private final long position;
+
+        private final long size;
+
+        private final ChecksumAlgorithm algorithm;
+
+        private ChunkTask(FileChannel channel, long position, long size, ChecksumAlgorithm algorithm) {
+            this.channel = channel;
+            this.position = position;
+            this.size = size;
+            this.algorithm = algorithm;
+        }
+
+        @Override
+        protected Object compute() {
+            try {
+                final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, size);
+                try {
+                    switch (algorithm) {
+                        case CRC32:
+                            final CRC32 crc = new CRC32();
+                            crc.update(buffer);
+                            return (int) crc.getValue();
+                        case CRC32C:
+                            return Hashing.crc32c().newHasher().putBytes(buffer).hash().asInt();
+                        default:
+                            return Hashing.murmur3_128().newHasher().putBytes(buffer).hash().asBytes();
+                    }
+                }
+                finally {
+                    IoUtil.unmap(buffer);
+                }
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * 파일의 체크섬을 계산한다. 한 구간을 넘고 나눌 수 있는 알고리즘이면 구간을 병렬로 계산한다.
+     *
+     * @param file 파일
+     * @param size 파일 크기
+     * @param algorithm 알고리즘
+     *
+     * @return 체크섬 (16진수)
+     * @throws IOException 입출력 예외
+     */
+    private static String checksum(Path file, long size, ChecksumAlgorithm algorithm) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (!algorithm.isSplittable()) {
+                return sha256(channel, size);
+            }
+
+            final List<ChunkTask> chunks = new ArrayList<>((int) (size / CHUNK) + 1);
+            for (long position = 0; position < size; position += CHUNK) {
+                chunks.add(new ChunkTask(channel, position, Math.min(CHUNK, size - position), algorithm));
+            }
+
+            switch (algorithm) {
+                case CRC32:
+                case CRC32C:
+                    final int poly = (ChecksumAlgorithm.CRC32 == algorithm) ? CRC32_POLY : CRC32C_POLY;
+                    int crc = 0;
+                    for (ChunkTask chunk : ForkJoinTask.invokeAll(chunks)) {
+                        crc = combine(crc, (Integer) chunk.join(), chunk.size, poly);
+                    }
+                    return String.format("%08x", crc);
+                default:
+                    // 구간별 해시를 순서대로 이은 뒤 파일 크기와 함께 다시 해시한다.
+                    final Hasher hasher = Hashing.murmur3_128().newHasher();
+                    for (ChunkTask chunk : ForkJoinTask.invokeAll(chunks)) {
+                        hasher.putBytes((byte[]) chunk.join());
+                    }
+                    return hasher.putLong(size).hash().toString();
+            }
+        }
+    }
+
+    /**
+     * SHA-256 을 구간 순서대로 계산한다.
+     *
+     * @param channel 파일 채널
+     * @param size 파일 크기
+     *
+     * @return 체크섬 (16진수)
+     * @throws IOException 입출력 예외
+     */
+    private static String sha256(FileChannel channel, long size) throws IOException {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        }
+        catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+
+        for (long position = 0; position < size; position += CHUNK) {
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(CHUNK, size - position));
+            try {
+                digest.update(buffer);
+            }
+            finally {
+                IoUtil.unmap(buffer);
+            }
+        }
+
+        final StringBuilder hex = new StringBuilder(64);
+        for (byte b : digest.digest()) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+
+    /**
+     * 앞 구간의 CRC 와 뒷 구간의 CRC 를 합쳐 이어진 구간의 CRC 를 구한다. (zlib crc32_combine)
+     *
+     * @param crc1 앞 구간의 CRC
+     * @param crc2 뒷 구간의 CRC
+     * @param length2 뒷 구간의 길이
+     * @param poly 다항식 (reflected)
+     *
+     * @return 이어진 구간의 CRC
+     */
+    static int combine(int crc1, int crc2, long length2, int poly) {
+        if (length2 <= 0) {
+            return crc1;
+        }
+
+        final int[] even = new int[32];
+        final int[] odd = new int[32];
+
+        // 0 비트 하나를 넣는 연산자
+        odd[0] = poly;
+        int row = 1;
+        for (int n = 1; n < 32; n++) {
+            odd[n] = row;
+            row <<= 1;
+        }
+
+        // 0 비트 2개, 4개를 넣는 연산자
+        square(even, odd);
+        square(odd, even);
+
+        // 0 바이트 length2 개를 넣는 연산자를 앞 구간의 CRC 에 적용한다.
+        long length = length2;
+        int crc = crc1;
+        do {
+            square(even, odd);
+            if ((length & 1) != 0) {
+                crc = times(even, crc);
+            }
+            length >>= 1;
+            if (0 == length) {
+                break;
+            }
+
+            square(odd, even);
+            if ((length & 1) != 0) {
+                crc = times(odd, crc);
+            }
+            length >>= 1;
+        } while (0 != length);
+
+        return crc ^ crc2;
+    }
+
+    private static int times(int[] matrix, int vector) {
+        int sum = 0;
+        for (int i = 0; 0 != vector; i++, vector >>>= 1) {
+            if ((vector & 1) != 0) {
+                sum ^= matrix[i];
+            }
+        }
+        return sum;
+    }
+
+    private static void square(int[] square, int[] matrix) {
+        for (int n = 0; n < 32; n++) {
+            square[n] = times(matrix, matrix[n]);
+        }
+    }
+}
@@ -0,0 +1,392 @@
+package com.example.demo.core.infrastructure.file;
+
+import com.google.common.util.concurrent.RateLimiter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Component;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * 파일 내용을 HTTP 로 전송한다.
+ * <p>
+ * Range(단일, 다중), If-Range, If-None-Match, If-Modified-Since 를 지원하며 ETag 와 Last-Modified 는 크기와 변경시각으로 만든다.
+ * 단일 구간이고 전송속도 제한이 없으면 Tomcat sendfile 로 넘겨 FileChannel.transferTo 로 소켓에 바로 보내며(zero-copy),
+ * 그렇지 않으면 고정 크기 버퍼 풀의 버퍼로 나누어 읽고 쓰므로 파일 크기와 관계없이 힙 사용량이 일정하다.
+ * 서블릿 출력 스트림은 byte[] 만 받으므로 버퍼 풀은 direct 버퍼가 아닌 힙 배열로 둔다.
+ *
+ * @author jonghyeon
+ */
+@Component
+public class FileDownload {
+    /**
+     * Tomcat sendfile 지원 여부 속성
+     */
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+
+    /**
+     * Tomcat sendfile 파일명, 시작위치, 종료위치(제외) 속성
+     */
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    /**
+     * 최대 구간 수 (넘으면 Range 를 무시하고 전체를 보낸다.)
+     */
+    private static final int MAX_RANGES = 16;
+
+    /**
+     * 버퍼 크기(바이트)
+     */
+    private final int bufferSize;
+
+    /**
+     * 요청당 최대 전송속도(바이트/초, 0 이면 제한하지 않는다.)
+     */
+    private final long maxRate;
+
+    /**
+     * 재사용하는 버퍼 풀
+     */
+    private final BlockingQueue<byte[]> buffers;
+
+    public FileDownload(@Value("${demo.files.download.buffer-size:65536}") int bufferSize, @Value("${demo.files.download.buffers:32}") int buffers,
+            @Value("${demo.files.download.rate:0}") long maxRate) {
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException(String.format("버퍼 크기(%d)는 0 보다 커야 합니다.", bufferSize));
+        }
+
+        this.bufferSize = bufferSize;
+        this.maxRate = maxRate;
+        this.buffers = new ArrayBlockingQueue<>(Math.max(buffers, 1));
+    }
+
+    /**
+     * 파일을 요청에 맞게 응답에 쓴다.
+     *
+     * @param path 파일 경로
+     * @param rate 요청한 전송속도(바이트/초, 0 이하면 설정값), 설정값보다 클 수 없다.
+     * @param request 요청 데이터
+     * @param response 응답 데이터
+     *
+     * @throws IOException 입출력 예외
+     */
+    public void write(Path path, long rate, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        final BasicFileAttributes attrs;
+        try {
+            attrs = Files.readAttributes(path, BasicFileAttributes.class);
+        }
+        catch (NoSuchFileException e) {
+            sendError(response, HttpServletResponse.SC_NOT_FOUND, "파일이 없습니다.");
+            return;
+        }
+        if (!attrs.isRegularFile()) {
+            sendError(response, HttpServletResponse.SC_NOT_FOUND, "파일이 아닙니다.");
+            return;
+        }
+
+        final long length = attrs.size();
+        final long lastModified = attrs.lastModifiedTime().toMillis();
+        final String etag = String.format("\"%x-%x\"", length, lastModified);
+
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setDateHeader(HttpHeaders.LAST_MODIFIED, lastModified);
+
+        if (notModified(request, etag, lastModified)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        final String contentType = MediaTypeFactory.getMediaType(path.getFileName().toString()).orElse(MediaType.APPLICATION_OCTET_STREAM).toString();
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.builder("attachment").filename(path.getFileName().toString(), StandardCharsets.UTF_8).build().toString());
+
+        // Range 가 없거나, If-Range 가 맞지 않거나, 구간이 너무 많으면 전체를 보낸다.
+        List<HttpRange> ranges = null;
+        final String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        if (null != rangeHeader && ifRange(request, etag, lastModified)) {
+            try {
+                ranges = HttpRange.parseRanges(rangeHeader);
+            }
+            catch (IllegalArgumentException e) {
+                ranges = null;
+            }
+            if (null != ranges && (ranges.isEmpty() || ranges.size() > MAX_RANGES)) {
+                ranges = null;
+            }
+        }
+
+        final long[][] regions;
+        if (null == ranges) {
+            regions = new long[][] {{0L, length}};
+        }
+        else {
+            regions = regionsOf(ranges, length);
+            if (null == regions) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                sendError(response, HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE, "요청한 구간이 파일 범위를 벗어났습니다.");
+                return;
+            }
+        }
+
+        final long effectiveRate = (rate > 0 && (maxRate <= 0 || rate < maxRate)) ? rate : maxRate;
+        final boolean head = "HEAD".equals(request.getMethod());
+
+        if (regions.length == 1) {
+            final long start = regions[0][0];
+            final long count = regions[0][1];
+            if (null != ranges) {
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, String.format("bytes %d-%d/%d", start, start + count - 1, length));
+            }
+            response.setContentType(contentType);
+            response.setContentLengthLong(count);
+
+            if (head || 0 == count) {
+                return;
+            }
+
+            if (effectiveRate <= 0 && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+                // 컨테이너가 응답 완료 후 FileChannel.transferTo 로 소켓에 바로 보낸다.
+                request.setAttribute(SENDFILE_FILENAME, path.toAbsolutePath().toString());
+                request.setAttribute(SENDFILE_START, start);
+                request.setAttribute(SENDFILE_END, start + count);
+                return;
+            }
+
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                copy(channel, start, count, response.getOutputStream(), limiterOf(effectiveRate));
+            }
+            return;
+        }
+
+        writeMultipart(path, regions, length, contentType, head, limiterOf(effectiveRate), response);
+    }
+
+    /**
+     * 다중 구간을 multipart/byteranges 로 쓴다. 본문 길이를 미리 계산하여 Content-Length 를 정한다.
+     *
+     * @param path 파일 경로
+     * @param regions 구간 목록 (시작위치, 길이)
+     * @param length 파일 크기
+     * @param contentType 파일 미디어 유형
+     * @param head HEAD 요청 여부
+     * @param limiter 전송속도 제한기 (NULL 이면 제한하지 않는다.)
+     * @param response 응답 데이터
+     *
+     * @throws IOException 입출력 예외
+     */
+    private void writeMultipart(Path path, long[][] regions, long length, String contentType, boolean head, RateLimiter limiter,
+            HttpServletResponse response) throws IOException {
+        final String boundary = UUID.randomUUID().toString().replace("-", "");
+        final byte[][] partHeaders = new byte[regions.length][];
+        final byte[] closing = ("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.US_ASCII);
+        long total = closing.length;
+
+        for (int i = 0; i < regions.length; i++) {
+            final long start = regions[i][0];
+            final long end = start + regions[i][1] - 1;
+            partHeaders[i] = String.format("%s--%s\r\nContent-Type: %s\r\nContent-Range: bytes %d-%d/%d\r\n\r\n", (i == 0 ? "" : "\r\n"), boundary, contentType,
+                    start, end, length).getBytes(StandardCharsets.US_ASCII);
+            total += partHeaders[i].length + regions[i][1];
+        }
+
+        response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+        response.setContentType("multipart/byteranges; boundary=" + boundary);
+        response.setContentLengthLong(total);
+        if (head) {
+            return;
+        }
+
+        final ServletOutputStream out = response.getOutputStream();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            for (int i = 0; i < regions.length; i++) {
+                out.write(partHeaders[i]);
+                copy(channel, regions[i][0], regions[i][1], out, limiter);
+            }
+        }
+        out.write(closing);
+    }
+
+    /**
+     * 파일 구간을 버퍼 풀의 버퍼로 나누어 출력한다.
+     *
+     * @param channel 파일 채널
+     * @param start 시작위치
+     * @param count 길이
+     * @param out 출력 스트림
+     * @param limiter 전송속도 제한기 (NULL 이면 제한하지 않는다.)
+     *
+     * @throws IOException 입출력 예외 (전송 중 파일이 줄어든 경우 포함)
+     */
+    private void copy(FileChannel channel, long start, long count, ServletOutputStream out, RateLimiter limiter) throws IOException {
+        byte[] buffer = buffers.poll();
+        if (null == buffer) {
+            buffer = new byte[bufferSize];
+        }
+
+        try {
+            final ByteBuffer wrap = ByteBuffer.wrap(buffer);
+            // 속도를 제한하면 한 번에 보내는 양이 초당 허용량을 넘지 않게 한다.
+            final int chunk = (null == limiter) ? buffer.length : (int) Math.max(1, Math.min(buffer.length, (long) limiter.getRate()));
+            long position = start;
+            long remaining = count;
+
+            while (remaining > 0) {
+                wrap.clear().limit((int) Math.min(chunk, remaining));
+                final int read = channel.read(wrap, position);
+                if (read < 0) {
+                    throw new IOException(String.format("전송 중 파일 크기가 줄었습니다.(%d/%d)", position - start, count));
+                }
+
+                if (null != limiter) {
+                    limiter.acquire(read);
+                }
+                out.write(buffer, 0, read);
+                position += read;
+                remaining -= read;
+            }
+        }
+        finally {
+            buffers.offer(buffer);
+        }
+    }
+
+    /**
+     * If-None-Match, If-Modified-Since 에 따라 변경되지 않았는지 여부를 반환한다. If-None-Match 가 있으면 If-Modified-Since 는 무시한다.
+     *
+     * @param request 요청 데이터
+     * @param etag ETag
+     * @param lastModified 변경시각(epoch-milli)
+     *
+     * @return 변경되지 않았는지 여부
+     */
+    private static boolean notModified(HttpServletRequest request, String etag, long lastModified) {
+        final String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (null != ifNoneMatch) {
+            for (String candidate : ifNoneMatch.split(",")) {
+                final String tag = candidate.trim();
+                if ("*".equals(tag) || etag.equals(tag.startsWith("W/") ? tag.substring(2) : tag)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        try {
+            final long since = request.getDateHeader(HttpHeaders.IF_MODIFIED_SINCE);
+            // HTTP 일자는 초 단위이다.
+            return (since >= 0 && lastModified / 1000L <= since / 1000L);
+        }
+        catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * If-Range 가 없거나 현재 파일과 일치하는지 여부를 반환한다. If-Range 의 ETag 는 강한 비교를 한다.
+     *
+     * @param request 요청 데이터
+     * @param etag ETag
+     * @param lastModified 변경시각(epoch-milli)
+     *
+     * @return Range 를 적용할지 여부
+     */
+    private static boolean ifRange(HttpServletRequest request, String etag, long lastModified) {
+        final String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (null == ifRange) {
+            return true;
+        }
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return etag.equals(ifRange.trim());
+        }
+
+        try {
+            return (lastModified / 1000L == request.getDateHeader(HttpHeaders.IF_RANGE) / 1000L);
+        }
+        catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 구간 목록을 (시작위치, 길이) 로 변환한다. 파일 범위를 벗어난 구간은 제외한다.
+     *
+     * @param ranges 구간 목록
+     * @param length 파일 크기
+     *
+     * @return 구간 목록 (만족하는 구간이 없으면 NULL)
+     */
+    private static long[][] regionsOf(List<HttpRange> ranges, long length) {
+        final long[][] regions = new long[ranges.size()][];
+        int count = 0;
+
+        for (HttpRange range : ranges) {
+            try {
+                final long start = range.getRangeStart(length);
+                final long end = range.getRangeEnd(length);
+                if (start <= end) {
+                    regions[count++] = new long[] {start, end - start + 1};
+                }
+            }
+            catch (IllegalArgumentException e) {
+                // 파일 범위를 벗어난 구간
+            }
+        }
+
+        if (0 == count) {
+            return null;
+        }
+
+        final long[][] satisfiable = new long[count][];
+        System.arraycopy(regions, 0, satisfiable, 0, count);
+        return satisfiable;
+    }
+
+    /**
+     * 전송속도 제한기를 만든다.
+     *
+     * @param rate 전송속도(바이트/초)
+     *
+     * @return 제한기 (제한하지 않으면 NULL)
+     */
+    private static RateLimiter limiterOf(long rate) {
+        return (rate > 0 ? RateLimiter.create(rate) : null);
+    }
+
+    /**
+     * 오류를 평문으로 응답한다.
+     *
+     * @param response 응답 데이터
+     * @param status 응답코드
+     * @param message 오류 메시지
+     *
+     * @throws IOException 입출력 예외
+     */
+    private static void sendError(HttpServletResponse response, int status, String message) throws IOException {
+        response.setStatus(status);
+        response.setContentType("text/plain;charset=UTF-8");
+        response.getWriter().write(message);
+    }
+}
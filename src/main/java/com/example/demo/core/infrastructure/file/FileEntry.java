@@ -0,0 +1,38 @@
+package com.example.demo.core.infrastructure.file;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 디렉토리 조회 결과의 항목이다.
+ *
+ * @author jonghyeon
+ */
+@Getter
+@AllArgsConstructor
+public class FileEntry {
+    /**
+     * 파일명
+     */
+    private final String name;
+
+    /**
+     * 크기(바이트)
+     */
+    private final long size;
+
+    /**
+     * 변경시각(epoch-milli)
+     */
+    private final long lastModified;
+
+    /**
+     * 디렉토리 여부
+     */
+    private final boolean directory;
+
+    /**
+     * 일반 파일 여부
+     */
+    private final boolean regularFile;
+}
@@ -0,0 +1,259 @@
+package com.example.demo.core.infrastructure.file;
+
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.function.Predicate;
+
+/**
+ * 디렉토리를 조회한다.
+ * <p>
+ * 디렉토리 캐시에 스냅샷이 있으면 파일시스템을 조회하지 않고 스냅샷에서 고른다.
+ * 없으면 디렉토리 전체를 배열로 만들지 않고 DirectoryStream 으로 한 항목씩 읽으며, 항목당 readAttributes 한 번으로 유형, 크기, 변경시각을 구한다.
+ * 속성 조회는 FileAttributeFetcher 가 배치 단위로 병렬 처리한다.
+ * 정렬하지 않으면 읽는 즉시 출력하고, 정렬하면 커서 이후의 상위 limit 건만 힙에 유지하므로 메모리는 디렉토리 크기가 아니라 limit 에 비례한다.
+ * 파일명 정렬은 속성 조회 전에 파일명만으로 대상이 아닌 항목을 걸러낸다.
+ *
+ * @author jonghyeon
+ */
+@Component
+public class FileLister {
+    /**
+     * 조회 항목 처리자이다.
+     */
+    public interface Handler {
+        /**
+         * 디렉토리를 연 후, 첫 항목 전에 호출된다.
+         *
+         * @throws IOException 입출력 예외
+         */
+        void begin() throws IOException;
+
+        /**
+         * 항목을 처리한다.
+         *
+         * @param entry 항목
+         *
+         * @throws IOException 입출력 예외
+         */
+        void accept(FileEntry entry) throws IOException;
+    }
+
+    /**
+     * 커서 이후의 상위 limit 건을 고른다.
+     */
+    private static final class Selection {
+        /**
+         * 항목 비교자
+         */
+        private final Comparator<FileEntry> comparator;
+
+        /**
+         * 이전 페이지의 마지막 항목 (NULL 이면 처음부터)
+         */
+        private final FileEntry after;
+
+        /**
+         * 유지 건수 (다음 페이지 여부를 알기 위해 한 건을 더 유지한다.)
+         */
+        private final int keep;
+
+        /**
+         * 가장 뒤의 항목이 머리에 오는 힙
+         */
+        private final PriorityQueue<FileEntry> heap;
+
+        private Selection(FileQuery query) {
+            this.comparator = query.comparator();
+            this.after = query.getAfter();
+            this.keep = query.getLimit() + 1;
+            this.heap = new PriorityQueue<>(Math.min(keep, 1024), comparator.reversed());
+        }
+
+        /**
+         * 항목이 선택될 수 있는지 여부를 반환한다. 비교에 쓰이는 값만 있으면 된다.
+         *
+         * @param entry 항목
+         *
+         * @return 선택될 수 있는지 여부
+         */
+        private boolean admits(FileEntry entry) {
+            return (null == after || comparator.compare(entry, after) > 0) && (heap.size() < keep || comparator.compare(entry, heap.peek()) < 0);
+        }
+
+        /**
+         * 항목을 후보에 넣는다.
+         *
+         * @param entry 항목
+         */
+        private void offer(FileEntry entry) {
+            if (admits(entry)) {
+                if (heap.size() == keep) {
+                    heap.poll();
+                }
+                heap.offer(entry);
+            }
+        }
+
+        /**
+         * 고른 항목을 정렬 순서대로 처리자에 전달한다.
+         *
+         * @param sort 정렬 기준
+         * @param handler 항목 처리자
+         *
+         * @return 다음 페이지 커서 (다음 페이지가 없으면 NULL)
+         * @throws IOException 입출력 예외
+         */
+        private String drain(FileSort sort, Handler handler) throws IOException {
+            final boolean hasNext = (heap.size() == keep);
+            final FileEntry[] entries = new FileEntry[Math.min(heap.size(), keep - 1)];
+            if (hasNext) {
+                heap.poll();
+            }
+            for (int i = entries.length - 1; i >= 0; i--) {
+                entries[i] = heap.poll();
+            }
+
+            for (FileEntry entry : entries) {
+                handler.accept(entry);
+            }
+
+            return (hasNext ? sort.cursorOf(entries[entries.length - 1]) : null);
+        }
+    }
+
+    /**
+     * 디렉토리 캐시
+     */
+    private final DirectoryCache directoryCache;
+
+    /**
+     * 속성 조회기
+     */
+    private final FileAttributeFetcher fetcher;
+
+    public FileLister(DirectoryCache directoryCache, FileAttributeFetcher fetcher) {
+        this.directoryCache = directoryCache;
+        this.fetcher = fetcher;
+    }
+
+    /**
+     * 디렉토리를 조회하여 조건에 맞는 항목을 순서대로 처리자에 전달한다.
+     * 디렉토리가 없거나 디렉토리가 아니면 begin 전에 NoSuchFileException, NotDirectoryException 이 발생한다.
+     *
+     * @param dir 디렉토리
+     * @param query 조회 조건
+     * @param handler 항목 처리자
+     *
+     * @return 다음 페이지 커서 (다음 페이지가 없거나 정렬하지 않으면 NULL)
+     * @throws IOException 입출력 예외
+     */
+    public String list(Path dir, FileQuery query, Handler handler) throws IOException {
+        final DirectorySnapshot snapshot = directoryCache.get(dir);
+        if (null != snapshot) {
+            return list(snapshot, query, handler);
+        }
+
+        try (DirectoryStream<Path> stream = (null == query.getGlob()) ? Files.newDirectoryStream(dir) : Files.newDirectoryStream(dir, query.getGlob())) {
+            handler.begin();
+
+            if (FileSort.NONE == query.getSort()) {
+                stream(stream, query, handler);
+                return null;
+            }
+
+            return select(stream, query, handler);
+        }
+    }
+
+    /**
+     * 스냅샷에서 조건에 맞는 항목을 골라 처리자에 전달한다.
+     *
+     * @param snapshot 스냅샷
+     * @param query 조회 조건
+     * @param handler 항목 처리자
+     *
+     * @return 다음 페이지 커서 (다음 페이지가 없거나 정렬하지 않으면 NULL)
+     * @throws IOException 입출력 예외
+     */
+    private String list(DirectorySnapshot snapshot, FileQuery query, Handler handler) throws IOException {
+        // glob 은 DirectoryStream 과 같이 파일명에 대해 검사한다.
+        final PathMatcher matcher = (null == query.getGlob()) ? null : snapshot.getDir().getFileSystem().getPathMatcher("glob:" + query.getGlob());
+        final Selection selection = (FileSort.NONE == query.getSort()) ? null : new Selection(query);
+        int count = 0;
+
+        handler.begin();
+
+        for (FileEntry entry : snapshot.entries()) {
+            if (!query.getType().accepts(entry) || (null != matcher && !matcher.matches(Paths.get(entry.getName())))) {
+                continue;
+            }
+
+            if (null != selection) {
+                selection.offer(entry);
+            }
+            else {
+                handler.accept(entry);
+                if (++count == query.getLimit()) {
+                    return null;
+                }
+            }
+        }
+
+        return (null == selection ? null : selection.drain(query.getSort(), handler));
+    }
+
+    /**
+     * 읽는 순서대로 최대 건수까지 처리자에 전달한다.
+     *
+     * @param stream 디렉토리 스트림
+     * @param query 조회 조건
+     * @param handler 항목 처리자
+     *
+     * @throws IOException 입출력 예외
+     */
+    private void stream(DirectoryStream<Path> stream, FileQuery query, Handler handler) throws IOException {
+        final int[] count = {0};
+
+        fetcher.fetch(stream, null, entry -> {
+            if (query.getType().accepts(entry)) {
+                handler.accept(entry);
+                return (++count[0] < query.getLimit());
+            }
+            return true;
+        });
+    }
+
+    /**
+     * 커서 이후의 상위 limit 건을 골라 정렬 순서대로 처리자에 전달한다.
+     *
+     * @param stream 디렉토리 스트림
+     * @param query 조회 조건
+     * @param handler 항목 처리자
+     *
+     * @return 다음 페이지 커서 (다음 페이지가 없으면 NULL)
+     * @throws IOException 입출력 예외
+     */
+    private String select(DirectoryStream<Path> stream, FileQuery query, Handler handler) throws IOException {
+        final Selection selection = new Selection(query);
+        // 파일명 정렬은 속성을 조회하지 않고 커서 이전이거나 이미 유지 중인 항목보다 뒤인 항목을 걸러낸다.
+        final Predicate<Path> filter = (FileSort.NAME != query.getSort()) ? null
+                : path -> selection.admits(new FileEntry(path.getFileName().toString(), 0L, 0L, false, false));
+
+        fetcher.fetch(stream, filter, entry -> {
+            if (query.getType().accepts(entry)) {
+                selection.offer(entry);
+            }
+            return true;
+        });
+
+        return selection.drain(query.getSort(), handler);
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.demo.core.infrastructure.file;
+
+import com.example.demo.core.util.CheckUtil;
+import lombok.Getter;
+
+import java.util.Comparator;
+
+/**
+ * 디렉토리 조회 조건이다.
+ *
+ * @author jonghyeon
+ */
+@Getter
+public class FileQuery {
+    /**
+     * 파일명 glob 패턴 (NULL 이면 전체)
+     */
+    private final String glob;
+
+    /**
+     * 항목 유형
+     */
+    private final FileType type;
+
+    /**
+     * 정렬 기준
+     */
+    private final FileSort sort;
+
+    /**
+     * 역순 여부
+     */
+    private final boolean descending;
+
+    /**
+     * 이전 페이지의 마지막 항목 (NULL 이면 처음부터)
+     */
+    private final FileEntry after;
+
+    /**
+     * 최대 건수
+     */
+    private final int limit;
+
+    /**
+     * 조회 조건을 생성한다.
+     *
+     * @param glob 파일명 glob 패턴 (NULL 또는 공백이면 전체)
+     * @param type 항목 유형
+     * @param sort 정렬 기준
+     * @param descending 역순 여부
+     * @param after 다음 페이지 커서 (NULL 또는 공백이면 처음부터)
+     * @param limit 최대 건수
+     */
+    public FileQuery(String glob, FileType type, FileSort sort, boolean descending, String after, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException(String.format("최대 건수(%d)는 0 보다 커야 합니다.", limit));
+        }
+
+        this.glob = CheckUtil.isNullOrEmpty(glob) ? null : glob;
+        this.type = type;
+        this.sort = sort;
+        this.descending = descending;
+        this.after = CheckUtil.isNullOrEmpty(after) ? null : sort.parseCursor(after);
+        this.limit = limit;
+    }
+
+    /**
+     * 정렬 방향에 따른 항목 비교자를 반환한다.
+     *
+     * @return 항목 비교자 (정렬하지 않으면 NULL)
+     */
+    public Comparator<FileEntry> comparator() {
+        return sort.comparator(descending);
+    }
+}
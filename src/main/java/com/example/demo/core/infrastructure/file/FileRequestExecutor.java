@@ -0,0 +1,853 @@
+package com.example.demo.core.infrastructure.file;
+
+import com.example.demo.core.infrastructure.configuration.ConcurrencyLimitInterceptor;
+import com.example.demo.core.infrastructure.validation.ValidationInterceptor;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.catalina.Globals;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import javax.annotation.PreDestroy;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 파일시스템을 조회하는 요청을 톰캣 요청 스레드가 아닌 전용 스레드에서 처리한다.
+ * <p>
+ * 응답이 늦은 마운트가 있어도 요청 스레드를 붙잡지 않으므로 다른 요청(/server/info 등)은 영향을 받지 않는다.
+ * 엔드포인트마다 최대 동시 요청 수(대기 포함)를 두어 넘으면 바로 503 으로 거절하며, 멈춘 작업 스레드는 자신의 엔드포인트 한도만 차지한다.
+ * 응답 본문을 쓰기 전에 제한시간이 지나면 작업을 취소(인터럽트)하고 503 으로 응답한다. 본문을 쓰기 시작한 요청은 끝까지 전송한다.
+ * 작업 스레드에는 요청이 끝난 후에는 쓰기를 막는 요청, 응답을 넘기므로 취소 후 늦게 깨어난 작업이 재사용된 요청, 응답에 쓰지 않는다.
+ * 톰캣은 비동기 요청의 sendfile 본문을 보내지 않으므로 작업 스레드에서는 sendfile 을 지원하지 않는다고 알린다.
+ * 그래서 파일 내려받기(content)는 기본 설정에서 요청 스레드로 처리하여 sendfile(zero-copy)을 쓰며, 이때도 최대 동시 요청 수는 적용하여 멈춘 요청이 차지하는 요청 스레드 수를 제한한다.
+ * 지원하는 런타임(Java 21 이상)에서는 설정에 따라 가상 스레드를 사용한다.
+ *
+ * @author jonghyeon
+ */
+@Slf4j
+@Component
+public class FileRequestExecutor {
+    /**
+     * 작업 상태 (대기, 실행, 본문 전송, 종료)
+     */
+    private static final int QUEUED = 0;
+    private static final int RUNNING = 1;
+    private static final int RESPONDING = 2;
+    private static final int CLOSED = 3;
+
+    /**
+     * 엔드포인트이다.
+     */
+    public enum Endpoint {
+        LIST, CONTENT, TREE, CHECKSUM;
+
+        /**
+         * 설정 키 (demo.files.async.{key}.*)
+         *
+         * @return 설정 키
+         */
+        private String key() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    /**
+     * 요청 처리자이다.
+     */
+    public interface Handler {
+        /**
+         * 요청을 처리하여 응답을 쓴다.
+         *
+         * @param request 요청 데이터
+         * @param response 응답 데이터
+         *
+         * @throws IOException 입출력 예외
+         */
+        void handle(HttpServletRequest request, HttpServletResponse response) throws IOException;
+    }
+
+    /**
+     * 엔드포인트별 한도와 현황이다.
+     */
+    private static final class Limit {
+        /**
+         * 작업 스레드 처리 여부 (거짓이면 요청 스레드에서 처리한다.)
+         */
+        private final boolean async;
+
+        /**
+         * 최대 동시 요청 수 (대기 포함)
+         */
+        private final int queueSize;
+
+        /**
+         * 응답 시작 제한시간(밀리초, 0 이면 제한하지 않는다.)
+         */
+        private final long timeout;
+
+        /**
+         * 남은 요청 수
+         */
+        private final Semaphore permits;
+
+        /**
+         * 처리한 건수, 한도를 넘어 거절한 건수, 제한시간이 지난 건수
+         */
+        private final AtomicLong completed = new AtomicLong();
+        private final AtomicLong rejected = new AtomicLong();
+        private final AtomicLong timedOut = new AtomicLong();
+
+        private Limit(boolean async, int queueSize, long timeout) {
+            this.async = async;
+            this.queueSize = queueSize;
+            this.timeout = timeout;
+            this.permits = new Semaphore(queueSize);
+        }
+    }
+
+    /**
+     * 작업 하나이다. 상태와 응답 쓰기는 작업 객체로 동기화한다.
+     */
+    private final class Task implements Runnable {
+        private final Endpoint endpoint;
+
+        private final Limit limit;
+
+        private final HttpServletRequest request;
+
+        private final HttpServletResponse response;
+
+        private final Handler handler;
+
+        private final DeferredResult<Void> result;
+
+        /**
+         * 작업 상태
+         */
+        private volatile int state = QUEUED;
+
+        /**
+         * 작업 스레드의 실행 결과, 제한시간 타이머
+         */
+        private volatile Future<?> future;
+        private volatile ScheduledFuture<?> deadline;
+
+        private Task(Endpoint endpoint, Limit limit, HttpServletRequest request, HttpServletResponse response, Handler handler, DeferredResult<Void> result) {
+            this.endpoint = endpoint;
+            this.limit = limit;
+            this.request = request;
+            this.response = response;
+            this.handler = handler;
+            this.result = result;
+        }
+
+        @Override
+        public void run() {
+            synchronized (this) {
+                if (QUEUED != state) {
+                    return;
+                }
+                state = RUNNING;
+            }
+
+            try {
+                final HttpServletRequest guardedRequest = new GuardedRequest(this, request);
+                final HttpServletResponse guardedResponse = new GuardedResponse(this, response);
+                if (validationInterceptor.validateDeferred(guardedRequest, guardedResponse)) {
+                    handler.handle(guardedRequest, guardedResponse);
+                }
+                // 본문 없이 끝난 응답(304 등)도 제한시간이 덮어쓰지 않게 한다.
+                synchronized (this) {
+                    open(true);
+                }
+                result.setResult(null);
+            }
+            catch (Exception e) {
+                result.setErrorResult(e);
+            }
+            finally {
+                limit.completed.incrementAndGet();
+                limit.permits.release();
+                if (null != deadline) {
+                    deadline.cancel(false);
+                }
+            }
+        }
+
+        /**
+         * 응답을 쓸 수 있는지 확인한다. 작업 객체를 잠근 상태에서 호출해야 한다.
+         *
+         * @param body 본문 전송(제한시간을 더 적용하지 않는다.)인지 여부
+         *
+         * @return 요청이 끝나지 않았으면 참
+         */
+        private boolean open(boolean body) {
+            if (CLOSED == state) {
+                return false;
+            }
+            if (body) {
+                state = RESPONDING;
+            }
+            return true;
+        }
+
+        /**
+         * 본문을 쓰기 전에 제한시간이 지났으면 작업을 취소하고 503 으로 응답한다.
+         */
+        private void expire() {
+            if (state >= RESPONDING) {
+                return;
+            }
+
+            final boolean queued;
+            synchronized (this) {
+                if (state >= RESPONDING) {
+                    return;
+                }
+                queued = (QUEUED == state);
+                state = CLOSED;
+                limit.timedOut.incrementAndGet();
+
+                try {
+                    if (!response.isCommitted()) {
+                        response.reset();
+                        unavailable(request, response, String.format("파일시스템 응답이 %dms 안에 오지 않았습니다.(%s)", limit.timeout, endpoint.key()));
+                    }
+                }
+                catch (IOException | IllegalStateException e) {
+                    log.warn(String.format("제한시간 응답 중 오류가 발생했습니다.(%s) %s", endpoint.key(), e.getMessage()));
+                }
+            }
+
+            if (null != future) {
+                future.cancel(true);
+            }
+            if (queued) {
+                limit.permits.release();
+            }
+            result.setResult(null);
+        }
+
+        /**
+         * 요청이 끝나면(완료, 오류) 더 이상 응답을 쓰지 못하게 한다. 아직 대기 중이면 작업을 취소한다.
+         */
+        private void close() {
+            final boolean queued;
+            synchronized (this) {
+                queued = (QUEUED == state);
+                state = CLOSED;
+            }
+
+            if (null != deadline) {
+                deadline.cancel(false);
+            }
+            if (queued) {
+                if (null != future) {
+                    future.cancel(false);
+                }
+                limit.permits.release();
+            }
+        }
+    }
+
+    /**
+     * 요청이 끝난 후에는 속성을 바꾸지 못하는 요청이다.
+     * 톰캣은 요청 스레드에서 끝난 요청에만 sendfile 을 처리하므로(비동기 요청은 본문 없이 멈춘다) 작업 스레드에는 sendfile 을 지원하지 않는다고 알린다.
+     */
+    private static final class GuardedRequest extends HttpServletRequestWrapper {
+        private final Task task;
+
+        private GuardedRequest(Task task, HttpServletRequest request) {
+            super(request);
+            this.task = task;
+        }
+
+        @Override
+        public Object getAttribute(String name) {
+            return Globals.SENDFILE_SUPPORTED_ATTR.equals(name) ? null : super.getAttribute(name);
+        }
+
+        @Override
+        public void setAttribute(String name, Object value) {
+            synchronized (task) {
+                if (task.open(false)) {
+                    super.setAttribute(name, value);
+                }
+            }
+        }
+
+        @Override
+        public void removeAttribute(String name) {
+            synchronized (task) {
+                if (task.open(false)) {
+                    super.removeAttribute(name);
+                }
+            }
+        }
+    }
+
+    /**
+     * 요청이 끝난 후에는 쓰지 못하는 응답이다. 헤더는 무시하고 본문은 예외(PrintWriter 는 오류 상태)로 막는다.
+     */
+    private static final class GuardedResponse extends HttpServletResponseWrapper {
+        private final Task task;
+
+        private ServletOutputStream outputStream;
+
+        private PrintWriter writer;
+
+        private GuardedResponse(Task task, HttpServletResponse response) {
+            super(response);
+            this.task = task;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            synchronized (task) {
+                if (!task.open(false)) {
+                    throw closed(task);
+                }
+                if (null == outputStream) {
+                    outputStream = new GuardedOutputStream(task, super.getOutputStream());
+                }
+                return outputStream;
+            }
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            synchronized (task) {
+                if (!task.open(false)) {
+                    throw closed(task);
+                }
+                if (null == writer) {
+                    writer = new GuardedWriter(task, super.getWriter());
+                }
+                return writer;
+            }
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            synchronized (task) {
+                if (!task.open(true)) {
+                    throw closed(task);
+                }
+                super.flushBuffer();
+            }
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            synchronized (task) {
+                if (!task.open(true)) {
+                    throw closed(task);
+                }
+                super.sendError(sc, msg);
+            }
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            synchronized (task) {
+                if (!task.open(true)) {
+                    throw closed(task);
+                }
+                super.sendError(sc);
+            }
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            synchronized (task) {
+                if (!task.open(true)) {
+                    throw closed(task);
+                }
+                super.sendRedirect(location);
+            }
+        }
+
+        @Override
+        public void reset() {
+            synchronized (task) {
+                if (task.open(false)) {
+                    super.reset();
+                }
+            }
+        }
+
+        @Override
+        public void resetBuffer() {
+            synchronized (task) {
+                if (task.open(false)) {
+                    super.resetBuffer();
+                }
+            }
+        }
+
+        @Override
+        public void setBufferSize(int size) {
+            synchronized (task) {
+                if (task.open(false)) {
+                    super.setBufferSize(size);
+                }
+            }
+        }
+
+        @Override
+        public void setStatus(int sc) {
+            synchronized (task) {
+                if (task.open(false)) {
+                    super.setStatus(sc);
+                }
+            }
+        }
+
+        @Override
+        public void setContentType(String type) {
+            synchronized (task) {
+                if (task.open(false)) {
+                    super.setContentType(type);
+                }
+            }
+        }
+
+        @Override
+        public void setCharacterEncoding(String charset) {
+            synchronized (task) {
+                if (task.open(false)) {
+                    super.setCharacterEncoding(charset);
+                }
+            }
+        }
+
+        @Override
+        public void setContentLength(int len) {
+            synchronized (task) {
+                if (task.open(false)) {
+                    super.setContentLength(len);
+                }
+            }
+        }
+
+        @Override
+        public void setContentLengthLong(long len) {
+            synchronized (task) {
+                if (task.open(false)) {
+                    super.setContentLengthLong(len);
+                }
+            }
+        }
+
+        @Override
+        public void setLocale(Locale loc) {
+            synchronized (task) {
+                if (task.open(false)) {
+                    super.setLocale(loc);
+                }
+            }
+        }
+
+        @Override
+        public void addCookie(Cookie cookie) {
+            synchronized (task) {
+                if (task.open(false)) {
+                    super.addCookie(cookie);
+                }
+            }
+        }
+
+        @Override
+        public void setHeader(String name, String value) {
+            synchronized (task) {
+                if (task.open(false)) {
+                    super.setHeader(name, value);
+                }
+            }
+        }
+
+        @Override
+        public void addHeader(String name, String value) {
+            synchronized (task) {
+                if (task.open(false)) {
+                    super.addHeader(name, value);
+                }
+            }
+        }
+
+        @Override
+        public void setDateHeader(String name, long date) {
+            synchronized (task) {
+                if (task.open(false)) {
+                    super.setDateHeader(name, date);
+                }
+            }
+        }
+
+        @Override
+        public void addDateHeader(String name, long date) {
+            synchronized (task) {
+                if (task.open(false)) {
+                    super.addDateHeader(name, date);
+                }
+            }
+        }
+
+        @Override
+        public void setIntHeader(String name, int value) {
+            synchronized (task) {
+                if (task.open(false)) {
+                    super.setIntHeader(name, value);
+                }
+            }
+        }
+
+        @Override
+        public void addIntHeader(String name, int value) {
+            synchronized (task) {
+                if (task.open(false)) {
+                    super.addIntHeader(name, value);
+                }
+            }
+        }
+    }
+
+    /**
+     * 요청이 끝난 후에는 쓰지 못하는 출력 스트림이다. 처음 쓸 때 본문 전송 상태가 된다.
+     */
+    private static final class GuardedOutputStream extends ServletOutputStream {
+        private final Task task;
+
+        private final ServletOutputStream out;
+
+        private GuardedOutputStream(Task task, ServletOutputStream out) {
+            this.task = task;
+            this.out = out;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            synchronized (task) {
+                if (!task.open(true)) {
+                    throw closed(task);
+                }
+                out.write(b);
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            synchronized (task) {
+                if (!task.open(true)) {
+                    throw closed(task);
+                }
+                out.write(b, off, len);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            synchronized (task) {
+                if (!task.open(true)) {
+                    throw closed(task);
+                }
+                out.flush();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            synchronized (task) {
+                if (task.open(true)) {
+                    out.close();
+                }
+            }
+        }
+
+        @Override
+        public boolean isReady() {
+            return out.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            out.setWriteListener(writeListener);
+        }
+    }
+
+    /**
+     * 요청이 끝난 후에는 쓰지 못하는 PrintWriter 이다. 막힌 쓰기는 버리고 오류 상태(checkError)가 된다.
+     */
+    private static final class GuardedWriter extends PrintWriter {
+        private final Task task;
+
+        private GuardedWriter(Task task, PrintWriter out) {
+            super(out);
+            this.task = task;
+        }
+
+        @Override
+        public void write(int c) {
+            synchronized (task) {
+                if (task.open(true)) {
+                    super.write(c);
+                }
+            }
+        }
+
+        @Override
+        public void write(char[] buf, int off, int len) {
+            synchronized (task) {
+                if (task.open(true)) {
+                    super.write(buf, off, len);
+                }
+            }
+        }
+
+        @Override
+        public void write(String s, int off, int len) {
+            synchronized (task) {
+                if (task.open(true)) {
+                    super.write(s, off, len);
+                }
+            }
+        }
+
+        @Override
+        public void println() {
+            // PrintWriter 는 줄바꿈을 내부 출력에 바로 쓰므로 write 를 거치게 한다.
+            write(System.lineSeparator());
+        }
+
+        @Override
+        public void flush() {
+            synchronized (task) {
+                if (task.open(true)) {
+                    super.flush();
+                }
+            }
+        }
+
+        @Override
+        public void close() {
+            synchronized (task) {
+                if (task.open(true)) {
+                    super.close();
+                }
+            }
+        }
+
+        @Override
+        public boolean checkError() {
+            synchronized (task) {
+                return !task.open(false) || super.checkError();
+            }
+        }
+    }
+
+    /**
+     * 요청 검증 인터셉터 (블로킹 규칙 검사)
+     */
+    private final ValidationInterceptor validationInterceptor;
+
+    /**
+     * 비동기 처리 여부 (거짓이면 요청 스레드에서 처리한다.)
+     */
+    private final boolean enabled;
+
+    /**
+     * 엔드포인트별 한도
+     */
+    private final Map<Endpoint, Limit> limits = new EnumMap<>(Endpoint.class);
+
+    /**
+     * 작업 스레드풀
+     */
+    private final ExecutorService executor;
+
+    /**
+     * 제한시간 타이머
+     */
+    private final ScheduledThreadPoolExecutor timer;
+
+    public FileRequestExecutor(ValidationInterceptor validationInterceptor, Environment environment, @Value("${demo.files.async.enabled:true}") boolean enabled,
+            @Value("${demo.files.async.threads:16}") int threads, @Value("${demo.files.async.virtual-threads:false}") boolean virtualThreads) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException(String.format("스레드 수(%d)는 0 보다 커야 합니다.", threads));
+        }
+
+        for (Endpoint endpoint : Endpoint.values()) {
+            final boolean async = environment.getProperty("demo.files.async." + endpoint.key() + ".enabled", Boolean.class, true);
+            final int queueSize = environment.getProperty("demo.files.async." + endpoint.key() + ".queue-size", Integer.class, 32);
+            final long timeout = environment.getProperty("demo.files.async." + endpoint.key() + ".timeout", Long.class, 10000L);
+            if (queueSize <= 0) {
+                throw new IllegalArgumentException(String.format("최대 동시 요청 수(%s: %d)는 0 보다 커야 합니다.", endpoint.key(), queueSize));
+            }
+            limits.put(endpoint, new Limit(async, queueSize, Math.max(timeout, 0L)));
+        }
+
+        this.validationInterceptor = validationInterceptor;
+        this.enabled = enabled;
+
+        ExecutorService executor = virtualThreads ? newVirtualThreadExecutor() : null;
+        if (virtualThreads && null == executor) {
+            log.warn("가상 스레드를 지원하지 않는 런타임이므로 스레드풀을 사용합니다.");
+        }
+        if (null == executor) {
+            // 대기 건수는 엔드포인트별 한도로 제한한다.
+            executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+                    new ThreadFactoryBuilder().setNameFormat("file-request-%d").setDaemon(true).build());
+        }
+        this.executor = executor;
+        this.timer = new ScheduledThreadPoolExecutor(1, new ThreadFactoryBuilder().setNameFormat("file-request-timer").setDaemon(true).build());
+        this.timer.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * 스레드풀을 종료한다.
+     */
+    @PreDestroy
+    public void stop() {
+        timer.shutdownNow();
+        executor.shutdownNow();
+    }
+
+    /**
+     * 요청을 작업 스레드에서 처리한다. 엔드포인트의 한도를 넘으면 바로 503 으로 응답한다.
+     * 비동기 처리를 하지 않거나 엔드포인트가 작업 스레드를 쓰지 않으면 요청 스레드에서 처리한다. (한도는 같이 적용하고 제한시간은 적용하지 않는다.)
+     *
+     * @param endpoint 엔드포인트
+     * @param request 요청 데이터
+     * @param response 응답 데이터
+     * @param handler 요청 처리자
+     *
+     * @return 처리 결과 (요청 스레드에서 응답을 마쳤으면 NULL)
+     * @throws IOException 입출력 예외
+     */
+    public DeferredResult<Void> submit(Endpoint endpoint, HttpServletRequest request, HttpServletResponse response, Handler handler) throws IOException {
+        final Limit limit = limits.get(endpoint);
+        if (!limit.permits.tryAcquire()) {
+            limit.rejected.incrementAndGet();
+            unavailable(request, response, String.format("처리 중인 요청이 많습니다.(%s: %d)", endpoint.key(), limit.queueSize));
+            return null;
+        }
+
+        if (!enabled || !limit.async) {
+            try {
+                if (validationInterceptor.validateDeferred(request, response)) {
+                    handler.handle(request, response);
+                }
+            }
+            finally {
+                limit.completed.incrementAndGet();
+                limit.permits.release();
+            }
+            return null;
+        }
+
+        // 응답을 시작한 요청은 끝까지 보내도록 컨테이너 제한시간은 두지 않는다.
+        final DeferredResult<Void> result = new DeferredResult<>(0L);
+        final Task task = new Task(endpoint, limit, request, response, handler, result);
+        result.onCompletion(task::close);
+        result.onError(e -> task.close());
+
+        try {
+            task.future = executor.submit(task);
+        }
+        catch (RejectedExecutionException e) {
+            limit.permits.release();
+            limit.rejected.incrementAndGet();
+            unavailable(request, response, "서버를 종료하는 중입니다.");
+            return null;
+        }
+        if (limit.timeout > 0) {
+            task.deadline = timer.schedule(task::expire, limit.timeout, TimeUnit.MILLISECONDS);
+        }
+        return result;
+    }
+
+    /**
+     * 엔드포인트별 현황을 출력한다.
+     *
+     * @param out 출력
+     */
+    public void print(PrintWriter out) {
+        for (Map.Entry<Endpoint, Limit> entry : limits.entrySet()) {
+            final Limit limit = entry.getValue();
+            out.printf("%s\tasync=%s\tqueueSize=%d\tactive=%d\tcompleted=%d\trejected=%d\ttimedOut=%d\ttimeout=%dms%n", entry.getKey().key(), enabled && limit.async,
+                    limit.queueSize, limit.queueSize - limit.permits.availablePermits(), limit.completed.get(), limit.rejected.get(), limit.timedOut.get(),
+                    limit.timeout);
+        }
+        out.flush();
+    }
+
+    /**
+     * 503 을 평문으로 응답한다. 이 실행기의 한도로 거절한 것이므로 동시 처리 한도 그룹의 혼잡으로 세지 않게 표시한다.
+     *
+     * @param request 요청 데이터
+     * @param response 응답 데이터
+     * @param message 메시지
+     *
+     * @throws IOException 입출력 예외
+     */
+    private static void unavailable(HttpServletRequest request, HttpServletResponse response, String message) throws IOException {
+        request.setAttribute(ConcurrencyLimitInterceptor.LOCAL_REJECTION_ATTRIBUTE, Boolean.TRUE);
+        response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        response.setContentType("text/plain;charset=UTF-8");
+        response.getWriter().write(message);
+    }
+
+    /**
+     * 요청이 끝나 쓸 수 없을 때의 예외를 만든다.
+     *
+     * @param task 작업
+     *
+     * @return 예외
+     */
+    private static IOException closed(Task task) {
+        return new IOException(String.format("요청이 이미 끝났습니다.(%s)", task.endpoint.key()));
+    }
+
+    /**
+     * 가상 스레드 실행기를 만든다. 컴파일 대상(Java 8)에는 API 가 없으므로 리플렉션으로 만든다.
+     *
+     * @return 가상 스레드 실행기 (지원하지 않으면 NULL)
+     */
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            final Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, "file-request-", 0L);
+            final ThreadFactory factory = (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+            return (ExecutorService) Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class).invoke(null, factory);
+        }
+        catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+}
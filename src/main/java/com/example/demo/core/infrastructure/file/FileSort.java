@@ -0,0 +1,99 @@
+package com.example.demo.core.infrastructure.file;
+
+import java.util.Comparator;
+
+/**
+ * 디렉토리 조회 시 정렬 기준이다.
+ * <p>
+ * 정렬 기준이 같으면 파일명 순으로 정렬하므로 (기준값, 파일명) 으로 항목의 순서가 하나로 정해지며,
+ * 다음 페이지 커서는 마지막 항목의 (기준값, 파일명) 이다. 파일명에는 '/' 가 올 수 없으므로 구분자로 사용한다.
+ *
+ * @author jonghyeon
+ */
+public enum FileSort {
+    /**
+     * 파일명
+     */
+    NAME(Comparator.comparing(FileEntry::getName)),
+
+    /**
+     * 크기
+     */
+    SIZE(Comparator.comparingLong(FileEntry::getSize).thenComparing(FileEntry::getName)),
+
+    /**
+     * 변경시각
+     */
+    MODIFIED(Comparator.comparingLong(FileEntry::getLastModified).thenComparing(FileEntry::getName)),
+
+    /**
+     * 정렬하지 않음 (디렉토리 순서대로 바로 출력하며 커서를 지원하지 않는다.)
+     */
+    NONE(null);
+
+    /**
+     * 항목 비교자
+     */
+    private final Comparator<FileEntry> comparator;
+
+    FileSort(Comparator<FileEntry> comparator) {
+        this.comparator = comparator;
+    }
+
+    /**
+     * 정렬 방향에 따른 항목 비교자를 반환한다.
+     *
+     * @param descending 역순 여부
+     *
+     * @return 항목 비교자 (정렬하지 않으면 NULL)
+     */
+    public Comparator<FileEntry> comparator(boolean descending) {
+        return (null == comparator || !descending) ? comparator : comparator.reversed();
+    }
+
+    /**
+     * 항목의 커서를 반환한다.
+     *
+     * @param entry 항목
+     *
+     * @return 커서
+     */
+    public String cursorOf(FileEntry entry) {
+        switch (this) {
+            case NAME:
+                return entry.getName();
+            case SIZE:
+                return entry.getSize() + "/" + entry.getName();
+            case MODIFIED:
+                return entry.getLastModified() + "/" + entry.getName();
+            default:
+                throw new IllegalArgumentException(String.format("커서를 지원하지 않는 정렬(%s) 입니다.", name()));
+        }
+    }
+
+    /**
+     * 커서를 비교용 항목으로 변환한다.
+     *
+     * @param cursor 커서
+     *
+     * @return 비교용 항목
+     */
+    public FileEntry parseCursor(String cursor) {
+        if (NAME == this) {
+            return new FileEntry(cursor, 0L, 0L, false, false);
+        }
+        if (NONE == this) {
+            throw new IllegalArgumentException(String.format("커서를 지원하지 않는 정렬(%s) 입니다.", name()));
+        }
+
+        final int slash = cursor.indexOf('/');
+        try {
+            final long key = Long.parseLong(cursor.substring(0, Math.max(slash, 0)));
+            final String name = cursor.substring(slash + 1);
+            return (SIZE == this) ? new FileEntry(name, key, 0L, false, false) : new FileEntry(name, 0L, key, false, false);
+        }
+        catch (NumberFormatException e) {
+            throw new IllegalArgumentException(String.format("커서(%s)가 정렬(%s)에 맞지 않습니다.", cursor, name()), e);
+        }
+    }
+}
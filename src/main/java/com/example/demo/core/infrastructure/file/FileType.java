@@ -0,0 +1,47 @@
+package com.example.demo.core.infrastructure.file;
+
+/**
+ * 디렉토리 조회 시 대상 항목의 유형이다.
+ *
+ * @author jonghyeon
+ */
+public enum FileType {
+    /**
+     * 일반 파일
+     */
+    FILE {
+        @Override
+        public boolean accepts(FileEntry entry) {
+            return entry.isRegularFile();
+        }
+    },
+
+    /**
+     * 디렉토리
+     */
+    DIRECTORY {
+        @Override
+        public boolean accepts(FileEntry entry) {
+            return entry.isDirectory();
+        }
+    },
+
+    /**
+     * 전체
+     */
+    ALL {
+        @Override
+        public boolean accepts(FileEntry entry) {
+            return true;
+        }
+    };
+
+    /**
+     * 항목이 유형에 해당하는지 여부를 반환한다.
+     *
+     * @param entry 항목
+     *
+     * @return 유형에 해당하는지 여부
+     */
+    public abstract boolean accepts(FileEntry entry);
+}
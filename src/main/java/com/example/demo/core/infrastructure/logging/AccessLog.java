@@ -0,0 +1,566 @@
+package com.example.demo.core.infrastructure.logging;
+
+import com.example.demo.core.util.DateUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 요청마다 고정 길이(32바이트) 이진 레코드를 남기는 구조화된 접근 로그이다.
+ * <p>
+ * 요청 스레드는 미리 할당한 스레드별 버퍼에 레코드를 쓰기만 하고, 기록 스레드가 주기마다(또는 버퍼가 가득 차면)
+ * 스레드별 버퍼를 바꿔 가져와 파일에 쓴다. 기록 스레드가 밀려 두 버퍼가 모두 찬 스레드의 레코드는 버리고 센다.
+ * 파일은 일자가 바뀌거나 최대 크기를 넘으면 {@code demo-access.bin-yyyyMMdd.N} 으로 바꾸고 새로 만든다.
+ * <p>
+ * 파일 형식 (모든 값은 big-endian)
+ * <pre>
+ * 헤더     : "DEMOACC1"(8) 레코드크기 int(4) 예약(20)
+ * 레코드   : 시작시각 epoch-milli long(8) 지연시간(마이크로초) int(4) 핸들러번호 short(2) 응답상태 short(2)
+ *            요청 바이트 int(4) 응답 바이트 long(8) 스레드번호 int(4)
+ * 핸들러명 : -1 long(8) 0 int(4) 핸들러번호 short(2) 이름길이 short(2) 0(16), 이어서 UTF-8 이름을 32바이트 단위로 채운다.
+ * </pre>
+ * 핸들러번호는 실행마다 새로 매기므로 시작 시 기존 파일은 바꾸어 두고, 파일마다 알려진 핸들러명을 먼저 쓴다. 0 번은 핸들러 패턴이 없는 요청이다.
+ *
+ * @author jonghyeon
+ */
+@Slf4j
+@Component
+public class AccessLog {
+    /**
+     * 파일명
+     */
+    public static final String FILE_NAME = "demo-access.bin";
+
+    /**
+     * 파일 식별자
+     */
+    static final byte[] MAGIC = "DEMOACC1".getBytes(StandardCharsets.US_ASCII);
+
+    /**
+     * 레코드 크기
+     */
+    static final int RECORD_SIZE = 32;
+
+    /**
+     * 핸들러명 레코드 표시 (시작시각 자리)
+     */
+    static final long NAME_MARK = -1L;
+
+    /**
+     * 핸들러 패턴이 없는 요청의 핸들러명
+     */
+    static final String NONE = "(패턴 없음)";
+
+    /**
+     * 바꾼 파일명에서 일자를 구하는 패턴
+     */
+    private static final Pattern ROLLED = Pattern.compile("^" + Pattern.quote(FILE_NAME) + "-(\\d{8})\\.(\\d+)$");
+
+    /**
+     * 스레드별 이중 버퍼이다. 요청 스레드는 active 에 쓰고, 가득 차면 비어 있는 standby 와 바꾼다.
+     * 스레드가 종료되면 남은 레코드를 모두 쓴 후 기록 스레드가 목록에서 제거한다.
+     */
+    private static final class ThreadBuffer {
+        /**
+         * 버퍼를 사용하는 스레드 (스레드 종료를 막지 않도록 약한 참조로 가진다.)
+         */
+        private final WeakReference<Thread> owner;
+
+        /**
+         * 요청 스레드가 쓰는 버퍼
+         */
+        private ByteBuffer active;
+
+        /**
+         * 기록 스레드가 파일에 쓸 버퍼
+         */
+        private ByteBuffer standby;
+
+        /**
+         * standby 에 파일에 쓸 레코드가 있는지 여부
+         */
+        private boolean standbyFull;
+
+        private ThreadBuffer(Thread owner, int size) {
+            this.owner = new WeakReference<>(owner);
+            this.active = ByteBuffer.allocate(size);
+            this.standby = ByteBuffer.allocate(size);
+        }
+
+        /**
+         * 버퍼를 사용하던 스레드가 종료되었는지 여부를 반환한다.
+         *
+         * @return 종료 여부
+         */
+        private boolean isOrphaned() {
+            final Thread thread = owner.get();
+            return null == thread || !thread.isAlive();
+        }
+
+        /**
+         * active 와 standby 를 바꾼다. (잠금 안에서 호출한다.)
+         */
+        private void swap() {
+            final ByteBuffer full = active;
+            active = standby;
+            standby = full;
+            standbyFull = true;
+        }
+    }
+
+    /**
+     * 사용 여부
+     */
+    private final boolean enabled;
+
+    /**
+     * 로그 디렉토리
+     */
+    private final Path dir;
+
+    /**
+     * 스레드별 버퍼 크기(바이트)
+     */
+    private final int bufferSize;
+
+    /**
+     * 기록 주기(밀리초)
+     */
+    private final long flushInterval;
+
+    /**
+     * 파일 최대 크기(바이트)
+     */
+    private final long maxFileSize;
+
+    /**
+     * 바꾼 파일을 보관하는 일수
+     */
+    private final int maxHistory;
+
+    /**
+     * 핸들러명별 핸들러번호
+     */
+    private final ConcurrentMap<String, Integer> handlerIds = new ConcurrentHashMap<>();
+
+    /**
+     * 핸들러번호 순서의 핸들러명
+     */
+    private final List<String> handlerNames = new CopyOnWriteArrayList<>();
+
+    /**
+     * 모든 스레드별 버퍼
+     */
+    private final List<ThreadBuffer> buffers = new CopyOnWriteArrayList<>();
+
+    /**
+     * 현재 스레드의 버퍼
+     */
+    private final ThreadLocal<ThreadBuffer> buffer;
+
+    /**
+     * 기록한 레코드 수
+     */
+    private final AtomicLong records = new AtomicLong();
+
+    /**
+     * 버린 레코드 수
+     */
+    private final AtomicLong dropped = new AtomicLong();
+
+    /**
+     * 현재 파일 (기록 스레드만 사용한다.)
+     */
+    private FileChannel channel;
+
+    /**
+     * 현재 파일의 일자
+     */
+    private LocalDate channelDate;
+
+    /**
+     * 현재 파일에 쓴 핸들러명 수
+     */
+    private int namesWritten;
+
+    /**
+     * 파일 바꾸기, 기록 실패 여부 (같은 실패를 주기마다 남기지 않도록 한 번만 기록한다.)
+     */
+    private boolean rollFailed;
+    private boolean drainFailed;
+
+    /**
+     * 기록 스레드
+     */
+    private volatile Thread writer;
+
+    /**
+     * 기록 스레드 종료 요청 여부
+     */
+    private volatile boolean stopping;
+
+    public AccessLog(@Value("${demo.logs.access.enabled:true}") boolean enabled, @Value("${demo.logs.dir:logs}") String dir,
+            @Value("${demo.logs.access.buffer-size:65536}") int bufferSize, @Value("${demo.logs.access.flush-interval:1000}") long flushInterval,
+            @Value("${demo.logs.access.max-file-size:67108864}") long maxFileSize, @Value("${demo.logs.access.max-history:30}") int maxHistory) {
+        if (bufferSize < RECORD_SIZE) {
+            throw new IllegalArgumentException(String.format("버퍼 크기(%d)는 레코드 크기(%d) 이상이어야 합니다.", bufferSize, RECORD_SIZE));
+        }
+        if (flushInterval <= 0L) {
+            throw new IllegalArgumentException(String.format("기록 주기(%d)는 0 보다 커야 합니다.", flushInterval));
+        }
+
+        this.enabled = enabled;
+        this.dir = Paths.get(dir);
+        this.bufferSize = bufferSize - bufferSize % RECORD_SIZE;
+        this.flushInterval = flushInterval;
+        this.maxFileSize = maxFileSize;
+        this.maxHistory = maxHistory;
+        this.buffer = ThreadLocal.withInitial(() -> {
+            final ThreadBuffer created = new ThreadBuffer(Thread.currentThread(), this.bufferSize);
+            buffers.add(created);
+            return created;
+        });
+        handlerIds.put(NONE, 0);
+        handlerNames.add(NONE);
+    }
+
+    /**
+     * 기존 파일을 바꾸어 두고 기록 스레드를 시작한다.
+     *
+     * @throws IOException 입출력 예외
+     */
+    @PostConstruct
+    public synchronized void start() throws IOException {
+        if (!enabled || null != writer) {
+            return;
+        }
+
+        Files.createDirectories(dir);
+        final Path current = dir.resolve(FILE_NAME);
+        if (Files.exists(current)) {
+            roll(LocalDateTime.ofInstant(Files.getLastModifiedTime(current).toInstant(), ZoneId.systemDefault()).toLocalDate());
+        }
+        open(LocalDate.now());
+
+        stopping = false;
+        writer = new Thread(this::work, "access-log-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * 남은 레코드를 모두 파일에 쓰고 기록 스레드를 종료한다.
+     */
+    @PreDestroy
+    public synchronized void stop() {
+        if (null == writer) {
+            return;
+        }
+
+        stopping = true;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(5L));
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        writer = null;
+    }
+
+    /**
+     * 요청 하나를 기록한다. 스레드별 버퍼에 쓰기만 하므로 파일 입출력을 기다리지 않는다.
+     *
+     * @param pattern 핸들러 패턴 (없으면 NULL)
+     * @param status 응답 상태
+     * @param nanos 지연시간(나노초)
+     * @param bytesIn 요청 바이트 (모르면 -1)
+     * @param bytesOut 응답 바이트 (모르면 -1)
+     */
+    public void record(String pattern, int status, long nanos, long bytesIn, long bytesOut) {
+        final Thread current = writer;
+        if (null == current) {
+            return;
+        }
+
+        final long millis = System.currentTimeMillis() - TimeUnit.NANOSECONDS.toMillis(nanos);
+        final int handlerId = handlerIdOf((null == pattern) ? NONE : pattern);
+        final ThreadBuffer local = buffer.get();
+        synchronized (local) {
+            ByteBuffer out = local.active;
+            if (out.remaining() < RECORD_SIZE) {
+                // 기록 스레드가 아직 standby 를 비우지 못했으면 버린다.
+                if (local.standbyFull) {
+                    dropped.incrementAndGet();
+                    return;
+                }
+                local.swap();
+                LockSupport.unpark(current);
+                out = local.active;
+            }
+
+            out.putLong(millis);
+            out.putInt((int) Math.min(TimeUnit.NANOSECONDS.toMicros(Math.max(nanos, 0L)), Integer.MAX_VALUE));
+            out.putShort((short) handlerId);
+            out.putShort((short) status);
+            out.putInt((int) Math.min(bytesIn, Integer.MAX_VALUE));
+            out.putLong(bytesOut);
+            out.putInt((int) Thread.currentThread().getId());
+        }
+    }
+
+    /**
+     * 기록한 레코드 수를 반환한다.
+     *
+     * @return 레코드 수
+     */
+    public long getRecords() {
+        return records.get();
+    }
+
+    /**
+     * 버린 레코드 수를 반환한다.
+     *
+     * @return 레코드 수
+     */
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    /**
+     * 사용 중인지 여부를 반환한다.
+     *
+     * @return 사용 여부
+     */
+    public boolean isEnabled() {
+        return null != writer;
+    }
+
+    /**
+     * 핸들러명의 번호를 구한다. 처음 보는 핸들러명이면 새 번호를 매긴다. (최대 65535 개, 넘으면 0 번)
+     *
+     * @param name 핸들러명
+     *
+     * @return 핸들러번호
+     */
+    private int handlerIdOf(String name) {
+        final Integer id = handlerIds.get(name);
+        if (null != id) {
+            return id;
+        }
+
+        synchronized (handlerNames) {
+            final Integer registered = handlerIds.get(name);
+            if (null != registered) {
+                return registered;
+            }
+            if (handlerNames.size() > 0xFFFF) {
+                return 0;
+            }
+            // 기록 스레드가 레코드보다 핸들러명을 먼저 쓰도록 목록에 먼저 넣는다.
+            handlerNames.add(name);
+            handlerIds.put(name, handlerNames.size() - 1);
+            return handlerNames.size() - 1;
+        }
+    }
+
+    /**
+     * 주기마다 또는 버퍼가 가득 찼을 때 스레드별 버퍼를 파일에 쓴다.
+     */
+    private void work() {
+        while (!stopping) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(flushInterval));
+            drain();
+        }
+        drain();
+
+        try {
+            channel.close();
+        }
+        catch (IOException e) {
+            log.warn(String.format("접근 로그 파일을 닫지 못했습니다. (%s)", e.getMessage()));
+        }
+    }
+
+    /**
+     * 필요하면 파일을 바꾸고, 새 핸들러명과 스레드별 버퍼의 레코드를 파일에 쓴다.
+     */
+    private void drain() {
+        try {
+            final LocalDate today = LocalDate.now();
+            if (!channel.isOpen() || !today.equals(channelDate) || channel.size() >= maxFileSize) {
+                rollOver(today);
+            }
+
+            // 쓸 버퍼를 먼저 모은 후 핸들러명을 쓴다. 모은 레코드의 핸들러명은 모으기 전에 등록되었으므로 모두 포함된다.
+            final List<ThreadBuffer> ready = new ArrayList<>();
+            List<ThreadBuffer> orphaned = null;
+            for (ThreadBuffer local : buffers) {
+                // 종료된 스레드는 더 이상 쓰지 않으므로 잠금 안에서 본 상태가 마지막 상태이다.
+                final boolean orphan = local.isOrphaned();
+                synchronized (local) {
+                    if (!local.standbyFull && local.active.position() > 0) {
+                        local.swap();
+                    }
+                    if (local.standbyFull) {
+                        ready.add(local);
+                    }
+                    else if (orphan) {
+                        if (null == orphaned) {
+                            orphaned = new ArrayList<>();
+                        }
+                        orphaned.add(local);
+                    }
+                }
+            }
+            if (null != orphaned) {
+                buffers.removeAll(orphaned);
+            }
+            writeNames();
+
+            for (ThreadBuffer local : ready) {
+                final ByteBuffer out = local.standby;
+                out.flip();
+                records.addAndGet(out.remaining() / RECORD_SIZE);
+                while (out.hasRemaining()) {
+                    channel.write(out);
+                }
+                out.clear();
+                synchronized (local) {
+                    local.standbyFull = false;
+                }
+            }
+            drainFailed = false;
+        }
+        catch (IOException e) {
+            if (!drainFailed) {
+                drainFailed = true;
+                log.error(String.format("접근 로그를 기록하지 못했습니다. (%s)", e.getMessage()));
+            }
+        }
+    }
+
+    /**
+     * 현재 파일을 바꾸고 새 파일을 연다. 바꾸지 못하면 현재 파일을 이어 쓰도록 다시 열고, 다음 주기에 다시 바꾼다.
+     * 다시 열지도 못하면 파일이 닫힌 채로 남으므로 다음 주기에 처음부터 다시 시도한다.
+     *
+     * @param today 오늘 일자
+     *
+     * @throws IOException 입출력 예외
+     */
+    private void rollOver(LocalDate today) throws IOException {
+        channel.close();
+
+        final Path current = dir.resolve(FILE_NAME);
+        if (Files.exists(current)) {
+            try {
+                roll(channelDate);
+            }
+            catch (IOException e) {
+                if (!rollFailed) {
+                    rollFailed = true;
+                    log.error(String.format("접근 로그 파일을 바꾸지 못해 현재 파일에 이어 씁니다. (%s)", e.getMessage()));
+                }
+                channel = FileChannel.open(current, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+                return;
+            }
+        }
+        rollFailed = false;
+
+        Files.createDirectories(dir);
+        open(today);
+    }
+
+    /**
+     * 새 파일을 만들고 헤더를 쓴다.
+     *
+     * @param date 파일 일자
+     *
+     * @throws IOException 입출력 예외
+     */
+    private void open(LocalDate date) throws IOException {
+        channel = FileChannel.open(dir.resolve(FILE_NAME), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        channelDate = date;
+        namesWritten = 0;
+
+        final ByteBuffer header = ByteBuffer.allocate(RECORD_SIZE);
+        header.put(MAGIC).putInt(RECORD_SIZE).position(RECORD_SIZE);
+        header.flip();
+        while (header.hasRemaining()) {
+            channel.write(header);
+        }
+    }
+
+    /**
+     * 현재 파일에 아직 쓰지 않은 핸들러명을 쓴다.
+     *
+     * @throws IOException 입출력 예외
+     */
+    private void writeNames() throws IOException {
+        final int count = handlerNames.size();
+        for (; namesWritten < count; namesWritten++) {
+            final byte[] name = handlerNames.get(namesWritten).getBytes(StandardCharsets.UTF_8);
+            final int length = Math.min(name.length, Short.MAX_VALUE);
+            final ByteBuffer out = ByteBuffer.allocate(RECORD_SIZE + (length + RECORD_SIZE - 1) / RECORD_SIZE * RECORD_SIZE);
+            out.putLong(NAME_MARK).putInt(0).putShort((short) namesWritten).putShort((short) length).position(RECORD_SIZE);
+            out.put(name, 0, length).position(out.capacity());
+            out.flip();
+            while (out.hasRemaining()) {
+                channel.write(out);
+            }
+        }
+    }
+
+    /**
+     * 현재 파일을 일자별 번호를 붙인 이름으로 바꾸고 보관기간이 지난 파일을 지운다.
+     *
+     * @param date 현재 파일의 일자
+     *
+     * @throws IOException 입출력 예외
+     */
+    private void roll(LocalDate date) throws IOException {
+        final String prefix = FILE_NAME + "-" + DateUtil.toYmdString(date) + ".";
+        int index = 0;
+        while (Files.exists(dir.resolve(prefix + index))) {
+            index++;
+        }
+        Files.move(dir.resolve(FILE_NAME), dir.resolve(prefix + index));
+
+        final LocalDate oldest = LocalDate.now().minusDays(maxHistory);
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, FILE_NAME + "-*")) {
+            for (Path path : stream) {
+                final Matcher matcher = ROLLED.matcher(path.getFileName().toString());
+                if (matcher.matches() && DateUtil.isDate(DateUtil.DATE_FORMAT_YMD, matcher.group(1))
+                        && DateUtil.toDateYmd(matcher.group(1)).isBefore(oldest)) {
+                    Files.deleteIfExists(path);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,277 @@
+package com.example.demo.core.infrastructure.logging;
+
+import com.example.demo.core.util.DateUtil;
+import com.example.demo.core.util.IoUtil;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 이진 접근 로그({@link AccessLog}) 파일을 조건으로 걸러 출력하거나 핸들러, 응답 상태 분류별로 집계하는 명령행 도구이다.
+ * <p>
+ * 파일을 메모리 매핑하여 고정 길이 레코드의 필드를 바로 비교하므로 문자열을 만들지 않으며, 핸들러 조건은 파일마다 핸들러번호로 바꾸어 비교한다.
+ * <pre>
+ * usage: AccessLogDecoder [-p 핸들러패턴] [-s 응답상태(404, 5xx)] [-f 시작 yyyyMMddHHmmss] [-t 종료 yyyyMMddHHmmss] [-l 최소지연(마이크로초)] [-a] 파일|디렉토리...
+ * </pre>
+ * -a 를 주면 레코드 대신 핸들러, 응답 상태 분류별 건수, 응답 바이트 합, 지연시간 백분위(마이크로초)를 출력한다.
+ *
+ * @author jonghyeon
+ */
+public class AccessLogDecoder {
+    /**
+     * 시간대
+     */
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+
+    /**
+     * 핸들러, 응답 상태 분류별 집계이다.
+     */
+    private static final class Total {
+        /**
+         * 건수
+         */
+        private long count;
+
+        /**
+         * 응답 바이트 합
+         */
+        private long bytesOut;
+
+        /**
+         * 지연시간(마이크로초) 히스토그램
+         */
+        private final Histogram latency = new Histogram(2);
+    }
+
+    /**
+     * 핸들러 패턴 조건 (NULL 이면 전체)
+     */
+    private String pattern;
+
+    /**
+     * 응답 상태 조건 최소값 (포함)
+     */
+    private int statusFrom = 0;
+
+    /**
+     * 응답 상태 조건 최대값 (포함)
+     */
+    private int statusTo = Integer.MAX_VALUE;
+
+    /**
+     * 시작시각 조건 epoch-milli (포함)
+     */
+    private long from = Long.MIN_VALUE;
+
+    /**
+     * 종료시각 조건 epoch-milli (미포함)
+     */
+    private long to = Long.MAX_VALUE;
+
+    /**
+     * 최소 지연시간(마이크로초)
+     */
+    private int minLatency = 0;
+
+    /**
+     * 집계 여부
+     */
+    private boolean aggregate;
+
+    /**
+     * 핸들러, 응답 상태 분류("pattern\t2xx")별 건수, 응답 바이트 합, 지연시간 히스토그램
+     */
+    private final Map<String, Total> totals = new TreeMap<>();
+
+    public static void main(String[] args) throws IOException {
+        final AccessLogDecoder decoder = new AccessLogDecoder();
+        final List<Path> files = new ArrayList<>();
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "-p":
+                        decoder.pattern = args[++i];
+                        break;
+                    case "-s":
+                        decoder.status(args[++i]);
+                        break;
+                    case "-f":
+                        decoder.from = DateUtil.toDateYms(args[++i]).atZone(ZONE).toInstant().toEpochMilli();
+                        break;
+                    case "-t":
+                        decoder.to = DateUtil.toDateYms(args[++i]).atZone(ZONE).toInstant().toEpochMilli();
+                        break;
+                    case "-l":
+                        decoder.minLatency = Integer.parseInt(args[++i]);
+                        break;
+                    case "-a":
+                        decoder.aggregate = true;
+                        break;
+                    default:
+                        files.addAll(filesOf(Paths.get(args[i])));
+                        break;
+                }
+            }
+        }
+        catch (RuntimeException e) {
+            files.clear();
+        }
+        if (files.isEmpty()) {
+            System.err.println("usage: AccessLogDecoder [-p pattern] [-s status|5xx] [-f yyyyMMddHHmmss] [-t yyyyMMddHHmmss] [-l micros] [-a] file|dir...");
+            System.exit(1);
+        }
+
+        final PrintWriter out = new PrintWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8), false);
+        for (Path file : files) {
+            decoder.decode(file, out);
+        }
+        if (decoder.aggregate) {
+            decoder.printTotals(out);
+        }
+        out.flush();
+    }
+
+    /**
+     * 응답 상태 조건을 설정한다.
+     *
+     * @param status 응답 상태 (404) 또는 분류 (5xx)
+     */
+    private void status(String status) {
+        if (3 == status.length() && status.endsWith("xx")) {
+            statusFrom = (status.charAt(0) - '0') * 100;
+            statusTo = statusFrom + 99;
+        }
+        else {
+            statusFrom = Integer.parseInt(status);
+            statusTo = statusFrom;
+        }
+    }
+
+    /**
+     * 경로의 접근 로그 파일 목록을 구한다. 디렉토리면 안의 접근 로그 파일을 이름순으로 구한다.
+     *
+     * @param path 경로
+     *
+     * @return 파일 목록
+     * @throws IOException 입출력 예외
+     */
+    private static List<Path> filesOf(Path path) throws IOException {
+        final List<Path> files = new ArrayList<>();
+        if (!Files.isDirectory(path)) {
+            files.add(path);
+            return files;
+        }
+
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(path, AccessLog.FILE_NAME + "*")) {
+            stream.forEach(files::add);
+        }
+        files.sort(null);
+        return files;
+    }
+
+    /**
+     * 파일 하나를 읽어 조건에 맞는 레코드를 출력하거나 집계한다. 끝의 불완전한 레코드는 무시한다.
+     *
+     * @param file 파일
+     * @param out 출력
+     *
+     * @throws IOException 입출력 예외
+     */
+    void decode(Path file, PrintWriter out) throws IOException {
+        final MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0L, channel.size());
+        }
+
+        try {
+            final int size = AccessLog.RECORD_SIZE;
+            final byte[] magic = new byte[AccessLog.MAGIC.length];
+            if (buffer.limit() < size) {
+                return;
+            }
+            buffer.get(magic);
+            if (!Arrays.equals(magic, AccessLog.MAGIC) || size != buffer.getInt(magic.length)) {
+                throw new IOException(String.format("접근 로그 파일(%s)이 아닙니다.", file));
+            }
+
+            // 핸들러번호별 이름과 조건 일치 여부
+            String[] names = new String[16];
+            boolean[] matched = new boolean[16];
+            final int end = buffer.limit() - buffer.limit() % size;
+            for (int pos = size; pos < end; pos += size) {
+                final long millis = buffer.getLong(pos);
+                final int handlerId = buffer.getShort(pos + 12) & 0xFFFF;
+
+                if (AccessLog.NAME_MARK == millis) {
+                    final int length = buffer.getShort(pos + 14);
+                    final byte[] name = new byte[length];
+                    for (int i = 0; i < length; i++) {
+                        name[i] = buffer.get(pos + size + i);
+                    }
+                    if (handlerId >= names.length) {
+                        names = Arrays.copyOf(names, Math.max(handlerId + 1, names.length * 2));
+                        matched = Arrays.copyOf(matched, names.length);
+                    }
+                    names[handlerId] = new String(name, StandardCharsets.UTF_8);
+                    matched[handlerId] = null == pattern || pattern.equals(names[handlerId]);
+                    pos += (length + size - 1) / size * size;
+                    continue;
+                }
+
+                final int status = buffer.getShort(pos + 14);
+                final int latency = buffer.getInt(pos + 8);
+                if (handlerId >= matched.length || !matched[handlerId] || status < statusFrom || status > statusTo || millis < from || millis >= to
+                        || latency < minLatency) {
+                    continue;
+                }
+
+                final long bytesOut = buffer.getLong(pos + 20);
+                if (aggregate) {
+                    final Total total = totals.computeIfAbsent(names[handlerId] + "\t" + (status / 100) + "xx", k -> new Total());
+                    total.count++;
+                    total.bytesOut += Math.max(bytesOut, 0L);
+                    total.latency.recordValue(latency);
+                }
+                else {
+                    out.printf("%s\t%s\t%d\t%d\t%d\t%d\t%d%n", DateUtil.toYmsDashString(LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZONE)),
+                            names[handlerId], status, latency, buffer.getInt(pos + 16), bytesOut, buffer.getInt(pos + 28));
+                }
+            }
+        }
+        finally {
+            IoUtil.unmap(buffer);
+        }
+    }
+
+    /**
+     * 집계 결과를 출력한다.
+     *
+     * @param out 출력
+     */
+    void printTotals(PrintWriter out) {
+        out.println("# pattern\tstatus\tcount\tbytesOut\tp50\tp90\tp99\tmax (us)");
+        for (Map.Entry<String, Total> entry : totals.entrySet()) {
+            final Total total = entry.getValue();
+            out.printf("%s\t%d\t%d\t%d\t%d\t%d\t%d%n", entry.getKey(), total.count, total.bytesOut, total.latency.getValueAtPercentile(50.0),
+                    total.latency.getValueAtPercentile(90.0), total.latency.getValueAtPercentile(99.0), total.latency.getMaxValue());
+        }
+    }
+}
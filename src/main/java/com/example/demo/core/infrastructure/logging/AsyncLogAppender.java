@@ -0,0 +1,429 @@
+package com.example.demo.core.infrastructure.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.OutputStreamAppender;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+import ch.qos.logback.core.spi.AppenderAttachable;
+import ch.qos.logback.core.spi.AppenderAttachableImpl;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 로그 이벤트를 크기가 정해진 큐에 넣고 하나의 작업 스레드가 묶어서 하위 어팬더에 기록하는 logback 어팬더이다.
+ * <p>
+ * 작업 스레드는 큐에서 최대 batchSize 건을 한 번에 꺼내 하위 어팬더에 쓰고 묶음마다 한 번만 flush 하므로,
+ * 하위 파일 어팬더는 이벤트마다 flush 하지 않도록(immediateFlush=false) 바꾼다.
+ * 큐가 가득 찼을 때 blockingLevel 이상(기본 WARN)의 이벤트는 자리가 날 때까지 기다리고, 그 미만의 이벤트는 버리고 수준별로 센다.
+ * enabled 가 거짓이면 큐 없이 호출 스레드에서 바로 하위 어팬더에 기록한다.
+ *
+ * @author jonghyeon
+ */
+public class AsyncLogAppender extends UnsynchronizedAppenderBase<ILoggingEvent> implements AppenderAttachable<ILoggingEvent> {
+    /**
+     * 수준별 버린 건수의 순서 (TRACE, DEBUG, INFO, WARN, ERROR)
+     */
+    private static final Level[] LEVELS = {Level.TRACE, Level.DEBUG, Level.INFO, Level.WARN, Level.ERROR};
+
+    /**
+     * 하위 어팬더
+     */
+    private final AppenderAttachableImpl<ILoggingEvent> appenders = new AppenderAttachableImpl<>();
+
+    /**
+     * 큐에 넣은 건수
+     */
+    private final AtomicLong enqueued = new AtomicLong();
+
+    /**
+     * 수준별 버린 건수
+     */
+    private final AtomicLongArray dropped = new AtomicLongArray(LEVELS.length);
+
+    /**
+     * 작업 스레드가 기록을 마친 건수와 flush 대기를 위한 잠금
+     */
+    private final Object progress = new Object();
+
+    /**
+     * 작업 스레드가 기록을 마친 건수 (progress 잠금 안에서만 바꾼다.)
+     */
+    private long written;
+
+    /**
+     * 기록한 묶음 수
+     */
+    private final AtomicLong batches = new AtomicLong();
+
+    /**
+     * 비동기 기록 여부
+     */
+    private boolean enabled = true;
+
+    /**
+     * 큐 크기
+     */
+    private int queueSize = 8192;
+
+    /**
+     * 한 번에 기록하는 최대 건수
+     */
+    private int batchSize = 512;
+
+    /**
+     * 큐가 가득 찼을 때 기다리는 최소 수준 (미만은 버린다.)
+     */
+    private Level blockingLevel = Level.WARN;
+
+    /**
+     * 종료 시 남은 이벤트를 기록하기 위해 기다리는 최대 시간(밀리초)
+     */
+    private int maxFlushTime = 5000;
+
+    /**
+     * 호출 위치 정보 포함 여부
+     */
+    private boolean includeCallerData;
+
+    /**
+     * 이벤트 큐
+     */
+    private BlockingQueue<ILoggingEvent> queue;
+
+    /**
+     * 작업 스레드
+     */
+    private Thread worker;
+
+    /**
+     * 작업 스레드 종료 요청 여부
+     */
+    private volatile boolean stopping;
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public void setQueueSize(int queueSize) {
+        this.queueSize = queueSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public void setBlockingLevel(String blockingLevel) {
+        this.blockingLevel = Level.toLevel(blockingLevel, Level.WARN);
+    }
+
+    public void setMaxFlushTime(int maxFlushTime) {
+        this.maxFlushTime = maxFlushTime;
+    }
+
+    public void setIncludeCallerData(boolean includeCallerData) {
+        this.includeCallerData = includeCallerData;
+    }
+
+    @Override
+    public void start() {
+        if (isStarted()) {
+            return;
+        }
+        if (!appenders.iteratorForAppenders().hasNext()) {
+            addError(String.format("하위 어팬더가 없습니다. (%s)", name));
+            return;
+        }
+        if (queueSize < 1 || batchSize < 1) {
+            addError(String.format("큐 크기(%d)와 묶음 크기(%d)는 0 보다 커야 합니다. (%s)", queueSize, batchSize, name));
+            return;
+        }
+
+        if (enabled) {
+            // 작업 스레드가 묶음마다 flush 하므로 하위 어팬더는 이벤트마다 flush 하지 않는다.
+            for (Iterator<Appender<ILoggingEvent>> it = appenders.iteratorForAppenders(); it.hasNext(); ) {
+                final Appender<ILoggingEvent> appender = it.next();
+                if (appender instanceof OutputStreamAppender) {
+                    ((OutputStreamAppender<ILoggingEvent>) appender).setImmediateFlush(false);
+                }
+            }
+
+            queue = new ArrayBlockingQueue<>(queueSize);
+            stopping = false;
+            worker = new Thread(this::work, "async-log-" + name);
+            worker.setDaemon(true);
+            worker.start();
+        }
+        super.start();
+    }
+
+    @Override
+    public void stop() {
+        if (!isStarted()) {
+            return;
+        }
+        super.stop();
+
+        if (null != worker) {
+            // 남은 이벤트를 모두 기록할 때까지 정해진 시간만 기다린다.
+            stopping = true;
+            try {
+                worker.join(maxFlushTime);
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (worker.isAlive()) {
+                addWarn(String.format("종료 시 기록하지 못한 이벤트가 %d 건 있습니다. (%s)", queue.size(), name));
+                worker.interrupt();
+            }
+            worker = null;
+        }
+        appenders.detachAndStopAllAppenders();
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        if (null == worker) {
+            appenders.appendLoopOnAppenders(event);
+            return;
+        }
+
+        // 호출 스레드의 MDC, 메시지 인자 등을 이벤트에 고정한다.
+        event.prepareForDeferredProcessing();
+        if (includeCallerData) {
+            event.getCallerData();
+        }
+
+        if (event.getLevel().isGreaterOrEqual(blockingLevel)) {
+            put(event);
+        }
+        else if (!queue.offer(event)) {
+            dropped.incrementAndGet(indexOf(event.getLevel()));
+            return;
+        }
+        enqueued.incrementAndGet();
+    }
+
+    /**
+     * 큐에 자리가 날 때까지 기다려 이벤트를 넣는다. 기다리는 중 인터럽트되어도 버리지 않는다.
+     *
+     * @param event 이벤트
+     */
+    private void put(ILoggingEvent event) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                queue.put(event);
+                break;
+            }
+            catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 큐에서 이벤트를 묶어 꺼내 하위 어팬더에 기록한다. 종료 요청 후에도 큐가 빌 때까지 기록한다.
+     */
+    private void work() {
+        final List<ILoggingEvent> batch = new ArrayList<>(batchSize);
+        while (!stopping || !queue.isEmpty()) {
+            try {
+                final ILoggingEvent first = queue.poll(100L, TimeUnit.MILLISECONDS);
+                if (null == first) {
+                    continue;
+                }
+                batch.add(first);
+            }
+            catch (InterruptedException e) {
+                break;
+            }
+            queue.drainTo(batch, batchSize - 1);
+
+            for (ILoggingEvent event : batch) {
+                appenders.appendLoopOnAppenders(event);
+            }
+            flushAppenders();
+            batches.incrementAndGet();
+
+            synchronized (progress) {
+                written += batch.size();
+                progress.notifyAll();
+            }
+            batch.clear();
+        }
+    }
+
+    /**
+     * 하위 출력 어팬더의 버퍼를 내보낸다. 작업 스레드만 하위 어팬더에 기록하므로 잠금 없이 호출한다.
+     */
+    private void flushAppenders() {
+        for (Iterator<Appender<ILoggingEvent>> it = appenders.iteratorForAppenders(); it.hasNext(); ) {
+            final Appender<ILoggingEvent> appender = it.next();
+            if (appender instanceof OutputStreamAppender && appender.isStarted()) {
+                final OutputStream out = ((OutputStreamAppender<ILoggingEvent>) appender).getOutputStream();
+                try {
+                    if (null != out) {
+                        out.flush();
+                    }
+                }
+                catch (IOException e) {
+                    addError(String.format("로그 출력 중 오류가 발생했습니다. (%s)", appender.getName()), e);
+                }
+            }
+        }
+    }
+
+    /**
+     * 지금까지 큐에 넣은 이벤트가 모두 기록될 때까지 기다린다.
+     *
+     * @param timeoutMillis 최대 대기시간(밀리초)
+     *
+     * @return 모두 기록했는지 여부
+     */
+    public boolean flush(long timeoutMillis) {
+        if (null == worker) {
+            return true;
+        }
+
+        final long target = enqueued.get();
+        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        synchronized (progress) {
+            while (written < target) {
+                final long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (remaining <= 0L) {
+                    return false;
+                }
+                try {
+                    progress.wait(remaining);
+                }
+                catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * 수준의 버린 건수 위치를 구한다.
+     *
+     * @param level 수준
+     *
+     * @return 위치
+     */
+    private static int indexOf(Level level) {
+        for (int i = 0; i < LEVELS.length; i++) {
+            if (LEVELS[i].levelInt == level.levelInt) {
+                return i;
+            }
+        }
+
+        return 0;
+    }
+
+    /**
+     * 기록 현황(큐 사용량, 기록 건수, 묶음 수, 수준별 버린 건수)을 한 줄로 출력한다.
+     *
+     * @param out 출력
+     */
+    public void print(PrintWriter out) {
+        out.printf("%s\tenabled=%s\tqueue=%d/%d\tenqueued=%d\tbatches=%d\tdropped=", name, null != worker, (null == queue) ? 0 : queue.size(),
+                (null == queue) ? 0 : queueSize, enqueued.get(), batches.get());
+        for (int i = 0; i < LEVELS.length; i++) {
+            out.printf("%s%s:%d", (0 == i) ? "" : ",", LEVELS[i], dropped.get(i));
+        }
+        out.println();
+    }
+
+    /**
+     * 수준별 버린 건수의 합을 반환한다.
+     *
+     * @return 버린 건수
+     */
+    public long getDropped() {
+        long sum = 0L;
+        for (int i = 0; i < LEVELS.length; i++) {
+            sum += dropped.get(i);
+        }
+
+        return sum;
+    }
+
+    /**
+     * 현재 logback 설정의 로거에 연결된 비동기 어팬더를 모두 구한다.
+     *
+     * @return 비동기 어팬더 목록
+     */
+    public static List<AsyncLogAppender> all() {
+        final Set<AsyncLogAppender> found = new LinkedHashSet<>();
+        if (LoggerFactory.getILoggerFactory() instanceof LoggerContext) {
+            for (Logger logger : ((LoggerContext) LoggerFactory.getILoggerFactory()).getLoggerList()) {
+                for (Iterator<Appender<ILoggingEvent>> it = logger.iteratorForAppenders(); it.hasNext(); ) {
+                    final Appender<ILoggingEvent> appender = it.next();
+                    if (appender instanceof AsyncLogAppender) {
+                        found.add((AsyncLogAppender) appender);
+                    }
+                }
+            }
+        }
+
+        return new ArrayList<>(found);
+    }
+
+    @Override
+    public void addAppender(Appender<ILoggingEvent> newAppender) {
+        appenders.addAppender(newAppender);
+    }
+
+    @Override
+    public Iterator<Appender<ILoggingEvent>> iteratorForAppenders() {
+        return appenders.iteratorForAppenders();
+    }
+
+    @Override
+    public Appender<ILoggingEvent> getAppender(String name) {
+        return appenders.getAppender(name);
+    }
+
+    @Override
+    public boolean isAttached(Appender<ILoggingEvent> appender) {
+        return appenders.isAttached(appender);
+    }
+
+    @Override
+    public void detachAndStopAllAppenders() {
+        appenders.detachAndStopAllAppenders();
+    }
+
+    @Override
+    public boolean detachAppender(Appender<ILoggingEvent> appender) {
+        return appenders.detachAppender(appender);
+    }
+
+    @Override
+    public boolean detachAppender(String name) {
+        return appenders.detachAppender(name);
+    }
+}
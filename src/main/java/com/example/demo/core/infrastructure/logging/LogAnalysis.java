@@ -0,0 +1,254 @@
+package com.example.demo.core.infrastructure.logging;
+
+import com.example.demo.core.util.DateUtil;
+import lombok.Getter;
+
+import java.io.PrintWriter;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 로그 압축파일 분석 결과이다.
+ * <p>
+ * URI 별 거래 수와 오류 수, 일자별 분당 거래 수와 오류 수를 집계한다.
+ * URI 는 최대 수까지만 따로 집계하고 나머지는 기타로 합치며, 분당 집계는 일자당 고정 크기 배열이므로 메모리는 로그 크기와 무관하다.
+ *
+ * @author jonghyeon
+ */
+@Getter
+public class LogAnalysis {
+    /**
+     * 최대 URI 수를 넘은 URI 를 합쳐 집계하는 키
+     */
+    public static final String OTHERS = "(기타)";
+
+    /**
+     * 진행 중인 거래 없이 발생한 오류를 집계하는 키
+     */
+    public static final String NONE = "(거래 없음)";
+
+    /**
+     * 하루의 분 수
+     */
+    static final int MINUTES = 24 * 60;
+
+    /**
+     * 최대 URI 수
+     */
+    private final int maxUris;
+
+    /**
+     * 분석한 압축파일 수
+     */
+    private int archives;
+
+    /**
+     * 분석한 줄 수
+     */
+    private long lines;
+
+    /**
+     * 분석한 바이트 수 (압축 해제 기준)
+     */
+    private long bytes;
+
+    /**
+     * URI("URI METHOD") 별 거래 수, 오류 수
+     */
+    private final Map<String, long[]> uris = new HashMap<>();
+
+    /**
+     * 일자별 분당 거래 수
+     */
+    private final TreeMap<LocalDate, int[]> requests = new TreeMap<>();
+
+    /**
+     * 일자별 분당 오류 수
+     */
+    private final TreeMap<LocalDate, int[]> errors = new TreeMap<>();
+
+    public LogAnalysis(int maxUris) {
+        this.maxUris = maxUris;
+    }
+
+    /**
+     * 압축파일 하나의 분석을 마쳤다.
+     *
+     * @param lines 줄 수
+     * @param bytes 바이트 수
+     */
+    void archived(long lines, long bytes) {
+        this.archives++;
+        this.lines += lines;
+        this.bytes += bytes;
+    }
+
+    /**
+     * 거래를 집계한다.
+     *
+     * @param date 일자
+     * @param minute 분 (0 시 0 분부터)
+     * @param uri URI("URI METHOD")
+     *
+     * @return 집계한 키 (최대 URI 수를 넘으면 기타)
+     */
+    String request(LocalDate date, int minute, String uri) {
+        final String key = keyOf(uri);
+        counts(key)[0]++;
+        minutes(requests, date)[minute]++;
+        return key;
+    }
+
+    /**
+     * 오류를 집계한다.
+     *
+     * @param date 일자
+     * @param minute 분 (0 시 0 분부터)
+     * @param key 진행 중인 거래의 키 (없으면 NULL)
+     */
+    void error(LocalDate date, int minute, String key) {
+        counts((null == key) ? NONE : key)[1]++;
+        minutes(errors, date)[minute]++;
+    }
+
+    /**
+     * 다른 분석 결과를 합친다.
+     *
+     * @param other 분석 결과
+     */
+    void merge(LogAnalysis other) {
+        archives += other.archives;
+        lines += other.lines;
+        bytes += other.bytes;
+
+        other.uris.forEach((uri, c) -> {
+            final long[] counts = counts(keyOf(uri));
+            counts[0] += c[0];
+            counts[1] += c[1];
+        });
+        merge(requests, other.requests);
+        merge(errors, other.errors);
+    }
+
+    /**
+     * 분석 결과를 출력한다.
+     *
+     * @param out 출력
+     * @param perMinute 분당 거래 수를 모두 출력할지 여부 (아니면 일자별 최대만 출력한다.)
+     */
+    public void print(PrintWriter out, boolean perMinute) {
+        out.printf("archives=%d, lines=%d, bytes=%d%n", archives, lines, bytes);
+
+        out.println();
+        out.println("# URI 별 거래 수, 오류 수");
+        final List<Map.Entry<String, long[]>> sorted = new ArrayList<>(uris.entrySet());
+        sorted.sort((a, b) -> Long.compare(b.getValue()[0], a.getValue()[0]));
+        for (Map.Entry<String, long[]> entry : sorted) {
+            out.printf("%s\trequests=%d\terrors=%d%n", entry.getKey(), entry.getValue()[0], entry.getValue()[1]);
+        }
+
+        out.println();
+        out.println("# 일자별 거래 수, 오류 수, 최대 분당 거래 수(시각), 최대 분당 오류 수(시각)");
+        final TreeMap<LocalDate, Boolean> dates = new TreeMap<>();
+        requests.keySet().forEach(date -> dates.put(date, true));
+        errors.keySet().forEach(date -> dates.put(date, true));
+        for (LocalDate date : dates.keySet()) {
+            final int[] req = requests.getOrDefault(date, new int[MINUTES]);
+            final int[] err = errors.getOrDefault(date, new int[MINUTES]);
+            final int peakReq = peak(req);
+            final int peakErr = peak(err);
+            out.printf("%s\trequests=%d\terrors=%d\tpeak=%d(%s)\tpeakErrors=%d(%s)%n", DateUtil.toYmdString(date), sum(req), sum(err),
+                    req[peakReq], timeOf(peakReq), err[peakErr], timeOf(peakErr));
+        }
+
+        if (perMinute) {
+            out.println();
+            out.println("# 분당 거래 수, 오류 수 (거래나 오류가 있는 분만)");
+            for (LocalDate date : dates.keySet()) {
+                final int[] req = requests.getOrDefault(date, new int[MINUTES]);
+                final int[] err = errors.getOrDefault(date, new int[MINUTES]);
+                for (int i = 0; i < MINUTES; i++) {
+                    if (req[i] > 0 || err[i] > 0) {
+                        out.printf("%s %s\t%d\t%d%n", DateUtil.toYmdString(date), timeOf(i), req[i], err[i]);
+                    }
+                }
+            }
+        }
+        out.flush();
+    }
+
+    /**
+     * 집계할 키를 구한다.
+     *
+     * @param uri URI
+     *
+     * @return 키 (최대 URI 수를 넘으면 기타)
+     */
+    private String keyOf(String uri) {
+        return (uris.size() < maxUris || uris.containsKey(uri)) ? uri : OTHERS;
+    }
+
+    /**
+     * 키의 거래 수, 오류 수 배열을 구한다.
+     *
+     * @param key 키
+     *
+     * @return 거래 수, 오류 수
+     */
+    private long[] counts(String key) {
+        return uris.computeIfAbsent(key, k -> new long[2]);
+    }
+
+    /**
+     * 일자의 분당 집계 배열을 구한다.
+     *
+     * @param map 일자별 분당 집계
+     * @param date 일자
+     *
+     * @return 분당 집계
+     */
+    private static int[] minutes(TreeMap<LocalDate, int[]> map, LocalDate date) {
+        return map.computeIfAbsent(date, d -> new int[MINUTES]);
+    }
+
+    /**
+     * 일자별 분당 집계를 합친다.
+     *
+     * @param target 대상
+     * @param source 원본
+     */
+    private static void merge(TreeMap<LocalDate, int[]> target, TreeMap<LocalDate, int[]> source) {
+        source.forEach((date, counts) -> {
+            final int[] minutes = minutes(target, date);
+            for (int i = 0; i < MINUTES; i++) {
+                minutes[i] += counts[i];
+            }
+        });
+    }
+
+    private static long sum(int[] counts) {
+        long sum = 0;
+        for (int count : counts) {
+            sum += count;
+        }
+        return sum;
+    }
+
+    private static int peak(int[] counts) {
+        int peak = 0;
+        for (int i = 1; i < counts.length; i++) {
+            if (counts[i] > counts[peak]) {
+                peak = i;
+            }
+        }
+        return peak;
+    }
+
+    private static String timeOf(int minute) {
+        return String.format("%02d:%02d", minute / 60, minute % 60);
+    }
+}
@@ -0,0 +1,480 @@
+package com.example.demo.core.infrastructure.logging;
+
+import com.example.demo.core.util.DateUtil;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * 롤링된 로그 압축파일(*-yyyyMMdd.N.log.zip)을 분석한다.
+ * <p>
+ * 압축파일을 디스크에 풀지 않고 스트림으로 읽으며, 스레드당 압축파일 하나씩 병렬로 분석한 후 결과를 합친다.
+ * LoggerInterceptor 가 거래가 끝날 때 남기는 "METHOD URI STATUS 처리시간ms" 줄을 거래로, 상태가 5xx 인 거래를 그 거래의 오류로 집계한다.
+ * 5xx 거래 줄 앞의 ERROR 줄은 그 거래의 것으로 보고, 5xx 거래 줄로 이어지지 않은 ERROR 줄은 거래 없음의 오류로 집계한다.
+ * 이전 형식(START 줄 다음의 "URI METHOD" 줄)의 압축파일은 ERROR 줄을 진행 중인 마지막 거래의 오류로 집계한다.
+ * 로그에 스레드 정보가 없으므로 동시 거래가 섞이면 오류가 다른 거래에 집계될 수 있다.
+ * <p>
+ * 거래 로그 정책이 ALL 이 아니면 로그에 남은 거래만 집계한다. SAMPLE, RATE 는 고른 일부 거래만, SLOW_OR_ERROR 는 느리거나 실패한 거래만 집계하므로
+ * 거래 수는 실제보다 적고, SAMPLE, RATE 에서는 거래 줄이 남지 않은 거래의 ERROR 줄이 거래 없음으로 집계된다.
+ * 스레드마다 고정 크기 버퍼로 줄을 읽으므로 메모리는 압축파일 크기와 무관하다.
+ * <p>
+ * 어플리케이션 없이 실행하려면 다음과 같이 한다. (인자: 로그 디렉토리, 시작일자, 종료일자)
+ * <pre>
+ * java -cp demo.jar -Dloader.main=com.example.demo.core.infrastructure.logging.LogAnalyzer \
+ *     org.springframework.boot.loader.PropertiesLauncher logs 20200701 20200731
+ * </pre>
+ *
+ * @author jonghyeon
+ */
+@Component
+public class LogAnalyzer {
+    /**
+     * 압축파일명 (일자, 순번)
+     */
+    private static final Pattern ARCHIVE = Pattern.compile("-(\\d{8})\\.(\\d+)\\.log\\.zip$");
+
+    /**
+     * 거래 로그를 남기는 로거명
+     */
+    private static final byte[] INTERCEPTOR = "LoggerInterceptor".getBytes(StandardCharsets.US_ASCII);
+
+    /**
+     * 로거명 뒤의 구분자
+     */
+    private static final byte[] SEPARATOR = " - ".getBytes(StandardCharsets.US_ASCII);
+
+    /**
+     * 거래 시작 구분줄
+     */
+    private static final byte[] START = "START".getBytes(StandardCharsets.US_ASCII);
+
+    /**
+     * 거래 줄의 항목 구분자
+     */
+    private static final byte[] SPACE = " ".getBytes(StandardCharsets.US_ASCII);
+
+    /**
+     * 오류 레벨
+     */
+    private static final byte[] ERROR = "ERROR".getBytes(StandardCharsets.US_ASCII);
+
+    /**
+     * 시각(HH:mm:ss.SSS)과 레벨(5자리) 다음 로거명의 시작위치
+     */
+    private static final int LOGGER_OFFSET = 19;
+
+    /**
+     * 줄 버퍼 크기 (이보다 긴 줄은 잘라서 분석한다.)
+     */
+    private static final int LINE_BUFFER = 8192;
+
+    /**
+     * 추적하는 진행 중인 거래 수
+     */
+    private static final int MAX_OPEN = 64;
+
+    /**
+     * 로그 디렉토리
+     */
+    private final Path dir;
+
+    /**
+     * 최대 URI 수
+     */
+    private final int maxUris;
+
+    /**
+     * 분석 스레드풀
+     */
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * 분석 중인지 여부
+     */
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public LogAnalyzer(@Value("${demo.logs.dir:logs}") String dir, @Value("${demo.logs.analysis.threads:0}") int threads,
+            @Value("${demo.logs.analysis.max-uris:1000}") int maxUris) {
+        final int size = (threads > 0) ? threads : Runtime.getRuntime().availableProcessors();
+
+        this.dir = Paths.get(dir);
+        this.maxUris = maxUris;
+        // 압축파일 수는 보관기간으로 제한되므로 대기열은 제한하지 않는다.
+        this.executor = new ThreadPoolExecutor(size, size, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+                new ThreadFactoryBuilder().setNameFormat("log-analysis-%d").setDaemon(true).build());
+    }
+
+    /**
+     * 로그 압축파일을 분석하여 출력한다.
+     *
+     * @param args 로그 디렉토리, 시작일자(yyyyMMdd, 생략 가능), 종료일자(yyyyMMdd, 생략 가능)
+     *
+     * @throws IOException 입출력 예외
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("usage: LogAnalyzer <log dir> [from yyyyMMdd] [to yyyyMMdd]");
+            System.exit(1);
+        }
+
+        final LogAnalyzer analyzer = new LogAnalyzer(args[0], 0, 1000);
+        try {
+            final LocalDate from = (args.length > 1) ? DateUtil.toDateYmd(args[1]) : null;
+            final LocalDate to = (args.length > 2) ? DateUtil.toDateYmd(args[2]) : null;
+            analyzer.analyze(LogFile.SERVICE, from, to).print(new PrintWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8)), true);
+        }
+        finally {
+            analyzer.stop();
+        }
+    }
+
+    /**
+     * 스레드풀을 종료한다.
+     */
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * 기간 내 로그 압축파일을 분석한다. 분석은 한 번에 하나만 할 수 있다.
+     *
+     * @param file 로그 파일
+     * @param from 시작일자 (NULL 이면 처음부터)
+     * @param to 종료일자 (NULL 이면 끝까지)
+     *
+     * @return 분석 결과
+     * @throws IOException 입출력 예외
+     * @throws IllegalStateException 이미 분석 중인 경우
+     */
+    public LogAnalysis analyze(LogFile file, LocalDate from, LocalDate to) throws IOException {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("진행 중인 로그 분석이 있습니다.");
+        }
+
+        final List<Future<LogAnalysis>> futures = new ArrayList<>();
+        try {
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, file.getFileName() + "-*.log.zip")) {
+                for (Path path : stream) {
+                    final Matcher matcher = ARCHIVE.matcher(path.getFileName().toString());
+                    if (!matcher.find() || !DateUtil.isDate(DateUtil.DATE_FORMAT_YMD, matcher.group(1))) {
+                        continue;
+                    }
+
+                    final LocalDate date = DateUtil.toDateYmd(matcher.group(1));
+                    if ((null == from || !date.isBefore(from)) && (null == to || !date.isAfter(to))) {
+                        futures.add(executor.submit((Callable<LogAnalysis>) () -> analyze(path, date)));
+                    }
+                }
+            }
+
+            final LogAnalysis total = new LogAnalysis(maxUris);
+            for (Future<LogAnalysis> future : futures) {
+                total.merge(future.get());
+            }
+
+            return total;
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("로그 분석 중 인터럽트 되었습니다.");
+        }
+        catch (ExecutionException e) {
+            throw (e.getCause() instanceof IOException) ? (IOException) e.getCause() : new IOException(e.getCause());
+        }
+        finally {
+            for (Future<LogAnalysis> future : futures) {
+                future.cancel(true);
+            }
+            running.set(false);
+        }
+    }
+
+    /**
+     * 압축파일 하나를 분석한다.
+     *
+     * @param path 압축파일
+     * @param date 로그 일자
+     *
+     * @return 분석 결과
+     * @throws IOException 입출력 예외
+     */
+    private LogAnalysis analyze(Path path, LocalDate date) throws IOException {
+        final LogAnalysis analysis = new LogAnalysis(maxUris);
+        final Parser parser = new Parser(analysis, date);
+
+        try (ZipInputStream in = new ZipInputStream(new BufferedInputStream(Files.newInputStream(path), 64 * 1024))) {
+            ZipEntry entry;
+            while (null != (entry = in.getNextEntry())) {
+                if (!entry.isDirectory()) {
+                    parser.parse(in);
+                }
+            }
+        }
+
+        analysis.archived(parser.lines, parser.bytes);
+        return analysis;
+    }
+
+    /**
+     * 압축파일 하나의 줄을 순서대로 분석한다.
+     */
+    private static final class Parser {
+        /**
+         * 분석 결과
+         */
+        private final LogAnalysis analysis;
+
+        /**
+         * 로그 일자
+         */
+        private final LocalDate date;
+
+        /**
+         * 읽기 버퍼
+         */
+        private final byte[] buffer = new byte[1 << 16];
+
+        /**
+         * 줄 버퍼
+         */
+        private final byte[] line = new byte[LINE_BUFFER];
+
+        /**
+         * 진행 중인 거래의 키 (마지막에 시작한 거래가 끝에 온다.)
+         */
+        private final ArrayDeque<String> open = new ArrayDeque<>();
+
+        /**
+         * URI 줄을 기다리는 START 줄 수 (이전 형식)
+         */
+        private int pending;
+
+        /**
+         * 거래 줄을 기다리는 ERROR 줄의 분 (먼저 발생한 오류가 앞에 온다.)
+         */
+        private final int[] unmatched = new int[MAX_OPEN];
+
+        /**
+         * 거래 줄을 기다리는 ERROR 줄 수
+         */
+        private int unmatchedCount;
+
+        /**
+         * 줄 수
+         */
+        private long lines;
+
+        /**
+         * 바이트 수
+         */
+        private long bytes;
+
+        private Parser(LogAnalysis analysis, LocalDate date) {
+            this.analysis = analysis;
+            this.date = date;
+        }
+
+        /**
+         * 스트림의 줄을 모두 분석한다.
+         *
+         * @param in 입력 스트림
+         *
+         * @throws IOException 입출력 예외
+         */
+        private void parse(InputStream in) throws IOException {
+            int length = 0;
+            int n;
+
+            while ((n = in.read(buffer)) > 0) {
+                bytes += n;
+                for (int i = 0; i < n; i++) {
+                    final byte b = buffer[i];
+                    if (b == '\n') {
+                        line(length);
+                        length = 0;
+                    }
+                    else if (length < LINE_BUFFER) {
+                        line[length++] = b;
+                    }
+                }
+
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new InterruptedIOException("로그 분석이 취소되었습니다.");
+                }
+            }
+
+            if (length > 0) {
+                line(length);
+            }
+            flushUnmatched();
+        }
+
+        /**
+         * 한 줄을 분석한다. "HH:mm:ss.SSS LEVEL logger - message" 형식이 아닌 줄(예외 추적 등)은 건너뛴다.
+         *
+         * @param length 줄 길이
+         */
+        private void line(int length) {
+            lines++;
+            if (length <= LOGGER_OFFSET || line[2] != ':' || line[5] != ':' || line[8] != '.' || line[12] != ' ') {
+                return;
+            }
+
+            final int minute = digit(0) * 600 + digit(1) * 60 + digit(3) * 10 + digit(4);
+            if (minute < 0 || minute >= LogAnalysis.MINUTES) {
+                return;
+            }
+
+            if (startsWith(13, ERROR)) {
+                if (open.isEmpty()) {
+                    // 거래가 끝날 때 남기는 형식에서는 오류가 거래 줄보다 먼저 나온다.
+                    if (unmatchedCount == MAX_OPEN) {
+                        analysis.error(date, unmatched[0], null);
+                        System.arraycopy(unmatched, 1, unmatched, 0, MAX_OPEN - 1);
+                        unmatchedCount--;
+                    }
+                    unmatched[unmatchedCount++] = minute;
+                }
+                else {
+                    analysis.error(date, minute, open.peekLast());
+                }
+            }
+
+            final int separator = indexOf(LOGGER_OFFSET, length, SEPARATOR);
+            if (separator < 0 || !startsWith(separator - INTERCEPTOR.length, INTERCEPTOR)) {
+                return;
+            }
+
+            final int message = separator + SEPARATOR.length;
+            if (message >= length) {
+                return;
+            }
+
+            if (line[message] >= 'A' && line[message] <= 'Z') {
+                completed(minute, message, length);
+            }
+            else if (line[message] == '=') {
+                // START 와 END 구분줄 중 START 만 센다.
+                if (indexOf(message, length, START) >= 0) {
+                    pending++;
+                }
+            }
+            else if (line[message] == '/') {
+                final String uri = new String(line, message, length - message, StandardCharsets.UTF_8).trim();
+                if (pending > 0) {
+                    pending--;
+                    if (open.size() == MAX_OPEN) {
+                        open.pollFirst();
+                    }
+                    open.addLast(analysis.request(date, minute, uri));
+                }
+                else if (!open.removeLastOccurrence(uri)) {
+                    open.removeLastOccurrence(LogAnalysis.OTHERS);
+                }
+            }
+        }
+
+        /**
+         * 거래가 끝날 때 남긴 "METHOD URI STATUS 처리시간ms" 줄을 집계한다. 상태가 5xx 이면 앞서 기다리던 ERROR 줄을 이 거래의 오류 하나로 본다.
+         *
+         * @param minute 분
+         * @param message 메세지 시작위치
+         * @param length 줄 길이
+         */
+        private void completed(int minute, int message, int length) {
+            final int method = indexOf(message, length, SPACE);
+            final int elapsed = lastIndexOf(method + 1, length, SPACE);
+            final int status = lastIndexOf(method + 1, elapsed, SPACE);
+            if (method < 0 || status <= method + 1 || line[method + 1] != '/' || elapsed - status != 4) {
+                return;
+            }
+
+            final int code = digit(status + 1) * 100 + digit(status + 2) * 10 + digit(status + 3);
+            if (code < 0) {
+                return;
+            }
+
+            final String uri = new String(line, method + 1, status - method - 1, StandardCharsets.UTF_8) + ' '
+                    + new String(line, message, method - message, StandardCharsets.US_ASCII);
+            final String key = analysis.request(date, minute, uri);
+            if (code >= 500) {
+                unmatchedCount = 0;
+                analysis.error(date, minute, key);
+            }
+        }
+
+        /**
+         * 거래 줄로 이어지지 않은 ERROR 줄을 거래 없음의 오류로 집계한다.
+         */
+        private void flushUnmatched() {
+            for (int i = 0; i < unmatchedCount; i++) {
+                analysis.error(date, unmatched[i], null);
+            }
+            unmatchedCount = 0;
+        }
+
+        private int digit(int index) {
+            final int d = line[index] - '0';
+            return (d >= 0 && d <= 9) ? d : -10000;
+        }
+
+        private boolean startsWith(int offset, byte[] prefix) {
+            if (offset < 0 || offset + prefix.length > line.length) {
+                return false;
+            }
+            for (int i = 0; i < prefix.length; i++) {
+                if (line[offset + i] != prefix[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private int indexOf(int from, int to, byte[] target) {
+            for (int i = from; i + target.length <= to; i++) {
+                if (startsWith(i, target)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private int lastIndexOf(int from, int to, byte[] target) {
+            for (int i = to - target.length; i >= from; i--) {
+                if (startsWith(i, target)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.demo.core.infrastructure.logging;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * logback-spring.xml 의 파일 어팬더가 기록하는 로그 파일이다.
+ *
+ * @author jonghyeon
+ */
+@Getter
+@AllArgsConstructor
+public enum LogFile {
+    /**
+     * 서비스 로그 (ServiceLogFileAppender)
+     */
+    SERVICE("demo-service.log"),
+
+    /**
+     * 에러 로그 (ErrorLogFileAppender)
+     */
+    ERROR("demo-error.log");
+
+    /**
+     * 파일명
+     */
+    private final String fileName;
+}
@@ -0,0 +1,670 @@
+package com.example.demo.core.infrastructure.logging;
+
+import com.example.demo.core.util.IoUtil;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+/**
+ * 로그 파일을 메모리 매핑하여 끝부분 조회(tail)와 검색을 제공한다.
+ * <p>
+ * 끝부분 조회는 파일 끝에서부터 줄바꿈을 거꾸로 세어 시작위치를 구한 후 그 이후를 그대로 출력한다.
+ * 검색은 파일을 줄 경계에 맞춘 구간으로 나누어 전용 스레드풀에서 병렬로 검사하며, 찾는 즉시 요청 스레드로 넘겨 출력한다.
+ * 최대 결과 수에 이르거나 제한시간이 지나면 검사를 중단하므로 요청 스레드가 제한시간 이상 묶이지 않으며,
+ * 스레드풀이 가득 차면 바로 거절한다. 매핑은 파일당 최대 2GB 이므로 그보다 큰 파일은 마지막 2GB 만 대상으로 한다.
+ *
+ * @author jonghyeon
+ */
+@Component
+public class LogReader {
+    /**
+     * 줄바꿈
+     */
+    private static final byte LF = '\n';
+
+    /**
+     * 출력하는 줄의 최대 길이(바이트)
+     */
+    private static final int MAX_LINE = 4096;
+
+    /**
+     * 중단 여부를 확인하는 주기(바이트)
+     */
+    private static final int CHECK_INTERVAL = 1 << 16;
+
+    /**
+     * 검색 결과이다.
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class SearchResult {
+        /**
+         * 출력한 결과 수
+         */
+        private final int matches;
+
+        /**
+         * 최대 결과 수에 이르러 중단했는지 여부
+         */
+        private final boolean truncated;
+
+        /**
+         * 제한시간이 지나 중단했는지 여부
+         */
+        private final boolean timedOut;
+    }
+
+    /**
+     * 검사한 줄이다.
+     */
+    @AllArgsConstructor
+    private static final class Line {
+        /**
+         * 파일 내 시작위치
+         */
+        private final long offset;
+
+        /**
+         * 내용
+         */
+        private final byte[] bytes;
+    }
+
+    /**
+     * 검색 하나에서 구간 검사자들이 공유하는 상태이다. 마지막으로 끝나는 참여자가 매핑을 해제한다.
+     */
+    private static final class Search {
+        /**
+         * 매핑한 파일
+         */
+        private final MappedByteBuffer buffer;
+
+        /**
+         * 매핑 시작위치
+         */
+        private final long base;
+
+        /**
+         * 찾은 줄
+         */
+        private final BlockingQueue<Line> found;
+
+        /**
+         * 중단 여부
+         */
+        private final AtomicBoolean cancelled = new AtomicBoolean();
+
+        /**
+         * 제한시각 (System.nanoTime 기준)
+         */
+        private final long deadline;
+
+        /**
+         * 끝나지 않은 참여자 수 (구간 검사자 + 요청 스레드)
+         */
+        private final AtomicInteger participants;
+
+        /**
+         * 끝나지 않은 구간 검사자 수
+         */
+        private final AtomicInteger running;
+
+        private Search(MappedByteBuffer buffer, long base, long deadline, int segments, int capacity) {
+            this.buffer = buffer;
+            this.base = base;
+            this.deadline = deadline;
+            this.found = new ArrayBlockingQueue<>(capacity);
+            this.participants = new AtomicInteger(segments + 1);
+            this.running = new AtomicInteger(segments);
+        }
+
+        /**
+         * 참여자 하나가 끝났다. 마지막 참여자이면 매핑을 해제한다.
+         */
+        private void leave() {
+            if (0 == participants.decrementAndGet()) {
+                IoUtil.unmap(buffer);
+            }
+        }
+    }
+
+    /**
+     * 로그 디렉토리
+     */
+    private final Path dir;
+
+    /**
+     * 끝부분 조회 최대 줄 수
+     */
+    private final int maxLines;
+
+    /**
+     * 최대 결과 수
+     */
+    private final int maxResults;
+
+    /**
+     * 최대 제한시간(밀리초)
+     */
+    private final long maxTimeout;
+
+    /**
+     * 검색 구간 수
+     */
+    private final int segments;
+
+    /**
+     * 검색 스레드풀
+     */
+    private final ThreadPoolExecutor executor;
+
+    public LogReader(@Value("${demo.logs.dir:logs}") String dir, @Value("${demo.logs.tail.max-lines:10000}") int maxLines,
+            @Value("${demo.logs.search.threads:0}") int threads, @Value("${demo.logs.search.max-results:1000}") int maxResults,
+            @Value("${demo.logs.search.timeout:5000}") long maxTimeout) {
+        this.dir = Paths.get(dir);
+        this.maxLines = maxLines;
+        this.maxResults = maxResults;
+        this.maxTimeout = maxTimeout;
+        this.segments = (threads > 0) ? threads : Runtime.getRuntime().availableProcessors();
+        // 동시에 최대 4건의 검색까지 대기열에 둔다.
+        this.executor = new ThreadPoolExecutor(segments, segments, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(segments * 4),
+                new ThreadFactoryBuilder().setNameFormat("log-search-%d").setDaemon(true).build(), new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * 스레드풀을 종료한다.
+     */
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * 로그 파일의 마지막 줄들을 출력한다.
+     *
+     * @param file 로그 파일
+     * @param lines 줄 수 (최대 줄 수보다 클 수 없다.)
+     * @param out 출력 스트림
+     *
+     * @throws IOException 입출력 예외 (파일이 없으면 NoSuchFileException)
+     */
+    public void tail(LogFile file, int lines, OutputStream out) throws IOException {
+        final int wanted = Math.max(0, Math.min(lines, maxLines));
+
+        try (FileChannel channel = FileChannel.open(dir.resolve(file.getFileName()), StandardOpenOption.READ)) {
+            final long size = channel.size();
+            final long base = Math.max(0L, size - Integer.MAX_VALUE);
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, base, size - base);
+
+            try {
+                final int end = buffer.limit();
+                // 마지막 줄바꿈은 마지막 줄의 끝이므로 세지 않는다.
+                int pos = (end > 0 && buffer.get(end - 1) == LF) ? end - 2 : end - 1;
+                int count = 0;
+
+                while (pos >= 0 && count < wanted) {
+                    if (buffer.get(pos) == LF) {
+                        count++;
+                        if (count == wanted) {
+                            break;
+                        }
+                    }
+                    pos--;
+                }
+
+                write(buffer, (0 == wanted) ? end : pos + 1, end, out);
+            }
+            finally {
+                IoUtil.unmap(buffer);
+            }
+        }
+    }
+
+    /**
+     * 로그 파일에서 찾는 값이 있는 줄을 찾는 즉시 "시작위치: 줄" 형식으로 출력한다. 결과의 순서는 파일 순서와 다를 수 있다.
+     *
+     * @param file 로그 파일
+     * @param query 찾는 값
+     * @param regex 찾는 값이 정규식인지 여부 (아니면 UTF-8 바이트 단위로 비교한다.)
+     * @param limit 최대 결과 수 (설정값보다 클 수 없다.)
+     * @param timeoutMillis 제한시간(밀리초, 설정값보다 클 수 없다.)
+     * @param out 출력 스트림
+     *
+     * @return 검색 결과
+     * @throws IOException 입출력 예외 (파일이 없으면 NoSuchFileException)
+     * @throws RejectedExecutionException 검색 스레드풀이 가득 찬 경우
+     */
+    public SearchResult search(LogFile file, String query, boolean regex, int limit, long timeoutMillis, OutputStream out) throws IOException {
+        final int wanted = Math.max(1, Math.min(limit, maxResults));
+        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(Math.max(1L, Math.min(timeoutMillis, maxTimeout)));
+        final Pattern pattern = regex ? Pattern.compile(query) : null;
+        final byte[] needle = query.getBytes(StandardCharsets.UTF_8);
+
+        final Search search;
+        try (FileChannel channel = FileChannel.open(dir.resolve(file.getFileName()), StandardOpenOption.READ)) {
+            final long size = channel.size();
+            final long base = Math.max(0L, size - Integer.MAX_VALUE);
+            search = new Search(channel.map(FileChannel.MapMode.READ_ONLY, base, size - base), base, deadline, segments, Math.max(wanted, 64));
+        }
+
+        int matches = 0;
+        boolean timedOut = false;
+
+        try {
+            final int length = search.buffer.limit();
+            for (int i = 0; i < segments; i++) {
+                final int from = (int) ((long) length * i / segments);
+                final int to = (int) ((long) length * (i + 1) / segments);
+                try {
+                    executor.execute(() -> scan(search, from, to, needle, pattern));
+                }
+                catch (RejectedExecutionException e) {
+                    // 제출하지 못한 구간은 끝난 것으로 처리한다.
+                    for (int j = i; j < segments; j++) {
+                        search.running.decrementAndGet();
+                        search.leave();
+                    }
+                    throw e;
+                }
+            }
+
+            while (matches < wanted) {
+                final long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    timedOut = true;
+                    break;
+                }
+
+                final Line line = search.found.poll(Math.min(remaining, TimeUnit.MILLISECONDS.toNanos(50)), TimeUnit.NANOSECONDS);
+                if (null != line) {
+                    writeLine(line, out);
+                    matches++;
+                    // 대기 중인 결과를 모두 쓴 후에 내보낸다.
+                    if (search.found.isEmpty()) {
+                        out.flush();
+                    }
+                }
+                else if (0 == search.running.get() && search.found.isEmpty()) {
+                    break;
+                }
+            }
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("로그 검색 중 인터럽트 되었습니다.");
+        }
+        finally {
+            // 대기열에 남은 검사자는 시작하자마자 끝나며, 마지막으로 끝나는 참여자가 매핑을 해제한다.
+            search.cancelled.set(true);
+            search.leave();
+        }
+
+        return new SearchResult(matches, matches >= wanted, timedOut);
+    }
+
+    /**
+     * 구간에서 시작하는 줄을 검사한다. 구간 시작이 줄 중간이면 다음 줄부터, 마지막 줄은 구간을 넘더라도 끝까지 검사한다.
+     *
+     * @param search 검색 상태
+     * @param from 구간 시작위치
+     * @param to 구간 종료위치(제외)
+     * @param needle 찾는 바이트 (정규식이 아닌 경우)
+     * @param pattern 정규식 (NULL 이면 바이트 비교)
+     */
+    private static void scan(Search search, int from, int to, byte[] needle, Pattern pattern) {
+        try {
+            if (search.cancelled.get()) {
+                return;
+            }
+
+            final MappedByteBuffer buffer = search.buffer;
+            final int limit = buffer.limit();
+            int start = from;
+            if (start > 0 && buffer.get(start - 1) != LF) {
+                final int lf = indexOf(buffer, LF, start, to);
+                if (lf < 0) {
+                    // 구간 전체가 이전 구간에서 시작한 줄에 속한다.
+                    return;
+                }
+                start = lf + 1;
+            }
+
+            // 구간에서 시작한 마지막 줄의 끝까지 검사한다.
+            int end = (to >= limit) ? limit : indexOf(buffer, LF, to - 1, limit);
+            end = (end < 0) ? limit : end;
+
+            if (null == pattern) {
+                scanBytes(search, start, end, needle);
+            }
+            else {
+                scanLines(search, start, end, pattern);
+            }
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        finally {
+            search.running.decrementAndGet();
+            search.leave();
+        }
+    }
+
+    /**
+     * 바이트 단위(Boyer-Moore-Horspool)로 찾는 값이 있는 줄을 찾는다. 한 줄은 한 번만 출력한다.
+     *
+     * @param search 검색 상태
+     * @param start 시작위치 (줄의 시작)
+     * @param end 종료위치 (줄의 끝)
+     * @param needle 찾는 바이트
+     *
+     * @throws InterruptedException 인터럽트 예외
+     */
+    private static void scanBytes(Search search, int start, int end, byte[] needle) throws InterruptedException {
+        final MappedByteBuffer buffer = search.buffer;
+        final int n = needle.length;
+        if (0 == n) {
+            return;
+        }
+
+        final int[] shift = new int[256];
+        Arrays.fill(shift, n);
+        for (int i = 0; i < n - 1; i++) {
+            shift[needle[i] & 0xFF] = n - 1 - i;
+        }
+
+        final byte last = needle[n - 1];
+        int pos = start;
+        int nextCheck = pos + CHECK_INTERVAL;
+
+        while (pos + n <= end) {
+            if (pos >= nextCheck) {
+                if (search.cancelled.get()) {
+                    return;
+                }
+                nextCheck = pos + CHECK_INTERVAL;
+            }
+
+            final byte b = buffer.get(pos + n - 1);
+            if (b == last && matches(buffer, pos, needle)) {
+                final int lineStart = lastIndexOf(buffer, LF, pos - 1, start) + 1;
+                int lineEnd = indexOf(buffer, LF, pos + n - 1, end);
+                lineEnd = (lineEnd < 0) ? end : lineEnd;
+
+                if (!offer(search, lineStart, lineEnd)) {
+                    return;
+                }
+                pos = lineEnd + 1;
+            }
+            else {
+                pos += shift[b & 0xFF];
+            }
+        }
+    }
+
+    /**
+     * 줄 단위로 UTF-8 로 변환하여 정규식으로 검사한다.
+     * 역추적이 폭증하는 정규식이 한 줄에서 끝나지 않아도 검색 스레드를 붙잡지 않도록, 중단되거나 제한시각이 지나면 검사 중인 줄에서 바로 빠져나온다.
+     *
+     * @param search 검색 상태
+     * @param start 시작위치 (줄의 시작)
+     * @param end 종료위치 (줄의 끝)
+     * @param pattern 정규식
+     *
+     * @throws InterruptedException 인터럽트 예외
+     */
+    private static void scanLines(Search search, int start, int end, Pattern pattern) throws InterruptedException {
+        final MappedByteBuffer buffer = search.buffer;
+        int pos = start;
+        int lines = 0;
+
+        while (pos < end) {
+            if ((++lines & 0xFF) == 0 && isStopped(search)) {
+                return;
+            }
+
+            int lineEnd = indexOf(buffer, LF, pos, end);
+            lineEnd = (lineEnd < 0) ? end : lineEnd;
+
+            final boolean found;
+            try {
+                found = pattern.matcher(new CancellableSequence(search, new String(bytesOf(buffer, pos, lineEnd, Integer.MAX_VALUE), StandardCharsets.UTF_8))).find();
+            }
+            catch (SearchStopped e) {
+                return;
+            }
+
+            if (found && !offer(search, pos, lineEnd)) {
+                return;
+            }
+            pos = lineEnd + 1;
+        }
+    }
+
+    /**
+     * 검색이 중단되었거나 제한시각이 지났는지 여부를 반환한다.
+     *
+     * @param search 검색 상태
+     *
+     * @return 중단 여부
+     */
+    private static boolean isStopped(Search search) {
+        return search.cancelled.get() || System.nanoTime() - search.deadline >= 0;
+    }
+
+    /**
+     * 정규식 검사 중에 검색 중단을 확인하는 문자열이다. 정규식 엔진은 문자를 읽을 때마다 charAt 을 호출하므로 일정 횟수마다 중단 여부를 확인한다.
+     */
+    private static final class CancellableSequence implements CharSequence {
+        /**
+         * 중단 여부를 확인하는 charAt 호출 간격
+         */
+        private static final int CHECK_MASK = 0xFFF;
+
+        private final Search search;
+
+        private final String value;
+
+        private int reads;
+
+        private CancellableSequence(Search search, String value) {
+            this.search = search;
+            this.value = value;
+        }
+
+        @Override
+        public int length() {
+            return value.length();
+        }
+
+        @Override
+        public char charAt(int index) {
+            if ((++reads & CHECK_MASK) == 0 && isStopped(search)) {
+                throw SearchStopped.INSTANCE;
+            }
+            return value.charAt(index);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return value.subSequence(start, end);
+        }
+
+        @Override
+        public String toString() {
+            return value;
+        }
+    }
+
+    /**
+     * 정규식 검사를 중단시키는 예외이다. 자주 발생할 수 있으므로 스택을 기록하지 않는 하나의 객체를 재사용한다.
+     */
+    @SuppressWarnings("serial")
+    private static final class SearchStopped extends RuntimeException {
+        private static final SearchStopped INSTANCE = new SearchStopped();
+
+        private SearchStopped() {
+            super("로그 검색이 중단되었습니다.", null, false, false);
+        }
+    }
+
+    /**
+     * 찾은 줄을 요청 스레드로 넘긴다. 요청 스레드가 받을 때까지 기다리며, 중단되면 포기한다.
+     *
+     * @param search 검색 상태
+     * @param lineStart 줄 시작위치
+     * @param lineEnd 줄 종료위치(줄바꿈 위치)
+     *
+     * @return 계속 검사할지 여부
+     * @throws InterruptedException 인터럽트 예외
+     */
+    private static boolean offer(Search search, int lineStart, int lineEnd) throws InterruptedException {
+        final Line line = new Line(search.base + lineStart, bytesOf(search.buffer, lineStart, lineEnd, MAX_LINE));
+
+        while (!search.cancelled.get()) {
+            if (search.found.offer(line, 50, TimeUnit.MILLISECONDS)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * 위치에서 찾는 바이트와 일치하는지 여부를 반환한다.
+     *
+     * @param buffer 버퍼
+     * @param pos 위치
+     * @param needle 찾는 바이트
+     *
+     * @return 일치 여부
+     */
+    private static boolean matches(MappedByteBuffer buffer, int pos, byte[] needle) {
+        for (int i = needle.length - 2; i >= 0; i--) {
+            if (buffer.get(pos + i) != needle[i]) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * 구간에서 처음 나오는 바이트의 위치를 반환한다.
+     *
+     * @param buffer 버퍼
+     * @param b 바이트
+     * @param from 시작위치
+     * @param to 종료위치(제외)
+     *
+     * @return 위치 (없으면 -1)
+     */
+    private static int indexOf(MappedByteBuffer buffer, byte b, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (buffer.get(i) == b) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * 구간에서 마지막으로 나오는 바이트의 위치를 반환한다.
+     *
+     * @param buffer 버퍼
+     * @param b 바이트
+     * @param from 시작위치 (여기서부터 거꾸로 찾는다.)
+     * @param to 최소위치 (포함)
+     *
+     * @return 위치 (없으면 to - 1)
+     */
+    private static int lastIndexOf(MappedByteBuffer buffer, byte b, int from, int to) {
+        for (int i = from; i >= to; i--) {
+            if (buffer.get(i) == b) {
+                return i;
+            }
+        }
+
+        return to - 1;
+    }
+
+    /**
+     * 구간의 바이트를 복사한다.
+     *
+     * @param buffer 버퍼
+     * @param from 시작위치
+     * @param to 종료위치(제외)
+     * @param max 최대 길이
+     *
+     * @return 바이트 배열
+     */
+    private static byte[] bytesOf(MappedByteBuffer buffer, int from, int to, int max) {
+        final byte[] bytes = new byte[Math.min(to - from, max)];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = buffer.get(from + i);
+        }
+
+        return bytes;
+    }
+
+    /**
+     * 찾은 줄을 출력한다.
+     *
+     * @param line 줄
+     * @param out 출력 스트림
+     *
+     * @throws IOException 입출력 예외
+     */
+    private static void writeLine(Line line, OutputStream out) throws IOException {
+        out.write(Long.toString(line.offset).getBytes(StandardCharsets.US_ASCII));
+        out.write(':');
+        out.write(' ');
+        out.write(line.bytes);
+        out.write(LF);
+    }
+
+    /**
+     * 버퍼의 구간을 출력한다.
+     *
+     * @param buffer 버퍼
+     * @param from 시작위치
+     * @param to 종료위치(제외)
+     * @param out 출력 스트림
+     *
+     * @throws IOException 입출력 예외
+     */
+    private static void write(MappedByteBuffer buffer, int from, int to, OutputStream out) throws IOException {
+        final byte[] chunk = new byte[Math.min(CHECK_INTERVAL, Math.max(0, to - from))];
+        final ByteBuffer view = buffer.duplicate();
+        view.position(from).limit(to);
+
+        while (view.hasRemaining()) {
+            final int n = Math.min(chunk.length, view.remaining());
+            view.get(chunk, 0, n);
+            out.write(chunk, 0, n);
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package com.example.demo.core.infrastructure.metrics;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.PackedHistogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.PrintWriter;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 핸들러 패턴, 응답 상태 분류(2xx 등)별 지연시간 히스토그램이다.
+ * <p>
+ * 요청 스레드는 HdrHistogram Recorder 에 마이크로초 단위로 기록만 하며 잠금 없이(wait-free) 끝난다.
+ * 갱신 스레드가 주기마다 Recorder 의 구간 히스토그램을 바꿔 가져와 압축(packed) 히스토그램으로 고리 버퍼에 쌓고,
+ * 조회 시 최근 구간들을 합쳐 구간(window)별 백분위를 계산한다. 따라서 조회 결과에는 진행 중인 주기의 기록이 포함되지 않는다.
+ * 키는 요청 URI 가 아니라 매핑된 핸들러 패턴이므로 경로 파라미터나 쿼리 값이 늘어도 키 수는 핸들러 수를 넘지 않는다.
+ *
+ * @author jonghyeon
+ */
+@Component
+public class LatencyHistograms {
+    /**
+     * 핸들러 패턴이 없는 요청을 집계하는 키
+     */
+    public static final String NONE = "(패턴 없음)";
+
+    /**
+     * 응답 상태 분류 수 (1xx ~ 5xx)
+     */
+    private static final int STATUS_CLASSES = 5;
+
+    /**
+     * 핸들러 패턴의 응답 상태 분류별 기록기와 구간 히스토그램이다.
+     */
+    private final class Endpoint {
+        /**
+         * 응답 상태 분류별 기록기 (처음 기록할 때 만든다.)
+         */
+        private final AtomicReferenceArray<Recorder> recorders = new AtomicReferenceArray<>(STATUS_CLASSES);
+
+        /**
+         * 응답 상태 분류별로 재사용하는 구간 히스토그램 (갱신 스레드만 사용한다.)
+         */
+        private final Histogram[] recycled = new Histogram[STATUS_CLASSES];
+
+        /**
+         * 응답 상태 분류별 구간 히스토그램 고리 버퍼 (기록이 없는 구간은 NULL)
+         */
+        private final Histogram[][] slots = new Histogram[STATUS_CLASSES][slotCount];
+
+        /**
+         * 응답 상태 분류의 기록기를 구한다.
+         *
+         * @param index 응답 상태 분류 (0 이 1xx)
+         *
+         * @return 기록기
+         */
+        private Recorder recorder(int index) {
+            Recorder recorder = recorders.get(index);
+            if (null == recorder) {
+                recorders.compareAndSet(index, null, new Recorder(digits));
+                recorder = recorders.get(index);
+            }
+
+            return recorder;
+        }
+    }
+
+    /**
+     * 히스토그램 유효 자릿수
+     */
+    private final int digits;
+
+    /**
+     * 구간 교체 주기(초)
+     */
+    private final int intervalSeconds;
+
+    /**
+     * 조회 구간(분) 목록 (오름차순)
+     */
+    private final int[] windows;
+
+    /**
+     * 고리 버퍼 크기 (가장 긴 조회 구간의 주기 수)
+     */
+    private final int slotCount;
+
+    /**
+     * 핸들러 패턴별 기록
+     */
+    private final ConcurrentMap<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+    /**
+     * 다음에 채울 고리 버퍼 위치 (갱신 스레드만 바꾼다.)
+     */
+    private int slot;
+
+    /**
+     * 갱신 스레드
+     */
+    private ScheduledExecutorService rotator;
+
+    public LatencyHistograms(@Value("${demo.metrics.latency.digits:2}") int digits, @Value("${demo.metrics.latency.interval:10}") int intervalSeconds,
+            @Value("${demo.metrics.latency.windows:1,5,15}") int[] windows) {
+        if (digits < 1 || digits > 5) {
+            throw new IllegalArgumentException(String.format("히스토그램 유효 자릿수(%d)는 1 에서 5 사이여야 합니다.", digits));
+        }
+        if (intervalSeconds <= 0 || 60 % intervalSeconds != 0) {
+            throw new IllegalArgumentException(String.format("구간 교체 주기(%d초)는 60 의 약수여야 합니다.", intervalSeconds));
+        }
+        if (0 == windows.length) {
+            throw new IllegalArgumentException("조회 구간이 없습니다.");
+        }
+        for (int window : windows) {
+            if (window <= 0) {
+                throw new IllegalArgumentException(String.format("조회 구간(%d분)은 0 보다 커야 합니다.", window));
+            }
+        }
+
+        this.digits = digits;
+        this.intervalSeconds = intervalSeconds;
+        this.windows = windows.clone();
+        Arrays.sort(this.windows);
+        this.slotCount = this.windows[this.windows.length - 1] * 60 / intervalSeconds;
+    }
+
+    /**
+     * 갱신 스레드를 시작한다.
+     */
+    @PostConstruct
+    public synchronized void start() {
+        if (null == rotator) {
+            rotator = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder().setNameFormat("latency-rotator").setDaemon(true).build());
+            rotator.scheduleAtFixedRate(this::rotate, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * 갱신 스레드를 종료한다.
+     */
+    @PreDestroy
+    public synchronized void stop() {
+        if (null != rotator) {
+            rotator.shutdownNow();
+            rotator = null;
+        }
+    }
+
+    /**
+     * 지연시간을 기록한다. 잠금 없이 동작하며 핸들러 패턴의 첫 기록에서만 객체를 만든다.
+     *
+     * @param pattern 핸들러 패턴 (없으면 NULL)
+     * @param status 응답 상태
+     * @param nanos 지연시간(나노초)
+     */
+    public void record(String pattern, int status, long nanos) {
+        final String key = (null == pattern) ? NONE : pattern;
+        Endpoint endpoint = endpoints.get(key);
+        if (null == endpoint) {
+            endpoint = endpoints.computeIfAbsent(key, k -> new Endpoint());
+        }
+
+        endpoint.recorder(Math.min(Math.max(status / 100, 1), STATUS_CLASSES) - 1).recordValue(Math.max(nanos / 1000L, 0L));
+    }
+
+    /**
+     * 기록기의 구간 히스토그램을 바꿔 가져와 고리 버퍼에 쌓는다.
+     */
+    synchronized void rotate() {
+        for (Endpoint endpoint : endpoints.values()) {
+            for (int i = 0; i < STATUS_CLASSES; i++) {
+                final Recorder recorder = endpoint.recorders.get(i);
+                Histogram interval = null;
+                if (null != recorder) {
+                    interval = recorder.getIntervalHistogram(endpoint.recycled[i]);
+                    endpoint.recycled[i] = interval;
+                }
+                // 기록이 없는 구간은 비워 두어 메모리를 쓰지 않는다. (복사 생성자는 설정만 복사하므로 값은 더한다.)
+                Histogram packed = null;
+                if (null != interval && interval.getTotalCount() > 0L) {
+                    packed = new PackedHistogram(interval);
+                    packed.add(interval);
+                }
+                endpoint.slots[i][slot] = packed;
+            }
+        }
+        slot = (slot + 1) % slotCount;
+    }
+
+    /**
+     * 조회 구간별 백분위(p50, p90, p99, p999, 최대)를 출력한다. 단위는 마이크로초이다.
+     *
+     * @param out 출력
+     */
+    public synchronized void print(PrintWriter out) {
+        final StringBuilder header = new StringBuilder();
+        for (int window : windows) {
+            header.append((0 == header.length()) ? "" : ",").append(window).append('m');
+        }
+        out.printf("# interval=%ds, windows=%s, unit=us%n", intervalSeconds, header);
+
+        final Histogram sum = new Histogram(digits);
+        for (Map.Entry<String, Endpoint> entry : new TreeMap<>(endpoints).entrySet()) {
+            final Endpoint endpoint = entry.getValue();
+            for (int i = 0; i < STATUS_CLASSES; i++) {
+                if (null == endpoint.recorders.get(i)) {
+                    continue;
+                }
+
+                // 짧은 구간부터 이전 주기를 차례로 더해 나간다.
+                sum.reset();
+                int added = 0;
+                for (int window : windows) {
+                    for (final int count = window * 60 / intervalSeconds; added < count; added++) {
+                        final Histogram interval = endpoint.slots[i][Math.floorMod(slot - 1 - added, slotCount)];
+                        if (null != interval) {
+                            sum.add(interval);
+                        }
+                    }
+                    out.printf("%s\t%dxx\t%dm\tcount=%d\tp50=%d\tp90=%d\tp99=%d\tp999=%d\tmax=%d%n", entry.getKey(), i + 1, window, sum.getTotalCount(),
+                            sum.getValueAtPercentile(50.0), sum.getValueAtPercentile(90.0), sum.getValueAtPercentile(99.0), sum.getValueAtPercentile(99.9),
+                            sum.getMaxValue());
+                }
+            }
+        }
+        out.flush();
+    }
+}
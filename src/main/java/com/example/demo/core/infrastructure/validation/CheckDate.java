@@ -0,0 +1,26 @@
+package com.example.demo.core.infrastructure.validation;
+
+import com.example.demo.core.util.DateUtil;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 요청 파라미터가 주어진 일자형식이어야 함을 선언한다.
+ *
+ * @author jonghyeon
+ */
+@Documented
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface CheckDate {
+    /**
+     * 일자형식
+     *
+     * @return 일자형식
+     */
+    String format() default DateUtil.DATE_FORMAT_YMD;
+}
@@ -0,0 +1,18 @@
+package com.example.demo.core.infrastructure.validation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 요청 파라미터가 환경코드(EnvCd)의 코드이어야 함을 선언한다.
+ *
+ * @author jonghyeon
+ */
+@Documented
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface CheckEnvCd {
+}
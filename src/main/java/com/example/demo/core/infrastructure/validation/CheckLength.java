@@ -0,0 +1,31 @@
+package com.example.demo.core.infrastructure.validation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 요청 파라미터의 길이 범위를 선언한다.
+ *
+ * @author jonghyeon
+ */
+@Documented
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface CheckLength {
+    /**
+     * 최소 길이
+     *
+     * @return 최소 길이
+     */
+    int min() default 0;
+
+    /**
+     * 최대 길이
+     *
+     * @return 최대 길이
+     */
+    int max() default Integer.MAX_VALUE;
+}
@@ -0,0 +1,46 @@
+package com.example.demo.core.infrastructure.validation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 요청 파라미터가 파일시스템 경로로서 지켜야 할 제약을 선언한다.
+ *
+ * @author jonghyeon
+ */
+@Documented
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface CheckPath {
+    /**
+     * 존재해야 하는지 여부
+     *
+     * @return 존재해야 하는지 여부
+     */
+    boolean exists() default true;
+
+    /**
+     * 디렉토리이어야 하는지 여부
+     *
+     * @return 디렉토리이어야 하는지 여부
+     */
+    boolean directory() default false;
+
+    /**
+     * 상위 디렉토리(..) 참조를 허용하는지 여부
+     *
+     * @return 상위 디렉토리 참조 허용 여부
+     */
+    boolean traversal() default false;
+
+    /**
+     * 허용하는 최상위 경로 목록 (선언하지 않으면 제한하지 않는다. ${...} 프로퍼티를 사용할 수 있으며 프로퍼티가 비어 있으면 모든 경로를 거부한다.
+     * 심볼릭 링크는 실제 경로로 비교하며, 허용되지 않은 경로는 403 으로 응답한다.)
+     *
+     * @return 허용하는 최상위 경로 목록
+     */
+    String[] roots() default {};
+}
@@ -0,0 +1,172 @@
+package com.example.demo.core.infrastructure.validation;
+
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.core.ReactiveAdapterRegistry;
+import org.springframework.core.env.PropertyResolver;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.method.HandlerMethod;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 하나의 핸들러 메소드에 대한 검증기이다. 시작 시 한 번 만들어지며 요청 처리 중에는 리플렉션을 사용하지 않는다.
+ * 비동기 핸들러(DeferredResult, Mono/Flux 등 리액티브 타입 반환)는 블로킹 규칙(파일시스템 조회 등)을 따로 모아 작업 스레드에서 검사할 수 있게 한다.
+ * 서블릿에 의존하지 않으므로 리액티브 서버도 요청 파라미터 조회만 넘겨 같은 검증 선언을 사용한다.
+ *
+ * @author jonghyeon
+ */
+public final class MethodValidator {
+    /**
+     * 파라미터명 탐색기
+     */
+    private static final ParameterNameDiscoverer PARAMETER_NAMES = new DefaultParameterNameDiscoverer();
+
+    /**
+     * 파라미터 검증기 목록
+     */
+    private final ParamValidator[] params;
+
+    /**
+     * 작업 스레드에서 검사할 파라미터 검증기 목록 (비동기 핸들러의 블로킹 규칙)
+     */
+    private final ParamValidator[] deferred;
+
+    private MethodValidator(ParamValidator[] params, ParamValidator[] deferred) {
+        this.params = params;
+        this.deferred = deferred;
+    }
+
+    /**
+     * 핸들러 메소드의 검증 선언으로 검증기를 만든다.
+     *
+     * @param handlerMethod 핸들러 메소드
+     * @param resolver 프로퍼티 해석기
+     *
+     * @return 검증기, 검증 선언이 없으면 NULL
+     */
+    public static MethodValidator compile(HandlerMethod handlerMethod, PropertyResolver resolver) {
+        final List<ParamValidator> params = new ArrayList<>();
+        final List<ParamValidator> deferred = new ArrayList<>();
+        final Class<?> returnType = handlerMethod.getReturnType().getParameterType();
+        final boolean async = DeferredResult.class.isAssignableFrom(returnType) || null != ReactiveAdapterRegistry.getSharedInstance().getAdapter(returnType);
+
+        for (MethodParameter parameter : handlerMethod.getMethodParameters()) {
+            final ParamRule[] rules = ParamRules.compile(parameter.getParameterAnnotations(), resolver);
+            if (0 == rules.length) {
+                continue;
+            }
+
+            final RequestParam requestParam = parameter.getParameterAnnotation(RequestParam.class);
+            if (null == requestParam) {
+                throw new IllegalStateException(String.format("검증 선언은 @RequestParam 파라미터에만 사용할 수 있습니다.(%s)", handlerMethod));
+            }
+
+            String name = requestParam.name();
+            if (name.isEmpty()) {
+                parameter.initParameterNameDiscovery(PARAMETER_NAMES);
+                name = parameter.getParameterName();
+            }
+
+            if (!async) {
+                params.add(new ParamValidator(name, rules));
+                continue;
+            }
+
+            final List<ParamRule> immediate = new ArrayList<>(rules.length);
+            final List<ParamRule> blocking = new ArrayList<>(rules.length);
+            for (ParamRule rule : rules) {
+                (rule.isBlocking() ? blocking : immediate).add(rule);
+            }
+            if (!immediate.isEmpty()) {
+                params.add(new ParamValidator(name, immediate.toArray(new ParamRule[0])));
+            }
+            if (!blocking.isEmpty()) {
+                deferred.add(new ParamValidator(name, blocking.toArray(new ParamRule[0])));
+            }
+        }
+
+        return (params.isEmpty() && deferred.isEmpty() ? null
+                : new MethodValidator(params.toArray(new ParamValidator[0]), deferred.toArray(new ParamValidator[0])));
+    }
+
+    /**
+     * 작업 스레드에서 검사할 규칙이 있는지 여부를 반환한다.
+     *
+     * @return 작업 스레드에서 검사할 규칙이 있는지 여부
+     */
+    public boolean hasDeferred() {
+        return deferred.length > 0;
+    }
+
+    /**
+     * 요청을 검증하여 모든 위반 내역을 반환한다.
+     *
+     * @param parameters 요청 파라미터 조회 (파라미터명 → 첫 번째 값)
+     *
+     * @return 위반 내역, 위반이 없으면 빈 목록
+     */
+    public List<Violation> validate(Function<String, String> parameters) {
+        return validate(params, parameters);
+    }
+
+    /**
+     * 요청을 작업 스레드에서 검사할 규칙으로 검증하여 모든 위반 내역을 반환한다.
+     *
+     * @param parameters 요청 파라미터 조회 (파라미터명 → 첫 번째 값)
+     *
+     * @return 위반 내역, 위반이 없으면 빈 목록
+     */
+    public List<Violation> validateDeferred(Function<String, String> parameters) {
+        return validate(deferred, parameters);
+    }
+
+    /**
+     * 위반 내역에 대한 응답 상태를 반환한다. 접근 거부 위반이 하나라도 있으면 403, 아니면 400 이다.
+     *
+     * @param violations 위반 내역
+     *
+     * @return 응답 상태
+     */
+    public static HttpStatus statusOf(List<Violation> violations) {
+        for (Violation violation : violations) {
+            if (violation.isForbidden()) {
+                return HttpStatus.FORBIDDEN;
+            }
+        }
+
+        return HttpStatus.BAD_REQUEST;
+    }
+
+    /**
+     * 요청을 파라미터 검증기 목록으로 검증하여 모든 위반 내역을 반환한다.
+     *
+     * @param params 파라미터 검증기 목록
+     * @param parameters 요청 파라미터 조회 (파라미터명 → 첫 번째 값)
+     *
+     * @return 위반 내역, 위반이 없으면 빈 목록
+     */
+    private static List<Violation> validate(ParamValidator[] params, Function<String, String> parameters) {
+        List<Violation> violations = null;
+
+        for (ParamValidator param : params) {
+            final Violation violation = param.check(parameters);
+
+            // 위반이 있을 때에만 위반 목록을 만든다.
+            if (null != violation) {
+                if (null == violations) {
+                    violations = new ArrayList<>(params.length);
+                }
+                violations.add(violation);
+            }
+        }
+
+        return (null == violations ? Collections.emptyList() : violations);
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.demo.core.infrastructure.validation;
+
+/**
+ * 시작 시 선언으로부터 만들어지는 요청 파라미터 검증 규칙이다.
+ *
+ * @author jonghyeon
+ */
+interface ParamRule {
+    /**
+     * 값을 검증한다. 검증을 통과하면 객체를 생성하지 않는다.
+     *
+     * @param value 값 (파라미터가 없으면 NULL)
+     *
+     * @return 통과하면 NULL, 위반이면 위반 메세지
+     */
+    String check(String value);
+
+    /**
+     * 파일시스템 등 응답이 늦을 수 있는 자원을 조회하는 규칙인지 여부를 반환한다.
+     * 비동기 핸들러에서는 이런 규칙을 요청 스레드가 아닌 작업 스레드에서 검사한다.
+     *
+     * @return 블로킹 규칙 여부
+     */
+    default boolean isBlocking() {
+        return false;
+    }
+
+    /**
+     * 위반을 잘못된 요청(400)이 아닌 접근 거부(403)로 응답하는 규칙인지 여부를 반환한다.
+     *
+     * @return 접근 거부 규칙 여부
+     */
+    default boolean isForbidden() {
+        return false;
+    }
+}
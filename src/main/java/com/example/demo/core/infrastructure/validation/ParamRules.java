@@ -0,0 +1,326 @@
+package com.example.demo.core.infrastructure.validation;
+
+import com.example.demo.core.infrastructure.constant.EnvCd;
+import com.example.demo.core.util.CheckUtil;
+import com.example.demo.core.util.DateUtil;
+import org.springframework.core.env.PropertyResolver;
+
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 검증 선언을 검증 규칙으로 변환한다.
+ *
+ * @author jonghyeon
+ */
+final class ParamRules {
+    private ParamRules() {
+    }
+
+    /**
+     * 파라미터에 선언된 검증 어노테이션을 검증 규칙 목록으로 변환한다. NULL 검사가 항상 먼저 오도록 한다.
+     *
+     * @param annotations 파라미터 어노테이션 목록
+     * @param resolver 프로퍼티 해석기
+     *
+     * @return 검증 규칙 목록
+     */
+    static ParamRule[] compile(Annotation[] annotations, PropertyResolver resolver) {
+        final List<ParamRule> rules = new ArrayList<>();
+
+        for (Annotation annotation : annotations) {
+            if (annotation instanceof CheckNotEmpty) {
+                rules.add(0, new NotEmptyRule());
+            }
+            else if (annotation instanceof CheckLength) {
+                rules.add(new LengthRule(((CheckLength)annotation).min(), ((CheckLength)annotation).max()));
+            }
+            else if (annotation instanceof CheckDate) {
+                rules.add(new DateRule(((CheckDate)annotation).format()));
+            }
+            else if (annotation instanceof CheckEnvCd) {
+                rules.add(new EnvCdRule());
+            }
+            else if (annotation instanceof CheckPath) {
+                rules.add(new PathRule(((CheckPath)annotation).traversal()));
+                if (((CheckPath)annotation).roots().length > 0) {
+                    rules.add(new PathRootRule(PathRootRule.roots((CheckPath)annotation, resolver)));
+                }
+                if (((CheckPath)annotation).exists() || ((CheckPath)annotation).directory()) {
+                    rules.add(new PathExistsRule(((CheckPath)annotation).exists(), ((CheckPath)annotation).directory()));
+                }
+            }
+        }
+
+        return rules.toArray(new ParamRule[0]);
+    }
+
+    /**
+     * NULL 또는 공백 검사 규칙
+     */
+    static final class NotEmptyRule implements ParamRule {
+        @Override
+        public String check(String value) {
+            return (CheckUtil.isNullOrEmpty(value) ? "값이 비어 있습니다." : null);
+        }
+    }
+
+    /**
+     * 길이 검사 규칙
+     */
+    static final class LengthRule implements ParamRule {
+        private final int min;
+
+        private final int max;
+
+        private final String message;
+
+        LengthRule(int min, int max) {
+            this.min = min;
+            this.max = max;
+            this.message = String.format("길이는 %d 이상 %d 이하이어야 합니다.", min, max);
+        }
+
+        @Override
+        public String check(String value) {
+            return (null != value && (value.length() < min || value.length() > max) ? message : null);
+        }
+    }
+
+    /**
+     * 일자형식 검사 규칙
+     */
+    static final class DateRule implements ParamRule {
+        private final String format;
+
+        private final String message;
+
+        DateRule(String format) {
+            this.format = format;
+            this.message = String.format("일자형식(%s)에 맞지 않습니다.", format);
+        }
+
+        @Override
+        public String check(String value) {
+            return (null != value && !DateUtil.isDate(format, value) ? message : null);
+        }
+    }
+
+    /**
+     * 환경코드 검사 규칙
+     */
+    static final class EnvCdRule implements ParamRule {
+        @Override
+        public String check(String value) {
+            return (null != value && null == EnvCd.codeOf(value) ? "환경코드가 아닙니다." : null);
+        }
+    }
+
+    /**
+     * 경로 검사 규칙 (파일시스템을 조회하지 않는다.)
+     */
+    static final class PathRule implements ParamRule {
+        private final boolean traversal;
+
+        PathRule(boolean traversal) {
+            this.traversal = traversal;
+        }
+
+        @Override
+        public String check(String value) {
+            if (null == value) {
+                return null;
+            }
+            if (value.indexOf('\0') >= 0) {
+                return "경로에 사용할 수 없는 문자가 있습니다.";
+            }
+
+            final Path path;
+            try {
+                path = Paths.get(value);
+            }
+            catch (InvalidPathException e) {
+                return "경로에 사용할 수 없는 문자가 있습니다.";
+            }
+
+            if (!traversal) {
+                for (Path name : path) {
+                    if ("..".equals(name.toString())) {
+                        return "상위 디렉토리(..)를 참조할 수 없습니다.";
+                    }
+                }
+            }
+
+            return null;
+        }
+    }
+
+    /**
+     * 허용 경로 검사 규칙 (파일시스템을 조회한다.)
+     * 허용 경로와 요청 경로 모두 심볼릭 링크를 따라간 실제 경로로 비교하므로 허용 경로 안의 링크로 바깥을 가리킬 수 없다.
+     * 허용 경로를 선언했지만 프로퍼티가 비어 있으면 모든 경로를 거부한다. 위반은 접근 거부(403)로 응답한다.
+     */
+    static final class PathRootRule implements ParamRule {
+        private final Path[] roots;
+
+        PathRootRule(Path[] roots) {
+            this.roots = roots;
+        }
+
+        /**
+         * 선언된 허용 경로를 절대경로 목록으로 변환한다.
+         *
+         * @param declaration 경로 검증 선언
+         * @param resolver 프로퍼티 해석기
+         *
+         * @return 허용 경로 목록
+         */
+        static Path[] roots(CheckPath declaration, PropertyResolver resolver) {
+            final List<Path> roots = new ArrayList<>();
+            for (String root : declaration.roots()) {
+                // 프로퍼티로 지정한 경우 쉼표로 여러 경로를 지정할 수 있다.
+                for (String each : resolver.resolveRequiredPlaceholders(root).split(",")) {
+                    if (CheckUtil.isNotNullOrNotEmpty(each)) {
+                        roots.add(Paths.get(each.trim()).toAbsolutePath());
+                    }
+                }
+            }
+
+            return roots.toArray(new Path[0]);
+        }
+
+        @Override
+        public String check(String value) {
+            if (null == value) {
+                return null;
+            }
+            if (0 == roots.length) {
+                return "허용된 경로가 설정되지 않았습니다.";
+            }
+
+            final Path path;
+            try {
+                path = realPathOf(Paths.get(value).toAbsolutePath());
+            }
+            catch (InvalidPathException e) {
+                return "경로에 사용할 수 없는 문자가 있습니다.";
+            }
+
+            if (null == path || !isUnderRoots(path)) {
+                return "허용되지 않은 경로입니다.";
+            }
+
+            return null;
+        }
+
+        @Override
+        public boolean isBlocking() {
+            return true;
+        }
+
+        @Override
+        public boolean isForbidden() {
+            return true;
+        }
+
+        /**
+         * 실제 경로를 구한다. 아직 없는 파일은 상위 디렉토리의 실제 경로에 파일명을 붙인다.
+         *
+         * @param path 절대경로
+         *
+         * @return 실제 경로, 구할 수 없으면 NULL
+         */
+        private static Path realPathOf(Path path) {
+            try {
+                return path.toRealPath();
+            }
+            catch (NoSuchFileException e) {
+                final Path parent = path.getParent();
+                final Path name = path.getFileName();
+                // 대상이 없는 링크는 나중에 만들어질 대상을 따라갈 수 있으므로 허용하지 않는다.
+                if (null == parent || null == name || ".".equals(name.toString()) || "..".equals(name.toString()) || Files.isSymbolicLink(path)) {
+                    return null;
+                }
+
+                try {
+                    return parent.toRealPath().resolve(name);
+                }
+                catch (IOException ex) {
+                    return null;
+                }
+            }
+            catch (IOException e) {
+                return null;
+            }
+        }
+
+        private boolean isUnderRoots(Path path) {
+            for (Path root : roots) {
+                // 허용 경로가 아직 없으면 그 아래 경로도 있을 수 없다.
+                final Path real;
+                try {
+                    real = root.toRealPath();
+                }
+                catch (IOException e) {
+                    continue;
+                }
+
+                if (path.startsWith(real)) {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+    }
+
+    /**
+     * 경로 존재 검사 규칙 (파일시스템을 조회한다.)
+     */
+    static final class PathExistsRule implements ParamRule {
+        private final boolean exists;
+
+        private final boolean directory;
+
+        PathExistsRule(boolean exists, boolean directory) {
+            this.exists = exists;
+            this.directory = directory;
+        }
+
+        @Override
+        public String check(String value) {
+            if (null == value) {
+                return null;
+            }
+
+            final Path path;
+            try {
+                path = Paths.get(value);
+            }
+            catch (InvalidPathException e) {
+                return "경로에 사용할 수 없는 문자가 있습니다.";
+            }
+
+            if (exists && !Files.exists(path)) {
+                return "존재하지 않는 경로입니다.";
+            }
+            if (directory && !Files.isDirectory(path)) {
+                return "디렉토리가 아닙니다.";
+            }
+
+            return null;
+        }
+
+        @Override
+        public boolean isBlocking() {
+            return true;
+        }
+    }
+}
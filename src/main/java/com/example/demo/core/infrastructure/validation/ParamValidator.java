@@ -0,0 +1,48 @@
+package com.example.demo.core.infrastructure.validation;
+
+import lombok.Getter;
+
+import java.util.function.Function;
+
+/**
+ * 하나의 요청 파라미터에 대한 검증기이다.
+ *
+ * @author jonghyeon
+ */
+@Getter
+final class ParamValidator {
+    /**
+     * 파라미터명
+     */
+    private final String name;
+
+    /**
+     * 검증 규칙 목록
+     */
+    private final ParamRule[] rules;
+
+    ParamValidator(String name, ParamRule[] rules) {
+        this.name = name;
+        this.rules = rules;
+    }
+
+    /**
+     * 요청의 파라미터를 검증한다. 처음 위반한 규칙의 위반 내역만 반환한다.
+     *
+     * @param parameters 요청 파라미터 조회 (파라미터명 → 첫 번째 값)
+     *
+     * @return 통과하면 NULL, 위반이면 위반 내역
+     */
+    Violation check(Function<String, String> parameters) {
+        final String value = parameters.apply(name);
+
+        for (ParamRule rule : rules) {
+            final String message = rule.check(value);
+            if (null != message) {
+                return new Violation(name, message, rule.isForbidden());
+            }
+        }
+
+        return null;
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.demo.core.infrastructure.validation;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.env.Environment;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.handler.HandlerInterceptorAdapter;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 컨트롤러 파라미터의 검증 선언(Check*)에 따라 요청을 검증하는 인터셉터이다.
+ * <p>
+ * 시작 시 모든 핸들러 메소드의 검증 선언을 검증기로 만들어 두고, 요청 시에는 핸들러 메소드로 검증기를 찾아 실행만 한다.
+ * 위반이 있으면 핸들러를 실행하지 않고 모든 위반 내역을 400(접근 거부 위반이 있으면 403) 응답으로 반환한다.
+ * 비동기 핸들러의 블로킹 규칙(경로 존재 등)은 요청 스레드에서 검사하지 않고, 핸들러의 작업 스레드가 {@link #validateDeferred} 로 검사한다.
+ * 비동기 요청의 재디스패치는 처음 디스패치에서 이미 검증했으므로 검증하지 않는다.
+ *
+ * @author jonghyeon
+ */
+@Slf4j
+@Component
+public class ValidationInterceptor extends HandlerInterceptorAdapter implements SmartInitializingSingleton {
+    /**
+     * 작업 스레드에서 검사할 검증기를 담는 요청 속성명
+     */
+    private static final String DEFERRED_ATTRIBUTE = ValidationInterceptor.class.getName() + ".deferred";
+
+    /**
+     * 스프링 어플리케이션 컨텍스트
+     */
+    private final ApplicationContext applicationContext;
+
+    /**
+     * 스프링 환경 제공자
+     */
+    private final Environment environment;
+
+    /**
+     * 핸들러 메소드별 검증기
+     */
+    private volatile Map<Method, MethodValidator> validators = Collections.emptyMap();
+
+    public ValidationInterceptor(ApplicationContext applicationContext, Environment environment) {
+        this.applicationContext = applicationContext;
+        this.environment = environment;
+    }
+
+    /**
+     * 모든 핸들러 메소드의 검증 선언을 검증기로 만든다.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        final Map<Method, MethodValidator> compiled = new IdentityHashMap<>();
+
+        for (RequestMappingHandlerMapping mapping : applicationContext.getBeansOfType(RequestMappingHandlerMapping.class).values()) {
+            for (HandlerMethod handlerMethod : mapping.getHandlerMethods().values()) {
+                final MethodValidator validator = MethodValidator.compile(handlerMethod, environment);
+                if (null != validator) {
+                    compiled.put(handlerMethod.getMethod(), validator);
+                }
+            }
+        }
+
+        validators = compiled;
+        log.info(String.format("요청 검증기 %d건을 준비했습니다.", compiled.size()));
+    }
+
+    /**
+     * 거래 시작 시 요청 파라미터를 검증한다.
+     *
+     * @param request 요청 데이터
+     * @param response 응답 데이터
+     * @param handler 핸들러
+     *
+     * @return 위반이 없으면 참
+     * @throws Exception 예외
+     */
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+        if (!(handler instanceof HandlerMethod) || DispatcherType.ASYNC == request.getDispatcherType()) {
+            return true;
+        }
+
+        final MethodValidator validator = validators.get(((HandlerMethod)handler).getMethod());
+        if (null == validator) {
+            return true;
+        }
+
+        final List<Violation> violations = validator.validate(request::getParameter);
+        if (violations.isEmpty()) {
+            if (validator.hasDeferred()) {
+                request.setAttribute(DEFERRED_ATTRIBUTE, validator);
+            }
+            return true;
+        }
+
+        writeViolations(response, violations);
+        return false;
+    }
+
+    /**
+     * 비동기 핸들러의 작업 스레드에서 블로킹 규칙을 검증한다. 위반이 있으면 모든 위반 내역을 응답으로 쓴다.
+     *
+     * @param request 요청 데이터
+     * @param response 응답 데이터
+     *
+     * @return 위반이 없으면 참
+     * @throws IOException 입출력 예외
+     */
+    public boolean validateDeferred(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        final Object validator = request.getAttribute(DEFERRED_ATTRIBUTE);
+        if (!(validator instanceof MethodValidator)) {
+            return true;
+        }
+
+        final List<Violation> violations = ((MethodValidator)validator).validateDeferred(request::getParameter);
+        if (violations.isEmpty()) {
+            return true;
+        }
+
+        writeViolations(response, violations);
+        return false;
+    }
+
+    /**
+     * 위반 내역을 응답으로 쓴다.
+     *
+     * @param response 응답 데이터
+     * @param violations 위반 내역
+     *
+     * @throws IOException 입출력 예외
+     */
+    private static void writeViolations(HttpServletResponse response, List<Violation> violations) throws IOException {
+        response.setStatus(MethodValidator.statusOf(violations).value());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+
+        final PrintWriter writer = response.getWriter();
+        for (Violation violation : violations) {
+            writer.println(violation);
+        }
+        writer.flush();
+    }
+}
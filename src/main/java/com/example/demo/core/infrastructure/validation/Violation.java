@@ -0,0 +1,33 @@
+package com.example.demo.core.infrastructure.validation;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 요청 파라미터 검증 위반 내역이다.
+ *
+ * @author jonghyeon
+ */
+@Getter
+@AllArgsConstructor
+public class Violation {
+    /**
+     * 파라미터명
+     */
+    private final String name;
+
+    /**
+     * 위반 메세지
+     */
+    private final String message;
+
+    /**
+     * 접근 거부 여부 (참이면 403 으로 응답한다.)
+     */
+    private final boolean forbidden;
+
+    @Override
+    public String toString() {
+        return name + " : " + message;
+    }
+}
@@ -0,0 +1,247 @@
+package com.example.demo.core.util;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 주기적으로 갱신되는 현재시각을 제공하는 시계이다.
+ * <p>
+ * 하나의 갱신 스레드가 정해진 주기마다 현재시각과 년월일시분초(yyyy-MM-dd HH:mm:ss, yyyyMMddHHmmss) 문자열을 미리 만들어 두며,
+ * 호출자는 객체 생성 없이 마지막으로 갱신된 값을 읽는다. 따라서 반환값은 최대 갱신주기만큼 늦을 수 있다.
+ * 시험 시에는 원하는 Clock 으로 생성한 후 start 하지 않고 tick 을 직접 호출하여 시각을 제어한다.
+ *
+ * @author jonghyeon
+ */
+@Component
+public class CachedClock {
+    /**
+     * 시각 정보
+     */
+    private static final class Tick {
+        /**
+         * epoch-milli
+         */
+        private final long millis;
+
+        /**
+         * 지역시간 기준 epoch-second
+         */
+        private final long localSecond;
+
+        /**
+         * 지역 일자
+         */
+        private final LocalDateTime dateTime;
+
+        /**
+         * 년월일시분초(yyyyMMddHHmmss) 문자열
+         */
+        private final String yms;
+
+        /**
+         * 년월일시분초(yyyy-MM-dd HH:mm:ss) 문자열
+         */
+        private final String ymsDash;
+
+        /**
+         * 년월일시분초(yyyyMMddHHmmss) 바이트 배열
+         */
+        private final byte[] ymsBytes;
+
+        /**
+         * 년월일시분초(yyyy-MM-dd HH:mm:ss) 바이트 배열
+         */
+        private final byte[] ymsDashBytes;
+
+        private Tick(long millis, long localSecond, LocalDateTime dateTime, String yms, String ymsDash, byte[] ymsBytes, byte[] ymsDashBytes) {
+            this.millis = millis;
+            this.localSecond = localSecond;
+            this.dateTime = dateTime;
+            this.yms = yms;
+            this.ymsDash = ymsDash;
+            this.ymsBytes = ymsBytes;
+            this.ymsDashBytes = ymsDashBytes;
+        }
+    }
+
+    /**
+     * 시각 제공자
+     */
+    private final Clock clock;
+
+    /**
+     * 갱신주기(밀리초)
+     */
+    private final long resolutionMillis;
+
+    /**
+     * 마지막으로 갱신된 시각 정보
+     */
+    private volatile Tick current;
+
+    /**
+     * 갱신 스레드
+     */
+    private ScheduledExecutorService ticker;
+
+    /**
+     * 시스템 기본 시간대의 시계를 생성한다.
+     *
+     * @param resolutionMillis 갱신주기(밀리초)
+     */
+    @Autowired
+    public CachedClock(@Value("${demo.clock.resolution:100}") long resolutionMillis) {
+        this(Clock.systemDefaultZone(), resolutionMillis);
+    }
+
+    /**
+     * 주어진 시각 제공자의 시계를 생성한다.
+     *
+     * @param clock 시각 제공자
+     * @param resolutionMillis 갱신주기(밀리초)
+     */
+    public CachedClock(Clock clock, long resolutionMillis) {
+        if (resolutionMillis <= 0) {
+            throw new IllegalArgumentException(String.format("갱신주기(%d)는 0 보다 커야 합니다.", resolutionMillis));
+        }
+
+        this.clock = clock;
+        this.resolutionMillis = resolutionMillis;
+        tick();
+    }
+
+    /**
+     * 갱신 스레드를 시작한다.
+     */
+    @PostConstruct
+    public synchronized void start() {
+        if (null == ticker) {
+            ticker = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder().setNameFormat("cached-clock").setDaemon(true).build());
+            ticker.scheduleAtFixedRate(this::tick, resolutionMillis, resolutionMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * 갱신 스레드를 종료한다. 종료 후에는 마지막으로 갱신된 시각을 반환한다.
+     */
+    @PreDestroy
+    public synchronized void stop() {
+        if (null != ticker) {
+            ticker.shutdownNow();
+            ticker = null;
+        }
+    }
+
+    /**
+     * 현재시각을 갱신한다. 초가 바뀐 경우에만 문자열을 새로 만든다.
+     */
+    public void tick() {
+        final long millis = clock.millis();
+        final Instant instant = Instant.ofEpochMilli(millis);
+        final ZoneOffset offset = clock.getZone().getRules().getOffset(instant);
+        final long localSecond = Math.floorDiv(millis, 1000L) + offset.getTotalSeconds();
+        final LocalDateTime dateTime = LocalDateTime.ofInstant(instant, offset);
+        final Tick prev = current;
+
+        if (null != prev && prev.localSecond == localSecond) {
+            current = new Tick(millis, localSecond, dateTime, prev.yms, prev.ymsDash, prev.ymsBytes, prev.ymsDashBytes);
+            return;
+        }
+
+        final byte[] ymsBytes = new byte[DateCodec.lengthOf(DateCodec.YMS)];
+        final byte[] ymsDashBytes = new byte[DateCodec.lengthOf(DateCodec.YMS_DASH)];
+        DateCodec.printEpoch(DateCodec.YMS, localSecond, true, ymsBytes, 0);
+        DateCodec.printEpoch(DateCodec.YMS_DASH, localSecond, true, ymsDashBytes, 0);
+
+        current = new Tick(millis, localSecond, dateTime, new String(ymsBytes, StandardCharsets.US_ASCII), new String(ymsDashBytes, StandardCharsets.US_ASCII), ymsBytes,
+                ymsDashBytes);
+    }
+
+    /**
+     * 갱신주기(밀리초)를 반환한다.
+     *
+     * @return 갱신주기(밀리초)
+     */
+    public long getResolutionMillis() {
+        return resolutionMillis;
+    }
+
+    /**
+     * 마지막으로 갱신된 epoch-milli 를 반환한다.
+     *
+     * @return epoch-milli
+     */
+    public long millis() {
+        return current.millis;
+    }
+
+    /**
+     * 마지막으로 갱신된 지역 일자를 반환한다.
+     *
+     * @return 지역 일자
+     */
+    public LocalDateTime now() {
+        return current.dateTime;
+    }
+
+    /**
+     * 마지막으로 갱신된 년월일시분초(yyyyMMddHHmmss) 문자열을 반환한다.
+     *
+     * @return 년월일시분초 문자열
+     */
+    public String toYmsString() {
+        return current.yms;
+    }
+
+    /**
+     * 마지막으로 갱신된 년월일시분초(yyyy-MM-dd HH:mm:ss) 문자열을 반환한다.
+     *
+     * @return 년월일시분초 문자열
+     */
+    public String toYmsDashString() {
+        return current.ymsDash;
+    }
+
+    /**
+     * 마지막으로 갱신된 년월일시분초(yyyyMMddHHmmss)를 바이트 버퍼에 기록한다.
+     *
+     * @param buf 바이트 버퍼
+     * @param off 시작위치
+     *
+     * @return 기록 후 위치
+     */
+    public int writeYms(byte[] buf, int off) {
+        final byte[] src = current.ymsBytes;
+        System.arraycopy(src, 0, buf, off, src.length);
+
+        return off + src.length;
+    }
+
+    /**
+     * 마지막으로 갱신된 년월일시분초(yyyy-MM-dd HH:mm:ss)를 바이트 버퍼에 기록한다.
+     *
+     * @param buf 바이트 버퍼
+     * @param off 시작위치
+     *
+     * @return 기록 후 위치
+     */
+    public int writeYmsDash(byte[] buf, int off) {
+        final byte[] src = current.ymsDashBytes;
+        System.arraycopy(src, 0, buf, off, src.length);
+
+        return off + src.length;
+    }
+}
@@ -1,7 +1,13 @@
 package com.example.demo.core.util;
 
+import java.nio.ByteBuffer;
+
 /**
  * 검사 관련한 기능을 제공하는 유틸리티이다.
+ * <p>
+ * 공백 여부는 String.trim 과 동일하게 모든 문자가 공백문자(U+0020 이하)인지로 판단하며,
+ * 문자열을 새로 만들지 않고 제자리에서 검사한다.
+ * UTF-8 바이트 배열, 버퍼용 검사는 isNullOrEmpty(null) 같은 기존 호출이 모호해지지 않도록 isBlankUtf8 이라는 별도 이름으로 제공한다.
  *
  * @author jeonjonghyeon
  */
@@ -17,7 +23,114 @@ public class CheckUtil {
      * @return 값이 NULL 이거나 공백인지 여부
      */
     public static boolean isNullOrEmpty(String value) {
-        return (null == value || value.trim().isEmpty());
+        if (null == value) {
+            return true;
+        }
+
+        // String 은 CharSequence 인터페이스 호출 없이 검사하도록 별도로 순회한다.
+        final int len = value.length();
+        int pos = 0;
+
+        while (pos < len && value.charAt(pos) <= ' ') {
+            pos++;
+        }
+
+        return (pos == len);
+    }
+
+    /**
+     * 값이 NULL 이거나 공백인지 여부를 반환한다.
+     *
+     * @param value 값
+     *
+     * @return 값이 NULL 이거나 공백인지 여부
+     */
+    public static boolean isNullOrEmpty(CharSequence value) {
+        if (null == value) {
+            return true;
+        }
+
+        final int len = value.length();
+        int pos = 0;
+
+        while (pos < len && value.charAt(pos) <= ' ') {
+            pos++;
+        }
+
+        return (pos == len);
+    }
+
+    /**
+     * 문자 배열의 구간이 NULL 이거나 공백인지 여부를 반환한다.
+     *
+     * @param value 문자 배열
+     * @param off 시작위치
+     * @param len 길이
+     *
+     * @return 구간이 NULL 이거나 공백인지 여부
+     */
+    public static boolean isNullOrEmpty(char[] value, int off, int len) {
+        if (null == value) {
+            return true;
+        }
+
+        for (int i = off, end = off + len; i < end; i++) {
+            if (value[i] > ' ') {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * UTF-8 바이트 배열의 구간이 NULL 이거나 공백인지 여부를 반환한다.
+     * UTF-8 에서 U+0020 이하의 문자는 모두 1바이트이므로 바이트 단위로 검사한다.
+     *
+     * @param value UTF-8 바이트 배열
+     * @param off 시작위치
+     * @param len 길이
+     *
+     * @return 구간이 NULL 이거나 공백인지 여부
+     */
+    public static boolean isBlankUtf8(byte[] value, int off, int len) {
+        if (null == value) {
+            return true;
+        }
+
+        for (int i = off, end = off + len; i < end; i++) {
+            // 다중바이트 문자(음수)도 공백이 아니다.
+            if ((value[i] & 0xFF) > ' ') {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * UTF-8 바이트 버퍼의 position 부터 limit 까지가 NULL 이거나 공백인지 여부를 반환한다. 버퍼의 position 은 변경하지 않는다.
+     *
+     * @param value UTF-8 바이트 버퍼
+     *
+     * @return 버퍼가 NULL 이거나 공백인지 여부
+     */
+    public static boolean isBlankUtf8(ByteBuffer value) {
+        if (null == value) {
+            return true;
+        }
+
+        if (value.hasArray()) {
+            return isBlankUtf8(value.array(), value.arrayOffset() + value.position(), value.remaining());
+        }
+
+        for (int i = value.position(), end = value.limit(); i < end; i++) {
+            if ((value.get(i) & 0xFF) > ' ') {
+                return false;
+            }
+        }
+
+        return true;
     }
 
     /**
@@ -31,6 +144,114 @@ public class CheckUtil {
         return !isNullOrEmpty(value);
     }
 
+    /**
+     * 값이 NULL 이거나 공백이 아닌지 여부를 반환한다.
+     *
+     * @param value 값
+     *
+     * @return 값이 NULL 또는 공백이 아닌지 여부
+     */
+    public static boolean isNotNullOrNotEmpty(CharSequence value) {
+        return !isNullOrEmpty(value);
+    }
+
+    /**
+     * 문자 배열의 구간이 NULL 이거나 공백이 아닌지 여부를 반환한다.
+     *
+     * @param value 문자 배열
+     * @param off 시작위치
+     * @param len 길이
+     *
+     * @return 구간이 NULL 또는 공백이 아닌지 여부
+     */
+    public static boolean isNotNullOrNotEmpty(char[] value, int off, int len) {
+        return !isNullOrEmpty(value, off, len);
+    }
+
+    /**
+     * UTF-8 바이트 배열의 구간이 NULL 이거나 공백이 아닌지 여부를 반환한다.
+     *
+     * @param value UTF-8 바이트 배열
+     * @param off 시작위치
+     * @param len 길이
+     *
+     * @return 구간이 NULL 또는 공백이 아닌지 여부
+     */
+    public static boolean isNotBlankUtf8(byte[] value, int off, int len) {
+        return !isBlankUtf8(value, off, len);
+    }
+
+    /**
+     * UTF-8 바이트 버퍼가 NULL 이거나 공백이 아닌지 여부를 반환한다.
+     *
+     * @param value UTF-8 바이트 버퍼
+     *
+     * @return 버퍼가 NULL 또는 공백이 아닌지 여부
+     */
+    public static boolean isNotBlankUtf8(ByteBuffer value) {
+        return !isBlankUtf8(value);
+    }
+
+    /**
+     * 값 목록에서 NULL 이거나 공백인 값을 결과 비트맵(값 i 는 result[i / 64] 의 i % 64 번째 비트)에 표시한다.
+     *
+     * @param values 값 목록
+     * @param result 결과 비트맵
+     *
+     * @return NULL 이거나 공백인 값의 건수
+     */
+    public static int markNullOrEmpty(CharSequence[] values, long[] result) {
+        int count = 0;
+
+        for (int i = 0; i < values.length; i++) {
+            count += mark(isNullOrEmpty(values[i]), i, result);
+        }
+
+        return count;
+    }
+
+    /**
+     * 문자 배열의 구간 목록에서 공백인 구간을 결과 비트맵에 표시한다.
+     *
+     * @param src 문자 배열
+     * @param offsets 구간별 시작위치
+     * @param lengths 구간별 길이
+     * @param count 구간 수
+     * @param result 결과 비트맵
+     *
+     * @return 공백인 구간의 건수
+     */
+    public static int markNullOrEmpty(char[] src, int[] offsets, int[] lengths, int count, long[] result) {
+        int blanks = 0;
+
+        for (int i = 0; i < count; i++) {
+            blanks += mark(isNullOrEmpty(src, offsets[i], lengths[i]), i, result);
+        }
+
+        return blanks;
+    }
+
+    /**
+     * UTF-8 바이트 배열의 구간 목록에서 공백인 구간을 결과 비트맵에 표시한다.
+     *
+     * @param src UTF-8 바이트 배열
+     * @param offsets 구간별 시작위치
+     * @param lengths 구간별 길이
+     * @param count 구간 수
+     * @param result 결과 비트맵
+     *
+     * @return 공백인 구간의 건수
+     */
+    public static int markBlankUtf8(byte[] src, int[] offsets, int[] lengths, int count, long[] result) {
+        int blanks = 0;
+
+        for (int i = 0; i < count; i++) {
+            blanks += mark(isBlankUtf8(src, offsets[i], lengths[i]), i, result);
+        }
+
+        return blanks;
+    }
+
     /**
      * 주어진 값이 NULL 이거나 공백이면 기본값을 반환한다.
      *
@@ -42,4 +263,23 @@ public class CheckUtil {
     public static String nvl(String src, String defaultSrc) {
         return (isNullOrEmpty(src) ? defaultSrc : src);
     }
+
+    /**
+     * 검사 결과를 비트맵에 기록한다.
+     *
+     * @param matched 검사 결과
+     * @param index 순번
+     * @param result 결과 비트맵
+     *
+     * @return 검사 결과가 참이면 1, 아니면 0
+     */
+    private static int mark(boolean matched, int index, long[] result) {
+        if (matched) {
+            result[index >>> 6] |= (1L << index);
+            return 1;
+        }
+
+        result[index >>> 6] &= ~(1L << index);
+        return 0;
+    }
 }
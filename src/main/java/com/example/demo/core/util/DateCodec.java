@@ -0,0 +1,695 @@
+package com.example.demo.core.util;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.TemporalAccessor;
+
+/**
+ * DateUtil 의 기본 일자형식을 DateTimeFormatter 를 거치지 않고 직접 변환하는 코덱이다.
+ * <p>
+ * DateTimeFormatter 의 기본 해석방식(SMART)과 동일한 결과를 내는 값만 직접 변환하며, 그 외의 값은 변환불가(null, INVALID)를 반환한다.
+ * 호출자는 변환불가인 경우 DateTimeFormatter 로 처리를 위임하므로 기존과 동일한 결과와 예외를 보장한다.
+ *
+ * @author jonghyeon
+ */
+final class DateCodec {
+    /**
+     * 일자형식 구분 : 기본 일자형식 아님
+     */
+    static final int NONE = -1;
+
+    /**
+     * 일자형식 구분 : 년월일(yyyyMMdd)
+     */
+    static final int YMD = 0;
+
+    /**
+     * 일자형식 구분 : 년월일(yyyy-MM-dd)
+     */
+    static final int YMD_DASH = 1;
+
+    /**
+     * 일자형식 구분 : 년월일시분초(yyyyMMddHHmmss)
+     */
+    static final int YMS = 2;
+
+    /**
+     * 일자형식 구분 : 년월일시분초(yyyy-MM-dd HH:mm:ss)
+     */
+    static final int YMS_DASH = 3;
+
+    /**
+     * 변환불가 값
+     */
+    static final long INVALID = Long.MIN_VALUE;
+
+    /**
+     * 0000-01-01 부터 1970-01-01 까지의 일수
+     */
+    private static final long DAYS_0000_TO_1970 = 719528L;
+
+    /**
+     * 하루의 초
+     */
+    static final long SECONDS_PER_DAY = 86400L;
+
+    /**
+     * 4자리 년도로 표현할 수 있는 최소 epoch-day (0001-01-01)
+     */
+    private static final long MIN_EPOCH_DAY = toEpochDay(1, 1, 1);
+
+    /**
+     * 4자리 년도로 표현할 수 있는 최대 epoch-day (9999-12-31)
+     */
+    private static final long MAX_EPOCH_DAY = toEpochDay(9999, 12, 31);
+
+    private DateCodec() {
+    }
+
+    /**
+     * 일자형식에 해당되는 일자형식 구분을 반환한다.
+     *
+     * @param format 일자형식
+     *
+     * @return 일자형식 구분
+     */
+    static int kindOf(String format) {
+        if (null == format) {
+            return NONE;
+        }
+
+        switch (format) {
+            case DateUtil.DATE_FORMAT_YMD:
+                return YMD;
+            case DateUtil.DATE_FORMAT_YMD_DASH:
+                return YMD_DASH;
+            case DateUtil.DATE_FORMAT_YMS:
+                return YMS;
+            case DateUtil.DATE_FORMAT_YMS_DASH:
+                return YMS_DASH;
+            default:
+                return NONE;
+        }
+    }
+
+    /**
+     * 일자형식 구분의 문자열 길이를 반환한다.
+     *
+     * @param kind 일자형식 구분
+     *
+     * @return 문자열 길이
+     */
+    static int lengthOf(int kind) {
+        switch (kind) {
+            case YMD:
+                return 8;
+            case YMD_DASH:
+                return 10;
+            case YMS:
+                return 14;
+            case YMS_DASH:
+                return 19;
+            default:
+                return -1;
+        }
+    }
+
+    /**
+     * 일자형식 구분이 시분초를 포함하는지 여부를 반환한다.
+     *
+     * @param kind 일자형식 구분
+     *
+     * @return 시분초 포함 여부
+     */
+    static boolean hasTime(int kind) {
+        return (YMS == kind || YMS_DASH == kind);
+    }
+
+    /**
+     * 문자열로 구성된 일자를 년월일로 변환한다. 시분초 형식이면 일자 부분만 반환한다.
+     *
+     * @param kind 일자형식 구분
+     * @param text 문자열로 구성된 일자
+     *
+     * @return 변환된 일자, 변환불가인 경우 null
+     */
+    static LocalDate parseDate(int kind, CharSequence text) {
+        if (NONE == kind || null == text || text.length() != lengthOf(kind)) {
+            return null;
+        }
+
+        final long epoch = parse(kind, text, 0);
+        if (INVALID == epoch) {
+            return null;
+        }
+
+        return LocalDate.ofEpochDay(hasTime(kind) ? Math.floorDiv(epoch, SECONDS_PER_DAY) : epoch);
+    }
+
+    /**
+     * 문자열로 구성된 일자를 년월일시분초로 변환한다.
+     *
+     * @param kind 일자형식 구분
+     * @param text 문자열로 구성된 일자
+     *
+     * @return 변환된 일자, 변환불가인 경우 null
+     */
+    static LocalDateTime parseDateTime(int kind, CharSequence text) {
+        if (!hasTime(kind) || null == text || text.length() != lengthOf(kind)) {
+            return null;
+        }
+
+        final long epoch = parse(kind, text, 0);
+        if (INVALID == epoch) {
+            return null;
+        }
+
+        return toLocalDateTime(epoch);
+    }
+
+    /**
+     * epoch-second 를 년월일시분초로 변환한다.
+     *
+     * @param epochSecond epoch-second
+     *
+     * @return 년월일시분초
+     */
+    static LocalDateTime toLocalDateTime(long epochSecond) {
+        return LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC);
+    }
+
+    /**
+     * 일자를 일자형식의 정밀도로 절삭한 epoch 값을 반환한다. 객체를 생성하지 않는다.
+     *
+     * @param kind 일자형식 구분
+     * @param date 일자
+     *
+     * @return 년월일 형식은 epoch-day, 년월일시분초 형식은 epoch-second, 변환불가인 경우 INVALID
+     */
+    static long epochOf(int kind, TemporalAccessor date) {
+        if (NONE == kind) {
+            return INVALID;
+        }
+
+        final LocalDate day;
+        int secondOfDay = 0;
+
+        if (date instanceof LocalDateTime) {
+            final LocalDateTime dateTime = (LocalDateTime)date;
+            day = dateTime.toLocalDate();
+            secondOfDay = dateTime.toLocalTime().toSecondOfDay();
+        }
+        else if (date instanceof LocalDate && !hasTime(kind)) {
+            day = (LocalDate)date;
+        }
+        else {
+            return INVALID;
+        }
+
+        // 4자리 년도를 벗어나면 DateTimeFormatter 의 결과를 따른다.
+        if (day.getYear() < 1 || day.getYear() > 9999) {
+            return INVALID;
+        }
+
+        return (hasTime(kind) ? day.toEpochDay() * SECONDS_PER_DAY + secondOfDay : day.toEpochDay());
+    }
+
+    /**
+     * 일자를 문자열로 변환한다.
+     *
+     * @param kind 일자형식 구분
+     * @param date 일자
+     *
+     * @return 문자열로 변환된 일자, 변환불가인 경우 null
+     */
+    static String print(int kind, TemporalAccessor date) {
+        if (NONE == kind) {
+            return null;
+        }
+
+        final LocalDate day;
+        int hour = 0, minute = 0, second = 0;
+
+        if (date instanceof LocalDateTime) {
+            final LocalDateTime dateTime = (LocalDateTime)date;
+            day = dateTime.toLocalDate();
+            hour = dateTime.getHour();
+            minute = dateTime.getMinute();
+            second = dateTime.getSecond();
+        }
+        else if (date instanceof LocalDate && !hasTime(kind)) {
+            day = (LocalDate)date;
+        }
+        else {
+            return null;
+        }
+
+        final int year = day.getYear();
+        if (year < 1 || year > 9999) {
+            return null;
+        }
+
+        final char[] buf = new char[lengthOf(kind)];
+        print(kind, year, day.getMonthValue(), day.getDayOfMonth(), hour, minute, second, buf, 0);
+        return new String(buf);
+    }
+
+    /**
+     * 문자열의 일부 구간으로 구성된 일자를 파싱한다.
+     *
+     * @param kind 일자형식 구분
+     * @param text 문자열
+     * @param off 시작위치
+     * @param len 길이
+     *
+     * @return 년월일 형식은 epoch-day, 년월일시분초 형식은 epoch-second, 변환불가인 경우 INVALID
+     */
+    static long parse(int kind, CharSequence text, int off, int len) {
+        return (len == lengthOf(kind) ? parse(kind, text, off) : INVALID);
+    }
+
+    /**
+     * UTF-8 바이트 배열의 일부 구간으로 구성된 일자를 파싱한다.
+     *
+     * @param kind 일자형식 구분
+     * @param src 바이트 배열
+     * @param off 시작위치
+     * @param len 길이
+     *
+     * @return 년월일 형식은 epoch-day, 년월일시분초 형식은 epoch-second, 변환불가인 경우 INVALID
+     */
+    static long parse(int kind, byte[] src, int off, int len) {
+        if (len != lengthOf(kind)) {
+            return INVALID;
+        }
+
+        final boolean dash = (YMD_DASH == kind || YMS_DASH == kind);
+        int pos = off;
+
+        final int year = num(src, pos, 4);
+        pos += 4;
+        if (dash && src[pos++] != '-') {
+            return INVALID;
+        }
+        final int month = num(src, pos, 2);
+        pos += 2;
+        if (dash && src[pos++] != '-') {
+            return INVALID;
+        }
+        final int day = num(src, pos, 2);
+        pos += 2;
+
+        if (!hasTime(kind)) {
+            return toEpoch(year, month, day, 0, 0, 0, false);
+        }
+
+        if (dash && src[pos++] != ' ') {
+            return INVALID;
+        }
+        final int hour = num(src, pos, 2);
+        pos += 2;
+        if (dash && src[pos++] != ':') {
+            return INVALID;
+        }
+        final int minute = num(src, pos, 2);
+        pos += 2;
+        if (dash && src[pos++] != ':') {
+            return INVALID;
+        }
+        final int second = num(src, pos, 2);
+
+        return toEpoch(year, month, day, hour, minute, second, true);
+    }
+
+    /**
+     * 문자열로 구성된 일자를 파싱한다.
+     *
+     * @param kind 일자형식 구분
+     * @param text 문자열로 구성된 일자
+     * @param off 시작위치
+     *
+     * @return 년월일 형식은 epoch-day, 년월일시분초 형식은 epoch-second, 변환불가인 경우 INVALID
+     */
+    static long parse(int kind, CharSequence text, int off) {
+        final boolean dash = (YMD_DASH == kind || YMS_DASH == kind);
+        int pos = off;
+
+        final int year = num(text, pos, 4);
+        pos += 4;
+        if (dash && text.charAt(pos++) != '-') {
+            return INVALID;
+        }
+        final int month = num(text, pos, 2);
+        pos += 2;
+        if (dash && text.charAt(pos++) != '-') {
+            return INVALID;
+        }
+        final int day = num(text, pos, 2);
+        pos += 2;
+
+        if (!hasTime(kind)) {
+            return toEpoch(year, month, day, 0, 0, 0, false);
+        }
+
+        if (dash && text.charAt(pos++) != ' ') {
+            return INVALID;
+        }
+        final int hour = num(text, pos, 2);
+        pos += 2;
+        if (dash && text.charAt(pos++) != ':') {
+            return INVALID;
+        }
+        final int minute = num(text, pos, 2);
+        pos += 2;
+        if (dash && text.charAt(pos++) != ':') {
+            return INVALID;
+        }
+        final int second = num(text, pos, 2);
+
+        return toEpoch(year, month, day, hour, minute, second, true);
+    }
+
+    /**
+     * epoch 값을 일자형식에 맞게 문자 버퍼에 기록한다.
+     *
+     * @param kind 일자형식 구분
+     * @param epoch epoch 값
+     * @param seconds epoch 값이 epoch-second 인지 여부 (아니면 epoch-day)
+     * @param buf 버퍼
+     * @param off 시작위치
+     *
+     * @return 기록한 문자 수, 4자리 년도를 벗어나면 -1
+     */
+    static int printEpoch(int kind, long epoch, boolean seconds, char[] buf, int off) {
+        final long epochDay = (seconds ? Math.floorDiv(epoch, SECONDS_PER_DAY) : epoch);
+        if (epochDay < MIN_EPOCH_DAY || epochDay > MAX_EPOCH_DAY) {
+            return -1;
+        }
+
+        final int secondOfDay = (seconds ? (int)Math.floorMod(epoch, SECONDS_PER_DAY) : 0);
+        final int ymd = toYmd(epochDay);
+        return print(kind, ymd / 10000, ymd / 100 % 100, ymd % 100, secondOfDay / 3600, secondOfDay / 60 % 60, secondOfDay % 60, buf, off);
+    }
+
+    /**
+     * epoch 값을 일자형식에 맞게 UTF-8 바이트 버퍼에 기록한다.
+     *
+     * @param kind 일자형식 구분
+     * @param epoch epoch 값
+     * @param seconds epoch 값이 epoch-second 인지 여부 (아니면 epoch-day)
+     * @param buf 버퍼
+     * @param off 시작위치
+     *
+     * @return 기록한 바이트 수, 4자리 년도를 벗어나면 -1
+     */
+    static int printEpoch(int kind, long epoch, boolean seconds, byte[] buf, int off) {
+        final long epochDay = (seconds ? Math.floorDiv(epoch, SECONDS_PER_DAY) : epoch);
+        if (epochDay < MIN_EPOCH_DAY || epochDay > MAX_EPOCH_DAY) {
+            return -1;
+        }
+
+        final int secondOfDay = (seconds ? (int)Math.floorMod(epoch, SECONDS_PER_DAY) : 0);
+        final int ymd = toYmd(epochDay);
+        final boolean dash = (YMD_DASH == kind || YMS_DASH == kind);
+        int pos = off;
+
+        pos = put(buf, pos, ymd / 10000, 4);
+        if (dash) {
+            buf[pos++] = '-';
+        }
+        pos = put(buf, pos, ymd / 100 % 100, 2);
+        if (dash) {
+            buf[pos++] = '-';
+        }
+        pos = put(buf, pos, ymd % 100, 2);
+
+        if (hasTime(kind)) {
+            if (dash) {
+                buf[pos++] = ' ';
+            }
+            pos = put(buf, pos, secondOfDay / 3600, 2);
+            if (dash) {
+                buf[pos++] = ':';
+            }
+            pos = put(buf, pos, secondOfDay / 60 % 60, 2);
+            if (dash) {
+                buf[pos++] = ':';
+            }
+            pos = put(buf, pos, secondOfDay % 60, 2);
+        }
+
+        return pos - off;
+    }
+
+    /**
+     * 년월일시분초를 일자형식에 맞게 버퍼에 기록한다.
+     *
+     * @param kind 일자형식 구분
+     * @param year 년
+     * @param month 월
+     * @param day 일
+     * @param hour 시
+     * @param minute 분
+     * @param second 초
+     * @param buf 버퍼
+     * @param off 시작위치
+     *
+     * @return 기록한 문자 수
+     */
+    static int print(int kind, int year, int month, int day, int hour, int minute, int second, char[] buf, int off) {
+        final boolean dash = (YMD_DASH == kind || YMS_DASH == kind);
+        int pos = off;
+
+        pos = put(buf, pos, year, 4);
+        if (dash) {
+            buf[pos++] = '-';
+        }
+        pos = put(buf, pos, month, 2);
+        if (dash) {
+            buf[pos++] = '-';
+        }
+        pos = put(buf, pos, day, 2);
+
+        if (hasTime(kind)) {
+            if (dash) {
+                buf[pos++] = ' ';
+            }
+            pos = put(buf, pos, hour, 2);
+            if (dash) {
+                buf[pos++] = ':';
+            }
+            pos = put(buf, pos, minute, 2);
+            if (dash) {
+                buf[pos++] = ':';
+            }
+            pos = put(buf, pos, second, 2);
+        }
+
+        return pos - off;
+    }
+
+    /**
+     * 년월일시분초를 epoch 값으로 변환한다.
+     * DateTimeFormatter 의 기본 해석방식(SMART)과 동일하게 월의 마지막 일자를 넘는 일자(31일 이하)는 마지막 일자로,
+     * 24:00:00 은 다음날 00:00:00 으로 해석한다.
+     *
+     * @param year 년
+     * @param month 월
+     * @param day 일
+     * @param hour 시
+     * @param minute 분
+     * @param second 초
+     * @param time 시분초 포함 여부
+     *
+     * @return 시분초 미포함이면 epoch-day, 포함이면 epoch-second, 유효하지 않으면 INVALID
+     */
+    static long toEpoch(int year, int month, int day, int hour, int minute, int second, boolean time) {
+        if (year < 1 || month < 1 || month > 12 || day < 1 || day > 31) {
+            return INVALID;
+        }
+
+        final long epochDay = toEpochDay(year, month, Math.min(day, lengthOfMonth(year, month)));
+        if (!time) {
+            return epochDay;
+        }
+
+        if (hour < 0 || minute < 0 || minute > 59 || second < 0 || second > 59) {
+            return INVALID;
+        }
+        if (hour > 23 && !(24 == hour && 0 == minute && 0 == second)) {
+            return INVALID;
+        }
+
+        return epochDay * SECONDS_PER_DAY + hour * 3600 + minute * 60 + second;
+    }
+
+    /**
+     * 년월일을 epoch-day 로 변환한다. (LocalDate.toEpochDay 와 동일한 계산)
+     *
+     * @param year 년(1 이상)
+     * @param month 월
+     * @param day 일
+     *
+     * @return epoch-day
+     */
+    static long toEpochDay(int year, int month, int day) {
+        long total = 365L * year;
+        total += (year + 3) / 4 - (year + 99) / 100 + (year + 399) / 400;
+        total += (367 * month - 362) / 12;
+        total += day - 1;
+
+        if (month > 2) {
+            total--;
+            if (!isLeapYear(year)) {
+                total--;
+            }
+        }
+
+        return total - DAYS_0000_TO_1970;
+    }
+
+    /**
+     * epoch-day 를 년월일(yyyyMMdd) 숫자로 변환한다. (LocalDate.ofEpochDay 와 동일한 계산, 1년 이후만 지원)
+     *
+     * @param epochDay epoch-day
+     *
+     * @return 년 * 10000 + 월 * 100 + 일
+     */
+    static int toYmd(long epochDay) {
+        // 윤일이 4년 주기의 마지막에 오도록 0000-03-01 을 기준으로 계산한다.
+        final long zeroDay = epochDay + DAYS_0000_TO_1970 - 60;
+
+        long yearEst = (400 * zeroDay + 591) / 146097;
+        long doyEst = zeroDay - (365 * yearEst + yearEst / 4 - yearEst / 100 + yearEst / 400);
+        if (doyEst < 0) {
+            yearEst--;
+            doyEst = zeroDay - (365 * yearEst + yearEst / 4 - yearEst / 100 + yearEst / 400);
+        }
+
+        final int marchDoy0 = (int)doyEst;
+        final int marchMonth0 = (marchDoy0 * 5 + 2) / 153;
+        final int month = (marchMonth0 + 2) % 12 + 1;
+        final int day = marchDoy0 - (marchMonth0 * 306 + 5) / 10 + 1;
+        final int year = (int)(yearEst + marchMonth0 / 10);
+
+        return year * 10000 + month * 100 + day;
+    }
+
+    /**
+     * 윤년 여부를 반환한다.
+     *
+     * @param year 년
+     *
+     * @return 윤년 여부
+     */
+    static boolean isLeapYear(int year) {
+        return ((year & 3) == 0) && ((year % 100) != 0 || (year % 400) == 0);
+    }
+
+    /**
+     * 월의 일수를 반환한다.
+     *
+     * @param year 년
+     * @param month 월
+     *
+     * @return 월의 일수
+     */
+    static int lengthOfMonth(int year, int month) {
+        switch (month) {
+            case 2:
+                return (isLeapYear(year) ? 29 : 28);
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    /**
+     * 문자열의 주어진 위치부터 정해진 자리수의 숫자를 읽는다.
+     *
+     * @param text 문자열
+     * @param off 시작위치
+     * @param len 자리수
+     *
+     * @return 숫자, 숫자가 아닌 문자가 포함되면 음수
+     */
+    private static int num(CharSequence text, int off, int len) {
+        int value = 0;
+
+        for (int i = off, end = off + len; i < end; i++) {
+            final int digit = text.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return Integer.MIN_VALUE;
+            }
+            value = value * 10 + digit;
+        }
+
+        return value;
+    }
+
+    /**
+     * 숫자를 정해진 자리수로 버퍼에 기록한다.
+     *
+     * @param buf 버퍼
+     * @param off 시작위치
+     * @param value 숫자
+     * @param len 자리수
+     *
+     * @return 기록 후 위치
+     */
+    private static int put(char[] buf, int off, int value, int len) {
+        for (int i = off + len - 1; i >= off; i--) {
+            buf[i] = (char)('0' + value % 10);
+            value /= 10;
+        }
+
+        return off + len;
+    }
+
+    /**
+     * 바이트 배열의 주어진 위치부터 정해진 자리수의 숫자를 읽는다.
+     *
+     * @param src 바이트 배열
+     * @param off 시작위치
+     * @param len 자리수
+     *
+     * @return 숫자, 숫자가 아닌 바이트가 포함되면 음수
+     */
+    private static int num(byte[] src, int off, int len) {
+        int value = 0;
+
+        for (int i = off, end = off + len; i < end; i++) {
+            final int digit = src[i] - '0';
+            if (digit < 0 || digit > 9) {
+                return Integer.MIN_VALUE;
+            }
+            value = value * 10 + digit;
+        }
+
+        return value;
+    }
+
+    /**
+     * 숫자를 정해진 자리수로 바이트 버퍼에 기록한다.
+     *
+     * @param buf 바이트 버퍼
+     * @param off 시작위치
+     * @param value 숫자
+     * @param len 자리수
+     *
+     * @return 기록 후 위치
+     */
+    private static int put(byte[] buf, int off, int value, int len) {
+        for (int i = off + len - 1; i >= off; i--) {
+            buf[i] = (byte)('0' + value % 10);
+            value /= 10;
+        }
+
+        return off + len;
+    }
+}
@@ -0,0 +1,460 @@
+package com.example.demo.core.util;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAccessor;
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * 일자범위 목록에 대한 검색 색인이다.
+ * <p>
+ * 일자범위를 epoch 값(년월일은 epoch-day, 년월일시분초는 epoch-second)의 기본형 배열로 보관하고,
+ * 시작일자로 정렬한 배열 위에 최대 종료일자를 더한 암묵적 구간트리를 구성하여 일자를 포함하는 범위를 찾는다.
+ * 포함 여부는 DateUtil.betweenDateYmd, DateUtil.betweenDateYms 와 동일하게 시작일자, 종료일자를 포함하며,
+ * 시작일자가 종료일자보다 늦은 범위는 시작일자, 종료일자와 같은 일자만 포함한다.
+ * <p>
+ * 생성 후에는 변경되지 않으므로 여러 스레드에서 동시에 사용할 수 있다.
+ *
+ * @author jonghyeon
+ */
+public final class DateRangeIndex {
+    /**
+     * 일자범위 건별 일괄검색 결과 수신자이다.
+     */
+    @FunctionalInterface
+    public interface MatchConsumer {
+        /**
+         * 일자를 포함하는 범위를 수신한다.
+         *
+         * @param date 일자 순번
+         * @param range 범위 순번
+         */
+        void accept(int date, int range);
+    }
+
+    /**
+     * 일자형식 구분 (DateCodec.YMD 또는 DateCodec.YMS)
+     */
+    private final int kind;
+
+    /**
+     * 범위별 시작일자
+     */
+    private final long[] rangeStarts;
+
+    /**
+     * 범위별 종료일자
+     */
+    private final long[] rangeEnds;
+
+    /**
+     * 시작일자로 정렬된 구간의 시작일자
+     */
+    private final long[] starts;
+
+    /**
+     * 시작일자로 정렬된 구간의 종료일자
+     */
+    private final long[] ends;
+
+    /**
+     * 시작일자로 정렬된 구간의 범위 순번
+     */
+    private final int[] ranges;
+
+    /**
+     * 구간트리 노드(정렬된 구간의 중간 위치)별 하위 구간의 최대 종료일자
+     */
+    private final long[] maxEnds;
+
+    private DateRangeIndex(int kind, long[] rangeStarts, long[] rangeEnds) {
+        if (rangeStarts.length != rangeEnds.length) {
+            throw new IllegalArgumentException(String.format("시작일자(%d건)와 종료일자(%d건)의 건수가 다릅니다.", rangeStarts.length, rangeEnds.length));
+        }
+
+        this.kind = kind;
+        this.rangeStarts = rangeStarts;
+        this.rangeEnds = rangeEnds;
+
+        // 시작일자가 종료일자보다 늦은 범위는 시작일자, 종료일자 두 개의 점 구간으로 나눈다.
+        int count = 0;
+        for (int i = 0; i < rangeStarts.length; i++) {
+            count += (rangeStarts[i] <= rangeEnds[i] ? 1 : 2);
+        }
+
+        final long[][] intervals = new long[count][];
+        int n = 0;
+        for (int i = 0; i < rangeStarts.length; i++) {
+            if (rangeStarts[i] <= rangeEnds[i]) {
+                intervals[n++] = new long[]{rangeStarts[i], rangeEnds[i], i};
+            }
+            else {
+                intervals[n++] = new long[]{rangeEnds[i], rangeEnds[i], i};
+                intervals[n++] = new long[]{rangeStarts[i], rangeStarts[i], i};
+            }
+        }
+        Arrays.sort(intervals, (a, b) -> (a[0] != b[0] ? Long.compare(a[0], b[0]) : Long.compare(a[2], b[2])));
+
+        this.starts = new long[count];
+        this.ends = new long[count];
+        this.ranges = new int[count];
+        for (int i = 0; i < count; i++) {
+            this.starts[i] = intervals[i][0];
+            this.ends[i] = intervals[i][1];
+            this.ranges[i] = (int)intervals[i][2];
+        }
+
+        this.maxEnds = new long[count];
+        buildMaxEnds(0, count);
+    }
+
+    /**
+     * 년월일(yyyyMMdd) 정밀도의 일자범위 색인을 생성한다.
+     *
+     * @param starts 범위별 시작일자
+     * @param ends 범위별 종료일자
+     *
+     * @return 일자범위 색인
+     */
+    public static DateRangeIndex ofYmd(LocalDate[] starts, LocalDate[] ends) {
+        return new DateRangeIndex(DateCodec.YMD, toEpochs(DateCodec.YMD, starts), toEpochs(DateCodec.YMD, ends));
+    }
+
+    /**
+     * 년월일시분초(yyyyMMddHHmmss) 정밀도의 일자범위 색인을 생성한다.
+     *
+     * @param starts 범위별 시작일자
+     * @param ends 범위별 종료일자
+     *
+     * @return 일자범위 색인
+     */
+    public static DateRangeIndex ofYms(LocalDateTime[] starts, LocalDateTime[] ends) {
+        return new DateRangeIndex(DateCodec.YMS, toEpochs(DateCodec.YMS, starts), toEpochs(DateCodec.YMS, ends));
+    }
+
+    /**
+     * epoch-day 로 구성된 일자범위 색인을 생성한다.
+     *
+     * @param starts 범위별 시작 epoch-day
+     * @param ends 범위별 종료 epoch-day
+     *
+     * @return 일자범위 색인
+     */
+    public static DateRangeIndex ofEpochDays(int[] starts, int[] ends) {
+        return new DateRangeIndex(DateCodec.YMD, Arrays.stream(starts).asLongStream().toArray(), Arrays.stream(ends).asLongStream().toArray());
+    }
+
+    /**
+     * epoch-second 로 구성된 일자범위 색인을 생성한다.
+     *
+     * @param starts 범위별 시작 epoch-second
+     * @param ends 범위별 종료 epoch-second
+     *
+     * @return 일자범위 색인
+     */
+    public static DateRangeIndex ofEpochSeconds(long[] starts, long[] ends) {
+        return new DateRangeIndex(DateCodec.YMS, starts.clone(), ends.clone());
+    }
+
+    /**
+     * 범위 건수를 반환한다.
+     *
+     * @return 범위 건수
+     */
+    public int size() {
+        return rangeStarts.length;
+    }
+
+    /**
+     * 색인의 epoch 값이 epoch-second 인지 여부를 반환한다.
+     *
+     * @return epoch-second 이면 참, epoch-day 이면 거짓
+     */
+    public boolean isEpochSeconds() {
+        return DateCodec.hasTime(kind);
+    }
+
+    /**
+     * 일자를 색인의 정밀도로 절삭한 epoch 값을 반환한다.
+     *
+     * @param date 일자
+     *
+     * @return epoch 값
+     */
+    public long epochOf(TemporalAccessor date) {
+        final long epoch = DateCodec.epochOf(kind, date);
+
+        if (DateCodec.INVALID == epoch) {
+            throw new IllegalArgumentException(String.format("색인의 정밀도로 변환할 수 없는 일자(%s) 입니다.", date));
+        }
+
+        return epoch;
+    }
+
+    /**
+     * 범위가 일자를 포함하는지 여부를 반환한다.
+     *
+     * @param range 범위 순번
+     * @param epoch 일자
+     *
+     * @return 포함 여부
+     */
+    public boolean contains(int range, long epoch) {
+        final long start = rangeStarts[range];
+        final long end = rangeEnds[range];
+
+        return (epoch == start || epoch == end || (epoch >= start && epoch <= end));
+    }
+
+    /**
+     * 일자를 포함하는 범위를 차례로 전달한다. 범위의 전달 순서는 보장하지 않는다.
+     *
+     * @param epoch 일자
+     * @param consumer 범위 순번 수신자
+     *
+     * @return 일자를 포함하는 범위 건수
+     */
+    public int forEachRangeContaining(long epoch, IntConsumer consumer) {
+        return stab(0, starts.length, epoch, consumer);
+    }
+
+    /**
+     * 일자를 포함하는 범위 건수를 반환한다.
+     *
+     * @param epoch 일자
+     *
+     * @return 일자를 포함하는 범위 건수
+     */
+    public int countRangesContaining(long epoch) {
+        return stab(0, starts.length, epoch, null);
+    }
+
+    /**
+     * 일자를 포함하는 범위 순번 목록을 오름차순으로 반환한다.
+     *
+     * @param epoch 일자
+     *
+     * @return 범위 순번 목록
+     */
+    public int[] rangesContaining(long epoch) {
+        final IntStream.Builder found = IntStream.builder();
+        stab(0, starts.length, epoch, found);
+
+        return found.build().sorted().toArray();
+    }
+
+    /**
+     * 일자를 포함하는 범위 순번 목록을 오름차순으로 반환한다.
+     *
+     * @param date 일자
+     *
+     * @return 범위 순번 목록
+     */
+    public int[] rangesContaining(TemporalAccessor date) {
+        return rangesContaining(epochOf(date));
+    }
+
+    /**
+     * 오름차순으로 정렬된 일자 목록에서 범위에 포함되는 일자의 위치를 차례로 전달한다.
+     *
+     * @param range 범위 순번
+     * @param sortedEpochs 오름차순으로 정렬된 일자 목록
+     * @param consumer 일자 위치 수신자 (null 이면 건수만 구한다.)
+     *
+     * @return 범위에 포함되는 일자 건수
+     */
+    public int forEachDateIn(int range, long[] sortedEpochs, IntConsumer consumer) {
+        final long start = rangeStarts[range];
+        final long end = rangeEnds[range];
+
+        if (start <= end) {
+            return visit(lowerBound(sortedEpochs, start), lowerBound(sortedEpochs, end + 1), consumer);
+        }
+
+        // 시작일자가 종료일자보다 늦은 범위는 종료일자, 시작일자와 같은 일자만 포함한다.
+        return visit(lowerBound(sortedEpochs, end), lowerBound(sortedEpochs, end + 1), consumer)
+                + visit(lowerBound(sortedEpochs, start), lowerBound(sortedEpochs, start + 1), consumer);
+    }
+
+    /**
+     * 일자 목록의 일자별로 일자를 포함하는 범위 건수를 구한다.
+     *
+     * @param epochs 일자 목록
+     * @param parallel 공용 fork-join 풀에서 병렬 처리할지 여부
+     *
+     * @return 일자별 범위 건수
+     */
+    public int[] countRangesContaining(long[] epochs, boolean parallel) {
+        final int[] counts = new int[epochs.length];
+        range(epochs.length, parallel).forEach(i -> counts[i] = countRangesContaining(epochs[i]));
+
+        return counts;
+    }
+
+    /**
+     * 범위별로 오름차순으로 정렬된 일자 목록에서 범위에 포함되는 일자 건수를 구한다.
+     *
+     * @param sortedEpochs 오름차순으로 정렬된 일자 목록
+     * @param parallel 공용 fork-join 풀에서 병렬 처리할지 여부
+     *
+     * @return 범위별 일자 건수
+     */
+    public int[] countDatesIn(long[] sortedEpochs, boolean parallel) {
+        final int[] counts = new int[rangeStarts.length];
+        range(rangeStarts.length, parallel).forEach(r -> counts[r] = forEachDateIn(r, sortedEpochs, null));
+
+        return counts;
+    }
+
+    /**
+     * 일자 목록의 일자별로 일자를 포함하는 범위를 모두 전달한다.
+     * 병렬 처리 시 수신자는 여러 스레드에서 동시에 호출되므로 스레드에 안전해야 한다.
+     *
+     * @param epochs 일자 목록
+     * @param parallel 공용 fork-join 풀에서 병렬 처리할지 여부
+     * @param consumer 일자 위치, 범위 순번 수신자
+     */
+    public void forEachMatch(long[] epochs, boolean parallel, MatchConsumer consumer) {
+        range(epochs.length, parallel).forEach(i -> forEachRangeContaining(epochs[i], range -> consumer.accept(i, range)));
+    }
+
+    /**
+     * 정렬된 구간 [from, to) 에 대한 구간트리 노드의 최대 종료일자를 구성한다.
+     *
+     * @param from 시작위치
+     * @param to 종료위치
+     *
+     * @return 구간의 최대 종료일자
+     */
+    private long buildMaxEnds(int from, int to) {
+        if (from >= to) {
+            return Long.MIN_VALUE;
+        }
+
+        final int mid = (from + to) >>> 1;
+        final long max = Math.max(ends[mid], Math.max(buildMaxEnds(from, mid), buildMaxEnds(mid + 1, to)));
+        maxEnds[mid] = max;
+
+        return max;
+    }
+
+    /**
+     * 정렬된 구간 [from, to) 에서 일자를 포함하는 구간을 찾는다.
+     *
+     * @param from 시작위치
+     * @param to 종료위치
+     * @param epoch 일자
+     * @param consumer 범위 순번 수신자 (null 이면 건수만 구한다.)
+     *
+     * @return 일자를 포함하는 구간 건수
+     */
+    private int stab(int from, int to, long epoch, IntConsumer consumer) {
+        int count = 0;
+
+        while (from < to) {
+            final int mid = (from + to) >>> 1;
+
+            // 하위 구간이 모두 일자 이전에 끝나면 더 찾지 않는다.
+            if (maxEnds[mid] < epoch) {
+                break;
+            }
+
+            count += stab(from, mid, epoch, consumer);
+
+            // 중간 구간부터 시작일자가 일자 이후이면 오른쪽 구간은 모두 제외된다.
+            if (starts[mid] > epoch) {
+                break;
+            }
+
+            if (ends[mid] >= epoch) {
+                count++;
+                if (null != consumer) {
+                    consumer.accept(ranges[mid]);
+                }
+            }
+
+            from = mid + 1;
+        }
+
+        return count;
+    }
+
+    /**
+     * 위치 구간 [from, to) 을 차례로 전달한다.
+     *
+     * @param from 시작위치
+     * @param to 종료위치
+     * @param consumer 위치 수신자 (null 이면 건수만 구한다.)
+     *
+     * @return 건수
+     */
+    private static int visit(int from, int to, IntConsumer consumer) {
+        if (null != consumer) {
+            for (int i = from; i < to; i++) {
+                consumer.accept(i);
+            }
+        }
+
+        return to - from;
+    }
+
+    /**
+     * 정렬된 목록에서 값 이상인 첫 위치를 반환한다.
+     *
+     * @param sorted 오름차순으로 정렬된 목록
+     * @param value 값
+     *
+     * @return 값 이상인 첫 위치
+     */
+    private static int lowerBound(long[] sorted, long value) {
+        int low = 0, high = sorted.length;
+
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (sorted[mid] < value) {
+                low = mid + 1;
+            }
+            else {
+                high = mid;
+            }
+        }
+
+        return low;
+    }
+
+    /**
+     * 순번 스트림을 반환한다.
+     *
+     * @param count 건수
+     * @param parallel 병렬 처리 여부
+     *
+     * @return 순번 스트림
+     */
+    private static IntStream range(int count, boolean parallel) {
+        final IntStream range = IntStream.range(0, count);
+        return (parallel ? range.parallel() : range);
+    }
+
+    /**
+     * 일자 목록을 주어진 정밀도의 epoch 값 목록으로 변환한다.
+     *
+     * @param kind 일자형식 구분
+     * @param dates 일자 목록
+     *
+     * @return epoch 값 목록
+     */
+    private static long[] toEpochs(int kind, TemporalAccessor[] dates) {
+        final long[] epochs = new long[dates.length];
+
+        for (int i = 0; i < dates.length; i++) {
+            epochs[i] = DateCodec.epochOf(kind, dates[i]);
+            if (DateCodec.INVALID == epochs[i]) {
+                throw new IllegalArgumentException(String.format("색인할 수 없는 일자(%s) 입니다.", dates[i]));
+            }
+        }
+
+        return epochs;
+    }
+}
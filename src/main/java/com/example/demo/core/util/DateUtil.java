@@ -4,11 +4,12 @@ import com.google.common.collect.Maps;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 
+import java.nio.CharBuffer;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.TemporalAccessor;
-import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * 일자관련한 기능을 제공하는 유틸리티이다.
@@ -37,10 +38,15 @@ public class DateUtil {
      */
     public static final String DATE_FORMAT_YMS_DASH = "yyyy-MM-dd HH:mm:ss";
 
+    /**
+     * 일자형식별 일자변환 오브젝트 보관소 최대 크기
+     */
+    private static final int MAX_FORMATS = 256;
+
     /**
      * 일자형식별 일자변환 오브젝트 보관소
      */
-    private static final Map<String, DateTimeFormatter> formats = Maps.newHashMap();
+    private static final ConcurrentMap<String, DateTimeFormatter> formats = Maps.newConcurrentMap();
 
     /**
      * 년월일(yyyyMMdd) 일자형식으로 실제 일자를 문자열로 변환하여 반환한다.
@@ -293,11 +299,13 @@ public class DateUtil {
      * @return 문자열로 변환된 일자
      */
     public static String toString(String format, TemporalAccessor date) {
-        if (!formats.containsKey(format)) {
-            formats.put(format, DateTimeFormatter.ofPattern(format));
+        // 기본 일자형식은 DateTimeFormatter 를 거치지 않고 직접 변환한다.
+        final String toString = DateCodec.print(DateCodec.kindOf(format), date);
+        if (null != toString) {
+            return toString;
         }
 
-        return formats.get(format).format(date);
+        return formatterOf(format).format(date);
     }
 
     /**
@@ -308,14 +316,15 @@ public class DateUtil {
      * @return 변환된 일자
      */
     public static TemporalAccessor toDate(String format, String date) {
-        TemporalAccessor toDate = null;
-
-        if (!formats.containsKey(format)) {
-            formats.put(format, DateTimeFormatter.ofPattern(format));
+        TemporalAccessor toDate = DateCodec.parseDate(DateCodec.kindOf(format), date);
+        if (null != toDate) {
+            return toDate;
         }
 
+        final DateTimeFormatter formatter = formatterOf(format);
+
         try {
-            toDate = LocalDate.parse(date, formats.get(format));
+            toDate = LocalDate.parse(date, formatter);
         }
         catch (Throwable e) {
             throw new IllegalArgumentException(String.format("주어진 형식(%s)에 맞지 않는 일자(%s) 입니다.", format, date), e);
@@ -332,14 +341,15 @@ public class DateUtil {
      * @return 변환된 일자
      */
     public static TemporalAccessor toDateTime(String format, String date) {
-        TemporalAccessor toDateTime = null;
-
-        if (!formats.containsKey(format)) {
-            formats.put(format, DateTimeFormatter.ofPattern(format));
+        TemporalAccessor toDateTime = DateCodec.parseDateTime(DateCodec.kindOf(format), date);
+        if (null != toDateTime) {
+            return toDateTime;
         }
 
+        final DateTimeFormatter formatter = formatterOf(format);
+
         try {
-            toDateTime = LocalDateTime.parse(date, formats.get(format));
+            toDateTime = LocalDateTime.parse(date, formatter);
         }
         catch (Throwable e) {
             throw new IllegalArgumentException(String.format("주어진 형식(%s)에 맞지 않는 일자(%s) 입니다.", format, date), e);
@@ -348,8 +358,36 @@ public class DateUtil {
         return toDateTime;
     }
 
+    /**
+     * 문자열로 구성된 일자가 주어진 일자형식에 맞는지 여부를 반환한다. 기본 일자형식은 예외를 생성하지 않고 검사한다.
+     *
+     * @param format 일자형식
+     * @param date 문자열로 구성된 일자
+     *
+     * @return 일자형식에 맞는지 여부
+     */
+    public static boolean isDate(String format, CharSequence date) {
+        if (null == date) {
+            return false;
+        }
+
+        final int kind = DateCodec.kindOf(format);
+        if (DateCodec.NONE != kind) {
+            return (DateCodec.INVALID != DateCodec.parse(kind, date, 0, date.length()));
+        }
+
+        try {
+            toDate(format, date.toString());
+            return true;
+        }
+        catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
     /**
      * 주어진 일자형식으로 일자를 변환하여 반환한다.
+     * 일자형식에 시간이 포함되어 있으면 LocalDateTime, 그렇지 않으면 LocalDate 로 반환한다.
      *
      * @param date 일자
      *
@@ -358,12 +396,17 @@ public class DateUtil {
     public static TemporalAccessor toDate(String format, TemporalAccessor date) {
         TemporalAccessor toDate = null;
 
-        if (!formats.containsKey(format)) {
-            formats.put(format, DateTimeFormatter.ofPattern(format));
+        // 기본 일자형식은 문자열을 거치지 않고 일자형식의 정밀도로 절삭한다.
+        final int kind = DateCodec.kindOf(format);
+        final long epoch = DateCodec.epochOf(kind, date);
+        if (DateCodec.INVALID != epoch) {
+            return (DateCodec.hasTime(kind) ? DateCodec.toLocalDateTime(epoch) : LocalDate.ofEpochDay(epoch));
         }
 
+        final DateTimeFormatter formatter = formatterOf(format);
+
         try {
-            toDate = LocalDate.parse(formats.get(format).format(date), formats.get(format));
+            toDate = formatter.parseBest(formatter.format(date), LocalDateTime::from, LocalDate::from);
         }
         catch (Throwable e) {
             throw new IllegalArgumentException(String.format("주어진 형식(%s)에 맞지 않는 일자(%s) 입니다.", format, date), e);
@@ -382,6 +425,14 @@ public class DateUtil {
      * @return 동일한 일자 여부
      */
     public static boolean equalsDate(String format, TemporalAccessor date1, TemporalAccessor date2) {
+        final int kind = DateCodec.kindOf(format);
+        final long epoch1 = DateCodec.epochOf(kind, date1);
+        final long epoch2 = DateCodec.epochOf(kind, date2);
+
+        if (DateCodec.INVALID != epoch1 && DateCodec.INVALID != epoch2) {
+            return (epoch1 == epoch2);
+        }
+
         boolean isEqual = false;
 
         final TemporalAccessor tDate1 = toDate(format, date1);
@@ -409,6 +460,14 @@ public class DateUtil {
      * @return 일자1이 이후 일자인지 여부
      */
     public static boolean afterDate(String format, TemporalAccessor date1, TemporalAccessor date2) {
+        final int kind = DateCodec.kindOf(format);
+        final long epoch1 = DateCodec.epochOf(kind, date1);
+        final long epoch2 = DateCodec.epochOf(kind, date2);
+
+        if (DateCodec.INVALID != epoch1 && DateCodec.INVALID != epoch2) {
+            return (epoch1 > epoch2);
+        }
+
         boolean isAfter = false;
 
         final TemporalAccessor tDate1 = toDate(format, date1);
@@ -436,6 +495,14 @@ public class DateUtil {
      * @return 일자1이 이후 일자인지 여부
      */
     public static boolean beforeDate(String format, TemporalAccessor date1, TemporalAccessor date2) {
+        final int kind = DateCodec.kindOf(format);
+        final long epoch1 = DateCodec.epochOf(kind, date1);
+        final long epoch2 = DateCodec.epochOf(kind, date2);
+
+        if (DateCodec.INVALID != epoch1 && DateCodec.INVALID != epoch2) {
+            return (epoch1 < epoch2);
+        }
+
         boolean isBefore = false;
 
         final TemporalAccessor tDate1 = toDate(format, date1);
@@ -479,6 +546,15 @@ public class DateUtil {
      * @return 시작일자와 종료일자 사이에 포함여부
      */
     public static boolean betweenDate(String format, TemporalAccessor start, TemporalAccessor end, TemporalAccessor date) {
+        final int kind = DateCodec.kindOf(format);
+        final long sEpoch = DateCodec.epochOf(kind, start);
+        final long eEpoch = DateCodec.epochOf(kind, end);
+        final long tEpoch = DateCodec.epochOf(kind, date);
+
+        if (DateCodec.INVALID != sEpoch && DateCodec.INVALID != eEpoch && DateCodec.INVALID != tEpoch) {
+            return (tEpoch == sEpoch || tEpoch == eEpoch || (tEpoch >= sEpoch && tEpoch <= eEpoch));
+        }
+
         boolean isBetween = false;
 
         final TemporalAccessor sDate = toDate(format, start);
@@ -499,4 +575,381 @@ public class DateUtil {
 
         return isBetween;
     }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * 문자열로 구성된 일자 목록을 epoch-day 목록으로 일괄 변환한다.
+     * 변환할 수 없는 행은 예외를 발생시키지 않고 오류 비트맵(행 i 는 errors[i / 64] 의 i % 64 번째 비트)에 표시하며 값은 0 으로 둔다.
+     *
+     * @param format 일자형식 (기본 일자형식만 지원, 시분초 형식이면 일자 부분)
+     * @param dates 문자열로 구성된 일자 목록
+     * @param epochDays 변환된 epoch-day 목록
+     * @param errors 오류 비트맵
+     *
+     * @return 오류 건수
+     */
+    public static int toEpochDays(String format, CharSequence[] dates, int[] epochDays, long[] errors) {
+        final int kind = batchKindOf(format, false);
+        int errorCount = 0;
+
+        for (int i = 0; i < dates.length; i++) {
+            final CharSequence date = dates[i];
+            final long epoch = (null == date ? DateCodec.INVALID : DateCodec.parse(kind, date, 0, date.length()));
+            errorCount += putEpochDay(kind, epoch, i, epochDays, errors);
+        }
+
+        return errorCount;
+    }
+
+    /**
+     * 문자 배열의 구간들로 구성된 일자 목록을 epoch-day 목록으로 일괄 변환한다.
+     *
+     * @param format 일자형식 (기본 일자형식만 지원, 시분초 형식이면 일자 부분)
+     * @param src 문자 배열
+     * @param offsets 행별 시작위치
+     * @param lengths 행별 길이
+     * @param count 행 수
+     * @param epochDays 변환된 epoch-day 목록
+     * @param errors 오류 비트맵
+     *
+     * @return 오류 건수
+     */
+    public static int toEpochDays(String format, char[] src, int[] offsets, int[] lengths, int count, int[] epochDays, long[] errors) {
+        final int kind = batchKindOf(format, false);
+        final CharSequence text = CharBuffer.wrap(src);
+        int errorCount = 0;
+
+        for (int i = 0; i < count; i++) {
+            errorCount += putEpochDay(kind, DateCodec.parse(kind, text, offsets[i], lengths[i]), i, epochDays, errors);
+        }
+
+        return errorCount;
+    }
+
+    /**
+     * UTF-8 바이트 배열의 구간들로 구성된 일자 목록을 epoch-day 목록으로 일괄 변환한다.
+     *
+     * @param format 일자형식 (기본 일자형식만 지원, 시분초 형식이면 일자 부분)
+     * @param src UTF-8 바이트 배열
+     * @param offsets 행별 시작위치
+     * @param lengths 행별 길이
+     * @param count 행 수
+     * @param epochDays 변환된 epoch-day 목록
+     * @param errors 오류 비트맵
+     *
+     * @return 오류 건수
+     */
+    public static int toEpochDays(String format, byte[] src, int[] offsets, int[] lengths, int count, int[] epochDays, long[] errors) {
+        final int kind = batchKindOf(format, false);
+        int errorCount = 0;
+
+        for (int i = 0; i < count; i++) {
+            errorCount += putEpochDay(kind, DateCodec.parse(kind, src, offsets[i], lengths[i]), i, epochDays, errors);
+        }
+
+        return errorCount;
+    }
+
+    /**
+     * 문자열로 구성된 일자 목록을 epoch-second(UTC 기준 지역시간) 목록으로 일괄 변환한다.
+     * 변환할 수 없는 행은 예외를 발생시키지 않고 오류 비트맵에 표시하며 값은 0 으로 둔다.
+     *
+     * @param format 일자형식 (년월일시분초 기본 일자형식만 지원)
+     * @param dates 문자열로 구성된 일자 목록
+     * @param epochSeconds 변환된 epoch-second 목록
+     * @param errors 오류 비트맵
+     *
+     * @return 오류 건수
+     */
+    public static int toEpochSeconds(String format, CharSequence[] dates, long[] epochSeconds, long[] errors) {
+        final int kind = batchKindOf(format, true);
+        int errorCount = 0;
+
+        for (int i = 0; i < dates.length; i++) {
+            final CharSequence date = dates[i];
+            final long epoch = (null == date ? DateCodec.INVALID : DateCodec.parse(kind, date, 0, date.length()));
+            errorCount += putEpochSecond(epoch, i, epochSeconds, errors);
+        }
+
+        return errorCount;
+    }
+
+    /**
+     * 문자 배열의 구간들로 구성된 일자 목록을 epoch-second(UTC 기준 지역시간) 목록으로 일괄 변환한다.
+     *
+     * @param format 일자형식 (년월일시분초 기본 일자형식만 지원)
+     * @param src 문자 배열
+     * @param offsets 행별 시작위치
+     * @param lengths 행별 길이
+     * @param count 행 수
+     * @param epochSeconds 변환된 epoch-second 목록
+     * @param errors 오류 비트맵
+     *
+     * @return 오류 건수
+     */
+    public static int toEpochSeconds(String format, char[] src, int[] offsets, int[] lengths, int count, long[] epochSeconds, long[] errors) {
+        final int kind = batchKindOf(format, true);
+        final CharSequence text = CharBuffer.wrap(src);
+        int errorCount = 0;
+
+        for (int i = 0; i < count; i++) {
+            errorCount += putEpochSecond(DateCodec.parse(kind, text, offsets[i], lengths[i]), i, epochSeconds, errors);
+        }
+
+        return errorCount;
+    }
+
+    /**
+     * UTF-8 바이트 배열의 구간들로 구성된 일자 목록을 epoch-second(UTC 기준 지역시간) 목록으로 일괄 변환한다.
+     *
+     * @param format 일자형식 (년월일시분초 기본 일자형식만 지원)
+     * @param src UTF-8 바이트 배열
+     * @param offsets 행별 시작위치
+     * @param lengths 행별 길이
+     * @param count 행 수
+     * @param epochSeconds 변환된 epoch-second 목록
+     * @param errors 오류 비트맵
+     *
+     * @return 오류 건수
+     */
+    public static int toEpochSeconds(String format, byte[] src, int[] offsets, int[] lengths, int count, long[] epochSeconds, long[] errors) {
+        final int kind = batchKindOf(format, true);
+        int errorCount = 0;
+
+        for (int i = 0; i < count; i++) {
+            errorCount += putEpochSecond(DateCodec.parse(kind, src, offsets[i], lengths[i]), i, epochSeconds, errors);
+        }
+
+        return errorCount;
+    }
+
+    /**
+     * epoch-day 목록을 주어진 일자형식의 고정길이 문자열로 버퍼에 이어서 기록한다.
+     *
+     * @param format 일자형식 (년월일 기본 일자형식만 지원)
+     * @param epochDays epoch-day 목록
+     * @param from 시작 행
+     * @param count 행 수
+     * @param buf 문자 버퍼
+     * @param off 버퍼 시작위치
+     *
+     * @return 기록 후 버퍼 위치
+     */
+    public static int printEpochDays(String format, int[] epochDays, int from, int count, char[] buf, int off) {
+        final int kind = printKindOf(format, false);
+        int pos = off;
+
+        for (int i = from, end = from + count; i < end; i++) {
+            pos += checkPrinted(DateCodec.printEpoch(kind, epochDays[i], false, buf, pos), format, epochDays[i]);
+        }
+
+        return pos;
+    }
+
+    /**
+     * epoch-day 목록을 주어진 일자형식의 고정길이 문자열로 UTF-8 바이트 버퍼에 이어서 기록한다.
+     *
+     * @param format 일자형식 (년월일 기본 일자형식만 지원)
+     * @param epochDays epoch-day 목록
+     * @param from 시작 행
+     * @param count 행 수
+     * @param buf 바이트 버퍼
+     * @param off 버퍼 시작위치
+     *
+     * @return 기록 후 버퍼 위치
+     */
+    public static int printEpochDays(String format, int[] epochDays, int from, int count, byte[] buf, int off) {
+        final int kind = printKindOf(format, false);
+        int pos = off;
+
+        for (int i = from, end = from + count; i < end; i++) {
+            pos += checkPrinted(DateCodec.printEpoch(kind, epochDays[i], false, buf, pos), format, epochDays[i]);
+        }
+
+        return pos;
+    }
+
+    /**
+     * epoch-second 목록을 주어진 일자형식의 고정길이 문자열로 버퍼에 이어서 기록한다.
+     *
+     * @param format 일자형식 (기본 일자형식만 지원, 년월일 형식이면 일자 부분)
+     * @param epochSeconds epoch-second 목록
+     * @param from 시작 행
+     * @param count 행 수
+     * @param buf 문자 버퍼
+     * @param off 버퍼 시작위치
+     *
+     * @return 기록 후 버퍼 위치
+     */
+    public static int printEpochSeconds(String format, long[] epochSeconds, int from, int count, char[] buf, int off) {
+        final int kind = printKindOf(format, true);
+        int pos = off;
+
+        for (int i = from, end = from + count; i < end; i++) {
+            pos += checkPrinted(DateCodec.printEpoch(kind, epochSeconds[i], true, buf, pos), format, epochSeconds[i]);
+        }
+
+        return pos;
+    }
+
+    /**
+     * epoch-second 목록을 주어진 일자형식의 고정길이 문자열로 UTF-8 바이트 버퍼에 이어서 기록한다.
+     *
+     * @param format 일자형식 (기본 일자형식만 지원, 년월일 형식이면 일자 부분)
+     * @param epochSeconds epoch-second 목록
+     * @param from 시작 행
+     * @param count 행 수
+     * @param buf 바이트 버퍼
+     * @param off 버퍼 시작위치
+     *
+     * @return 기록 후 버퍼 위치
+     */
+    public static int printEpochSeconds(String format, long[] epochSeconds, int from, int count, byte[] buf, int off) {
+        final int kind = printKindOf(format, true);
+        int pos = off;
+
+        for (int i = from, end = from + count; i < end; i++) {
+            pos += checkPrinted(DateCodec.printEpoch(kind, epochSeconds[i], true, buf, pos), format, epochSeconds[i]);
+        }
+
+        return pos;
+    }
+
+    /**
+     * 일괄 변환할 일자형식 구분을 반환한다.
+     *
+     * @param format 일자형식
+     * @param seconds epoch-second 변환 여부
+     *
+     * @return 일자형식 구분
+     */
+    private static int batchKindOf(String format, boolean seconds) {
+        final int kind = DateCodec.kindOf(format);
+
+        if (DateCodec.NONE == kind || (seconds && !DateCodec.hasTime(kind))) {
+            throw new IllegalArgumentException(String.format("일괄 변환을 지원하지 않는 일자형식(%s) 입니다.", format));
+        }
+
+        return kind;
+    }
+
+    /**
+     * 일괄 기록할 일자형식 구분을 반환한다.
+     *
+     * @param format 일자형식
+     * @param seconds epoch-second 기록 여부
+     *
+     * @return 일자형식 구분
+     */
+    private static int printKindOf(String format, boolean seconds) {
+        final int kind = DateCodec.kindOf(format);
+
+        if (DateCodec.NONE == kind || (!seconds && DateCodec.hasTime(kind))) {
+            throw new IllegalArgumentException(String.format("일괄 기록을 지원하지 않는 일자형식(%s) 입니다.", format));
+        }
+
+        return kind;
+    }
+
+    /**
+     * 변환 결과를 epoch-day 목록과 오류 비트맵에 기록한다.
+     *
+     * @param kind 일자형식 구분
+     * @param epoch 변환 결과
+     * @param row 행
+     * @param epochDays epoch-day 목록
+     * @param errors 오류 비트맵
+     *
+     * @return 오류이면 1, 아니면 0
+     */
+    private static int putEpochDay(int kind, long epoch, int row, int[] epochDays, long[] errors) {
+        if (DateCodec.INVALID == epoch) {
+            epochDays[row] = 0;
+            errors[row >>> 6] |= (1L << row);
+            return 1;
+        }
+
+        epochDays[row] = (int)(DateCodec.hasTime(kind) ? Math.floorDiv(epoch, DateCodec.SECONDS_PER_DAY) : epoch);
+        errors[row >>> 6] &= ~(1L << row);
+        return 0;
+    }
+
+    /**
+     * 변환 결과를 epoch-second 목록과 오류 비트맵에 기록한다.
+     *
+     * @param epoch 변환 결과
+     * @param row 행
+     * @param epochSeconds epoch-second 목록
+     * @param errors 오류 비트맵
+     *
+     * @return 오류이면 1, 아니면 0
+     */
+    private static int putEpochSecond(long epoch, int row, long[] epochSeconds, long[] errors) {
+        if (DateCodec.INVALID == epoch) {
+            epochSeconds[row] = 0;
+            errors[row >>> 6] |= (1L << row);
+            return 1;
+        }
+
+        epochSeconds[row] = epoch;
+        errors[row >>> 6] &= ~(1L << row);
+        return 0;
+    }
+
+    /**
+     * 기록 결과를 확인한다.
+     *
+     * @param printed 기록한 길이
+     * @param format 일자형식
+     * @param epoch epoch 값
+     *
+     * @return 기록한 길이
+     */
+    private static int checkPrinted(int printed, String format, long epoch) {
+        if (printed < 0) {
+            throw new IllegalArgumentException(String.format("주어진 형식(%s)으로 기록할 수 없는 일자(%d) 입니다.", format, epoch));
+        }
+
+        return printed;
+    }
+
+    /**
+     * 주어진 일자형식의 일자변환 오브젝트를 반환한다.
+     * 보관소가 가득 찬 경우에는 보관하지 않고 새로 생성한 오브젝트를 반환한다.
+     *
+     * @param format 일자형식
+     *
+     * @return 일자변환 오브젝트
+     */
+    static DateTimeFormatter formatterOf(String format) {
+        DateTimeFormatter formatter = formats.get(format);
+
+        if (null == formatter) {
+            formatter = DateTimeFormatter.ofPattern(format);
+
+            if (formats.size() < MAX_FORMATS) {
+                final DateTimeFormatter prev = formats.putIfAbsent(format, formatter);
+
+                if (null != prev) {
+                    formatter = prev;
+                }
+                else if (formats.size() > MAX_FORMATS) {
+                    // 동시에 추가되어 최대 크기를 넘은 경우 방금 추가한 것을 되돌린다.
+                    formats.remove(format, formatter);
+                }
+            }
+        }
+
+        return formatter;
+    }
+
+    /**
+     * 보관 중인 일자변환 오브젝트 수를 반환한다.
+     *
+     * @return 보관 중인 일자변환 오브젝트 수
+     */
+    static int formatterCount() {
+        return formats.size();
+    }
 }
@@ -0,0 +1,34 @@
+package com.example.demo.core.util;
+
+import java.lang.reflect.Method;
+import java.nio.MappedByteBuffer;
+
+/**
+ * 입출력 관련한 기능을 제공하는 유틸리티이다.
+ *
+ * @author jonghyeon
+ */
+public class IoUtil {
+    private IoUtil() {
+    }
+
+    /**
+     * 매핑을 바로 해제한다. 해제할 수 없는 런타임이면 GC 에 맡긴다.
+     * 해제한 후 버퍼에 접근하면 JVM 이 비정상 종료되므로 더 이상 사용하지 않는 버퍼에만 호출해야 한다.
+     *
+     * @param buffer 매핑한 버퍼
+     */
+    public static void unmap(MappedByteBuffer buffer) {
+        try {
+            final Method cleaner = buffer.getClass().getMethod("cleaner");
+            cleaner.setAccessible(true);
+            final Object instance = cleaner.invoke(buffer);
+            if (null != instance) {
+                instance.getClass().getMethod("clean").invoke(instance);
+            }
+        }
+        catch (ReflectiveOperationException | RuntimeException e) {
+            // Java 9 이상에서는 내부 API 에 접근할 수 없으므로 GC 에 맡긴다.
+        }
+    }
+}
@@ -0,0 +1,339 @@
+package com.example.demo.core.util;
+
+import com.google.common.hash.Hashing;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 미리 인코딩과 압축을 해 둔 변경되지 않는 응답 본문이다.
+ * <p>
+ * 생성 시 본문을 원본(identity), gzip, deflate(zlib) 바이트로 한 번만 만들어 두고 강한 ETag 를 부여한다.
+ * 요청 시에는 Accept-Encoding 에 따라 변형을 골라 Content-Length 와 함께 그대로 쓰며,
+ * If-None-Match 가 일치하면 본문 없이 304 를 반환한다.
+ * 서블릿과 리액티브 서버가 함께 사용하므로 응답 객체에 의존하지 않으며, 각 컨트롤러가 {@link #variantOf(String)} 로 고른 변형의 헤더값과 본문을 쓴다.
+ *
+ * @author jonghyeon
+ */
+public final class PrecompressedContent {
+    /**
+     * 원본 인코딩
+     */
+    private static final int IDENTITY = 0;
+
+    /**
+     * gzip 인코딩
+     */
+    private static final int GZIP = 1;
+
+    /**
+     * deflate 인코딩
+     */
+    private static final int DEFLATE = 2;
+
+    /**
+     * 인코딩별 Content-Encoding 헤더값
+     */
+    private static final String[] ENCODINGS = {null, "gzip", "deflate"};
+
+    /**
+     * 미디어 유형
+     */
+    private final String contentType;
+
+    /**
+     * 인코딩별 본문
+     */
+    private final byte[][] bodies;
+
+    /**
+     * 인코딩별 ETag (변형마다 본문이 다르므로 강한 ETag 도 달라야 한다.)
+     */
+    private final String[] etags;
+
+    private PrecompressedContent(String contentType, byte[] identity) {
+        final String tag = Hashing.sha256().hashBytes(identity).toString().substring(0, 32);
+
+        this.contentType = contentType;
+        this.bodies = new byte[][] {identity, gzip(identity), deflate(identity)};
+        this.etags = new String[] {'"' + tag + '"', '"' + tag + "-gz\"", '"' + tag + "-df\""};
+    }
+
+    /**
+     * 문자열 본문을 UTF-8 로 인코딩하고 압축해 둔다.
+     *
+     * @param contentType 미디어 유형 (charset 포함)
+     * @param body 본문
+     *
+     * @return 미리 압축한 본문
+     */
+    public static PrecompressedContent of(String contentType, String body) {
+        return new PrecompressedContent(contentType, body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 바이트 본문을 압축해 둔다.
+     *
+     * @param contentType 미디어 유형
+     * @param body 본문
+     *
+     * @return 미리 압축한 본문
+     */
+    public static PrecompressedContent of(String contentType, byte[] body) {
+        return new PrecompressedContent(contentType, body.clone());
+    }
+
+    /**
+     * 원본(identity) 본문의 ETag 를 반환한다.
+     *
+     * @return ETag
+     */
+    public String getEtag() {
+        return etags[IDENTITY];
+    }
+
+    /**
+     * 미디어 유형을 반환한다.
+     *
+     * @return 미디어 유형
+     */
+    public String getContentType() {
+        return contentType;
+    }
+
+    /**
+     * Accept-Encoding 에 맞는 변형을 고른다.
+     *
+     * @param acceptEncoding Accept-Encoding 헤더값
+     *
+     * @return 변형 번호
+     */
+    public int variantOf(String acceptEncoding) {
+        return select(acceptEncoding);
+    }
+
+    /**
+     * 변형의 ETag 를 반환한다.
+     *
+     * @param variant 변형 번호
+     *
+     * @return ETag
+     */
+    public String getEtag(int variant) {
+        return etags[variant];
+    }
+
+    /**
+     * 변형의 Content-Encoding 헤더값을 반환한다.
+     *
+     * @param variant 변형 번호
+     *
+     * @return Content-Encoding 헤더값 (원본이면 NULL)
+     */
+    public String getContentEncoding(int variant) {
+        return ENCODINGS[variant];
+    }
+
+    /**
+     * 변형의 본문 길이를 반환한다.
+     *
+     * @param variant 변형 번호
+     *
+     * @return 본문 길이(바이트)
+     */
+    public int getContentLength(int variant) {
+        return bodies[variant].length;
+    }
+
+    /**
+     * 변형의 본문을 복사하지 않고 읽기 전용으로 반환한다.
+     *
+     * @param variant 변형 번호
+     *
+     * @return 본문
+     */
+    public ByteBuffer getBody(int variant) {
+        return ByteBuffer.wrap(bodies[variant]).asReadOnlyBuffer();
+    }
+
+    /**
+     * 변형의 본문을 출력 스트림에 쓴다.
+     *
+     * @param variant 변형 번호
+     * @param out 출력 스트림
+     *
+     * @throws IOException 입출력 예외
+     */
+    public void writeBody(int variant, OutputStream out) throws IOException {
+        out.write(bodies[variant]);
+    }
+
+    /**
+     * If-None-Match 가 어느 한 변형의 ETag 와 일치하는지 여부를 반환한다.
+     *
+     * @param ifNoneMatch If-None-Match 헤더값
+     *
+     * @return 일치하면 참 (304 응답)
+     */
+    public boolean isNotModified(String ifNoneMatch) {
+        return matches(ifNoneMatch);
+    }
+
+    /**
+     * Accept-Encoding 에서 가장 선호도(q)가 높은 인코딩을 고른다. 같으면 gzip, deflate, 원본 순이다.
+     *
+     * @param acceptEncoding Accept-Encoding 헤더값
+     *
+     * @return 인코딩
+     */
+    private static int select(String acceptEncoding) {
+        if (CheckUtil.isNullOrEmpty(acceptEncoding)) {
+            return IDENTITY;
+        }
+
+        // 명시되지 않은 원본은 q=1 로 허용되며, 나머지는 명시되거나 * 로 허용되어야 한다.
+        int gzip = -1;
+        int deflate = -1;
+        int identity = -1;
+        int any = -1;
+
+        final int len = acceptEncoding.length();
+        int pos = 0;
+        while (pos < len) {
+            int end = acceptEncoding.indexOf(',', pos);
+            if (end < 0) {
+                end = len;
+            }
+
+            final int semi = acceptEncoding.indexOf(';', pos);
+            final String coding = acceptEncoding.substring(pos, (semi >= 0 && semi < end) ? semi : end).trim();
+            final int q = (semi >= 0 && semi < end) ? qualityOf(acceptEncoding, semi + 1, end) : 1000;
+
+            if ("gzip".equalsIgnoreCase(coding) || "x-gzip".equalsIgnoreCase(coding)) {
+                gzip = Math.max(gzip, q);
+            }
+            else if ("deflate".equalsIgnoreCase(coding)) {
+                deflate = Math.max(deflate, q);
+            }
+            else if ("identity".equalsIgnoreCase(coding)) {
+                identity = Math.max(identity, q);
+            }
+            else if ("*".equals(coding)) {
+                any = Math.max(any, q);
+            }
+
+            pos = end + 1;
+        }
+
+        gzip = (gzip < 0) ? any : gzip;
+        deflate = (deflate < 0) ? any : deflate;
+        identity = (identity < 0) ? ((any == 0) ? 0 : 1000) : identity;
+
+        if (gzip > 0 && gzip >= deflate && gzip >= identity) {
+            return GZIP;
+        }
+        if (deflate > 0 && deflate >= identity) {
+            return DEFLATE;
+        }
+
+        // 원본까지 거부되더라도 406 대신 원본을 반환한다.
+        return IDENTITY;
+    }
+
+    /**
+     * 파라미터 구간에서 q 값을 천분율로 구한다.
+     *
+     * @param header 헤더값
+     * @param off 시작위치
+     * @param end 종료위치
+     *
+     * @return q 값(0~1000), 형식이 맞지 않으면 1000
+     */
+    private static int qualityOf(String header, int off, int end) {
+        final String param = header.substring(off, end).trim();
+        if (param.length() < 3 || Character.toLowerCase(param.charAt(0)) != 'q' || param.charAt(1) != '=') {
+            return 1000;
+        }
+
+        try {
+            return (int) Math.round(Double.parseDouble(param.substring(2).trim()) * 1000);
+        }
+        catch (NumberFormatException e) {
+            return 1000;
+        }
+    }
+
+    /**
+     * If-None-Match 가 어느 한 변형의 ETag 와 일치하는지 여부를 반환한다. If-None-Match 는 약한 비교를 하므로 W/ 접두어는 무시한다.
+     *
+     * @param ifNoneMatch If-None-Match 헤더값
+     *
+     * @return 일치 여부
+     */
+    private boolean matches(String ifNoneMatch) {
+        if (CheckUtil.isNullOrEmpty(ifNoneMatch)) {
+            return false;
+        }
+
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if ("*".equals(tag)) {
+                return true;
+            }
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            for (String etag : etags) {
+                if (etag.equals(tag)) {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * gzip 으로 압축한다.
+     *
+     * @param src 원본
+     *
+     * @return 압축한 바이트 배열
+     */
+    private static byte[] gzip(byte[] src) {
+        final ByteArrayOutputStream buf = new ByteArrayOutputStream(src.length);
+        try (GZIPOutputStream out = new GZIPOutputStream(buf)) {
+            out.write(src);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return buf.toByteArray();
+    }
+
+    /**
+     * deflate(zlib 형식)로 압축한다.
+     *
+     * @param src 원본
+     *
+     * @return 압축한 바이트 배열
+     */
+    private static byte[] deflate(byte[] src) {
+        final ByteArrayOutputStream buf = new ByteArrayOutputStream(src.length);
+        try (DeflaterOutputStream out = new DeflaterOutputStream(buf)) {
+            out.write(src);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return buf.toByteArray();
+    }
+}
@@ -0,0 +1,240 @@
+package com.example.demo.core.infrastructure.file;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 디렉토리 캐시가 파일시스템 변경을 반영하고 한도에 따라 제거하는지 검사한다.
+ *
+ * @author jonghyeon
+ */
+class DirectoryCacheTest {
+    /**
+     * 감시 이벤트 반영을 기다리는 최대 시간(밀리초)
+     */
+    private static final long WAIT_MILLIS = 10_000L;
+
+    @TempDir
+    Path root;
+
+    private final FileAttributeFetcher fetcher = new FileAttributeFetcher(0, 1, 256, FileAttributeFetcher.Order.DIRECTORY);
+
+    private DirectoryCache cache;
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (null != cache) {
+            cache.stop();
+        }
+        fetcher.stop();
+    }
+
+    /**
+     * 보관 중인 디렉토리의 생성, 변경, 삭제, 이름 변경이 스냅샷에 반영된다.
+     */
+    @Test
+    void reflectsChanges() throws Exception {
+        cache = start(64, 1L << 20);
+        Files.write(root.resolve("a.txt"), new byte[] {1});
+
+        final DirectorySnapshot snapshot = cache.get(root);
+        assertThat(sizes(snapshot)).containsOnlyKeys("a.txt");
+
+        Files.write(root.resolve("b.txt"), new byte[] {1, 2});
+        awaitTrue(() -> sizes(snapshot).containsKey("b.txt"));
+
+        Files.write(root.resolve("a.txt"), new byte[] {1, 2, 3}, StandardOpenOption.APPEND);
+        awaitTrue(() -> Long.valueOf(4L).equals(sizes(snapshot).get("a.txt")));
+
+        Files.delete(root.resolve("b.txt"));
+        awaitTrue(() -> !sizes(snapshot).containsKey("b.txt"));
+
+        Files.move(root.resolve("a.txt"), root.resolve("c.txt"));
+        awaitTrue(() -> sizes(snapshot).keySet().equals(Collections.singleton("c.txt")));
+        assertThat(sizes(snapshot).get("c.txt")).isEqualTo(4L);
+
+        assertThat(cache.get(root)).isSameAs(snapshot);
+        assertThat(cache.getMisses()).isEqualTo(1L);
+        assertThat(cache.getHits()).isEqualTo(1L);
+    }
+
+    /**
+     * 보관 중인 디렉토리가 삭제되면 캐시에서 제거되고, 다시 조회하면 없는 경로이다.
+     */
+    @Test
+    void discardsDeletedDirectory() throws Exception {
+        cache = start(64, 1L << 20);
+        final Path dir = Files.createDirectory(root.resolve("gone"));
+        Files.write(dir.resolve("a.txt"), new byte[] {1});
+
+        assertThat(cache.get(dir)).isNotNull();
+        assertThat(cache.size()).isEqualTo(1);
+
+        Files.delete(dir.resolve("a.txt"));
+        Files.delete(dir);
+        awaitTrue(() -> 0 == cache.size());
+
+        assertThatThrownBy(() -> cache.get(dir)).isInstanceOf(NoSuchFileException.class);
+    }
+
+    /**
+     * 디렉토리 수가 한도를 넘으면 가장 오래 사용하지 않은 디렉토리부터 제거한다.
+     */
+    @Test
+    void evictsByCount() throws Exception {
+        cache = start(2, 1L << 20);
+        final Path first = directory("first", 1);
+        final Path second = directory("second", 1);
+        final Path third = directory("third", 1);
+
+        cache.get(first);
+        cache.get(second);
+        // first 를 최근 사용으로 만들어 second 가 제거되게 한다.
+        cache.get(first);
+        cache.get(third);
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.getEvictions()).isEqualTo(1L);
+
+        final long misses = cache.getMisses();
+        cache.get(first);
+        assertThat(cache.getMisses()).isEqualTo(misses);
+        cache.get(second);
+        assertThat(cache.getMisses()).isEqualTo(misses + 1);
+    }
+
+    /**
+     * 추정 메모리가 한도를 넘으면 가장 오래 사용하지 않은 디렉토리부터 제거한다.
+     */
+    @Test
+    void evictsByBytes() throws Exception {
+        final Path first = directory("first", 10);
+        final Path second = directory("second", 10);
+        cache = start(64, 2000L);
+
+        final DirectorySnapshot snapshot = cache.get(first);
+        assertThat(snapshot.estimatedBytes()).isBetween(1001L, 2000L);
+        cache.get(second);
+
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(cache.estimatedBytes()).isLessThanOrEqualTo(2000L);
+        assertThat(cache.getEvictions()).isEqualTo(1L);
+    }
+
+    /**
+     * 한도보다 큰 디렉토리는 보관하지 않고, 바뀌기 전까지는 다시 조회하지 않는다.
+     */
+    @Test
+    void skipsOversizedDirectoryUntilModified() throws Exception {
+        final Path dir = directory("large", 100);
+        cache = start(64, 2000L);
+
+        assertThat(cache.get(dir)).isNull();
+        assertThat(cache.get(dir)).isNull();
+        assertThat(cache.getMisses()).isEqualTo(1L);
+        assertThat(cache.getSkips()).isEqualTo(1L);
+        assertThat(cache.oversizedSize()).isEqualTo(1);
+        assertThat(cache.size()).isZero();
+
+        // 변경시각이 달라지도록 시간을 둔다.
+        Thread.sleep(20L);
+        for (int i = 0; i < 95; i++) {
+            Files.delete(dir.resolve(String.format("f%02d.txt", i)));
+        }
+
+        assertThat(cache.get(dir)).isNotNull();
+        assertThat(cache.getMisses()).isEqualTo(2L);
+        assertThat(cache.oversizedSize()).isZero();
+    }
+
+    /**
+     * 같은 디렉토리를 동시에 요청해도 한 번만 조회한다.
+     */
+    @Test
+    void loadsOnceUnderContention() throws Exception {
+        final Path dir = directory("shared", 100);
+        cache = start(64, 1L << 20);
+
+        final int threads = 8;
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        final CountDownLatch start = new CountDownLatch(1);
+        try {
+            final List<Future<DirectorySnapshot>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return cache.get(dir);
+                }));
+            }
+            start.countDown();
+
+            final DirectorySnapshot snapshot = futures.get(0).get(1, TimeUnit.MINUTES);
+            for (Future<DirectorySnapshot> future : futures) {
+                assertThat(future.get(1, TimeUnit.MINUTES)).isSameAs(snapshot);
+            }
+        }
+        finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(cache.getMisses()).isEqualTo(1L);
+        assertThat(cache.getHits()).isEqualTo(threads - 1L);
+    }
+
+    private DirectoryCache start(int maxDirectories, long maxBytes) throws IOException {
+        final DirectoryCache created = new DirectoryCache(true, maxDirectories, maxBytes, fetcher);
+        created.start();
+        return created;
+    }
+
+    /**
+     * 파일 수만큼 빈 파일(fNN.txt)이 있는 디렉토리를 만든다.
+     */
+    private Path directory(String name, int files) throws IOException {
+        final Path dir = Files.createDirectory(root.resolve(name));
+        for (int i = 0; i < files; i++) {
+            Files.createFile(dir.resolve(String.format("f%02d.txt", i)));
+        }
+        return dir;
+    }
+
+    private static Map<String, Long> sizes(DirectorySnapshot snapshot) {
+        final Map<String, Long> sizes = new HashMap<>();
+        for (FileEntry entry : snapshot.entries()) {
+            sizes.put(entry.getName(), entry.getSize());
+        }
+        return sizes;
+    }
+
+    /**
+     * 감시 스레드가 이벤트를 반영할 때까지 기다린다.
+     */
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + WAIT_MILLIS;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).as("감시 이벤트 반영 대기").isLessThan(deadline);
+            Thread.sleep(20L);
+        }
+    }
+}
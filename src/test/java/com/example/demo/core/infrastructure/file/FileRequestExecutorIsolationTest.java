@@ -0,0 +1,96 @@
+package com.example.demo.core.infrastructure.file;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+/**
+ * 파일 목록 조회가 멈춰도 다른 요청은 처리되고, 한도를 넘은 파일 목록 요청은 바로 503 으로 거절되는지 검사한다.
+ * 톰캣 요청 스레드를 멈추는 요청 수만큼만 두어, 목록 조회가 요청 스레드를 붙잡으면 다른 요청이 제한시간 안에 처리되지 않게 한다.
+ *
+ * @author jonghyeon
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {"demo.files.async.enabled=true",
+        "demo.files.async.list.queue-size=2", "demo.files.async.list.timeout=0", "demo.limits.enabled=false", "server.tomcat.threads.max=2",
+        "server.tomcat.threads.min-spare=2"})
+class FileRequestExecutorIsolationTest {
+    /**
+     * 응답을 기다리는 최대 시간(초)
+     */
+    private static final long WAIT_SECONDS = 10L;
+
+    /**
+     * 조회할 디렉토리 (목록 조회는 멈추므로 존재하기만 하면 된다.)
+     */
+    private static final String DIR = System.getProperty("java.io.tmpdir");
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @MockBean
+    private FileLister fileLister;
+
+    /**
+     * 목록 조회에 들어온 작업 수, 멈춘 작업을 풀어 주는 신호
+     */
+    private final CountDownLatch entered = new CountDownLatch(2);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+    }
+
+    @Test
+    void blockedListDoesNotStarveOtherRequests() throws Exception {
+        when(fileLister.list(any(Path.class), any(FileQuery.class), any(FileLister.Handler.class))).thenAnswer(invocation -> {
+            final FileLister.Handler handler = invocation.getArgument(2);
+            handler.begin();
+            entered.countDown();
+            release.await();
+            return null;
+        });
+
+        // 한도(2)만큼 목록 조회를 멈춰 둔다.
+        final List<CompletableFuture<ResponseEntity<String>>> blocked = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            blocked.add(CompletableFuture.supplyAsync(() -> restTemplate.getForEntity("/server/files?path={path}", String.class, DIR)));
+        }
+        assertThat(entered.await(WAIT_SECONDS, TimeUnit.SECONDS)).as("목록 조회 작업 시작").isTrue();
+
+        final ResponseEntity<String> rejected = get("/server/files?path={path}");
+        assertThat(rejected.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(rejected.getBody()).contains("list");
+
+        final ResponseEntity<String> info = get("/server/info");
+        assertThat(info.getStatusCode()).isEqualTo(HttpStatus.OK);
+
+        release.countDown();
+        for (CompletableFuture<ResponseEntity<String>> future : blocked) {
+            assertThat(future.get(WAIT_SECONDS, TimeUnit.SECONDS).getStatusCode()).isEqualTo(HttpStatus.OK);
+        }
+    }
+
+    /**
+     * 제한시간 안에 응답을 받는다. 요청 스레드가 묶이면 제한시간이 지나 실패한다.
+     */
+    private ResponseEntity<String> get(String url) throws Exception {
+        return CompletableFuture.supplyAsync(() -> restTemplate.getForEntity(url, String.class, DIR)).get(WAIT_SECONDS, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.demo.core.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 여러 스레드에서 동시에 DateUtil 을 호출해도 DateTimeFormatter 와 같은 결과를 내는지 검사한다.
+ *
+ * @author jonghyeon
+ */
+class DateUtilConcurrencyTest {
+    /**
+     * 동시에 호출하는 스레드 수
+     */
+    private static final int THREADS = 16;
+
+    /**
+     * 스레드당 반복 횟수
+     */
+    private static final int ITERATIONS = 20_000;
+
+    /**
+     * 기본 일자형식 (DateCodec 이 직접 변환하는 형식)
+     */
+    private static final String[] FAST_FORMATS = {DateUtil.DATE_FORMAT_YMD, DateUtil.DATE_FORMAT_YMD_DASH, DateUtil.DATE_FORMAT_YMS, DateUtil.DATE_FORMAT_YMS_DASH};
+
+    /**
+     * 보관소 최대 크기(256)를 넘는 서로 다른 일자형식을 동시에 요청해도 형식에 맞는 오브젝트를 반환하고 보관소가 커지지 않는다.
+     */
+    @Test
+    void formatterOfUnderContention() throws Exception {
+        final int distinct = 1024;
+        final Queue<String> failures = new ConcurrentLinkedQueue<>();
+        final LocalDateTime date = LocalDateTime.of(2020, 2, 29, 13, 45, 59);
+
+        run(() -> {
+            final ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int i = 0; i < ITERATIONS; i++) {
+                final String format = "yyyy'" + random.nextInt(distinct) + "'MMdd HH:mm:ss";
+                final String expected = DateTimeFormatter.ofPattern(format).format(date);
+                final String actual = DateUtil.formatterOf(format).format(date);
+                if (!expected.equals(actual)) {
+                    failures.add(String.format("%s: %s != %s", format, actual, expected));
+                }
+            }
+        });
+
+        assertThat(failures).isEmpty();
+        assertThat(DateUtil.formatterCount()).isLessThanOrEqualTo(256);
+    }
+
+    /**
+     * 기본 일자형식의 변환(문자열, 일자, 일괄 epoch)이 DateTimeFormatter 와 같은 결과를 낸다.
+     */
+    @Test
+    void fastPathsMatchDateTimeFormatter() throws Exception {
+        final Queue<String> failures = new ConcurrentLinkedQueue<>();
+        final long minEpochDay = LocalDate.of(1, 1, 1).toEpochDay();
+        final long maxEpochDay = LocalDate.of(9999, 12, 31).toEpochDay();
+
+        run(() -> {
+            final ThreadLocalRandom random = ThreadLocalRandom.current();
+            final long[] errors = new long[1];
+            final char[] buf = new char[32];
+
+            for (int i = 0; i < ITERATIONS; i++) {
+                final String format = FAST_FORMATS[random.nextInt(FAST_FORMATS.length)];
+                final DateTimeFormatter formatter = DateTimeFormatter.ofPattern(format);
+                final boolean time = DateCodec.hasTime(DateCodec.kindOf(format));
+                final LocalDateTime date = LocalDate.ofEpochDay(random.nextLong(minEpochDay, maxEpochDay + 1)).atStartOfDay()
+                        .plusSeconds(random.nextInt(86400));
+
+                final String expected = formatter.format(date);
+                check(failures, format, "toString", expected, DateUtil.toString(format, date));
+                check(failures, format, "isDate", true, DateUtil.isDate(format, expected));
+
+                if (time) {
+                    check(failures, format, "toDateTime", LocalDateTime.parse(expected, formatter), DateUtil.toDateTime(format, expected));
+                    check(failures, format, "toDate", date, DateUtil.toDate(format, date));
+
+                    final long[] epochSeconds = new long[1];
+                    errors[0] = 0L;
+                    check(failures, format, "toEpochSeconds", 0, DateUtil.toEpochSeconds(format, new CharSequence[] {expected}, epochSeconds, errors));
+                    check(failures, format, "epochSecond", date.toLocalDate().toEpochDay() * 86400L + date.toLocalTime().toSecondOfDay(), epochSeconds[0]);
+                    final int end = DateUtil.printEpochSeconds(format, epochSeconds, 0, 1, buf, 0);
+                    check(failures, format, "printEpochSeconds", expected, new String(buf, 0, end));
+                }
+                else {
+                    check(failures, format, "toDate", LocalDate.parse(expected, formatter), DateUtil.toDate(format, expected));
+                    check(failures, format, "toDate", date.toLocalDate(), DateUtil.toDate(format, date));
+
+                    final int[] epochDays = new int[1];
+                    errors[0] = 0L;
+                    check(failures, format, "toEpochDays", 0, DateUtil.toEpochDays(format, new CharSequence[] {expected}, epochDays, errors));
+                    check(failures, format, "epochDay", (int) date.toLocalDate().toEpochDay(), epochDays[0]);
+                    final int end = DateUtil.printEpochDays(format, epochDays, 0, 1, buf, 0);
+                    check(failures, format, "printEpochDays", expected, new String(buf, 0, end));
+                }
+            }
+        });
+
+        assertThat(failures).isEmpty();
+    }
+
+    /**
+     * 결과가 다르면 실패 목록에 남긴다. 많은 스레드의 실패를 모아 한 번에 보고하기 위해 바로 단언하지 않는다.
+     *
+     * @param failures 실패 목록
+     * @param format 일자형식
+     * @param operation 변환명
+     * @param expected 기대값
+     * @param actual 결과값
+     */
+    private static void check(Queue<String> failures, String format, String operation, Object expected, Object actual) {
+        if (!expected.equals(actual)) {
+            failures.add(String.format("%s %s: %s != %s", format, operation, actual, expected));
+        }
+    }
+
+    /**
+     * 작업을 여러 스레드에서 동시에 시작하여 모두 끝날 때까지 기다린다.
+     *
+     * @param task 작업
+     */
+    private static void run(Runnable task) throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        final CountDownLatch start = new CountDownLatch(1);
+
+        try {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    task.run();
+                    return null;
+                }));
+            }
+            start.countDown();
+
+            for (Future<?> future : futures) {
+                future.get(2, TimeUnit.MINUTES);
+            }
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+}